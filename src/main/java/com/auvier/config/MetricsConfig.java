@@ -0,0 +1,54 @@
+package com.auvier.config;
+
+import com.auvier.enums.OrderStatus;
+import com.auvier.infrastructure.dashboard.DashboardMetrics;
+import com.auvier.infrastructure.payments.PaymentStatusCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Gauges over state the app already keeps, read when /actuator/prometheus is scraped.
+ * HikariCP, JVM and HTTP server meters come from Spring Boot; the timed paths are in ShopMetrics.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Orders per status (PENDING = awaiting payment) and low-stock variants, from the in-memory
+     * dashboard counters, so a scrape never counts tables
+     */
+    @Bean
+    public MeterBinder orderMeters(DashboardMetrics dashboardMetrics) {
+        return registry -> {
+            for (OrderStatus status : OrderStatus.values()) {
+                Gauge.builder("auvier.orders", dashboardMetrics, m -> m.snapshot().ordersByStatus().get(status))
+                        .description("Orders per status")
+                        .tag("status", status.name())
+                        .register(registry);
+            }
+            Gauge.builder("auvier.inventory.low.stock", dashboardMetrics, m -> m.snapshot().lowStockVariants())
+                    .description("Active variants at or below dashboard.low-stock-threshold")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder paymentStatusCacheMeters(PaymentStatusCache cache) {
+        return registry -> {
+            Gauge.builder("cache.size", cache, PaymentStatusCache::size)
+                    .tag("cache", "payment-status")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", cache, PaymentStatusCache::hitCount)
+                    .tag("cache", "payment-status")
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", cache, PaymentStatusCache::missCount)
+                    .tag("cache", "payment-status")
+                    .tag("result", "miss")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package com.auvier.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.resilience.annotation.EnableResilientMethods;
+
+/**
+ * Enables @Retryable / @ConcurrencyLimit on service methods.
+ * Retry advice wraps the transactional proxy, so each attempt runs in a fresh transaction.
+ */
+@Configuration
+@EnableResilientMethods
+public class ResilienceConfig {
+}
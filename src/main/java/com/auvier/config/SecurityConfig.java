@@ -46,6 +46,7 @@ public class SecurityConfig {
                         .requestMatchers("/assets/**", "/uploads/**", "/error", "/403", "/favicon.ico").permitAll()
                         .requestMatchers("/", "/shop", "/shop/**", "/about", "/collections", "/contact", "/faq", "/shipping", "/size-guide", "/careers", "/press").permitAll()
                         .requestMatchers("/api/stripe/webhook").permitAll() // Stripe webhook - no auth
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll() // Served on management.server.port only
                         .requestMatchers("/api/admin/**").hasRole("ADMIN") // Admin API endpoints
                         .requestMatchers("/login", "/register").anonymous()
                         .requestMatchers("/admin/**", "/admin").hasRole("ADMIN")
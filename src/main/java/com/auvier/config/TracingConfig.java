@@ -0,0 +1,27 @@
+package com.auvier.config;
+
+import com.auvier.infrastructure.tracing.TracingInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+/**
+ * Service, repository and payment gateway spans (TracingInterceptor).
+ * Infrastructure role, so the auto-proxy creator that applies @Transactional also applies this advisor;
+ * highest precedence, so a service span includes its transaction's commit.
+ */
+@Configuration(proxyBeanMethods = false)
+public class TracingConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor tracingAdvisor() {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(TracingInterceptor.POINTCUT, new TracingInterceptor());
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
@@ -1,7 +1,11 @@
 package com.auvier.config;
 
+import com.auvier.infrastructure.tracing.ControllerSpanInterceptor;
+import jakarta.persistence.EntityManagerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -11,9 +15,23 @@ import java.nio.file.Paths;
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
 
+    /**
+     * Requests that call the payment gateway. With open-session-in-view the EntityManager keeps its
+     * JDBC connection until the response is written, so these requests would pin a pooled connection
+     * for the whole gateway round trip; they run without it and only borrow connections per transaction.
+     */
+    private static final String[] PAYMENT_PATHS = {
+            "/checkout/create-order", "/checkout/confirm", "/checkout/payment-status"};
+
+    private final EntityManagerFactory entityManagerFactory;
+
     @Value("${file.upload-dir:uploads}")
     private String uploadDir;
 
+    public WebMvcConfig(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         Path uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize();
@@ -22,4 +40,19 @@ public class WebMvcConfig implements WebMvcConfigurer {
         registry.addResourceHandler("/uploads/**")
                 .addResourceLocations(uploadAbsolutePath);
     }
+
+    /**
+     * Controller spans for request tracing (TraceFilter), then open-session-in-view for the pages
+     * (templates still lazy-load associations), minus PAYMENT_PATHS.
+     * Replaces Boot's global interceptor, which is switched off with spring.jpa.open-in-view=false.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ControllerSpanInterceptor());
+
+        OpenEntityManagerInViewInterceptor openEntityManagerInView = new OpenEntityManagerInViewInterceptor();
+        openEntityManagerInView.setEntityManagerFactory(entityManagerFactory);
+        registry.addWebRequestInterceptor(openEntityManagerInView)
+                .excludePathPatterns(PAYMENT_PATHS);
+    }
 }
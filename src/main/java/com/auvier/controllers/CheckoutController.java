@@ -1,27 +1,33 @@
 package com.auvier.controllers;
 
 import com.auvier.dtos.CheckoutDto;
-import com.auvier.dtos.PaymentIntentDto;
-import com.auvier.entities.OrderEntity;
-import com.auvier.entities.OrderItemEntity;
+import com.auvier.dtos.CheckoutResultDto;
 import com.auvier.entities.UserEntity;
-import com.auvier.enums.OrderStatus;
+import com.auvier.exception.InvalidRequestException;
+import com.auvier.exception.PaymentGatewayException;
+import com.auvier.infrastructure.payments.CachedPaymentStatus;
+import com.auvier.infrastructure.services.CheckoutService;
+import com.auvier.infrastructure.services.IdempotencyService;
+import com.auvier.infrastructure.services.OrderService;
 import com.auvier.infrastructure.services.PaymentService;
-import com.auvier.infrastructure.services.ProductVariantService;
+import com.auvier.infrastructure.services.PaymentWebhookService;
 import com.auvier.infrastructure.services.UserService;
 import com.auvier.repositories.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
-import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 @RequiredArgsConstructor
@@ -29,13 +35,19 @@ import java.util.Map;
 public class CheckoutController {
 
     private final PaymentService paymentService;
+    private final CheckoutService checkoutService;
+    private final OrderService orderService;
     private final OrderRepository orderRepository;
     private final UserService userService;
-    private final ProductVariantService productVariantService;
+    private final IdempotencyService idempotencyService;
+    private final PaymentWebhookService paymentWebhookService;
 
     @Value("${stripe.public.key}")
     private String stripePublicKey;
 
+    @Value("${payment.status.wait-timeout:PT25S}")
+    private Duration paymentStatusWaitTimeout;
+
     @GetMapping("/checkout")
     public String checkout(Model model, @AuthenticationPrincipal UserDetails userDetails) {
         model.addAttribute("stripePublicKey", stripePublicKey);
@@ -45,54 +57,29 @@ public class CheckoutController {
 
     @PostMapping("/checkout/create-order")
     @ResponseBody
-    public ResponseEntity<?> createOrder(
+    public ResponseEntity<Object> createOrder(
             @RequestBody CheckoutDto checkoutDto,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @AuthenticationPrincipal UserDetails userDetails) {
 
+        // Double-clicks and client retries share one key: replay instead of a second order + PaymentIntent
+        return idempotencyService.execute("checkout:create-order", userDetails.getUsername(), idempotencyKey,
+                checkoutDto, Object.class, () -> placeOrder(checkoutDto, userDetails));
+    }
+
+    private ResponseEntity<Object> placeOrder(CheckoutDto checkoutDto, UserDetails userDetails) {
         try {
             // Get the logged-in user
-            UserEntity user = userService.findByEmail(userDetails.getUsername())
+            UserEntity user = userService.findByUsername(userDetails.getUsername())
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
-            // Create order
-            OrderEntity order = new OrderEntity();
-            order.setUser(user);
-            order.setStatus(OrderStatus.PENDING);
-            order.setShippingAddress(formatShippingAddress(checkoutDto));
-            order.setTotalAmount(BigDecimal.ZERO);
-
-            BigDecimal totalAmount = BigDecimal.ZERO;
-
-            // Add order items from cart
-            if (checkoutDto.getCartItems() != null) {
-                for (CheckoutDto.CartItemDto cartItem : checkoutDto.getCartItems()) {
-                    var variant = productVariantService.findOne(cartItem.getVariantId());
-                    if (variant != null) {
-                        OrderItemEntity orderItem = new OrderItemEntity();
-                        orderItem.setProductVariant(
-                                productVariantService.findEntityById(cartItem.getVariantId())
-                        );
-                        orderItem.setQuantity(cartItem.getQuantity());
-                        orderItem.setUnitPrice(variant.getPrice());
-                        order.addOrderItem(orderItem);
-
-                        totalAmount = totalAmount.add(
-                                variant.getPrice().multiply(BigDecimal.valueOf(cartItem.getQuantity()))
-                        );
-                    }
-                }
-            }
-
-            order.setTotalAmount(totalAmount);
-            OrderEntity savedOrder = orderRepository.save(order);
-
-            // Create Stripe PaymentIntent
-            PaymentIntentDto paymentIntent = paymentService.createPaymentIntent(savedOrder);
+            // Reserve -> PaymentIntent -> commit, without holding a connection across the gateway call
+            CheckoutResultDto result = checkoutService.placeOrder(user, checkoutDto);
 
             return ResponseEntity.ok(Map.of(
-                    "orderId", savedOrder.getId(),
-                    "clientSecret", paymentIntent.getClientSecret(),
-                    "amount", paymentIntent.getAmount()
+                    "orderId", result.getOrderId(),
+                    "clientSecret", result.getClientSecret(),
+                    "amount", result.getAmount()
             ));
 
         } catch (Exception e) {
@@ -108,15 +95,19 @@ public class CheckoutController {
         String orderId = payload.get("orderId");
 
         try {
+            // The order is the one checkout attached this PaymentIntent to, not whichever id the client sent
+            Long paidOrderId = paymentIntentId == null ? null
+                    : orderRepository.findIdByTransactionId(paymentIntentId).orElse(null);
+            if (paidOrderId == null || (orderId != null && !orderId.equals(paidOrderId.toString()))) {
+                return ResponseEntity.badRequest().body(Map.of("success", false,
+                        "error", "Payment does not belong to this order"));
+            }
+
             boolean success = paymentService.confirmPayment(paymentIntentId);
             if (success) {
-                // Update order status
-                orderRepository.findById(Long.parseLong(orderId)).ifPresent(order -> {
-                    order.setPaymentStatus("paid");
-                    order.setStatus(OrderStatus.PAID);
-                    orderRepository.save(order);
-                });
-                return ResponseEntity.ok(Map.of("success", true, "orderId", orderId));
+                // Validates the transition and publishes the status change in one transaction
+                orderService.markAsPaid(paidOrderId, paymentIntentId);
+                return ResponseEntity.ok(Map.of("success", true, "orderId", paidOrderId));
             } else {
                 return ResponseEntity.badRequest().body(Map.of("success", false, "error", "Payment not confirmed"));
             }
@@ -126,6 +117,49 @@ public class CheckoutController {
         }
     }
 
+    /**
+     * Long-poll for a PaymentIntent's status instead of polling /checkout/confirm.
+     * Without 'after' it answers right away; with the 'version' of the last answer it holds the request
+     * (without a servlet thread) until a webhook changes the status or payment.status.wait-timeout passes,
+     * then answers with the current status either way. Clients loop until 'final' is true or 'declined' is set.
+     */
+    @GetMapping("/checkout/payment-status")
+    @ResponseBody
+    public DeferredResult<ResponseEntity<Object>> paymentStatus(@RequestParam String paymentIntentId,
+                                                                @RequestParam(required = false) Long after) {
+        DeferredResult<ResponseEntity<Object>> result = new DeferredResult<>(paymentStatusWaitTimeout.toMillis());
+        if (after == null) {
+            result.setResult(currentPaymentStatus(paymentIntentId));
+            return result;
+        }
+
+        CompletableFuture<CachedPaymentStatus> update = paymentService.awaitPaymentStatus(paymentIntentId, after);
+        update.thenAccept(status -> result.setResult(ResponseEntity.ok(paymentStatusBody(status))));
+        // Nothing new on this instance: re-read (cache or gateway), the webhook may have gone to another node
+        result.onTimeout(() -> result.setResult(currentPaymentStatus(paymentIntentId)));
+        result.onCompletion(() -> update.cancel(false));
+        return result;
+    }
+
+    private ResponseEntity<Object> currentPaymentStatus(String paymentIntentId) {
+        try {
+            return ResponseEntity.ok(paymentStatusBody(paymentService.getPaymentStatus(paymentIntentId)));
+        } catch (PaymentGatewayException e) {
+            log.error("Error reading payment status {}: {}", paymentIntentId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private static Map<String, Object> paymentStatusBody(CachedPaymentStatus status) {
+        return Map.of(
+                "paymentIntentId", status.paymentIntentId(),
+                "status", status.status(),
+                "declined", status.declined(),
+                "final", status.isFinal(),
+                "version", status.version()
+        );
+    }
+
     @GetMapping("/checkout/success")
     public String checkoutSuccess(@RequestParam(required = false) Long orderId, Model model) {
         if (orderId != null) {
@@ -141,20 +175,16 @@ public class CheckoutController {
     public ResponseEntity<String> handleStripeWebhook(
             @RequestBody String payload,
             @RequestHeader("Stripe-Signature") String sigHeader) {
+        // Only verify + store here; the order is updated on a webhook worker, so Stripe gets its 2xx right away
         try {
-            paymentService.handleWebhookEvent(payload, sigHeader);
-            return ResponseEntity.ok("Webhook processed");
-        } catch (Exception e) {
-            log.error("Webhook error: {}", e.getMessage());
+            boolean stored = paymentWebhookService.receive(payload, sigHeader);
+            return ResponseEntity.ok(stored ? "Webhook received" : "Duplicate event ignored");
+        } catch (InvalidRequestException e) {
             return ResponseEntity.badRequest().body("Webhook error: " + e.getMessage());
+        } catch (Exception e) {
+            // Not stored: a 5xx makes Stripe redeliver it
+            log.error("Webhook error: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().body("Webhook error");
         }
     }
-
-    private String formatShippingAddress(CheckoutDto dto) {
-        return String.format("%s %s\n%s\n%s, %s %s\n%s",
-                dto.getFirstName(), dto.getLastName(),
-                dto.getAddress(),
-                dto.getCity(), dto.getState(), dto.getZipCode(),
-                dto.getCountry());
-    }
 }
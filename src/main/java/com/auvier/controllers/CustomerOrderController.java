@@ -1,5 +1,6 @@
 package com.auvier.controllers;
 
+import com.auvier.dtos.CursorPageDto;
 import com.auvier.dtos.order.OrderSummaryDto;
 import com.auvier.entities.UserEntity;
 import com.auvier.infrastructure.services.OrderService;
@@ -12,8 +13,6 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 
-import java.util.List;
-
 @Controller
 @RequiredArgsConstructor
 public class CustomerOrderController {
@@ -26,8 +25,10 @@ public class CustomerOrderController {
         UserEntity user = userService.findByUsername(userDetails.getUsername())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        List<OrderSummaryDto> orders = orderService.getOrdersForUser(user);
-        model.addAttribute("orders", orders);
+        // First page only, further pages are loaded from /api/orders as the customer scrolls
+        CursorPageDto<OrderSummaryDto> page = orderService.getOrdersForUser(user, null, OrderService.DEFAULT_PAGE_SIZE);
+        model.addAttribute("orders", page.getItems());
+        model.addAttribute("nextCursor", page.getNextCursor());
 
         return "store/orders";
     }
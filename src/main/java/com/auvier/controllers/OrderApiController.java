@@ -1,7 +1,9 @@
 package com.auvier.controllers;
 
+import com.auvier.dtos.CursorPageDto;
 import com.auvier.dtos.order.*;
 import com.auvier.entities.UserEntity;
+import com.auvier.infrastructure.services.IdempotencyService;
 import com.auvier.infrastructure.services.OrderService;
 import com.auvier.infrastructure.services.UserService;
 import jakarta.validation.Valid;
@@ -12,7 +14,6 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -26,35 +27,42 @@ public class OrderApiController {
 
     private final OrderService orderService;
     private final UserService userService;
+    private final IdempotencyService idempotencyService;
 
     // ==================== ORDER CRUD ====================
 
     /**
      * Create a new order from cart items.
+     * Retries carrying the same Idempotency-Key replay the first response.
      */
     @PostMapping
     public ResponseEntity<OrderResponseDto> createOrder(
             @AuthenticationPrincipal UserDetails userDetails,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody OrderCreateDto dto) {
 
         UserEntity user = userService.findByUsername(userDetails.getUsername())
                 .orElseThrow(() -> new IllegalStateException("User not found"));
 
-        OrderResponseDto order = orderService.createOrder(user, dto);
-        return ResponseEntity.status(HttpStatus.CREATED).body(order);
+        return idempotencyService.execute("api:create-order", user.getUsername(), idempotencyKey, dto,
+                OrderResponseDto.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(orderService.createOrder(user, dto)));
     }
 
     /**
-     * Get current user's orders.
+     * Get current user's orders, newest first.
+     * Pass the returned nextCursor as ?cursor= to load the next page.
      */
     @GetMapping
-    public ResponseEntity<List<OrderSummaryDto>> getMyOrders(
-            @AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<CursorPageDto<OrderSummaryDto>> getMyOrders(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + OrderService.DEFAULT_PAGE_SIZE) int limit) {
 
         UserEntity user = userService.findByUsername(userDetails.getUsername())
                 .orElseThrow(() -> new IllegalStateException("User not found"));
 
-        return ResponseEntity.ok(orderService.getOrdersForUser(user));
+        return ResponseEntity.ok(orderService.getOrdersForUser(user, cursor, limit));
     }
 
     /**
@@ -77,7 +85,7 @@ public class OrderApiController {
      * Add item to existing order.
      */
     @PostMapping("/{orderId}/items")
-    public ResponseEntity<OrderResponseDto> addItem(
+    public ResponseEntity<OrderItemChangeDto> addItem(
             @PathVariable Long orderId,
             @Valid @RequestBody OrderItemCreateDto dto) {
 
@@ -88,7 +96,7 @@ public class OrderApiController {
      * Update item quantity.
      */
     @PatchMapping("/{orderId}/items/{itemId}")
-    public ResponseEntity<OrderResponseDto> updateItemQuantity(
+    public ResponseEntity<OrderItemChangeDto> updateItemQuantity(
             @PathVariable Long orderId,
             @PathVariable Long itemId,
             @RequestBody Map<String, Integer> payload) {
@@ -101,7 +109,7 @@ public class OrderApiController {
      * Remove item from order.
      */
     @DeleteMapping("/{orderId}/items/{itemId}")
-    public ResponseEntity<OrderResponseDto> removeItem(
+    public ResponseEntity<OrderItemChangeDto> removeItem(
             @PathVariable Long orderId,
             @PathVariable Long itemId) {
 
@@ -1,14 +1,19 @@
 package com.auvier.controllers.admin;
 
-import com.auvier.entities.AdminActivityLogEntity;
+import com.auvier.dtos.CursorPageDto;
+import com.auvier.dtos.activity.ActivityLogFilterDto;
+import com.auvier.dtos.activity.ActivityLogSummaryDto;
+import com.auvier.infrastructure.activitylog.ActivityLogWriterStats;
 import com.auvier.infrastructure.services.AdminActivityLogService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
 import java.time.LocalDateTime;
@@ -22,23 +27,82 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AdminActivityLogController {
 
+    private static final int MAX_HISTORY_LIMIT = 1000;
+    private static final int MY_ACTIVITY_SIZE = 10;
+
     private final AdminActivityLogService activityLogService;
 
     @GetMapping("/admin/activity")
-    public String viewLogs(Model model) {
-        model.addAttribute("logs", activityLogService.getRecentLogs());
+    public String viewLogs(@ModelAttribute("filter") ActivityLogFilterDto filter,
+                           @RequestParam(required = false) String cursor,
+                           Model model) {
+        CursorPageDto<ActivityLogSummaryDto> page =
+                activityLogService.searchLogs(filter, cursor, AdminActivityLogService.DEFAULT_PAGE_SIZE);
+        model.addAttribute("logs", page.getItems());
+        model.addAttribute("nextCursor", page.getNextCursor());
         return "admin/activity/list";
     }
 
+    /**
+     * Search activity logs, e.g. /api/admin/activity?admin=alice&entityType=Product&from=2026-01-01&q=hoodie.
+     * Pass the returned nextCursor as ?cursor= (with the same filters) to load the next page.
+     */
+    @GetMapping("/api/admin/activity")
+    @ResponseBody
+    public ResponseEntity<CursorPageDto<ActivityLogSummaryDto>> search(
+            @ModelAttribute ActivityLogFilterDto filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + AdminActivityLogService.DEFAULT_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(activityLogService.searchLogs(filter, cursor, limit));
+    }
+
+    @GetMapping("/api/admin/activity/writer-stats")
+    @ResponseBody
+    public ResponseEntity<ActivityLogWriterStats> getWriterStats() {
+        return ResponseEntity.ok(activityLogService.getWriterStats());
+    }
+
+    /**
+     * Activity between two times, including months that were moved to the archive
+     */
+    @GetMapping("/api/admin/activity/history")
+    @ResponseBody
+    public ResponseEntity<List<Map<String, Object>>> getHistory(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String admin,
+            @RequestParam(defaultValue = "200") int limit) {
+        if (from.isAfter(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<Map<String, Object>> result = activityLogService
+                .getLogsBetween(from, to, admin, Math.clamp(limit, 1, MAX_HISTORY_LIMIT)).stream()
+                .map(log -> {
+                    Map<String, Object> map = new HashMap<>();
+                    map.put("id", log.getId());
+                    map.put("adminUsername", log.getAdminUsername());
+                    map.put("action", log.getAction());
+                    map.put("entityType", log.getEntityType());
+                    map.put("entityId", log.getEntityId());
+                    map.put("entityName", log.getEntityName());
+                    map.put("description", log.getDescription());
+                    map.put("changesDetail", log.getChangesDetail());
+                    map.put("timestamp", log.getTimestamp());
+                    return map;
+                })
+                .collect(Collectors.toList());
+
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/api/admin/my-activity")
     @ResponseBody
     public ResponseEntity<List<Map<String, Object>>> getMyActivity(Authentication authentication) {
-        String username = authentication.getName();
-        List<AdminActivityLogEntity> logs = activityLogService.getLogsByAdmin(username);
+        ActivityLogFilterDto filter = ActivityLogFilterDto.builder().admin(authentication.getName()).build();
+        // The 10 most recent, limited in the query
+        List<ActivityLogSummaryDto> logs = activityLogService.searchLogs(filter, null, MY_ACTIVITY_SIZE).getItems();
 
-        // Limit to 10 most recent and format for frontend
         List<Map<String, Object>> result = logs.stream()
-                .limit(10)
                 .map(log -> {
                     Map<String, Object> map = new HashMap<>();
                     map.put("id", log.getId());
@@ -60,7 +124,7 @@ public class AdminActivityLogController {
         return ResponseEntity.ok(result);
     }
 
-    private String formatDescription(AdminActivityLogEntity log) {
+    private String formatDescription(ActivityLogSummaryDto log) {
         String actionVerb = switch (log.getAction()) {
             case "CREATE" -> "Created";
             case "UPDATE" -> "Updated";
@@ -1,16 +1,22 @@
 package com.auvier.controllers.admin;
 
+import com.auvier.infrastructure.dashboard.DashboardMetrics;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 
 @Controller
 @RequestMapping("/admin")
+@RequiredArgsConstructor
 public class AdminController {
 
+    private final DashboardMetrics dashboardMetrics;
+
     @GetMapping
-    public String dashboard() {
+    public String dashboard(Model model) {
+        model.addAttribute("metrics", dashboardMetrics.snapshot());
         return "admin/dashboard";
     }
 }
-
@@ -0,0 +1,91 @@
+package com.auvier.controllers.admin;
+
+import com.auvier.dtos.export.UserExportFilterDto;
+import com.auvier.dtos.export.VariantExportFilterDto;
+import com.auvier.dtos.order.OrderFilterDto;
+import com.auvier.enums.ExportFormat;
+import com.auvier.infrastructure.services.AdminActivityLogService;
+import com.auvier.infrastructure.services.ExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.function.ToLongFunction;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * File downloads of orders, users and inventory, e.g. /api/admin/export/orders?status=PAID&format=CSV&gzip=true.
+ * The file is written straight to the response while the rows are read, so large exports start
+ * downloading right away and never sit in memory. gzip=true sends a .gz file.
+ * An export that fails midway aborts the download instead of ending it, so a partial file is never
+ * mistaken for a complete one.
+ */
+@RestController
+@RequestMapping("/api/admin/export")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminExportController {
+
+    private final ExportService exportService;
+    private final AdminActivityLogService activityLogService;
+
+    @GetMapping("/orders")
+    public void exportOrders(@ModelAttribute OrderFilterDto filter,
+                             @RequestParam(defaultValue = "CSV") ExportFormat format,
+                             @RequestParam(defaultValue = "false") boolean gzip,
+                             HttpServletResponse response) throws IOException {
+        download(response, "Order", "orders", format, gzip, out -> exportService.exportOrders(filter, format, out));
+    }
+
+    @GetMapping("/users")
+    public void exportUsers(@ModelAttribute UserExportFilterDto filter,
+                            @RequestParam(defaultValue = "CSV") ExportFormat format,
+                            @RequestParam(defaultValue = "false") boolean gzip,
+                            HttpServletResponse response) throws IOException {
+        download(response, "User", "users", format, gzip, out -> exportService.exportUsers(filter, format, out));
+    }
+
+    @GetMapping("/variants")
+    public void exportVariants(@ModelAttribute VariantExportFilterDto filter,
+                               @RequestParam(defaultValue = "CSV") ExportFormat format,
+                               @RequestParam(defaultValue = "false") boolean gzip,
+                               HttpServletResponse response) throws IOException {
+        download(response, "ProductVariant", "inventory", format, gzip, out -> exportService.exportVariants(filter, format, out));
+    }
+
+    private void download(HttpServletResponse response, String entityType, String name, ExportFormat format,
+                          boolean gzip, ToLongFunction<OutputStream> export) throws IOException {
+        String fileName = name + "-" + LocalDate.now() + "." + format.getExtension() + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip" : format.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(fileName).build().toString());
+
+        OutputStream out = gzip
+                ? new GZIPOutputStream(response.getOutputStream(), 64 * 1024)
+                : response.getOutputStream();
+        long rows;
+        try {
+            rows = export.applyAsLong(out);
+        } catch (RuntimeException e) {
+            // Never close the stream here: that ends the body (and writes the gzip trailer), so the
+            // client would get a truncated file that looks complete. Rethrown, the container closes
+            // the connection without ending the response once bytes have gone out; before that,
+            // the buffered start of the file is dropped and the usual error response is sent
+            log.warn("Export to {} failed, aborting the download: {}", fileName, e.getMessage());
+            if (!response.isCommitted()) {
+                response.reset();
+            }
+            throw e;
+        }
+        out.close();
+
+        log.info("Exported {} rows to {}", rows, fileName);
+        activityLogService.log("EXPORT", entityType, null, fileName, rows + " rows exported");
+    }
+}
@@ -0,0 +1,50 @@
+package com.auvier.controllers.admin;
+
+import com.auvier.dtos.imports.CatalogImportResultDto;
+import com.auvier.enums.ImportFormat;
+import com.auvier.exception.InvalidRequestException;
+import com.auvier.infrastructure.services.AdminActivityLogService;
+import com.auvier.infrastructure.services.CatalogImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Bulk catalog import, e.g. curl -F file=@catalog.csv.gz /api/admin/import/catalog.
+ * The format follows the file name (.csv or .jsonl / .ndjson, optionally .gz) unless ?format= is given.
+ */
+@RestController
+@RequestMapping("/api/admin/import")
+@RequiredArgsConstructor
+public class AdminImportController {
+
+    private final CatalogImportService catalogImportService;
+    private final AdminActivityLogService activityLogService;
+
+    /**
+     * Create or update products and variants. Always 200 with a report; rejected rows are listed by line.
+     */
+    @PostMapping("/catalog")
+    public ResponseEntity<CatalogImportResultDto> importCatalog(@RequestParam("file") MultipartFile file,
+                                                                @RequestParam(required = false) ImportFormat format) throws IOException {
+        if (file.isEmpty()) {
+            throw new InvalidRequestException("The file is empty");
+        }
+        ImportFormat resolved = format != null ? format : ImportFormat.fromFileName(file.getOriginalFilename());
+
+        CatalogImportResultDto result;
+        try (InputStream in = file.getInputStream()) {
+            result = catalogImportService.importCatalog(in, resolved);
+        }
+
+        activityLogService.log("IMPORT", "Product", null, file.getOriginalFilename(),
+                result.getRows() + " rows: " + result.getProductsCreated() + " products created, "
+                        + result.getProductsUpdated() + " updated, " + result.getVariantsCreated() + " variants created, "
+                        + result.getVariantsUpdated() + " updated, " + result.getFailed() + " failed");
+        return ResponseEntity.ok(result);
+    }
+}
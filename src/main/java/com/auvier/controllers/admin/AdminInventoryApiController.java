@@ -0,0 +1,36 @@
+package com.auvier.controllers.admin;
+
+import com.auvier.dtos.inventory.StockSyncDto;
+import com.auvier.dtos.inventory.StockSyncResultDto;
+import com.auvier.infrastructure.services.AdminActivityLogService;
+import com.auvier.infrastructure.services.InventoryService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST API for the warehouse stock feed.
+ */
+@RestController
+@RequestMapping("/api/admin/inventory")
+@RequiredArgsConstructor
+public class AdminInventoryApiController {
+
+    private final InventoryService inventoryService;
+    private final AdminActivityLogService activityLogService;
+
+    /**
+     * Set (ABSOLUTE) or change (DELTA) the stock of many SKUs, e.g.
+     * {"mode":"ABSOLUTE","items":[{"sku":"LS-BLU-M","quantity":40}]}.
+     * Always 200 with a report; unknown SKUs are reported, not thrown. One activity entry per sync.
+     */
+    @PostMapping("/stock-sync")
+    public ResponseEntity<StockSyncResultDto> syncStock(@Valid @RequestBody StockSyncDto dto) {
+        StockSyncResultDto result = inventoryService.syncStock(dto);
+        activityLogService.log("STOCK_SYNC", "ProductVariant", null, dto.getMode().name(),
+                result.getReceived() + " SKUs: " + result.getUpdated() + " updated, " + result.getUnchanged()
+                        + " unchanged, " + result.getRejected() + " rejected");
+        return ResponseEntity.ok(result);
+    }
+}
@@ -0,0 +1,51 @@
+package com.auvier.controllers.admin;
+
+import com.auvier.dtos.CursorPageDto;
+import com.auvier.dtos.order.BulkStatusUpdateDto;
+import com.auvier.dtos.order.BulkStatusUpdateResultDto;
+import com.auvier.dtos.order.OrderFilterDto;
+import com.auvier.dtos.order.OrderSummaryDto;
+import com.auvier.infrastructure.services.AdminActivityLogService;
+import com.auvier.infrastructure.services.OrderService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST API for the admin order browser.
+ * Filters, sorting and keyset pagination all run in the database.
+ */
+@RestController
+@RequestMapping("/api/admin/orders")
+@RequiredArgsConstructor
+public class AdminOrderApiController {
+
+    private final OrderService orderService;
+    private final AdminActivityLogService activityLogService;
+
+    /**
+     * Search orders, e.g. /api/admin/orders?status=PAID&from=2026-01-01&sort=TOTAL_AMOUNT&direction=DESC.
+     * Pass the returned nextCursor as ?cursor= (with the same filters) to load the next page.
+     */
+    @GetMapping
+    public ResponseEntity<CursorPageDto<OrderSummaryDto>> search(
+            @ModelAttribute OrderFilterDto filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + OrderService.DEFAULT_PAGE_SIZE) int limit) {
+
+        return ResponseEntity.ok(orderService.searchOrders(filter, cursor, limit));
+    }
+
+    /**
+     * Move a batch of orders to SHIPPED or DELIVERED.
+     * Always 200 with a per-order report; invalid transitions are reported, not thrown.
+     */
+    @PostMapping("/bulk-status")
+    public ResponseEntity<BulkStatusUpdateResultDto> bulkUpdateStatus(@Valid @RequestBody BulkStatusUpdateDto dto) {
+        BulkStatusUpdateResultDto result = orderService.bulkUpdateStatus(dto.getOrderIds(), dto.getStatus());
+        activityLogService.log("BULK_STATUS", "Order", null, dto.getStatus().name(),
+                result.getSucceeded() + " updated, " + result.getFailed() + " failed");
+        return ResponseEntity.ok(result);
+    }
+}
@@ -0,0 +1,46 @@
+package com.auvier.controllers.admin;
+
+import com.auvier.dtos.report.SalesReportFilterDto;
+import com.auvier.dtos.report.SalesSeriesDto;
+import com.auvier.infrastructure.services.AdminActivityLogService;
+import com.auvier.infrastructure.services.SalesReportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * REST API for admin sales reports.
+ * Reads the daily sales rollups only, so the cost depends on the range, not on the number of orders.
+ */
+@RestController
+@RequestMapping("/api/admin/reports")
+@RequiredArgsConstructor
+public class AdminReportApiController {
+
+    private final SalesReportService salesReportService;
+    private final AdminActivityLogService activityLogService;
+
+    /**
+     * Sales time series, e.g. /api/admin/reports/sales?from=2026-01-01&to=2026-03-31&granularity=WEEK&categoryId=3
+     */
+    @GetMapping("/sales")
+    public ResponseEntity<SalesSeriesDto> getSales(@ModelAttribute SalesReportFilterDto filter) {
+        return ResponseEntity.ok(salesReportService.getSalesSeries(filter));
+    }
+
+    /**
+     * Rebuild the rollups of a range of days from the orders (backfill / repair)
+     */
+    @PostMapping("/sales/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildSales(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        int days = salesReportService.rebuildRollups(from, to);
+        activityLogService.log("REBUILD", "SalesReport", null, from + " to " + to, days + " days rebuilt");
+        return ResponseEntity.ok(Map.of("from", from, "to", to, "days", days));
+    }
+}
@@ -1,5 +1,6 @@
 package com.auvier.controllers.admin;
 
+import com.auvier.infrastructure.tracing.TraceContext;
 import jakarta.servlet.RequestDispatcher;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
@@ -9,8 +10,6 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.RequestMapping;
 
-import java.util.UUID;
-
 /**
  * Custom error controller to display Thymeleaf error pages
  * instead of Spring Boot's default whitelabel error page.
@@ -25,7 +24,7 @@ public class CustomErrorController implements ErrorController {
         Object message = request.getAttribute(RequestDispatcher.ERROR_MESSAGE);
         Object exception = request.getAttribute(RequestDispatcher.ERROR_EXCEPTION);
 
-        String traceId = generateTraceId();
+        String traceId = TraceContext.traceId(request);
 
         int statusCode = 500;
         if (status != null) {
@@ -63,9 +62,5 @@ public class CustomErrorController implements ErrorController {
             }
         };
     }
-
-    private String generateTraceId() {
-        return UUID.randomUUID().toString().substring(0, 8);
-    }
 }
 
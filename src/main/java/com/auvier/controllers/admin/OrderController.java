@@ -1,7 +1,11 @@
 package com.auvier.controllers.admin;
 
+import com.auvier.dtos.CursorPageDto;
 import com.auvier.dtos.order.*;
+import com.auvier.enums.OrderSortField;
 import com.auvier.enums.OrderStatus;
+import com.auvier.exception.InvalidRequestException;
+import com.auvier.infrastructure.services.AdminActivityLogService;
 import com.auvier.infrastructure.services.OrderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -11,6 +15,7 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -20,6 +25,7 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final AdminActivityLogService activityLogService;
 
     @ModelAttribute("orderStatuses")
     public List<OrderStatus> populateStatuses() {
@@ -29,8 +35,14 @@ public class OrderController {
     // ==================== LIST & VIEW ====================
 
     @GetMapping
-    public String list(Model model) {
-        model.addAttribute("orders", orderService.getAllOrders());
+    public String list(@ModelAttribute("filter") OrderFilterDto filter,
+                       @RequestParam(required = false) String cursor,
+                       Model model) {
+        CursorPageDto<OrderSummaryDto> page = orderService.searchOrders(filter, cursor, OrderService.DEFAULT_PAGE_SIZE);
+        model.addAttribute("orders", page.getItems());
+        model.addAttribute("nextCursor", page.getNextCursor());
+        model.addAttribute("sortFields", OrderSortField.values());
+        model.addAttribute("bulkStatuses", OrderService.BULK_TARGET_STATUSES);
         return "admin/orders/list";
     }
 
@@ -68,6 +80,30 @@ public class OrderController {
         return "redirect:/admin/orders/" + id;
     }
 
+    /**
+     * Bulk status change from the list page: checked rows plus any IDs pasted into the text box.
+     */
+    @PostMapping("/bulk-status")
+    public String bulkUpdateStatus(@RequestParam(required = false) List<Long> orderIds,
+                                   @RequestParam(required = false) String orderIdList,
+                                   @RequestParam OrderStatus status,
+                                   RedirectAttributes redirectAttributes) {
+        List<Long> ids = new ArrayList<>(orderIds != null ? orderIds : List.of());
+        try {
+            ids.addAll(parseOrderIds(orderIdList));
+            BulkStatusUpdateResultDto result = orderService.bulkUpdateStatus(ids, status);
+            activityLogService.log("BULK_STATUS", "Order", null, status.name(),
+                    result.getSucceeded() + " updated, " + result.getFailed() + " failed");
+
+            redirectAttributes.addFlashAttribute("bulkResult", result);
+            redirectAttributes.addFlashAttribute(result.getFailed() == 0 ? "success" : "error",
+                    result.getSucceeded() + " order(s) moved to " + status + ", " + result.getFailed() + " failed");
+        } catch (InvalidRequestException e) {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+        }
+        return "redirect:/admin/orders";
+    }
+
     // ==================== QUICK STATUS ACTIONS ====================
 
     @PostMapping("/{id}/confirm")
@@ -170,4 +206,19 @@ public class OrderController {
         }
         return "redirect:/admin/orders";
     }
+
+    // ==================== HELPERS ====================
+
+    private List<Long> parseOrderIds(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        try {
+            return Arrays.stream(text.trim().split("[\\s,;]+"))
+                    .map(s -> Long.valueOf(s.startsWith("#") ? s.substring(1) : s))
+                    .toList();
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("Order IDs must be numbers separated by commas or new lines");
+        }
+    }
 }
@@ -0,0 +1,41 @@
+package com.auvier.controllers.admin;
+
+import com.auvier.infrastructure.services.AdminActivityLogService;
+import com.auvier.infrastructure.services.PaymentWebhookService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * REST API for replaying stored Stripe webhook events, e.g. after fixing the cause of a failure.
+ */
+@RestController
+@RequestMapping("/api/admin/payments/webhooks")
+@RequiredArgsConstructor
+public class PaymentWebhookAdminController {
+
+    private final PaymentWebhookService paymentWebhookService;
+    private final AdminActivityLogService activityLogService;
+
+    /**
+     * Queue one stored event again; it is applied asynchronously on the webhook workers.
+     */
+    @PostMapping("/{eventId}/replay")
+    public ResponseEntity<Map<String, Object>> replay(@PathVariable String eventId) {
+        paymentWebhookService.replay(eventId);
+        activityLogService.log("REPLAY", "PaymentWebhookEvent", null, eventId, "Webhook event queued for replay");
+        return ResponseEntity.accepted().body(Map.of("eventId", eventId, "queued", true));
+    }
+
+    /**
+     * Queue every event that exhausted its retries.
+     */
+    @PostMapping("/replay-failed")
+    public ResponseEntity<Map<String, Object>> replayFailed() {
+        int queued = paymentWebhookService.replayFailed();
+        activityLogService.log("REPLAY", "PaymentWebhookEvent", null, null, queued + " failed webhook events queued");
+        return ResponseEntity.accepted().body(Map.of("queued", queued));
+    }
+}
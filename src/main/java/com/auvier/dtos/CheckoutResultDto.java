@@ -0,0 +1,16 @@
+package com.auvier.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckoutResultDto {
+    private Long orderId;
+    private String paymentIntentId;
+    private String clientSecret;
+    // In cents
+    private Long amount;
+}
@@ -0,0 +1,40 @@
+package com.auvier.dtos.activity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Filters for the admin activity log search (all optional).
+ *
+ * Why this structure:
+ * - Each filter has an index that also serves the (timestamp, id) keyset order (see V8 migration)
+ * - Dates are inclusive days, converted to a [from, to + 1 day) timestamp range,
+ *   which also limits the search to the partitions of those months
+ * - Free text is a case-insensitive substring match on description and entity name (trigram indexes)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityLogFilterDto {
+
+    // Exact admin username
+    private String admin;
+
+    private String entityType;
+    private String action;
+    private Long entityId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    private String q;
+}
@@ -0,0 +1,33 @@
+package com.auvier.dtos.activity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the activity log listings.
+ *
+ * Why needed:
+ * - Listings never show the previous/new value JSON, which is most of a row's size
+ * - Selected as a projection, so those TEXT columns are not read at all
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityLogSummaryDto {
+
+    private Long id;
+    private LocalDateTime timestamp;
+    private String adminUsername;
+    private String action;
+    private String entityType;
+    private Long entityId;
+    private String entityName;
+    private String description;
+    private String changesDetail;
+    private String ipAddress;
+}
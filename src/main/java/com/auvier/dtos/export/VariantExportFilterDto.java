@@ -0,0 +1,23 @@
+package com.auvier.dtos.export;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filters for the inventory (variant) export (all optional).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VariantExportFilterDto {
+
+    private Long productId;
+    private Long categoryId;
+    private Boolean active;
+
+    // Only variants with stock at or below this
+    private Integer maxStock;
+}
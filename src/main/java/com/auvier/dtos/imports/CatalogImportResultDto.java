@@ -0,0 +1,46 @@
+package com.auvier.dtos.imports;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO reporting the outcome of a catalog import.
+ *
+ * Why this structure:
+ * - Counts up front for the summary
+ * - One entry per rejected row (by line number in the file), so the file can be fixed and imported again;
+ *   rows that were not rejected are already saved
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogImportResultDto {
+
+    private long rows;
+    private long productsCreated;
+    private long productsUpdated;
+    private long variantsCreated;
+    private long variantsUpdated;
+    private long failed;
+    private List<RowError> errors;
+
+    /**
+     * True when there were more errors than listed
+     */
+    private boolean errorsTruncated;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String sku;
+        private String message;
+    }
+}
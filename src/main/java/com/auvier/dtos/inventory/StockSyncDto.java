@@ -0,0 +1,48 @@
+package com.auvier.dtos.inventory;
+
+import com.auvier.enums.StockSyncMode;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for a warehouse stock feed: stock levels or changes for many SKUs at once (admin operation).
+ *
+ * Why this structure:
+ * - The warehouse sends full snapshots (ABSOLUTE) or movements (DELTA), never a mix
+ * - SKUs rather than ids, since that is what the warehouse knows
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockSyncDto {
+
+    @NotNull(message = "Mode is required")
+    private StockSyncMode mode;
+
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = 50000, message = "At most 50000 items per request")
+    private List<@Valid Item> items;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+
+        @NotBlank(message = "SKU is required")
+        private String sku;
+
+        @NotNull(message = "Quantity is required")
+        private Integer quantity;
+    }
+}
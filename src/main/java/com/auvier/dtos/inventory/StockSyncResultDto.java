@@ -0,0 +1,41 @@
+package com.auvier.dtos.inventory;
+
+import com.auvier.enums.StockSyncMode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO reporting the outcome of a stock sync.
+ *
+ * Why this structure:
+ * - Counts up front; a full snapshot mostly leaves stock unchanged
+ * - Entries only for the SKUs that need attention: rejected ones, and levels that had to be
+ *   raised to 0 (fewer units than open orders hold)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockSyncResultDto {
+
+    private StockSyncMode mode;
+    private int received;
+    private int updated;
+    private int unchanged;
+    private int rejected;
+    private List<Issue> issues;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Issue {
+        private String sku;
+        private boolean rejected;
+        private String message;
+    }
+}
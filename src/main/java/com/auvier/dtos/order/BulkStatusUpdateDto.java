@@ -0,0 +1,33 @@
+package com.auvier.dtos.order;
+
+import com.auvier.enums.OrderStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for moving many orders to the same status at once (admin operation).
+ *
+ * Why this structure:
+ * - Fulfillment works in batches ("ship these 500 PAID orders")
+ * - One target status per request keeps the transition rules simple to check
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateDto {
+
+    @NotEmpty(message = "At least one order is required")
+    @Size(max = 5000, message = "At most 5000 orders per request")
+    private List<Long> orderIds;
+
+    @NotNull(message = "Status is required")
+    private OrderStatus status;
+}
@@ -0,0 +1,39 @@
+package com.auvier.dtos.order;
+
+import com.auvier.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO reporting the outcome of a bulk status update.
+ *
+ * Why this structure:
+ * - One entry per requested order, so failures can be retried or handled individually
+ * - Counts up front for the summary banner
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateResultDto {
+
+    private OrderStatus targetStatus;
+    private int succeeded;
+    private int failed;
+    private List<Entry> results;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private Long orderId;
+        private OrderStatus previousStatus;
+        private boolean success;
+        private String message;
+    }
+}
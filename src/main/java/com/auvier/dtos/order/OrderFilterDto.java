@@ -0,0 +1,48 @@
+package com.auvier.dtos.order;
+
+import com.auvier.enums.OrderSortField;
+import com.auvier.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Filters for the admin order browser (all optional).
+ *
+ * Why this structure:
+ * - Only filters backed by an index or a unique key (status, created_at, total_amount, username/email)
+ * - Dates are inclusive days, converted to a [from, to + 1 day) timestamp range
+ * - Sort is limited to indexed columns so keyset pagination stays an index scan
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderFilterDto {
+
+    private OrderStatus status;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    // Exact username or email
+    private String customer;
+
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+
+    @Builder.Default
+    private OrderSortField sort = OrderSortField.CREATED_AT;
+
+    @Builder.Default
+    private Sort.Direction direction = Sort.Direction.DESC;
+}
@@ -0,0 +1,36 @@
+package com.auvier.dtos.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO returned by item operations (add, update quantity, remove).
+ *
+ * Why this structure:
+ * - Only the changed line and the new order totals, not the whole order
+ * - Editing a large order doesn't reload and re-map every other line
+ * - item is null when the line was removed; removedItemId is set instead
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderItemChangeDto {
+
+    private Long orderId;
+
+    // The added/updated line (null when removed)
+    private OrderItemResponseDto item;
+    private Long removedItemId;
+
+    // Change applied to the order total by this operation
+    private BigDecimal subtotalDelta;
+
+    // Order totals after the change
+    private BigDecimal totalAmount;
+    private Integer itemCount;
+}
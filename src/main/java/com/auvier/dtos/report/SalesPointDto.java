@@ -0,0 +1,25 @@
+package com.auvier.dtos.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Sales of one bucket of a time series.
+ * period is the first day of the bucket (the Monday of a week, the 1st of a month).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesPointDto {
+
+    private LocalDate period;
+    private long orders;
+    private long units;
+    private BigDecimal revenue;
+}
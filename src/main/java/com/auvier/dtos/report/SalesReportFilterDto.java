@@ -0,0 +1,36 @@
+package com.auvier.dtos.report;
+
+import com.auvier.enums.SalesGranularity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Parameters of a sales time series.
+ *
+ * - from / to are inclusive days (required)
+ * - At most one of variantId, productId, categoryId; none means all sales
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesReportFilterDto {
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    @Builder.Default
+    private SalesGranularity granularity = SalesGranularity.DAY;
+
+    private Long variantId;
+    private Long productId;
+    private Long categoryId;
+}
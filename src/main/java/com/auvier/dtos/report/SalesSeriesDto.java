@@ -0,0 +1,25 @@
+package com.auvier.dtos.report;
+
+import com.auvier.enums.SalesGranularity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Sales time series: one point per bucket from 'from' to 'to', buckets without sales included as zeros.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesSeriesDto {
+
+    private SalesGranularity granularity;
+    private LocalDate from;
+    private LocalDate to;
+    private List<SalesPointDto> points;
+}
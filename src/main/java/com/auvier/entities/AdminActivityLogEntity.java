@@ -15,7 +15,8 @@ import java.time.LocalDateTime;
 public class AdminActivityLogEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "admin_activity_log_id")
+    @SequenceGenerator(name = "admin_activity_log_id", sequenceName = "admin_activity_logs_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -67,6 +68,9 @@ public class AdminActivityLogEntity {
 
     @PrePersist
     protected void onCreate() {
-        timestamp = LocalDateTime.now();
+        // Written in the background: keep the time of the action, not of the insert
+        if (timestamp == null) {
+            timestamp = LocalDateTime.now();
+        }
     }
 }
@@ -0,0 +1,61 @@
+package com.auvier.entities;
+
+import com.auvier.enums.IdempotencyStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency-Key claimed by a client request.
+ * The first request stores its response here; retries with the same key replay it
+ * instead of creating another order / PaymentIntent.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyKeyEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Endpoint the key belongs to (e.g. "checkout:create-order")
+    @Column(nullable = false, length = 60)
+    private String scope;
+
+    // Username of the caller, keys are never shared between users
+    @Column(nullable = false, length = 100)
+    private String owner;
+
+    @Column(name = "idempotency_key", nullable = false, length = 255)
+    private String idempotencyKey;
+
+    // SHA-256 of the request body, a key reused with a different body is rejected
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private IdempotencyStatus status;
+
+    @Column(name = "response_status")
+    private Integer responseStatus;
+
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // End of the IN_PROGRESS claim's lease; after it a retry may take the claim over (null once COMPLETED)
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+}
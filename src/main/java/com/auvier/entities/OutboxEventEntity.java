@@ -0,0 +1,61 @@
+package com.auvier.entities;
+
+import com.auvier.enums.OutboxStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Domain event written in the same transaction as the change it describes.
+ * OutboxRelay picks pending rows up and hands them to the subscribers, in aggregateVersion
+ * order per aggregate.
+ */
+@Entity
+@Table(name = "outbox_events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEventEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_id")
+    @SequenceGenerator(name = "outbox_event_id", sequenceName = "outbox_events_seq", allocationSize = 50)
+    private Long id;
+
+    // e.g. "Order"
+    @Column(name = "aggregate_type", nullable = false, length = 40)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    // 1, 2, 3... per aggregate in commit order (ids are pooled and do not follow it)
+    @Column(name = "aggregate_version", nullable = false)
+    private Long aggregateVersion;
+
+    @Column(name = "event_type", nullable = false, length = 40)
+    private String eventType;
+
+    // JSON
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+}
@@ -0,0 +1,56 @@
+package com.auvier.entities;
+
+import com.auvier.enums.WebhookEventStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A verified Stripe webhook event, stored before it is acknowledged.
+ * Keyed by the Stripe event id, so redeliveries of the same event are dropped on insert.
+ */
+@Entity
+@Table(name = "payment_webhook_events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentWebhookEventEntity {
+
+    // Stripe event id (evt_...)
+    @Id
+    @Column(name = "event_id", length = 255)
+    private String eventId;
+
+    @Column(name = "event_type", nullable = false, length = 100)
+    private String eventType;
+
+    // From the PaymentIntent metadata; events of one order are processed one at a time, in arrival order
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "payment_intent_id", length = 255)
+    private String paymentIntentId;
+
+    // Raw event JSON, kept for audit and debugging as sent by Stripe
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private WebhookEventStatus status = WebhookEventStatus.RECEIVED;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+}
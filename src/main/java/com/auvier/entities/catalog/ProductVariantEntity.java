@@ -12,7 +12,8 @@ import java.math.BigDecimal;
 @NoArgsConstructor
 public class ProductVariantEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_variant_id")
+    @SequenceGenerator(name = "product_variant_id", sequenceName = "product_variants_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
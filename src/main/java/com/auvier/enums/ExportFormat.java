@@ -0,0 +1,14 @@
+package com.auvier.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    CSV("text/csv;charset=UTF-8", "csv"),
+    JSON("application/json", "json");
+
+    private final String contentType;
+    private final String extension;
+}
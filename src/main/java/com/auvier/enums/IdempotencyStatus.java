@@ -0,0 +1,5 @@
+package com.auvier.enums;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS, COMPLETED
+}
@@ -0,0 +1,17 @@
+package com.auvier.enums;
+
+public enum ImportFormat {
+    CSV,
+    JSONL;
+
+    /**
+     * Format implied by a file name: .jsonl / .ndjson (optionally .gz) is JSON Lines, anything else CSV
+     */
+    public static ImportFormat fromFileName(String fileName) {
+        String name = fileName == null ? "" : fileName.toLowerCase();
+        if (name.endsWith(".gz")) {
+            name = name.substring(0, name.length() - 3);
+        }
+        return name.endsWith(".jsonl") || name.endsWith(".ndjson") ? JSONL : CSV;
+    }
+}
@@ -0,0 +1,13 @@
+package com.auvier.enums;
+
+/**
+ * Domain events published to the outbox for an order.
+ */
+public enum OrderEventType {
+    ORDER_CREATED,
+    ORDER_STATUS_CHANGED,
+    PAYMENT_SUCCEEDED,
+    PAYMENT_FAILED,
+    // Paid after it was cancelled: the order stays cancelled and the payment has to be refunded
+    PAYMENT_REFUND_REQUIRED
+}
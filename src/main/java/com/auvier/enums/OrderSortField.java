@@ -0,0 +1,5 @@
+package com.auvier.enums;
+
+public enum OrderSortField {
+    CREATED_AT, TOTAL_AMOUNT
+}
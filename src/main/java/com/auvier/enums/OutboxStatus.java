@@ -0,0 +1,8 @@
+package com.auvier.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    PROCESSED,
+    // Gave up after outbox.max-attempts; kept for inspection
+    FAILED
+}
@@ -0,0 +1,34 @@
+package com.auvier.enums;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Bucket size of a sales time series. Weeks start on Monday (as PostgreSQL date_trunc).
+ */
+public enum SalesGranularity {
+    DAY, WEEK, MONTH;
+
+    /**
+     * First day of the bucket containing the given day
+     */
+    public LocalDate truncate(LocalDate day) {
+        return switch (this) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    /**
+     * First day of the next bucket
+     */
+    public LocalDate next(LocalDate start) {
+        return switch (this) {
+            case DAY -> start.plusDays(1);
+            case WEEK -> start.plusWeeks(1);
+            case MONTH -> start.plusMonths(1);
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.auvier.enums;
+
+public enum StockSyncMode {
+    /**
+     * Quantities are units on hand in the warehouse; units reserved by open orders are subtracted
+     */
+    ABSOLUTE,
+    /**
+     * Quantities are added to the current stock (negative to remove)
+     */
+    DELTA
+}
@@ -0,0 +1,9 @@
+package com.auvier.enums;
+
+public enum WebhookEventStatus {
+    // Stored and acknowledged, waiting for (or retrying on) a webhook worker
+    RECEIVED,
+    PROCESSED,
+    // Gave up after payment.webhook.max-attempts; replay from the admin API
+    FAILED
+}
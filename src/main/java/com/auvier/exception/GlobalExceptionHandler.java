@@ -1,6 +1,7 @@
 package com.auvier.exception;
 
 import com.auvier.dtos.errors.ErrorResponseDto;
+import com.auvier.infrastructure.tracing.TraceContext;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.annotation.Order;
@@ -16,7 +17,6 @@ import org.springframework.web.servlet.NoHandlerFoundException;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
 
 /**
  * Handles exceptions for REST API requests.
@@ -31,7 +31,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponseDto> handleResourceNotFound(
             ResourceNotFoundException ex, HttpServletRequest request) {
 
-        String traceId = generateTraceId();
+        String traceId = TraceContext.traceId(request);
         log.warn("TraceId: {} | Resource not found: {}", traceId, ex.getMessage());
 
         return buildErrorResponse(HttpStatus.NOT_FOUND, "Not Found",
@@ -42,18 +42,29 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponseDto> handleDuplicateResource(
             DuplicateResourceException ex, HttpServletRequest request) {
 
-        String traceId = generateTraceId();
+        String traceId = TraceContext.traceId(request);
         log.warn("TraceId: {} | Duplicate resource: {}", traceId, ex.getMessage());
 
         return buildErrorResponse(HttpStatus.CONFLICT, "Conflict",
                 ex.getMessage(), request.getRequestURI(), traceId);
     }
 
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<ErrorResponseDto> handleIdempotencyConflict(
+            IdempotencyConflictException ex, HttpServletRequest request) {
+
+        String traceId = TraceContext.traceId(request);
+        log.warn("TraceId: {} | Idempotency conflict: {}", traceId, ex.getMessage());
+
+        return buildErrorResponse(HttpStatus.CONFLICT, "Conflict",
+                ex.getMessage(), request.getRequestURI(), traceId);
+    }
+
     @ExceptionHandler(BusinessException.class)
     public ResponseEntity<ErrorResponseDto> handleBusinessException(
             BusinessException ex, HttpServletRequest request) {
 
-        String traceId = generateTraceId();
+        String traceId = TraceContext.traceId(request);
         log.warn("TraceId: {} | Business error: {}", traceId, ex.getMessage());
 
         return buildErrorResponse(HttpStatus.BAD_REQUEST, "Bad Request",
@@ -64,7 +75,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponseDto> handleUnauthorized(
             UnauthorizedException ex, HttpServletRequest request) {
 
-        String traceId = generateTraceId();
+        String traceId = TraceContext.traceId(request);
         log.warn("TraceId: {} | Unauthorized: {}", traceId, ex.getMessage());
 
         return buildErrorResponse(HttpStatus.UNAUTHORIZED, "Unauthorized",
@@ -75,7 +86,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponseDto> handleForbidden(
             ForbiddenException ex, HttpServletRequest request) {
 
-        String traceId = generateTraceId();
+        String traceId = TraceContext.traceId(request);
         log.warn("TraceId: {} | Forbidden: {}", traceId, ex.getMessage());
 
         return buildErrorResponse(HttpStatus.FORBIDDEN, "Forbidden",
@@ -86,7 +97,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponseDto> handleInvalidRequest(
             InvalidRequestException ex, HttpServletRequest request) {
 
-        String traceId = generateTraceId();
+        String traceId = TraceContext.traceId(request);
         log.warn("TraceId: {} | Invalid request: {}", traceId, ex.getMessage());
 
         return buildErrorResponse(HttpStatus.BAD_REQUEST, "Bad Request",
@@ -97,7 +108,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponseDto> handleValidationErrors(
             MethodArgumentNotValidException ex, HttpServletRequest request) {
 
-        String traceId = generateTraceId();
+        String traceId = TraceContext.traceId(request);
         BindingResult result = ex.getBindingResult();
 
         List<ErrorResponseDto.FieldError> fieldErrors = result.getFieldErrors()
@@ -124,7 +135,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponseDto> handleDataIntegrity(
             DataIntegrityViolationException ex, HttpServletRequest request) {
 
-        String traceId = generateTraceId();
+        String traceId = TraceContext.traceId(request);
         log.error("TraceId: {} | Data integrity violation: {}", traceId, ex.getMessage());
 
         return buildErrorResponse(HttpStatus.CONFLICT, "Data Conflict",
@@ -135,7 +146,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponseDto> handleMethodNotSupported(
             HttpRequestMethodNotSupportedException ex, HttpServletRequest request) {
 
-        String traceId = generateTraceId();
+        String traceId = TraceContext.traceId(request);
         log.warn("TraceId: {} | Method not supported: {}", traceId, ex.getMethod());
 
         return buildErrorResponse(HttpStatus.METHOD_NOT_ALLOWED, "Method Not Allowed",
@@ -147,7 +158,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponseDto> handleNoHandlerFound(
             NoHandlerFoundException ex, HttpServletRequest request) {
 
-        String traceId = generateTraceId();
+        String traceId = TraceContext.traceId(request);
         log.warn("TraceId: {} | No handler found: {}", traceId, ex.getRequestURL());
 
         return buildErrorResponse(HttpStatus.NOT_FOUND, "Not Found",
@@ -158,7 +169,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponseDto> handleIllegalArgument(
             IllegalArgumentException ex, HttpServletRequest request) {
 
-        String traceId = generateTraceId();
+        String traceId = TraceContext.traceId(request);
         log.warn("TraceId: {} | Illegal argument: {}", traceId, ex.getMessage());
 
         return buildErrorResponse(HttpStatus.BAD_REQUEST, "Bad Request",
@@ -169,7 +180,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponseDto> handleGenericException(
             Exception ex, HttpServletRequest request) {
 
-        String traceId = generateTraceId();
+        String traceId = TraceContext.traceId(request);
         log.error("TraceId: {} | Unexpected error: ", traceId, ex);
 
         return buildErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR,
@@ -191,9 +202,5 @@ public class GlobalExceptionHandler {
 
         return ResponseEntity.status(status).body(errorDto);
     }
-
-    private String generateTraceId() {
-        return UUID.randomUUID().toString().substring(0, 8);
-    }
 }
 
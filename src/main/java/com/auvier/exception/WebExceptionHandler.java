@@ -1,5 +1,6 @@
 package com.auvier.exception;
 
+import com.auvier.infrastructure.tracing.TraceContext;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.annotation.Order;
@@ -9,8 +10,6 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.NoHandlerFoundException;
 
-import java.util.UUID;
-
 /**
  * Handles exceptions for web/HTML requests (Thymeleaf views).
  * Returns error pages instead of JSON responses.
@@ -33,7 +32,7 @@ public class WebExceptionHandler {
             return null; // Let GlobalExceptionHandler handle API requests
         }
 
-        String traceId = generateTraceId();
+        String traceId = TraceContext.traceId(request);
         log.warn("TraceId: {} | Web - Resource not found: {}", traceId, ex.getMessage());
 
         return createErrorView("error/404", HttpStatus.NOT_FOUND, ex.getMessage(), traceId);
@@ -45,7 +44,7 @@ public class WebExceptionHandler {
             return null;
         }
 
-        String traceId = generateTraceId();
+        String traceId = TraceContext.traceId(request);
         log.warn("TraceId: {} | Web - Forbidden: {}", traceId, ex.getMessage());
 
         return createErrorView("error/403", HttpStatus.FORBIDDEN, ex.getMessage(), traceId);
@@ -57,7 +56,7 @@ public class WebExceptionHandler {
             return null;
         }
 
-        String traceId = generateTraceId();
+        String traceId = TraceContext.traceId(request);
         log.warn("TraceId: {} | Web - Unauthorized: {}", traceId, ex.getMessage());
 
         return createErrorView("error/403", HttpStatus.UNAUTHORIZED, ex.getMessage(), traceId);
@@ -69,7 +68,7 @@ public class WebExceptionHandler {
             return null;
         }
 
-        String traceId = generateTraceId();
+        String traceId = TraceContext.traceId(request);
         log.warn("TraceId: {} | Web - Bad request: {}", traceId, ex.getMessage());
 
         return createErrorView("error/400", HttpStatus.BAD_REQUEST, ex.getMessage(), traceId);
@@ -81,7 +80,7 @@ public class WebExceptionHandler {
             return null;
         }
 
-        String traceId = generateTraceId();
+        String traceId = TraceContext.traceId(request);
         log.warn("TraceId: {} | Web - No handler found: {}", traceId, ex.getRequestURL());
 
         return createErrorView("error/404", HttpStatus.NOT_FOUND, "Page not found", traceId);
@@ -93,7 +92,7 @@ public class WebExceptionHandler {
             return null;
         }
 
-        String traceId = generateTraceId();
+        String traceId = TraceContext.traceId(request);
         log.error("TraceId: {} | Web - Unexpected error: ", traceId, ex);
 
         return createErrorView("error/500", HttpStatus.INTERNAL_SERVER_ERROR,
@@ -109,9 +108,5 @@ public class WebExceptionHandler {
         mav.addObject("traceId", traceId);
         return mav;
     }
-
-    private String generateTraceId() {
-        return UUID.randomUUID().toString().substring(0, 8);
-    }
 }
 
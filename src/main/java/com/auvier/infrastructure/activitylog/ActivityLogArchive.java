@@ -0,0 +1,222 @@
+package com.auvier.infrastructure.activitylog;
+
+import com.auvier.entities.AdminActivityLogEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Archived months of admin_activity_logs: one gzip-compressed JSON Lines file per month
+ * (admin_activity_logs_2025_01.jsonl.gz) in admin.activity-log.archive-dir, one object per row
+ * keyed by column name.
+ *
+ * Files are written once and never changed: a month is written to a temporary file and moved into
+ * place only when complete, so a file under its final name always holds the whole month.
+ */
+@Component
+@Slf4j
+public class ActivityLogArchive {
+
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final String SUFFIX = ".jsonl.gz";
+    private static final TypeReference<Map<String, Object>> ROW = new TypeReference<>() {
+    };
+
+    private final JsonMapper jsonMapper;
+    private final Path directory;
+
+    public ActivityLogArchive(JsonMapper jsonMapper,
+                              @Value("${admin.activity-log.archive-dir:archive/activity-logs}") String directory) {
+        this.jsonMapper = jsonMapper;
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+    }
+
+    public boolean contains(YearMonth month) {
+        return Files.exists(file(month));
+    }
+
+    /**
+     * Start writing a month. Nothing is visible until {@link MonthWriter#commit()}; closing without it
+     * discards what was written.
+     */
+    public MonthWriter create(YearMonth month) {
+        if (contains(month)) {
+            throw new IllegalStateException("Activity log archive for " + month + " already exists");
+        }
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, fileName(month), ".tmp");
+            return new MonthWriter(month, temp);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create activity log archive for " + month, e);
+        }
+    }
+
+    /**
+     * Rows of an archived month, in the order they were exported; empty if the month is not archived.
+     * The stream holds the file open: close it.
+     */
+    public Stream<AdminActivityLogEntity> read(YearMonth month) {
+        Path file = file(month);
+        if (!Files.exists(file)) {
+            return Stream.empty();
+        }
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8));
+            return reader.lines()
+                    .map(line -> toEntity(jsonMapper.readValue(line, ROW)))
+                    .onClose(() -> {
+                        try {
+                            reader.close();
+                        } catch (IOException e) {
+                            log.warn("Could not close activity log archive {}", file, e);
+                        }
+                    });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read activity log archive " + file, e);
+        }
+    }
+
+    /**
+     * Number of rows in an archived month
+     */
+    public long count(YearMonth month) {
+        try (Stream<AdminActivityLogEntity> rows = read(month)) {
+            return rows.count();
+        }
+    }
+
+    private Path file(YearMonth month) {
+        return directory.resolve(fileName(month) + SUFFIX);
+    }
+
+    private static String fileName(YearMonth month) {
+        return "admin_activity_logs_" + month.format(MONTH);
+    }
+
+    private static AdminActivityLogEntity toEntity(Map<String, Object> row) {
+        AdminActivityLogEntity entry = new AdminActivityLogEntity();
+        entry.setId(asLong(row.get("id")));
+        entry.setAdminUsername((String) row.get("admin_username"));
+        entry.setAdminDisplayName((String) row.get("admin_display_name"));
+        entry.setAction((String) row.get("action"));
+        entry.setEntityType((String) row.get("entity_type"));
+        entry.setEntityId(asLong(row.get("entity_id")));
+        entry.setEntityName((String) row.get("entity_name"));
+        entry.setDescription((String) row.get("description"));
+        entry.setDetails((String) row.get("details"));
+        entry.setChangesDetail((String) row.get("changes_detail"));
+        entry.setPreviousValues((String) row.get("previous_values"));
+        entry.setNewValues((String) row.get("new_values"));
+        entry.setIpAddress((String) row.get("ip_address"));
+        entry.setUserAgent((String) row.get("user_agent"));
+        entry.setSessionId((String) row.get("session_id"));
+        entry.setTimestamp(Optional.ofNullable((String) row.get("timestamp")).map(LocalDateTime::parse).orElse(null));
+        return entry;
+    }
+
+    private static Long asLong(Object value) {
+        return value != null ? ((Number) value).longValue() : null;
+    }
+
+    /**
+     * Writes one month; see {@link #create(YearMonth)}
+     */
+    public final class MonthWriter implements Closeable {
+
+        private final YearMonth month;
+        private final Path temp;
+        private final BufferedWriter out;
+        private long rows;
+        private boolean committed;
+
+        private MonthWriter(YearMonth month, Path temp) throws IOException {
+            this.month = month;
+            this.temp = temp;
+            this.out = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(temp), 64 * 1024), StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Append a row, keyed by column name
+         */
+        public void write(Map<String, Object> row) {
+            Map<String, Object> values = new LinkedHashMap<>(row);
+            // ISO local date-times, the same text LocalDateTime.parse reads back
+            values.replaceAll((column, value) -> switch (value) {
+                case Timestamp timestamp -> timestamp.toLocalDateTime().toString();
+                case LocalDateTime dateTime -> dateTime.toString();
+                case null, default -> value;
+            });
+            try {
+                out.write(jsonMapper.writeValueAsString(values));
+                out.newLine();
+                rows++;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write activity log archive for " + month, e);
+            }
+        }
+
+        public long rows() {
+            return rows;
+        }
+
+        /**
+         * Flush to disk and publish the file under its final name
+         */
+        public void commit() {
+            try {
+                out.close();
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    channel.force(true);
+                }
+                Files.move(temp, file(month), StandardCopyOption.ATOMIC_MOVE);
+                committed = true;
+                log.info("Archived {} admin activity log rows for {} to {}", rows, month, file(month));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write activity log archive for " + month, e);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (committed) {
+                return;
+            }
+            try {
+                out.close();
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                log.warn("Could not remove unfinished activity log archive {}", temp, e);
+            }
+        }
+    }
+}
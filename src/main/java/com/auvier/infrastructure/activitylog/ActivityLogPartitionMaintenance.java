@@ -0,0 +1,216 @@
+package com.auvier.infrastructure.activitylog;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps admin_activity_logs partitioned by month (see V7 migration):
+ *
+ * - Creates the partitions for the current month and admin.activity-log.partitions-ahead months ahead
+ * - Months older than admin.activity-log.retention-months are exported to ActivityLogArchive and their
+ *   partition is dropped. The export is a consistent snapshot, and the drop re-checks the row count
+ *   under an exclusive lock, so a row is never dropped without being in the archive
+ *
+ * Runs at startup and every admin.activity-log.maintenance-interval, on its own thread rather than the
+ * shared @Scheduled pool: exporting a month can take minutes, and the outbox relay and webhook recovery
+ * must not wait behind it. Does nothing if the table is not partitioned (e.g. a schema created by
+ * Hibernate in tests).
+ * One instance is enough: set admin.activity-log.maintenance.enabled=false on the others.
+ */
+@Component
+@ConditionalOnProperty(name = "admin.activity-log.maintenance.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class ActivityLogPartitionMaintenance {
+
+    private static final String TABLE = "admin_activity_logs";
+    private static final Pattern PARTITION = Pattern.compile(TABLE + "_(\\d{4})_(\\d{2})");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ActivityLogArchive archive;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final ScheduledExecutorService executor;
+
+    @Value("${admin.activity-log.maintenance-interval:PT6H}")
+    private Duration interval;
+
+    @Value("${admin.activity-log.retention-months:12}")
+    private int retentionMonths;
+
+    @Value("${admin.activity-log.partitions-ahead:2}")
+    private int partitionsAhead;
+
+    public ActivityLogPartitionMaintenance(JdbcTemplate jdbcTemplate, ActivityLogArchive archive,
+                                           PlatformTransactionManager transactionManager,
+                                           @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.archive = archive;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Row count and export must see the same rows
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTransaction.setReadOnly(true);
+        Thread.Builder thread = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform();
+        this.executor = Executors.newSingleThreadScheduledExecutor(thread.name("activity-log-maintenance").factory());
+    }
+
+    @PostConstruct
+    public void start() {
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                maintain();
+            } catch (RuntimeException e) {
+                // A task that throws is never run again; log and try next time
+                log.error("Activity log partition maintenance failed: {}", e.getMessage(), e);
+            }
+        }, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Cancels the next run and interrupts a running one. An export cut short is redone next time,
+     * since a partition is only dropped once its archive is complete.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public void maintain() {
+        if (!isPartitioned()) {
+            log.debug("{} is not partitioned, skipping partition maintenance", TABLE);
+            return;
+        }
+
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= partitionsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+
+        YearMonth oldestKept = current.minusMonths(retentionMonths);
+        for (YearMonth month : partitions()) {
+            if (month.isBefore(oldestKept)) {
+                archiveAndDrop(month);
+            }
+        }
+
+        Boolean strayRows = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + TABLE + "_default)", Boolean.class);
+        if (Boolean.TRUE.equals(strayRows)) {
+            log.warn("{}_default holds rows outside the monthly partitions; they are neither archived nor dropped", TABLE);
+        }
+    }
+
+    /**
+     * Export one month to the archive and drop its partition.
+     */
+    void archiveAndDrop(YearMonth month) {
+        String partition = partitionName(month);
+
+        long exported;
+        if (archive.contains(month)) {
+            // An earlier run wrote the file but stopped before the drop
+            exported = archive.count(month);
+        } else {
+            exported = export(month, partition);
+        }
+
+        boolean dropped = Boolean.TRUE.equals(transactionTemplate.execute(tx -> {
+            jdbcTemplate.execute("LOCK TABLE " + partition + " IN ACCESS EXCLUSIVE MODE");
+            Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + partition, Long.class);
+            if (rows == null || rows != exported) {
+                return false;
+            }
+            jdbcTemplate.execute("DROP TABLE " + partition);
+            return true;
+        }));
+
+        if (dropped) {
+            log.info("Dropped partition {} after archiving {} rows", partition, exported);
+        } else {
+            log.error("Partition {} no longer matches its archive ({} rows archived); left in place", partition, exported);
+        }
+    }
+
+    private long export(YearMonth month, String partition) {
+        Long rows = snapshotTransaction.execute(tx -> {
+            try (ActivityLogArchive.MonthWriter out = archive.create(month)) {
+                ColumnMapRowMapper columns = new ColumnMapRowMapper();
+                // Streamed with a cursor (needs the transaction), not loaded into memory
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(
+                            "SELECT * FROM " + partition + " ORDER BY timestamp, id");
+                    statement.setFetchSize(EXPORT_FETCH_SIZE);
+                    return statement;
+                }, resultSet -> {
+                    out.write(columns.mapRow(resultSet, 0));
+                });
+                out.commit();
+                return out.rows();
+            }
+        });
+        return rows != null ? rows : 0;
+    }
+
+    private void createPartition(YearMonth month) {
+        try {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month)
+                    + " PARTITION OF " + TABLE
+                    + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+        } catch (DataAccessException e) {
+            // Typically rows for that month already sit in the default partition
+            log.error("Could not create partition for {}: {}", month, e.getMessage());
+        }
+    }
+
+    private List<YearMonth> partitions() {
+        List<YearMonth> months = new ArrayList<>();
+        jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid"
+                        + " WHERE i.inhparent = to_regclass(?) ORDER BY c.relname", String.class, TABLE)
+                .forEach(name -> {
+                    Matcher matcher = PARTITION.matcher(name);
+                    if (matcher.matches()) {
+                        months.add(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+                    }
+                });
+        return months;
+    }
+
+    private boolean isPartitioned() {
+        try {
+            return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(?))",
+                    Boolean.class, TABLE));
+        } catch (DataAccessException e) {
+            return false; // not PostgreSQL
+        }
+    }
+
+    private static String partitionName(YearMonth month) {
+        return TABLE + "_" + month.format(PARTITION_SUFFIX);
+    }
+}
@@ -0,0 +1,195 @@
+package com.auvier.infrastructure.activitylog;
+
+import com.auvier.entities.AdminActivityLogEntity;
+import com.auvier.repositories.AdminActivityLogRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes admin activity log entries in the background, so admin actions do not wait for the insert.
+ *
+ * - offer() never blocks: entries go into a bounded lock-free buffer (admin.activity-log.buffer-capacity).
+ *   When it is full, offer() returns false and the caller writes the entry itself (backpressure)
+ * - One writer thread flushes in batches of admin.activity-log.batch-size (JDBC batch inserts, ids come
+ *   from the sequence), as soon as a batch is full or admin.activity-log.flush-interval after the last flush
+ * - A failed batch is retried admin.activity-log.max-attempts times, then dropped and counted
+ * - On shutdown the buffer is drained, for up to admin.activity-log.shutdown-timeout
+ */
+@Component
+@Slf4j
+public class ActivityLogWriter {
+
+    private final AdminActivityLogRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final int capacity;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final boolean virtualThreads;
+
+    // ConcurrentLinkedQueue is lock-free but unbounded; size enforces the bound
+    private final Queue<AdminActivityLogEntity> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private volatile boolean accepting = true;
+    private volatile boolean stopping;
+    private Thread writer;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private final AtomicLong lastFlushNanos = new AtomicLong();
+
+    @Value("${admin.activity-log.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${admin.activity-log.shutdown-timeout:PT10S}")
+    private Duration shutdownTimeout;
+
+    public ActivityLogWriter(AdminActivityLogRepository repository,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${admin.activity-log.buffer-capacity:10000}") int capacity,
+                             @Value("${admin.activity-log.batch-size:50}") int batchSize,
+                             @Value("${admin.activity-log.flush-interval:PT0.2S}") Duration flushInterval,
+                             @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (capacity < 1 || batchSize < 1) {
+            throw new IllegalStateException("admin.activity-log.buffer-capacity and batch-size must be at least 1");
+        }
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.virtualThreads = virtualThreads;
+    }
+
+    @PostConstruct
+    public void start() {
+        Thread.Builder builder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform();
+        writer = builder.name("activity-log-writer").start(this::run);
+    }
+
+    /**
+     * Queue an entry for writing.
+     * @return false if the buffer is full or the writer is shutting down; the entry was not taken
+     */
+    public boolean offer(AdminActivityLogEntity entry) {
+        if (!accepting) {
+            rejected.increment();
+            return false;
+        }
+        int queued = size.incrementAndGet();
+        if (queued > capacity) {
+            size.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        buffer.add(entry);
+        enqueued.increment();
+        if (queued >= batchSize) {
+            LockSupport.unpark(writer);
+        }
+        return true;
+    }
+
+    public ActivityLogWriterStats stats() {
+        return new ActivityLogWriterStats(size.get(), capacity, enqueued.sum(), written.sum(),
+                rejected.sum(), dropped.sum(), failedBatches.sum(),
+                TimeUnit.NANOSECONDS.toMillis(lastFlushNanos.get()));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // From here on callers write synchronously; the writer empties what is already queued
+        accepting = false;
+        stopping = true;
+        LockSupport.unpark(writer);
+        writer.join(shutdownTimeout);
+        if (writer.isAlive()) {
+            log.warn("Activity log writer did not drain within {}, {} entries not written", shutdownTimeout, size.get());
+            writer.interrupt();
+        } else {
+            flush(); // an offer that raced with shutdown may have landed after the writer's last check
+        }
+    }
+
+    // ==================== WRITER THREAD ====================
+
+    private void run() {
+        long nextFlush = System.nanoTime() + flushInterval.toNanos();
+        // Interrupted only when the shutdown drain times out
+        while ((!stopping || size.get() > 0) && !Thread.currentThread().isInterrupted()) {
+            long wait = nextFlush - System.nanoTime();
+            if (!stopping && size.get() < batchSize && wait > 0) {
+                LockSupport.parkNanos(this, wait);
+                continue; // woken early by a full batch, by shutdown, or spuriously: re-check
+            }
+            flush();
+            nextFlush = System.nanoTime() + flushInterval.toNanos();
+        }
+    }
+
+    private void flush() {
+        List<AdminActivityLogEntity> batch = new ArrayList<>(batchSize);
+        AdminActivityLogEntity entry;
+        while ((entry = buffer.poll()) != null) {
+            size.decrementAndGet();
+            batch.add(entry);
+            if (batch.size() == batchSize) {
+                write(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    private void write(List<AdminActivityLogEntity> batch) {
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            long start = System.nanoTime();
+            try {
+                transactionTemplate.executeWithoutResult(tx -> repository.saveAll(batch));
+                lastFlushNanos.set(System.nanoTime() - start);
+                written.add(batch.size());
+                return;
+            } catch (RuntimeException e) {
+                failedBatches.increment();
+                // Ids were drawn for the failed insert; let the retry insert again instead of merging
+                batch.forEach(entry -> entry.setId(null));
+                log.warn("Activity log batch of {} failed, attempt {}/{}: {}", batch.size(), attempt, maxAttempts, e.getMessage());
+                if (attempt < maxAttempts && !backOff(attempt)) {
+                    break;
+                }
+            }
+        }
+        dropped.add(batch.size());
+        log.error("Dropped {} admin activity log entries: {}", batch.size(),
+                batch.stream().map(e -> e.getAction() + " " + e.getEntityType() + "#" + e.getEntityId()).toList());
+    }
+
+    private boolean backOff(int attempt) {
+        try {
+            Thread.sleep(flushInterval.multipliedBy(attempt));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
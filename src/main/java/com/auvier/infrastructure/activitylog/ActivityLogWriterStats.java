@@ -0,0 +1,25 @@
+package com.auvier.infrastructure.activitylog;
+
+/**
+ * Counters of the activity log writer since startup.
+ *
+ * @param queued          entries waiting in the buffer now
+ * @param capacity        buffer size; at capacity, callers write synchronously
+ * @param enqueued        entries accepted by the buffer
+ * @param written         entries inserted by the writer
+ * @param rejected        entries refused because the buffer was full or shutting down (written by the caller)
+ * @param dropped         entries lost after every retry of their batch failed
+ * @param failedBatches   failed batch inserts, retries included
+ * @param lastFlushMillis duration of the last successful batch insert
+ */
+public record ActivityLogWriterStats(
+        int queued,
+        int capacity,
+        long enqueued,
+        long written,
+        long rejected,
+        long dropped,
+        long failedBatches,
+        long lastFlushMillis
+) {
+}
@@ -0,0 +1,333 @@
+package com.auvier.infrastructure.dashboard;
+
+import com.auvier.entities.OrderEntity;
+import com.auvier.entities.catalog.ProductVariantEntity;
+import com.auvier.enums.OrderStatus;
+import com.auvier.infrastructure.metrics.ShopMetrics;
+import com.auvier.repositories.OrderRepository;
+import com.auvier.repositories.ProductVariantRepository;
+import com.auvier.repositories.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Dashboard counters kept in memory, so the dashboard reads them in O(1) instead of counting tables.
+ *
+ * - The services report each change (order created / status changed / deleted, stock moved, user
+ *   registered); the counters move when the surrounding transaction commits, never on rollback
+ * - Every dashboard.reconcile-interval (and at startup) all counters are recomputed from the database.
+ *   This corrects whatever the increments miss: writes that bypass the services, order edits after
+ *   payment, other instances' changes (each instance keeps its own counters)
+ * - The recount reads one REPEATABLE READ snapshot, fixed while no reporting transaction is committing
+ *   (commitLock). A change committed before that point is in the snapshot and was applied already; one
+ *   committed after it is not in the snapshot and is carried over to the new counts. So each change is
+ *   counted exactly once
+ */
+@Component
+@Slf4j
+public class DashboardMetrics {
+
+    public static final Set<OrderStatus> REVENUE_STATUSES = Set.of(OrderStatus.PAID, OrderStatus.SHIPPED, OrderStatus.DELIVERED);
+
+    private final OrderRepository orderRepository;
+    private final ProductVariantRepository variantRepository;
+    private final UserRepository userRepository;
+    private final ShopMetrics shopMetrics;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final int lowStockThreshold;
+
+    // Read: a transaction with changes to report is committing. Write: the recount is taking its snapshot
+    private final ReadWriteLock commitLock = new ReentrantReadWriteLock();
+
+    // Guarded by this
+    private final Counts live = new Counts(LocalDate.now());
+    private Counts committedDuringRecount;
+    private LocalDateTime reconciledAt;
+
+    public DashboardMetrics(OrderRepository orderRepository,
+                            ProductVariantRepository variantRepository,
+                            UserRepository userRepository,
+                            ShopMetrics shopMetrics,
+                            JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${dashboard.low-stock-threshold:5}") int lowStockThreshold) {
+        this.orderRepository = orderRepository;
+        this.variantRepository = variantRepository;
+        this.userRepository = userRepository;
+        this.shopMetrics = shopMetrics;
+        this.jdbcTemplate = jdbcTemplate;
+        // All four counts must see the same committed changes
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTransaction.setReadOnly(true);
+        this.lowStockThreshold = lowStockThreshold;
+    }
+
+    // ==================== UPDATES ====================
+
+    public void orderCreated(OrderEntity order) {
+        OrderStatus status = order.getStatus();
+        BigDecimal total = order.getTotalAmount();
+        afterCommit(counts -> {
+            counts.addOrders(status, 1);
+            if (REVENUE_STATUSES.contains(status)) {
+                counts.addRevenue(LocalDate.now(), total);
+            }
+        });
+    }
+
+    /**
+     * An order moved from one status to another (order already holds the new status)
+     */
+    public void orderStatusChanged(OrderEntity order, OrderStatus from) {
+        OrderStatus to = order.getStatus();
+        LocalDate createdDay = order.getCreatedAt() != null ? order.getCreatedAt().toLocalDate() : null;
+        BigDecimal total = order.getTotalAmount();
+        afterCommit(counts -> {
+            counts.addOrders(from, -1);
+            counts.addOrders(to, 1);
+            boolean wasRevenue = REVENUE_STATUSES.contains(from);
+            boolean isRevenue = REVENUE_STATUSES.contains(to);
+            if (wasRevenue != isRevenue) {
+                counts.addRevenue(createdDay, isRevenue ? total : total.negate());
+            }
+        });
+        // Every status change is reported here, so the Prometheus transition counter is fed from here too
+        shopMetrics.orderStatusChanged(from, to);
+    }
+
+    /**
+     * Status change without the order at hand (bulk updates).
+     * Only for moves that keep revenue unchanged, i.e. both or neither status in REVENUE_STATUSES.
+     */
+    public void orderStatusChanged(OrderStatus from, OrderStatus to) {
+        afterCommit(counts -> {
+            counts.addOrders(from, -1);
+            counts.addOrders(to, 1);
+        });
+        shopMetrics.orderStatusChanged(from, to);
+    }
+
+    public void orderDeleted(OrderEntity order) {
+        OrderStatus status = order.getStatus();
+        LocalDate createdDay = order.getCreatedAt() != null ? order.getCreatedAt().toLocalDate() : null;
+        BigDecimal total = order.getTotalAmount();
+        afterCommit(counts -> {
+            counts.addOrders(status, -1);
+            if (REVENUE_STATUSES.contains(status)) {
+                counts.addRevenue(createdDay, total.negate());
+            }
+        });
+    }
+
+    /**
+     * A variant's stock changed from stockBefore to its current stock
+     */
+    public void stockChanged(ProductVariantEntity variant, int stockBefore) {
+        stockChanged(variant.isActive(), stockBefore, variant.getStock());
+    }
+
+    /**
+     * Stock change of a variant that is not loaded as an entity (bulk updates)
+     */
+    public void stockChanged(boolean active, int stockBefore, int stockAfter) {
+        if (!active) {
+            return;
+        }
+        int delta = (stockAfter <= lowStockThreshold ? 1 : 0) - (stockBefore <= lowStockThreshold ? 1 : 0);
+        if (delta != 0) {
+            afterCommit(counts -> counts.lowStockVariants += delta);
+        }
+    }
+
+    public void userRegistered() {
+        afterCommit(counts -> counts.addNewUser(LocalDate.now()));
+    }
+
+    // ==================== READ ====================
+
+    public synchronized DashboardSnapshot snapshot() {
+        rollOver();
+        Map<OrderStatus, Long> orders = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            orders.put(status, live.ordersByStatus.getOrDefault(status, 0L));
+        }
+        return new DashboardSnapshot(orders, live.revenueToday, live.newUsersToday, live.lowStockVariants,
+                lowStockThreshold, reconciledAt);
+    }
+
+    // ==================== RECONCILIATION ====================
+
+    @Scheduled(fixedDelayString = "${dashboard.reconcile-interval:PT5M}")
+    public void reconcile() {
+        LocalDate today = LocalDate.now();
+        Counts recount = new Counts(today);
+        try {
+            snapshotTransaction.executeWithoutResult(tx -> {
+                takeSnapshot(today);
+                orderRepository.countGroupedByStatus()
+                        .forEach(row -> recount.addOrders(row.getStatus(), row.getCount()));
+                recount.revenueToday = orderRepository.sumTotalAmountCreatedSince(today.atStartOfDay(), REVENUE_STATUSES);
+                recount.newUsersToday = userRepository.countByCreatedAtGreaterThanEqual(today.atStartOfDay());
+                recount.lowStockVariants = variantRepository.countByActiveTrueAndStockLessThanEqual(lowStockThreshold);
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                committedDuringRecount = null;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            recount.add(committedDuringRecount);
+            committedDuringRecount = null;
+            if (reconciledAt != null && !recount.toString().equals(live.toString())) {
+                log.info("Dashboard counters corrected: {} -> {}", live, recount);
+            }
+            live.replaceWith(recount);
+            reconciledAt = LocalDateTime.now();
+            rollOver();
+        }
+    }
+
+    /**
+     * A REPEATABLE READ transaction takes its snapshot at its first statement. Running that statement
+     * while no reporting transaction is between commit and afterCommit makes the snapshot boundary and
+     * the start of the carry-over the same point. Commits wait for the length of one SELECT.
+     */
+    private void takeSnapshot(LocalDate today) {
+        commitLock.writeLock().lock();
+        try {
+            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+            synchronized (this) {
+                committedDuringRecount = new Counts(today);
+            }
+        } finally {
+            commitLock.writeLock().unlock();
+        }
+    }
+
+    // ==================== INTERNALS ====================
+
+    private void afterCommit(Consumer<Counts> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Already committed on its own; if that raced with a recount snapshot it may count twice
+            // until the next recount
+            apply(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean committing;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                // Held until the change is applied, so a recount snapshot never falls in between
+                commitLock.readLock().lock();
+                committing = true;
+            }
+
+            @Override
+            public void afterCommit() {
+                apply(change);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (committing) {
+                    committing = false;
+                    commitLock.readLock().unlock();
+                }
+            }
+        });
+    }
+
+    private synchronized void apply(Consumer<Counts> change) {
+        rollOver();
+        change.accept(live);
+        if (committedDuringRecount != null) {
+            change.accept(committedDuringRecount);
+        }
+    }
+
+    // "Today" counters start from zero at midnight
+    private void rollOver() {
+        LocalDate today = LocalDate.now();
+        if (!today.equals(live.day)) {
+            live.day = today;
+            live.revenueToday = BigDecimal.ZERO;
+            live.newUsersToday = 0;
+        }
+    }
+
+    private static final class Counts {
+
+        private final Map<OrderStatus, Long> ordersByStatus = new EnumMap<>(OrderStatus.class);
+        private LocalDate day;
+        private BigDecimal revenueToday = BigDecimal.ZERO;
+        private long newUsersToday;
+        private long lowStockVariants;
+
+        private Counts(LocalDate day) {
+            this.day = day;
+        }
+
+        void addOrders(OrderStatus status, long delta) {
+            // Zero counts are left out, so equal counts always print the same
+            ordersByStatus.merge(status, delta, (count, add) -> count + add == 0 ? null : count + add);
+        }
+
+        // Only orders created on the counted day contribute to its revenue
+        void addRevenue(LocalDate createdDay, BigDecimal amount) {
+            if (day.equals(createdDay) && amount != null) {
+                revenueToday = revenueToday.add(amount);
+            }
+        }
+
+        void addNewUser(LocalDate registeredDay) {
+            if (day.equals(registeredDay)) {
+                newUsersToday++;
+            }
+        }
+
+        void add(Counts delta) {
+            delta.ordersByStatus.forEach(this::addOrders);
+            revenueToday = revenueToday.add(delta.revenueToday);
+            newUsersToday += delta.newUsersToday;
+            lowStockVariants += delta.lowStockVariants;
+        }
+
+        void replaceWith(Counts other) {
+            ordersByStatus.clear();
+            ordersByStatus.putAll(other.ordersByStatus);
+            day = other.day;
+            revenueToday = other.revenueToday;
+            newUsersToday = other.newUsersToday;
+            lowStockVariants = other.lowStockVariants;
+        }
+
+        @Override
+        public String toString() {
+            return "orders=" + ordersByStatus + ", revenueToday=" + revenueToday.stripTrailingZeros().toPlainString()
+                    + ", newUsersToday=" + newUsersToday + ", lowStockVariants=" + lowStockVariants;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.auvier.infrastructure.dashboard;
+
+import com.auvier.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Current dashboard counters, see DashboardMetrics.
+ *
+ * @param revenueToday total of orders created today that are paid (PAID, SHIPPED or DELIVERED)
+ * @param lowStockVariants active variants with at most lowStockThreshold units in stock
+ * @param reconciledAt last time the counters were recomputed from the database, null before the first run
+ */
+public record DashboardSnapshot(Map<OrderStatus, Long> ordersByStatus,
+                                BigDecimal revenueToday,
+                                long newUsersToday,
+                                long lowStockVariants,
+                                int lowStockThreshold,
+                                LocalDateTime reconciledAt) {
+}
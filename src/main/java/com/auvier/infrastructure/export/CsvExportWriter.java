@@ -0,0 +1,66 @@
+package com.auvier.infrastructure.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * RFC 4180 CSV (comma separated, CRLF line ends, UTF-8, header row).
+ * Text that a spreadsheet would run as a formula (=, +, -, @ ...) is prefixed with a quote.
+ */
+class CsvExportWriter implements ExportWriter {
+
+    private final Writer out;
+
+    CsvExportWriter(OutputStream out) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    @Override
+    public void header(List<String> columns) {
+        row(columns);
+    }
+
+    @Override
+    public void row(List<?> values) {
+        try {
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                out.write(format(values.get(i)));
+            }
+            out.write("\r\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write CSV export", e);
+        }
+    }
+
+    @Override
+    public void finish() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write CSV export", e);
+        }
+    }
+
+    static String format(Object value) {
+        String text = switch (value) {
+            case null -> "";
+            case BigDecimal decimal -> decimal.toPlainString();
+            case String string when !string.isEmpty() && "=+-@\t\r".indexOf(string.charAt(0)) >= 0 -> "'" + string;
+            default -> value.toString();
+        };
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
@@ -0,0 +1,30 @@
+package com.auvier.infrastructure.export;
+
+import com.auvier.enums.ExportFormat;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Writes export rows to an output stream as they arrive; nothing is kept after a row is written.
+ * Call header once, then row for each row, then finish. finish flushes but does not close the stream.
+ */
+public interface ExportWriter {
+
+    void header(List<String> columns);
+
+    /**
+     * @param values one per header column, in the same order
+     */
+    void row(List<?> values);
+
+    void finish();
+
+    static ExportWriter create(ExportFormat format, OutputStream out, JsonMapper jsonMapper) {
+        return switch (format) {
+            case CSV -> new CsvExportWriter(out);
+            case JSON -> new JsonExportWriter(out, jsonMapper);
+        };
+    }
+}
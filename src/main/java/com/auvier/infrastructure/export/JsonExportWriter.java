@@ -0,0 +1,42 @@
+package com.auvier.infrastructure.export;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * A JSON array with one object per row, keyed by column name, generated as the rows arrive.
+ */
+class JsonExportWriter implements ExportWriter {
+
+    private final JsonGenerator generator;
+    private List<String> columns;
+
+    JsonExportWriter(OutputStream out, JsonMapper jsonMapper) {
+        this.generator = jsonMapper.createGenerator(out);
+    }
+
+    @Override
+    public void header(List<String> columns) {
+        this.columns = columns;
+        generator.writeStartArray();
+    }
+
+    @Override
+    public void row(List<?> values) {
+        generator.writeStartObject();
+        for (int i = 0; i < columns.size(); i++) {
+            generator.writeName(columns.get(i));
+            generator.writePOJO(values.get(i));
+        }
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void finish() {
+        generator.writeEndArray();
+        generator.flush();
+    }
+}
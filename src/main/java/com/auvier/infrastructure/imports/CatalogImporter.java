@@ -0,0 +1,489 @@
+package com.auvier.infrastructure.imports;
+
+import com.auvier.dtos.imports.CatalogImportResultDto;
+import com.auvier.enums.ImportFormat;
+import com.auvier.enums.Size;
+import com.auvier.infrastructure.inventory.StockSync;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of products and variants from a CSV or JSON Lines file, one row per variant:
+ * product_slug, product_name, description, category (slug), sku, color, size, price, stock, image_url, active.
+ *
+ * - The file is read one row at a time. Valid rows are written BATCH_SIZE at a time, one transaction
+ *   per batch: new products and variants with one multi-row INSERT each, updates as JDBC batches
+ * - Product slugs, SKUs and category slugs are loaded up front (one query each), so each row is
+ *   checked in memory: unknown category, SKU owned by another product, SKU repeated in the file
+ * - Products are matched by slug and variants by SKU: existing ones are updated, new ones inserted.
+ *   A new product needs product_name and category on its first row
+ * - stock is the number of units on hand. An existing variant's open orders keep their units: they are
+ *   subtracted, as StockSync does for a warehouse feed
+ * - A product or variant counts as created or updated only if its row was written. A SKU another
+ *   product took while the file was read is reported like any other invalid row
+ * - Invalid rows, and every row of a batch the database rejects, are reported by line and skipped
+ */
+@Component
+@Slf4j
+public class CatalogImporter {
+
+    public static final int BATCH_SIZE = 1000;
+    static final int MAX_ERRORS = 1000;
+
+    // %s is the VALUES list of (name, slug, description, category_id); the first parameter is created_at.
+    // Returns the products inserted: a slug created by someone else since the slugs were loaded is not
+    private static final String INSERT_PRODUCTS = """
+            INSERT INTO products (name, slug, description, active, category_id, created_at)
+            SELECT s.name, s.slug, s.description, TRUE, s.category_id, CAST(? AS TIMESTAMP)
+            FROM (VALUES %s) AS s (name, slug, description, category_id)
+            ON CONFLICT (slug) DO NOTHING
+            RETURNING slug, id
+            """;
+
+    private static final String UPDATE_PRODUCT = """
+            UPDATE products SET name = COALESCE(?, name), description = COALESCE(?, description),
+                                category_id = COALESCE(?, category_id)
+            WHERE id = ?
+            """;
+
+    private static final String HELD = StockSync.RESERVING_STATUSES.stream()
+            .map(status -> "'" + status.name() + "'")
+            .collect(Collectors.joining(", ", "o.status IN (", ")"));
+
+    private static final String VARIANT_VALUES = "(?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // %s is the VALUES list, VARIANT_VALUES per row. Each new variant takes its own sequence value, like a
+    // whole allocation block of the JPA generator, so the ids never collide with ids Hibernate hands out.
+    // A SKU created since the SKUs were loaded is left alone and not returned; flush sorts those out.
+    private static final String INSERT_VARIANTS = """
+            INSERT INTO product_variants (id, sku, product_id, price, stock, color, size, image_url, active)
+            SELECT nextval('product_variants_seq'), s.sku, s.product_id, s.price, s.stock, s.color, s.size, s.image_url, s.active
+            FROM (VALUES %s) AS s (sku, product_id, price, stock, color, size, image_url, active)
+            ON CONFLICT (sku) DO NOTHING
+            RETURNING sku
+            """;
+
+    // stock in the file is the number of units on hand: the units held by open orders are subtracted, as in
+    // a StockSync ABSOLUTE feed, and it never goes below 0. product_id skips a SKU that moved to another
+    // product since the SKUs were loaded. One statement per row, batched, so every row is found through
+    // the SKU index even right after a large import, before the table's statistics catch up.
+    private static final String UPDATE_VARIANT = """
+            UPDATE product_variants v
+            SET price = ?,
+                stock = GREATEST(? - COALESCE((SELECT SUM(i.quantity)
+                                               FROM order_items i
+                                                        JOIN orders o ON o.id = i.order_id
+                                               WHERE i.product_variant_id = v.id AND %s), 0), 0),
+                color = ?, size = ?, active = ?, image_url = COALESCE(?, v.image_url)
+            WHERE v.sku = ? AND v.product_id = ?
+            """.formatted(HELD);
+
+    private static final BigDecimal MAX_PRICE = new BigDecimal("100000000"); // NUMERIC(10, 2)
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JsonMapper jsonMapper;
+
+    public CatalogImporter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, JsonMapper jsonMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jsonMapper = jsonMapper;
+    }
+
+    public CatalogImportResultDto importCatalog(InputStream in, ImportFormat format) throws IOException {
+        long started = System.nanoTime();
+        Run run = new Run();
+        jdbcTemplate.query("SELECT slug, id FROM categories",
+                (RowCallbackHandler) rs -> run.categories.put(rs.getString(1), rs.getLong(2)));
+        jdbcTemplate.query("SELECT slug, id FROM products",
+                (RowCallbackHandler) rs -> run.products.put(rs.getString(1), rs.getLong(2)));
+        jdbcTemplate.query("SELECT sku, product_id FROM product_variants",
+                (RowCallbackHandler) rs -> run.skus.put(rs.getString(1), rs.getLong(2)));
+
+        RowReader reader = RowReader.create(format, in, jsonMapper);
+        while (true) {
+            Map<String, String> fields;
+            try {
+                fields = reader.next();
+            } catch (ImportRowException e) {
+                run.rows++;
+                run.reject(e.getLine(), null, e.getMessage());
+                continue;
+            }
+            if (fields == null) {
+                break;
+            }
+            run.rows++;
+            try {
+                accept(run, reader.line(), fields);
+            } catch (ImportRowException e) {
+                run.reject(e.getLine(), fields.get("sku"), e.getMessage());
+            }
+            if (run.variants.size() == BATCH_SIZE) {
+                flush(run);
+            }
+        }
+        flush(run);
+
+        log.info("Catalog import: {} rows, {} products created, {} updated, {} variants created, {} updated, {} failed in {} ms",
+                run.rows, run.productsCreated, run.updatedProducts.size(), run.variantsCreated, run.variantsUpdated,
+                run.failed, (System.nanoTime() - started) / 1_000_000);
+        return CatalogImportResultDto.builder()
+                .rows(run.rows)
+                .productsCreated(run.productsCreated)
+                .productsUpdated(run.updatedProducts.size())
+                .variantsCreated(run.variantsCreated)
+                .variantsUpdated(run.variantsUpdated)
+                .failed(run.failed)
+                .errors(run.errors)
+                .errorsTruncated(run.failed > run.errors.size())
+                .build();
+    }
+
+    // ==================== VALIDATION ====================
+
+    private void accept(Run run, long line, Map<String, String> fields) {
+        String slug = text(line, fields, "product_slug", 255, true);
+        String sku = text(line, fields, "sku", 60, true);
+        String name = text(line, fields, "product_name", 255, false);
+        String description = fields.get("description");
+        Long categoryId = null;
+        String category = fields.get("category");
+        if (category != null) {
+            categoryId = run.categories.get(category);
+            if (categoryId == null) {
+                throw new ImportRowException(line, "Unknown category '" + category + "'");
+            }
+        }
+        String color = text(line, fields, "color", 30, true);
+        Size size = size(line, fields.get("size"));
+        BigDecimal price = price(line, fields.get("price"));
+        int stock = stock(line, fields.get("stock"));
+        String imageUrl = text(line, fields, "image_url", 500, false);
+        boolean active = active(line, fields.get("active"));
+
+        Long productId = run.products.get(slug);
+        ProductRow product = run.batchProducts.get(slug);
+        if (productId == null && product == null && (name == null || categoryId == null)) {
+            throw new ImportRowException(line, "product_name and category are required for new product '" + slug + "'");
+        }
+        Long skuProductId = run.skus.get(sku);
+        if (skuProductId != null && !skuProductId.equals(productId)) {
+            throw new ImportRowException(line, "SKU '" + sku + "' belongs to another product");
+        }
+        if (!run.seenSkus.add(sku)) {
+            throw new ImportRowException(line, "SKU '" + sku + "' appears more than once in the file");
+        }
+
+        if (product == null) {
+            run.batchProducts.put(slug, new ProductRow(slug, productId, name, description, categoryId));
+        } else {
+            // Later rows of the same product may fill in or change its details
+            run.batchProducts.put(slug, new ProductRow(slug, productId,
+                    name != null ? name : product.name(),
+                    description != null ? description : product.description(),
+                    categoryId != null ? categoryId : product.categoryId()));
+        }
+        run.variants.add(new VariantRow(line, slug, sku, price, stock, color, size, imageUrl, active, skuProductId != null));
+    }
+
+    private static String text(long line, Map<String, String> fields, String column, int maxLength, boolean required) {
+        String value = fields.get(column);
+        if (value == null) {
+            if (required) {
+                throw new ImportRowException(line, column + " is required");
+            }
+            return null;
+        }
+        if (value.length() > maxLength) {
+            throw new ImportRowException(line, column + " is longer than " + maxLength + " characters");
+        }
+        return value;
+    }
+
+    private static Size size(long line, String value) {
+        if (value == null) {
+            throw new ImportRowException(line, "size is required");
+        }
+        try {
+            return Size.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ImportRowException(line, "size must be one of " + Arrays.toString(Size.values()));
+        }
+    }
+
+    private static BigDecimal price(long line, String value) {
+        if (value == null) {
+            throw new ImportRowException(line, "price is required");
+        }
+        BigDecimal price;
+        try {
+            price = new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new ImportRowException(line, "price '" + value + "' is not a number");
+        }
+        if (price.signum() <= 0 || price.compareTo(MAX_PRICE) >= 0 || price.stripTrailingZeros().scale() > 2) {
+            throw new ImportRowException(line, "price must be positive, below " + MAX_PRICE.toPlainString()
+                    + ", with at most 2 decimals");
+        }
+        return price;
+    }
+
+    private static int stock(long line, String value) {
+        if (value == null) {
+            throw new ImportRowException(line, "stock is required");
+        }
+        try {
+            int stock = Integer.parseInt(value);
+            if (stock >= 0) {
+                return stock;
+            }
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+        throw new ImportRowException(line, "stock must be a whole number, 0 or more");
+    }
+
+    private static boolean active(long line, String value) {
+        if (value == null || value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new ImportRowException(line, "active must be true or false");
+    }
+
+    // ==================== WRITES ====================
+
+    private void flush(Run run) {
+        if (run.variants.isEmpty()) {
+            return;
+        }
+        List<ProductRow> products = new ArrayList<>(run.batchProducts.values());
+        List<VariantRow> variants = run.variants;
+        try {
+            Written written = transactionTemplate.execute(tx -> write(run.products, products, variants));
+            run.products.putAll(written.products());
+            run.productsCreated += written.productsCreated();
+            for (ProductRow product : products) {
+                if (product.id() != null && product.hasChanges()) {
+                    run.updatedProducts.add(product.slug());
+                }
+            }
+            for (VariantRow variant : variants) {
+                if (written.created().contains(variant.sku())) {
+                    run.variantsCreated++;
+                } else if (written.updated().contains(variant.sku())) {
+                    run.variantsUpdated++;
+                } else {
+                    // Taken by another product (or deleted) since the SKUs were loaded
+                    run.reject(variant.line(), variant.sku(), "SKU '" + variant.sku() + "' belongs to another product");
+                    continue;
+                }
+                run.skus.put(variant.sku(), run.products.get(variant.productSlug()));
+            }
+        } catch (DataAccessException e) {
+            log.warn("Catalog import batch of {} rows failed: {}", variants.size(), e.getMostSpecificCause().getMessage());
+            String message = "Not saved, the batch was rejected: " + e.getMostSpecificCause().getMessage();
+            for (VariantRow variant : variants) {
+                run.reject(variant.line(), variant.sku(), message);
+            }
+        }
+        run.batchProducts.clear();
+        run.variants = new ArrayList<>(BATCH_SIZE);
+    }
+
+    private Written write(Map<String, Long> known, List<ProductRow> products, List<VariantRow> variants) {
+        List<ProductRow> inserts = products.stream().filter(product -> product.id() == null).toList();
+        List<ProductRow> updates = products.stream().filter(product -> product.id() != null && product.hasChanges()).toList();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        Map<String, Long> createdProducts = new HashMap<>();
+        Map<String, Long> productIds = new HashMap<>();
+        if (!inserts.isEmpty()) {
+            List<Object> params = new ArrayList<>(1 + inserts.size() * 4);
+            params.add(now);
+            for (ProductRow product : inserts) {
+                params.add(product.name());
+                params.add(product.slug());
+                params.add(new SqlParameterValue(Types.VARCHAR, product.description()));
+                params.add(product.categoryId());
+            }
+            jdbcTemplate.query(INSERT_PRODUCTS.formatted(String.join(", ", Collections.nCopies(inserts.size(), "(?, ?, ?, ?)"))),
+                    (RowCallbackHandler) rs -> createdProducts.put(rs.getString(1), rs.getLong(2)), params.toArray());
+            productIds.putAll(createdProducts);
+            List<ProductRow> racedProducts = inserts.stream().filter(product -> !createdProducts.containsKey(product.slug())).toList();
+            if (!racedProducts.isEmpty()) {
+                // Someone else created the product in the meantime: its variants go there
+                jdbcTemplate.query(con -> {
+                    var ps = con.prepareStatement("SELECT slug, id FROM products WHERE slug = ANY(?)");
+                    ps.setArray(1, con.createArrayOf("text", racedProducts.stream().map(ProductRow::slug).toArray()));
+                    return ps;
+                }, (RowCallbackHandler) rs -> productIds.put(rs.getString(1), rs.getLong(2)));
+            }
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_PRODUCT, updates, BATCH_SIZE, (ps, product) -> {
+                ps.setString(1, product.name());
+                ps.setString(2, product.description());
+                ps.setObject(3, product.categoryId(), Types.BIGINT);
+                ps.setLong(4, product.id());
+            });
+        }
+        Function<VariantRow, Long> productId = variant -> {
+            Long id = known.get(variant.productSlug());
+            return id != null ? id : productIds.get(variant.productSlug());
+        };
+
+        List<VariantRow> newVariants = variants.stream().filter(variant -> !variant.exists()).toList();
+        Set<String> inserted = new HashSet<>();
+        if (!newVariants.isEmpty()) {
+            inserted.addAll(jdbcTemplate.queryForList(
+                    INSERT_VARIANTS.formatted(values(newVariants.size())),
+                    String.class, params(newVariants, productId)));
+        }
+
+        List<VariantRow> existingVariants = new ArrayList<>(variants.stream().filter(VariantRow::exists).toList());
+        List<VariantRow> raced = newVariants.stream().filter(variant -> !inserted.contains(variant.sku())).toList();
+        if (!raced.isEmpty()) {
+            // Created since the SKUs were loaded: an update if it is the same product's
+            Map<String, Long> owners = skuOwners(raced);
+            raced.stream()
+                    .filter(variant -> Objects.equals(owners.get(variant.sku()), productId.apply(variant)))
+                    .forEach(existingVariants::add);
+        }
+
+        Set<String> updated = new HashSet<>();
+        if (!existingVariants.isEmpty()) {
+            // Lock in id order, like reservations and StockSync: an order that reserves one of these variants
+            // commits either before the held units are counted or after the new stock is written
+            jdbcTemplate.query(con -> {
+                var ps = con.prepareStatement("SELECT id FROM product_variants WHERE sku = ANY(?) ORDER BY id FOR UPDATE");
+                ps.setArray(1, con.createArrayOf("text", existingVariants.stream().map(VariantRow::sku).toArray()));
+                return ps;
+            }, (RowCallbackHandler) rs -> { });
+            int[][] counts = jdbcTemplate.batchUpdate(UPDATE_VARIANT, existingVariants, BATCH_SIZE, (ps, variant) -> {
+                ps.setBigDecimal(1, variant.price());
+                ps.setInt(2, variant.stock());
+                ps.setString(3, variant.color());
+                ps.setShort(4, (short) variant.size().ordinal());
+                ps.setBoolean(5, variant.active());
+                ps.setString(6, variant.imageUrl());
+                ps.setString(7, variant.sku());
+                ps.setLong(8, productId.apply(variant));
+            });
+            for (int i = 0; i < existingVariants.size(); i++) {
+                if (counts[i / BATCH_SIZE][i % BATCH_SIZE] > 0) {
+                    updated.add(existingVariants.get(i).sku());
+                }
+            }
+        }
+        return new Written(productIds, createdProducts.size(), inserted, updated);
+    }
+
+    private Map<String, Long> skuOwners(List<VariantRow> variants) {
+        Map<String, Long> owners = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement("SELECT sku, product_id FROM product_variants WHERE sku = ANY(?)");
+            ps.setArray(1, con.createArrayOf("text", variants.stream().map(VariantRow::sku).toArray()));
+            return ps;
+        }, (RowCallbackHandler) rs -> owners.put(rs.getString(1), rs.getLong(2)));
+        return owners;
+    }
+
+    private static String values(int rows) {
+        return String.join(", ", Collections.nCopies(rows, VARIANT_VALUES));
+    }
+
+    /**
+     * Parameters for VARIANT_VALUES, row after row
+     */
+    private static Object[] params(List<VariantRow> variants, Function<VariantRow, Long> productId) {
+        List<Object> params = new ArrayList<>(variants.size() * 8);
+        for (VariantRow variant : variants) {
+            params.add(variant.sku());
+            params.add(productId.apply(variant));
+            params.add(variant.price());
+            params.add(variant.stock());
+            params.add(variant.color());
+            params.add((short) variant.size().ordinal());
+            // Typed, so a VALUES list without any image still has a text column
+            params.add(new SqlParameterValue(Types.VARCHAR, variant.imageUrl()));
+            params.add(variant.active());
+        }
+        return params.toArray();
+    }
+
+    // ==================== STATE ====================
+
+    /**
+     * What a batch wrote: ids of the new products by slug (including ones someone else inserted first),
+     * how many of them this batch inserted, and the SKUs inserted and updated
+     */
+    private record Written(Map<String, Long> products, int productsCreated, Set<String> created, Set<String> updated) {
+    }
+
+    private record ProductRow(String slug, Long id, String name, String description, Long categoryId) {
+        boolean hasChanges() {
+            return name != null || description != null || categoryId != null;
+        }
+    }
+
+    private record VariantRow(long line, String productSlug, String sku, BigDecimal price, int stock, String color,
+                              Size size, String imageUrl, boolean active, boolean exists) {
+    }
+
+    private static class Run {
+        final Map<String, Long> categories = new HashMap<>();
+        final Map<String, Long> products = new HashMap<>();
+        final Map<String, Long> skus = new HashMap<>();
+        final Set<String> seenSkus = new HashSet<>();
+
+        // Current batch
+        final Map<String, ProductRow> batchProducts = new LinkedHashMap<>();
+        List<VariantRow> variants = new ArrayList<>(BATCH_SIZE);
+
+        long rows;
+        long productsCreated;
+        final Set<String> updatedProducts = new HashSet<>();
+        long variantsCreated;
+        long variantsUpdated;
+        long failed;
+        final List<CatalogImportResultDto.RowError> errors = new ArrayList<>();
+
+        void reject(long line, String sku, String message) {
+            failed++;
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(CatalogImportResultDto.RowError.builder().line(line).sku(sku).message(message).build());
+            }
+        }
+    }
+}
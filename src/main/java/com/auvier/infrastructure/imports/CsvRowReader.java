@@ -0,0 +1,112 @@
+package com.auvier.infrastructure.imports;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * RFC 4180 CSV with a header row (UTF-8, LF or CRLF line ends, quoted fields may contain
+ * commas, doubled quotes and line breaks). Blank lines are skipped.
+ */
+class CsvRowReader implements RowReader {
+
+    private final Reader in;
+    private List<String> header;
+    private long line = 1;
+    private long recordLine;
+
+    CsvRowReader(InputStream in) {
+        this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException {
+        if (header == null) {
+            List<String> names = readRecord();
+            if (names == null) {
+                return null;
+            }
+            header = new ArrayList<>();
+            for (String name : names) {
+                header.add(name.replace("\uFEFF", "").strip().toLowerCase(Locale.ROOT));
+            }
+        }
+
+        List<String> fields;
+        do {
+            fields = readRecord();
+        } while (fields != null && fields.size() == 1 && fields.getFirst().isBlank());
+        if (fields == null) {
+            return null;
+        }
+        if (fields.size() > header.size()) {
+            throw new ImportRowException(recordLine,
+                    "Expected at most " + header.size() + " columns, found " + fields.size());
+        }
+
+        Map<String, String> row = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            String value = fields.get(i).strip();
+            row.put(header.get(i), value.isEmpty() ? null : value);
+        }
+        return row;
+    }
+
+    @Override
+    public long line() {
+        return recordLine;
+    }
+
+    private List<String> readRecord() throws IOException {
+        int c = in.read();
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (c == -1) {
+                if (quoted) {
+                    throw new ImportRowException(recordLine, "Quoted field is not closed");
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            if (quoted) {
+                if (c == '"') {
+                    c = in.read();
+                    if (c != '"') {
+                        quoted = false; // closing quote; look at the character after it
+                        continue;
+                    }
+                }
+                if (c == '\n') {
+                    line++;
+                }
+                field.append((char) c);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                line++;
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = in.read();
+        }
+    }
+}
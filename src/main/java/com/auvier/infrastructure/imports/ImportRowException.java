@@ -0,0 +1,17 @@
+package com.auvier.infrastructure.imports;
+
+import lombok.Getter;
+
+/**
+ * A row that cannot be imported. The import reports it and goes on with the next row.
+ */
+@Getter
+class ImportRowException extends RuntimeException {
+
+    private final long line;
+
+    ImportRowException(long line, String message) {
+        super(message);
+        this.line = line;
+    }
+}
@@ -0,0 +1,70 @@
+package com.auvier.infrastructure.imports;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * JSON Lines: one JSON object per line, e.g. {"product_slug":"linen-shirt","sku":"LS-BLU-M","price":49.90}.
+ * Blank lines are skipped. Values are taken as text, like CSV fields (numbers exactly as written).
+ */
+class JsonLinesRowReader implements RowReader {
+
+    private final BufferedReader in;
+    private final ObjectReader jsonReader;
+    private long line;
+    private long recordLine;
+
+    JsonLinesRowReader(InputStream in, JsonMapper jsonMapper) {
+        this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        this.jsonReader = jsonMapper.readerFor(JsonNode.class)
+                .with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException {
+        String text;
+        do {
+            text = in.readLine();
+            line++;
+        } while (text != null && text.isBlank());
+        if (text == null) {
+            return null;
+        }
+        recordLine = line;
+
+        JsonNode node;
+        try {
+            node = jsonReader.readTree(text);
+        } catch (JacksonException e) {
+            throw new ImportRowException(recordLine, "Invalid JSON: " + e.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            throw new ImportRowException(recordLine, "Expected a JSON object");
+        }
+
+        Map<String, String> row = new HashMap<>();
+        for (Map.Entry<String, JsonNode> field : node.properties()) {
+            JsonNode value = field.getValue();
+            String string = value.isNull() ? null : value.isValueNode() ? value.asString().strip() : value.toString();
+            row.put(field.getKey().toLowerCase(Locale.ROOT), string == null || string.isEmpty() ? null : string);
+        }
+        return row;
+    }
+
+    @Override
+    public long line() {
+        return recordLine;
+    }
+}
@@ -0,0 +1,33 @@
+package com.auvier.infrastructure.imports;
+
+import com.auvier.enums.ImportFormat;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Reads an import file one row at a time, so only the current row is in memory.
+ * Rows are maps of column name (lower case) to value; blank values are null.
+ */
+interface RowReader {
+
+    /**
+     * @return the next row, or null at the end of the input
+     * @throws ImportRowException if the next row is malformed; reading can go on after it
+     */
+    Map<String, String> next() throws IOException;
+
+    /**
+     * Line number (1-based) where the row last returned or rejected starts
+     */
+    long line();
+
+    static RowReader create(ImportFormat format, InputStream in, JsonMapper jsonMapper) {
+        return switch (format) {
+            case CSV -> new CsvRowReader(in);
+            case JSONL -> new JsonLinesRowReader(in, jsonMapper);
+        };
+    }
+}
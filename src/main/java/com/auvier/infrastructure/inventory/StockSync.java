@@ -0,0 +1,204 @@
+package com.auvier.infrastructure.inventory;
+
+import com.auvier.dtos.inventory.StockSyncDto;
+import com.auvier.dtos.inventory.StockSyncResultDto;
+import com.auvier.enums.OrderStatus;
+import com.auvier.enums.StockSyncMode;
+import com.auvier.infrastructure.dashboard.DashboardMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a warehouse stock feed to product_variants: CHUNK_SIZE SKUs per transaction, one
+ * UPDATE ... FROM (VALUES ...) per chunk.
+ *
+ * stock is what is left to sell: an order takes its units off when it is created (InventoryService)
+ * and gives them back when it is cancelled. So:
+ * - ABSOLUTE: stock = units on hand - units held by open orders (RESERVING_STATUSES; shipped units
+ *   have left the warehouse). The chunk's variants are locked first, in id order like reservations,
+ *   so the held units counted match the stock being replaced
+ * - DELTA: stock = stock + quantity
+ *
+ * Stock never goes below 0; a level that would is set to 0 and reported.
+ * Rows whose stock does not change are not written.
+ */
+@Component
+@Slf4j
+public class StockSync {
+
+    public static final int CHUNK_SIZE = 1000;
+
+    public static final Set<OrderStatus> RESERVING_STATUSES =
+            Collections.unmodifiableSet(EnumSet.of(OrderStatus.PENDING, OrderStatus.CREATED, OrderStatus.PAID));
+
+    private static final String HELD = RESERVING_STATUSES.stream()
+            .map(status -> "'" + status.name() + "'")
+            .collect(Collectors.joining(", ", "o.status IN (", ")"));
+
+    // %s is the VALUES list: (variant id, quantity) pairs. target is the level before the floor at 0;
+    // rows below 0 are written (as 0) even when already 0, so every shortfall is returned.
+    private static final String ABSOLUTE = """
+            UPDATE product_variants v
+            SET stock = GREATEST(s.target, 0)
+            FROM (SELECT s.id, s.quantity - COALESCE((SELECT SUM(i.quantity)
+                                                      FROM order_items i
+                                                               JOIN orders o ON o.id = i.order_id
+                                                      WHERE i.product_variant_id = s.id AND %s), 0) AS target
+                  FROM (VALUES %s) AS s (id, quantity)) s
+            WHERE v.id = s.id AND (v.stock <> GREATEST(s.target, 0) OR s.target < 0)
+            RETURNING v.id, v.stock, s.target
+            """;
+
+    private static final String DELTA = """
+            UPDATE product_variants v
+            SET stock = GREATEST(v.stock + s.quantity, 0)
+            FROM (VALUES %s) AS s (id, quantity)
+            WHERE v.id = s.id AND s.quantity <> 0
+            RETURNING v.id, v.stock
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DashboardMetrics dashboardMetrics;
+
+    public StockSync(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                     DashboardMetrics dashboardMetrics) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dashboardMetrics = dashboardMetrics;
+    }
+
+    public StockSyncResultDto sync(StockSyncDto dto) {
+        StockSyncMode mode = dto.getMode();
+        Report report = new Report();
+
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        for (StockSyncDto.Item item : dto.getItems()) {
+            String sku = item.getSku().strip();
+            if (mode == StockSyncMode.ABSOLUTE && item.getQuantity() < 0) {
+                report.reject(sku, "Stock level cannot be negative");
+            } else if (quantities.putIfAbsent(sku, item.getQuantity()) != null) {
+                report.reject(sku, "SKU appears more than once; only the first entry was applied");
+            }
+        }
+
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(quantities.entrySet());
+        for (int from = 0; from < entries.size(); from += CHUNK_SIZE) {
+            List<Map.Entry<String, Integer>> chunk = entries.subList(from, Math.min(from + CHUNK_SIZE, entries.size()));
+            Report chunkReport = new Report();
+            try {
+                transactionTemplate.executeWithoutResult(tx -> applyChunk(mode, chunk, chunkReport));
+                report.add(chunkReport);
+            } catch (DataAccessException e) {
+                log.warn("Stock sync chunk of {} SKUs failed: {}", chunk.size(), e.getMostSpecificCause().getMessage());
+                String message = "Not applied: " + e.getMostSpecificCause().getMessage();
+                chunk.forEach(entry -> report.reject(entry.getKey(), message));
+            }
+        }
+
+        log.info("Stock sync ({}): {} received, {} updated, {} unchanged, {} rejected",
+                mode, dto.getItems().size(), report.updated, report.unchanged, report.rejected);
+        return StockSyncResultDto.builder()
+                .mode(mode)
+                .received(dto.getItems().size())
+                .updated(report.updated)
+                .unchanged(report.unchanged)
+                .rejected(report.rejected)
+                .issues(report.issues)
+                .build();
+    }
+
+    private void applyChunk(StockSyncMode mode, List<Map.Entry<String, Integer>> chunk, Report report) {
+        // Lock in id order, the order reservations lock in, so neither can deadlock the other
+        Map<String, Variant> locked = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement("SELECT id, sku, stock, active FROM product_variants"
+                    + " WHERE sku = ANY(?) ORDER BY id FOR UPDATE");
+            ps.setArray(1, con.createArrayOf("text", chunk.stream().map(Map.Entry::getKey).toArray()));
+            return ps;
+        }, (RowCallbackHandler) rs -> locked.put(rs.getString("sku"), new Variant(rs.getLong("id"),
+                rs.getString("sku"), rs.getInt("stock"), rs.getBoolean("active"))));
+
+        List<Object> params = new ArrayList<>(locked.size() * 2);
+        Map<Long, Variant> byId = new HashMap<>();
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : chunk) {
+            Variant variant = locked.get(entry.getKey());
+            if (variant == null) {
+                report.reject(entry.getKey(), "Unknown SKU");
+                continue;
+            }
+            params.add(variant.id());
+            params.add(entry.getValue());
+            byId.put(variant.id(), variant);
+            quantities.put(variant.id(), entry.getValue());
+        }
+        if (byId.isEmpty()) {
+            return;
+        }
+
+        String values = String.join(", ", Collections.nCopies(byId.size(), "(?, ?)"));
+        String sql = mode == StockSyncMode.ABSOLUTE ? ABSOLUTE.formatted(HELD, values) : DELTA.formatted(values);
+        int changed = 0;
+        for (Map<String, Object> row : jdbcTemplate.queryForList(sql, params.toArray())) {
+            Variant variant = byId.get(((Number) row.get("id")).longValue());
+            int stock = ((Number) row.get("stock")).intValue();
+            long target = mode == StockSyncMode.ABSOLUTE
+                    ? ((Number) row.get("target")).longValue()
+                    : (long) variant.stock() + quantities.get(variant.id());
+            if (stock != variant.stock()) {
+                changed++;
+                dashboardMetrics.stockChanged(variant.active(), variant.stock(), stock);
+            }
+            if (target < 0) {
+                report.note(variant.sku(), mode == StockSyncMode.ABSOLUTE
+                        ? (quantities.get(variant.id()) - target) + " units are held by open orders but only "
+                                + quantities.get(variant.id()) + " are on hand; stock set to 0"
+                        : "Stock would be " + target + "; set to 0");
+            }
+        }
+        report.updated += changed;
+        report.unchanged += byId.size() - changed;
+    }
+
+    private record Variant(long id, String sku, int stock, boolean active) {
+    }
+
+    private static class Report {
+        int updated;
+        int unchanged;
+        int rejected;
+        final List<StockSyncResultDto.Issue> issues = new ArrayList<>();
+
+        void add(Report other) {
+            updated += other.updated;
+            unchanged += other.unchanged;
+            rejected += other.rejected;
+            issues.addAll(other.issues);
+        }
+
+        void reject(String sku, String message) {
+            rejected++;
+            issues.add(StockSyncResultDto.Issue.builder().sku(sku).rejected(true).message(message).build());
+        }
+
+        void note(String sku, String message) {
+            issues.add(StockSyncResultDto.Issue.builder().sku(sku).rejected(false).message(message).build());
+        }
+    }
+}
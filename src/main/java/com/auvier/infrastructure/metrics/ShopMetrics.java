@@ -0,0 +1,106 @@
+package com.auvier.infrastructure.metrics;
+
+import com.auvier.enums.OrderStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Micrometer meters for the checkout, stock and payment paths, scraped from /actuator/prometheus.
+ *
+ * - Timers carry outcome (success / error) and exception (simple class name, or none), so failed
+ *   attempts - e.g. a createOrder retried after a lock timeout - do not skew the success latency
+ * - Counters that describe data changes (status transitions) move when the transaction commits,
+ *   like DashboardMetrics, so a rolled back change is never counted
+ *
+ * Gauges over existing state (orders per status, cache size) are bound in MetricsConfig.
+ */
+@Component
+public class ShopMetrics {
+
+    public static final String ORDER_CREATE = "auvier.orders.create";
+    public static final String STOCK_RESERVE = "auvier.inventory.reserve";
+    public static final String PAYMENT_INTENT_CREATE = "auvier.payments.intent.create";
+    public static final String WEBHOOK_RECEIVE = "auvier.payments.webhook.receive";
+    public static final String WEBHOOK_PROCESS = "auvier.payments.webhook.process";
+
+    public static final String STOCK_REJECTED = "auvier.inventory.rejected";
+    public static final String ORDER_TRANSITIONS = "auvier.orders.transitions";
+
+    private final MeterRegistry registry;
+
+    public ShopMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    // ==================== TIMERS ====================
+
+    public <T> T time(String timer, Supplier<T> work) {
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            T result = work.get();
+            stop(sample, timer, null);
+            return result;
+        } catch (RuntimeException e) {
+            stop(sample, timer, e);
+            throw e;
+        }
+    }
+
+    public void time(String timer, Runnable work) {
+        time(timer, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * For work whose outcome is not an exception (e.g. webhook processing records its own failures)
+     */
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    public void stop(Timer.Sample sample, String timer, Throwable error) {
+        sample.stop(Timer.builder(timer)
+                .tag("outcome", error == null ? "success" : "error")
+                .tag("exception", error == null ? "none" : error.getClass().getSimpleName())
+                .register(registry));
+    }
+
+    // ==================== COUNTERS ====================
+
+    /**
+     * A reservation was refused: reason is insufficient (not enough stock) or inactive (variant not for sale)
+     */
+    public void stockRejected(String reason) {
+        Counter.builder(STOCK_REJECTED)
+                .description("Stock reservations refused, i.e. oversells prevented")
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+
+    public void orderStatusChanged(OrderStatus from, OrderStatus to) {
+        Counter counter = Counter.builder(ORDER_TRANSITIONS)
+                .description("Committed order status changes")
+                .tag("from", from.name())
+                .tag("to", to.name())
+                .register(registry);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    counter.increment();
+                }
+            });
+        } else {
+            counter.increment();
+        }
+    }
+}
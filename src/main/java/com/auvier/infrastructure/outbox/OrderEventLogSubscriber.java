@@ -0,0 +1,27 @@
+package com.auvier.infrastructure.outbox;
+
+import com.auvier.infrastructure.services.OutboxService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Audit trail of order changes in the application log, fed by the outbox
+ * (one line per committed change, including the ones made in bulk).
+ */
+@Component
+@Slf4j
+public class OrderEventLogSubscriber implements OutboxSubscriber {
+
+    @Override
+    public boolean supports(String eventType) {
+        return true;
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        if (OutboxService.ORDER.equals(event.aggregateType())) {
+            log.info("Order {} event {} (#{}, v{}): {}", event.aggregateId(), event.eventType(), event.id(),
+                    event.aggregateVersion(), event.payload());
+        }
+    }
+}
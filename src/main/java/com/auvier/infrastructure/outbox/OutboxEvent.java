@@ -0,0 +1,19 @@
+package com.auvier.infrastructure.outbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * An outbox event as handed to subscribers.
+ * Delivery is at least once, so subscribers should tolerate seeing the same id twice.
+ *
+ * @param aggregateVersion 1, 2, 3... per aggregate, the order the events are delivered in
+ * @param payload JSON written by the publisher
+ */
+public record OutboxEvent(Long id,
+                          String aggregateType,
+                          Long aggregateId,
+                          Long aggregateVersion,
+                          String eventType,
+                          String payload,
+                          LocalDateTime createdAt) {
+}
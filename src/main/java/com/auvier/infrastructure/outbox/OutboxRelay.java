@@ -0,0 +1,160 @@
+package com.auvier.infrastructure.outbox;
+
+import com.auvier.entities.OutboxEventEntity;
+import com.auvier.enums.OutboxStatus;
+import com.auvier.repositories.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Polls the outbox and delivers pending events to the OutboxSubscribers.
+ *
+ * - At least once: an event is marked processed only after every interested subscriber returned
+ * - In order per aggregate: events go out in aggregateVersion order, and once one fails the later
+ *   events of the same aggregate wait for it (other aggregates carry on). Ids are not used for this:
+ *   they come from pooled sequence blocks, so a lower id can commit after a higher one
+ * - Runs on the scheduler thread, never on a request thread, so slow subscribers only delay the relay
+ *
+ * One relay per database: set outbox.relay.enabled=false on additional instances.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxSubscriber> subscribers;
+
+    @Value("${outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${outbox.retention:P7D}")
+    private Duration retention;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, List<OutboxSubscriber> subscribers) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.subscribers = subscribers;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval:PT1S}")
+    public void poll() {
+        // Keep draining while batches come back full and clean
+        while (relayBatch()) {
+            log.debug("Outbox backlog, relaying next batch");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.cleanup-interval:PT1H}")
+    public void purgeProcessed() {
+        int deleted = outboxEventRepository.deleteProcessedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Purged {} processed outbox events", deleted);
+        }
+    }
+
+    /**
+     * Deliver one batch: the aggregates with the oldest pending events, each with all of its pending
+     * events in version order.
+     * @return true if the batch was full and nothing failed (more may be waiting)
+     */
+    boolean relayBatch() {
+        List<OutboxEventEntity> batch =
+                outboxEventRepository.findByStatusOrderByIdAsc(OutboxStatus.PENDING, Limit.of(batchSize));
+        if (batch.isEmpty()) {
+            return false;
+        }
+
+        // Versions of an aggregate commit in order, so any pending event's predecessors are visible
+        // by now: read them all, including the ones past this batch's ids
+        Map<String, List<OutboxEventEntity>> byAggregate = new LinkedHashMap<>();
+        batch.forEach(entity -> byAggregate.put(aggregate(entity), new ArrayList<>()));
+        Set<Long> aggregateIds = new HashSet<>();
+        batch.forEach(entity -> aggregateIds.add(entity.getAggregateId()));
+        for (OutboxEventEntity entity : outboxEventRepository
+                .findByStatusAndAggregateIdInOrderByAggregateVersionAsc(OutboxStatus.PENDING, aggregateIds)) {
+            List<OutboxEventEntity> events = byAggregate.get(aggregate(entity));
+            if (events != null) {
+                events.add(entity);
+            }
+        }
+
+        boolean failed = false;
+        List<Long> delivered = new ArrayList<>();
+        for (List<OutboxEventEntity> events : byAggregate.values()) {
+            for (OutboxEventEntity entity : events) {
+                try {
+                    dispatch(toEvent(entity));
+                    delivered.add(entity.getId());
+                } catch (RuntimeException e) {
+                    failed = true;
+                    recordFailure(entity, e);
+                    break; // The aggregate's later events wait for this one
+                }
+            }
+        }
+
+        if (!delivered.isEmpty()) {
+            outboxEventRepository.markProcessed(delivered, LocalDateTime.now());
+        }
+        return batch.size() == batchSize && !failed;
+    }
+
+    private static String aggregate(OutboxEventEntity entity) {
+        return entity.getAggregateType() + ":" + entity.getAggregateId();
+    }
+
+    private void dispatch(OutboxEvent event) {
+        for (OutboxSubscriber subscriber : subscribers) {
+            if (subscriber.supports(event.eventType())) {
+                subscriber.handle(event);
+            }
+        }
+    }
+
+    private void recordFailure(OutboxEventEntity entity, RuntimeException e) {
+        int attempts = entity.getAttempts() + 1;
+        String error = String.valueOf(e.getMessage());
+        if (error.length() > 1000) {
+            error = error.substring(0, 1000);
+        }
+
+        if (attempts >= maxAttempts) {
+            // Park it so later events of the aggregate are not held back forever
+            log.error("Outbox event {} ({} {}) failed {} times, giving up: {}",
+                    entity.getId(), entity.getEventType(), entity.getAggregateId(), attempts, error, e);
+            outboxEventRepository.recordFailure(entity.getId(), error, OutboxStatus.FAILED, LocalDateTime.now());
+        } else {
+            log.warn("Outbox event {} ({} {}) failed, attempt {}/{}: {}",
+                    entity.getId(), entity.getEventType(), entity.getAggregateId(), attempts, maxAttempts, error);
+            outboxEventRepository.recordFailure(entity.getId(), error, OutboxStatus.PENDING, null);
+        }
+    }
+
+    private static OutboxEvent toEvent(OutboxEventEntity entity) {
+        return new OutboxEvent(
+                entity.getId(),
+                entity.getAggregateType(),
+                entity.getAggregateId(),
+                entity.getAggregateVersion(),
+                entity.getEventType(),
+                entity.getPayload(),
+                entity.getCreatedAt()
+        );
+    }
+}
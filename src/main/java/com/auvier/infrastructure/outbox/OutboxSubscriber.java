@@ -0,0 +1,17 @@
+package com.auvier.infrastructure.outbox;
+
+/**
+ * In-process consumer of outbox events. Every Spring bean implementing this is registered with OutboxRelay.
+ *
+ * Runs on the relay thread, outside any request and outside the transaction that wrote the event.
+ * Throwing makes the relay retry the event (and hold back later events of the same aggregate).
+ */
+public interface OutboxSubscriber {
+
+    /**
+     * @return true if this subscriber wants events of the given type
+     */
+    boolean supports(String eventType);
+
+    void handle(OutboxEvent event);
+}
@@ -0,0 +1,60 @@
+package com.auvier.infrastructure.pagination;
+
+import com.auvier.exception.InvalidRequestException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a listing sorted by (sort value, id).
+ * Encoded as an opaque URL-safe token so clients cannot depend on its format.
+ */
+public record KeysetCursor(String value, Long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static KeysetCursor of(Object value, Long id) {
+        return new KeysetCursor(value.toString(), id);
+    }
+
+    public LocalDateTime timestampValue() {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new InvalidRequestException("Invalid page cursor");
+        }
+    }
+
+    public BigDecimal decimalValue() {
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("Invalid page cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = value + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the decoded cursor, or null for a blank token (first page)
+     * @throws InvalidRequestException if the token is malformed
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int split = raw.lastIndexOf(SEPARATOR);
+            return new KeysetCursor(raw.substring(0, split), Long.parseLong(raw.substring(split + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidRequestException("Invalid page cursor");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.auvier.infrastructure.payments;
+
+import java.time.Instant;
+
+/**
+ * A PaymentIntent status as last seen by this instance, from a webhook or a gateway read.
+ * declined marks a payment_intent.payment_failed: the intent is back to requires_payment_method,
+ * but the customer's attempt was refused. version grows with every change on this instance,
+ * so a client can ask for anything newer than what it already has.
+ */
+public record CachedPaymentStatus(
+        String paymentIntentId,
+        String status,
+        boolean declined,
+        long version,
+        Instant updatedAt
+) {
+
+    /**
+     * succeeded and canceled never change again
+     */
+    public boolean isFinal() {
+        return "succeeded".equals(status) || "canceled".equals(status);
+    }
+}
@@ -0,0 +1,235 @@
+package com.auvier.infrastructure.payments;
+
+import com.auvier.exception.PaymentGatewayException;
+import com.auvier.infrastructure.services.PaymentWebhookService;
+import com.stripe.Stripe;
+import com.stripe.net.Webhook;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process stand-in for Stripe, for load testing and benchmarking checkout offline
+ * (payment.gateway=fake). Never enable it in production: every intent it creates gets "paid".
+ *
+ * - API calls block for a log-normal latency (payment.fake.latency-median / latency-p99)
+ *   and fail with payment.fake.error-rate, like network calls to Stripe
+ * - Intents are kept in memory with PaymentIntent semantics: requires_payment_method until confirmed,
+ *   then succeeded, or back to requires_payment_method when declined (payment.fake.decline-rate);
+ *   canceled intents are never confirmed
+ * - Confirmation plays the customer: payment.fake.confirm-delay after creation the intent is confirmed
+ *   and a payment_intent.succeeded / payment_failed event is signed with stripe.webhook.secret and handed
+ *   to the same webhook pipeline as real deliveries. payment.fake.duplicate-webhook-rate re-sends
+ *   some events, as Stripe's at-least-once delivery does
+ */
+@Component
+@ConditionalOnProperty(name = "payment.gateway", havingValue = "fake")
+@RequiredArgsConstructor
+@Slf4j
+public class FakePaymentGateway implements PaymentGateway {
+
+    // z-score of the 99th percentile of a standard normal distribution
+    private static final double Z_99 = 2.3263;
+
+    private final PaymentWebhookService paymentWebhookService;
+    private final JsonMapper jsonMapper;
+
+    private final Map<String, StoredIntent> intents = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService customers = Executors.newScheduledThreadPool(2,
+            Thread.ofPlatform().name("fake-gateway-", 0).daemon().factory());
+
+    @Value("${stripe.webhook.secret}")
+    private String webhookSecret;
+
+    @Value("${payment.fake.latency-median:PT0.15S}")
+    private Duration latencyMedian;
+
+    @Value("${payment.fake.latency-p99:PT0.6S}")
+    private Duration latencyP99;
+
+    @Value("${payment.fake.error-rate:0.0}")
+    private double errorRate;
+
+    @Value("${payment.fake.decline-rate:0.05}")
+    private double declineRate;
+
+    @Value("${payment.fake.duplicate-webhook-rate:0.0}")
+    private double duplicateWebhookRate;
+
+    // Zero disables auto-confirmation; intents then wait for confirm()
+    @Value("${payment.fake.confirm-delay:PT1S}")
+    private Duration confirmDelay;
+
+    @Override
+    public GatewayPaymentIntent createPaymentIntent(long amount, String currency, String description,
+                                                    Map<String, String> metadata) {
+        simulateCall("create payment");
+
+        String id = "pi_fake_" + UUID.randomUUID().toString().replace("-", "");
+        GatewayPaymentIntent intent = new GatewayPaymentIntent(
+                id, id + "_secret_" + UUID.randomUUID().toString().replace("-", "").substring(0, 16),
+                amount, currency, "requires_payment_method");
+        intents.put(id, new StoredIntent(intent, description, Map.copyOf(metadata)));
+
+        if (!confirmDelay.isZero() && !confirmDelay.isNegative()) {
+            customers.schedule(() -> confirm(id), confirmDelay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return intent;
+    }
+
+    @Override
+    public GatewayPaymentIntent retrievePaymentIntent(String paymentIntentId) {
+        simulateCall("retrieve payment " + paymentIntentId);
+
+        StoredIntent stored = intents.get(paymentIntentId);
+        if (stored == null) {
+            throw new PaymentGatewayException("No such payment_intent: " + paymentIntentId);
+        }
+        return stored.intent();
+    }
+
+    @Override
+    public GatewayPaymentIntent cancelPaymentIntent(String paymentIntentId) {
+        simulateCall("cancel payment " + paymentIntentId);
+
+        StoredIntent stored = intents.computeIfPresent(paymentIntentId, (id, current) ->
+                "requires_payment_method".equals(current.intent().status()) ? current.withStatus("canceled") : current);
+        if (stored == null) {
+            throw new PaymentGatewayException("No such payment_intent: " + paymentIntentId);
+        }
+        if (!"canceled".equals(stored.intent().status())) {
+            throw new PaymentGatewayException("Cannot cancel payment " + paymentIntentId
+                    + " in status " + stored.intent().status());
+        }
+        return stored.intent();
+    }
+
+    /**
+     * Confirm an intent as the customer would in the browser, then deliver the resulting webhook.
+     * @return the intent's new status
+     */
+    public String confirm(String paymentIntentId) {
+        StoredIntent current = intents.get(paymentIntentId);
+        if (current == null) {
+            throw new PaymentGatewayException("No such payment_intent: " + paymentIntentId);
+        }
+        if (!"requires_payment_method".equals(current.intent().status())) {
+            return current.intent().status(); // already paid: nothing to confirm, no event
+        }
+
+        boolean declined = ThreadLocalRandom.current().nextDouble() < declineRate;
+        // A declined attempt leaves the intent open for another try, as on Stripe
+        StoredIntent stored = declined ? current : current.withStatus("succeeded");
+        if (!intents.replace(paymentIntentId, current, stored)) {
+            return intents.get(paymentIntentId).intent().status(); // cancelled or confirmed concurrently
+        }
+
+        String type = declined ? "payment_intent.payment_failed" : "payment_intent.succeeded";
+        try {
+            String payload = eventPayload(type, stored);
+            deliver(payload);
+            if (ThreadLocalRandom.current().nextDouble() < duplicateWebhookRate) {
+                deliver(payload);
+            }
+        } catch (RuntimeException e) {
+            log.error("Fake gateway could not deliver {} for {}: {}", type, paymentIntentId, e.getMessage(), e);
+        }
+        return stored.intent().status();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        customers.shutdownNow();
+    }
+
+    // ==================== SIMULATION ====================
+
+    private void simulateCall(String operation) {
+        try {
+            Thread.sleep(sampleLatency());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException("Interrupted during " + operation, e);
+        }
+        if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+            throw new PaymentGatewayException("Failed to " + operation + ": simulated gateway error");
+        }
+    }
+
+    /**
+     * Log-normal latency: the median and p99 fix mu and sigma, which gives the long right tail
+     * real API latencies have.
+     */
+    private Duration sampleLatency() {
+        if (latencyMedian.isZero()) {
+            return Duration.ZERO;
+        }
+        double mu = Math.log(latencyMedian.toNanos());
+        double sigma = Math.max(0, Math.log((double) latencyP99.toNanos() / latencyMedian.toNanos())) / Z_99;
+        return Duration.ofNanos((long) Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+    }
+
+    // ==================== WEBHOOKS ====================
+
+    private String eventPayload(String type, StoredIntent stored) {
+        GatewayPaymentIntent intent = stored.intent();
+
+        Map<String, Object> object = new LinkedHashMap<>();
+        object.put("id", intent.id());
+        object.put("object", "payment_intent");
+        object.put("amount", intent.amount());
+        object.put("currency", intent.currency());
+        object.put("description", stored.description());
+        object.put("status", intent.status());
+        object.put("metadata", stored.metadata());
+
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("id", "evt_fake_" + UUID.randomUUID().toString().replace("-", ""));
+        event.put("object", "event");
+        // Must match the SDK's version, or Event.getDataObjectDeserializer() refuses the object
+        event.put("api_version", Stripe.API_VERSION);
+        event.put("created", Instant.now().getEpochSecond());
+        event.put("livemode", false);
+        event.put("type", type);
+        event.put("data", Map.of("object", object));
+        return jsonMapper.writeValueAsString(event);
+    }
+
+    private void deliver(String payload) {
+        // Same Stripe-Signature scheme as real deliveries, so verification is part of the measured path
+        long timestamp = Webhook.Util.getTimeNow();
+        String signature;
+        try {
+            signature = Webhook.Util.computeHmacSha256(webhookSecret, timestamp + "." + payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign fake webhook", e);
+        }
+        paymentWebhookService.receive(payload, "t=" + timestamp + ",v1=" + signature);
+    }
+
+    private record StoredIntent(GatewayPaymentIntent intent, String description, Map<String, String> metadata) {
+
+        StoredIntent withStatus(String status) {
+            GatewayPaymentIntent i = intent;
+            return new StoredIntent(
+                    new GatewayPaymentIntent(i.id(), i.clientSecret(), i.amount(), i.currency(), status),
+                    description, metadata);
+        }
+    }
+}
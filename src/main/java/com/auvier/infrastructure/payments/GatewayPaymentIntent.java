@@ -0,0 +1,14 @@
+package com.auvier.infrastructure.payments;
+
+/**
+ * The parts of a PaymentIntent the app uses, independent of the gateway behind it.
+ * Status values follow Stripe (requires_payment_method, processing, succeeded, canceled, ...).
+ */
+public record GatewayPaymentIntent(
+        String id,
+        String clientSecret,
+        long amount,
+        String currency,
+        String status
+) {
+}
@@ -0,0 +1,36 @@
+package com.auvier.infrastructure.payments;
+
+import java.util.Map;
+
+/**
+ * Remote payment provider behind PaymentService.
+ * Selected with payment.gateway: "stripe" (default) or "fake" for offline load testing.
+ * Calls are blocking network round trips; failures surface as PaymentGatewayException.
+ */
+public interface PaymentGateway {
+
+    /**
+     * Create a PaymentIntent.
+     * @param amount amount in the smallest currency unit (cents)
+     * @param currency ISO currency code, lower case
+     * @param description shown in the provider dashboard
+     * @param metadata echoed back on webhook events (order_id)
+     * @return the created intent
+     */
+    GatewayPaymentIntent createPaymentIntent(long amount, String currency, String description,
+                                             Map<String, String> metadata);
+
+    /**
+     * Fetch the current state of a PaymentIntent.
+     * @param paymentIntentId the intent id
+     * @return the intent
+     */
+    GatewayPaymentIntent retrievePaymentIntent(String paymentIntentId);
+
+    /**
+     * Cancel a PaymentIntent that has not been paid, so it can no longer be confirmed.
+     * @param paymentIntentId the intent id
+     * @return the cancelled intent
+     */
+    GatewayPaymentIntent cancelPaymentIntent(String paymentIntentId);
+}
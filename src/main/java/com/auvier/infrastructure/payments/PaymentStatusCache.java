@@ -0,0 +1,153 @@
+package com.auvier.infrastructure.payments;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local cache of PaymentIntent statuses, fed by webhook events and by gateway reads, so that
+ * payment confirmation and status polling do not call the gateway every time.
+ *
+ * - Final statuses (succeeded, canceled) stay fresh for payment.status-cache.final-ttl and are never
+ *   overwritten by an older, non-final one (Stripe may deliver payment_failed after succeeded)
+ * - Other statuses are only trusted for payment.status-cache.ttl; another instance may have received
+ *   the webhook, so callers then re-read the gateway
+ * - Waiters (long-polling clients) are completed on the next change of their intent
+ *
+ * Per instance only: nothing here is shared between nodes.
+ */
+@Component
+@Slf4j
+public class PaymentStatusCache {
+
+    private final Map<String, CachedPaymentStatus> statuses = new ConcurrentHashMap<>();
+    private final Map<String, Set<CompletableFuture<CachedPaymentStatus>>> waiters = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Value("${payment.status-cache.ttl:PT5S}")
+    private Duration ttl;
+
+    @Value("${payment.status-cache.final-ttl:PT1H}")
+    private Duration finalTtl;
+
+    /**
+     * The cached status if it can still be trusted, empty on a miss or a stale entry
+     */
+    public Optional<CachedPaymentStatus> getFresh(String paymentIntentId) {
+        CachedPaymentStatus cached = statuses.get(paymentIntentId);
+        if (cached == null || isStale(cached, Instant.now())) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(cached);
+    }
+
+    /**
+     * Record a status and wake everybody waiting on the intent. Every decline is news, even when
+     * the status stays requires_payment_method.
+     * @return the entry now cached, which is the existing one if it was already final
+     */
+    public CachedPaymentStatus put(String paymentIntentId, String status, boolean declined) {
+        CachedPaymentStatus[] previous = new CachedPaymentStatus[1];
+        CachedPaymentStatus cached = statuses.compute(paymentIntentId, (id, current) -> {
+            previous[0] = current;
+            if (current != null && current.isFinal() && !current.status().equals(status)) {
+                return current;
+            }
+            if (current != null && current.status().equals(status) && !declined) {
+                // Nothing new (e.g. a gateway re-read): refresh it, keep a decline flag, wake nobody
+                return new CachedPaymentStatus(id, status, current.declined(), current.version(), Instant.now());
+            }
+            return new CachedPaymentStatus(id, status, declined, versions.incrementAndGet(), Instant.now());
+        });
+
+        if (previous[0] == null || cached.version() != previous[0].version()) {
+            notifyWaiters(cached);
+        }
+        return cached;
+    }
+
+    /**
+     * Completes with the intent's status as soon as this instance has a version newer than afterVersion:
+     * right away if it already has one, otherwise on the next put. Never times out by itself;
+     * the caller completes or cancels it when it stops waiting.
+     */
+    public CompletableFuture<CachedPaymentStatus> awaitUpdate(String paymentIntentId, long afterVersion) {
+        CompletableFuture<CachedPaymentStatus> waiter = new CompletableFuture<>();
+        waiters.compute(paymentIntentId, (id, set) -> {
+            Set<CompletableFuture<CachedPaymentStatus>> registered = set != null ? set : ConcurrentHashMap.newKeySet();
+            registered.add(waiter);
+            return registered;
+        });
+        waiter.whenComplete((status, error) -> waiters.computeIfPresent(paymentIntentId, (id, set) -> {
+            set.remove(waiter);
+            return set.isEmpty() ? null : set;
+        }));
+
+        // Registered first, checked second: a put in between is seen either here or by notifyWaiters
+        CachedPaymentStatus current = statuses.get(paymentIntentId);
+        if (current != null && current.version() > afterVersion) {
+            waiter.complete(current);
+        }
+        return waiter;
+    }
+
+    /**
+     * Drop entries nobody should need any more; waiting clients are left alone.
+     */
+    @Scheduled(fixedDelayString = "${payment.status-cache.cleanup-interval:PT1M}")
+    public void evictExpired() {
+        Instant cutoff = Instant.now().minus(finalTtl);
+        int before = statuses.size();
+        statuses.values().removeIf(s -> s.updatedAt().isBefore(cutoff) && !waiters.containsKey(s.paymentIntentId()));
+        int evicted = before - statuses.size();
+        if (evicted > 0) {
+            log.debug("Evicted {} cached payment statuses", evicted);
+        }
+    }
+
+    public int size() {
+        return statuses.size();
+    }
+
+    /**
+     * getFresh calls answered from the cache
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * getFresh calls that found nothing or a stale entry, i.e. went to the gateway
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    private boolean isStale(CachedPaymentStatus cached, Instant now) {
+        return cached.updatedAt().plus(cached.isFinal() ? finalTtl : ttl).isBefore(now);
+    }
+
+    private void notifyWaiters(CachedPaymentStatus status) {
+        Set<CompletableFuture<CachedPaymentStatus>> registered = waiters.get(status.paymentIntentId());
+        if (registered != null) {
+            // Copy: completing a waiter removes it from the set
+            List.copyOf(registered).forEach(waiter -> waiter.complete(status));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.auvier.infrastructure.payments;
+
+import com.auvier.exception.PaymentGatewayException;
+import com.stripe.exception.StripeException;
+import com.stripe.model.PaymentIntent;
+import com.stripe.param.PaymentIntentCreateParams;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@ConditionalOnProperty(name = "payment.gateway", havingValue = "stripe", matchIfMissing = true)
+public class StripePaymentGateway implements PaymentGateway {
+
+    @Override
+    public GatewayPaymentIntent createPaymentIntent(long amount, String currency, String description,
+                                                    Map<String, String> metadata) {
+        PaymentIntentCreateParams params = PaymentIntentCreateParams.builder()
+                .setAmount(amount)
+                .setCurrency(currency)
+                .setDescription(description)
+                .putAllMetadata(metadata)
+                .setAutomaticPaymentMethods(
+                        PaymentIntentCreateParams.AutomaticPaymentMethods.builder()
+                                .setEnabled(true)
+                                .build()
+                )
+                .build();
+
+        try {
+            return toIntent(PaymentIntent.create(params));
+        } catch (StripeException e) {
+            throw new PaymentGatewayException("Failed to create payment: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public GatewayPaymentIntent retrievePaymentIntent(String paymentIntentId) {
+        try {
+            return toIntent(PaymentIntent.retrieve(paymentIntentId));
+        } catch (StripeException e) {
+            throw new PaymentGatewayException("Failed to retrieve payment " + paymentIntentId + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public GatewayPaymentIntent cancelPaymentIntent(String paymentIntentId) {
+        try {
+            return toIntent(PaymentIntent.retrieve(paymentIntentId).cancel());
+        } catch (StripeException e) {
+            throw new PaymentGatewayException("Failed to cancel payment " + paymentIntentId + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static GatewayPaymentIntent toIntent(PaymentIntent paymentIntent) {
+        return new GatewayPaymentIntent(
+                paymentIntent.getId(),
+                paymentIntent.getClientSecret(),
+                paymentIntent.getAmount(),
+                paymentIntent.getCurrency(),
+                paymentIntent.getStatus()
+        );
+    }
+}
@@ -0,0 +1,31 @@
+package com.auvier.infrastructure.reporting;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Folds the pending sales rows that order transactions append (SalesRollups) into the rollup tables.
+ * Reports include pending rows, so the interval only bounds how large the pending tables grow.
+ * Safe on every instance: concurrent folds take disjoint rows.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SalesRollupFoldJob {
+
+    private final SalesRollups salesRollups;
+
+    @Value("${reporting.sales.fold-batch-size:1000}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${reporting.sales.fold-interval:PT5S}")
+    public void fold() {
+        // Keep folding while there is a backlog
+        while (salesRollups.fold(batchSize) > 0) {
+            log.debug("Sales rollup backlog, folding next batch");
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.auvier.infrastructure.reporting;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Nightly rebuild of the last reporting.sales.rebuild-days days of sales rollups, which picks up
+ * changes the order services don't report (e.g. orders fixed with direct SQL).
+ * Older history is rebuilt on request: POST /api/admin/reports/sales/rebuild.
+ * One instance is enough: set reporting.sales.rebuild.enabled=false on the others.
+ */
+@Component
+@ConditionalOnProperty(name = "reporting.sales.rebuild.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class SalesRollupRebuildJob {
+
+    private final SalesRollups salesRollups;
+
+    @Value("${reporting.sales.rebuild-days:7}")
+    private int rebuildDays;
+
+    @Scheduled(cron = "${reporting.sales.rebuild-cron:0 30 3 * * *}")
+    public void rebuildRecent() {
+        LocalDate today = LocalDate.now();
+        salesRollups.rebuild(today.minusDays(rebuildDays - 1L), today);
+    }
+}
@@ -0,0 +1,289 @@
+package com.auvier.infrastructure.reporting;
+
+import com.auvier.dtos.report.SalesPointDto;
+import com.auvier.dtos.report.SalesReportFilterDto;
+import com.auvier.entities.OrderEntity;
+import com.auvier.enums.OrderStatus;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Daily sales rollups (see V9 migration): sales_daily, sales_daily_category and sales_daily_variant.
+ *
+ * A sale is an order in one of SOLD_STATUSES, counted on the day the order was created, so moving
+ * an order in or out of those statuses adds or subtracts it on the same day.
+ *
+ * - Incremental: the order services call orderStatusChanged / orderDeleted inside the transaction
+ *   that changes the order. That appends signed rows to the *_pending tables (V14) and commits or
+ *   rolls back with the order; it never updates a rollup row, so payments of the same day don't
+ *   queue behind each other on one sales_daily row
+ * - Fold: SalesRollupFoldJob moves pending rows into the rollups in batches, off the request path
+ * - Rebuild: recomputes whole days from orders and order_items, for backfills and for changes the
+ *   services don't report (direct SQL). A day is recounted into temporary staging tables and then
+ *   swapped in, all in one REPEATABLE READ snapshot, so nothing blocks checkout
+ *
+ * Reports read the rollups plus the pending rows not folded yet, never orders.
+ */
+@Component
+@Slf4j
+public class SalesRollups {
+
+    public static final Set<OrderStatus> SOLD_STATUSES =
+            Collections.unmodifiableSet(EnumSet.of(OrderStatus.PAID, OrderStatus.SHIPPED, OrderStatus.DELIVERED));
+
+    private static final String SOLD = SOLD_STATUSES.stream()
+            .map(status -> "'" + status.name() + "'")
+            .collect(Collectors.joining(", ", "o.status IN (", ")"));
+
+    // A rebuild that loses a race with the fold job (serialization failure) starts the day over
+    private static final int REBUILD_ATTEMPTS = 5;
+
+    /**
+     * One rollup table. 'select' yields 'columns' plus orders, units and revenue; %s is the order filter,
+     * and the sign (1 or -1) is bound three times, before the filter's parameters.
+     */
+    private record Rollup(String table, String columns, String keys, String select) {
+
+        String pending() {
+            return table + "_pending";
+        }
+
+        String staging() {
+            return table + "_staging";
+        }
+
+        String insert(String into) {
+            return "INSERT INTO " + into + " (" + columns + ", orders, units, revenue) " + select;
+        }
+
+        /**
+         * Add the rows of 'source' (summed per key) to the rollup. Rows are written in key order, so
+         * concurrent folds lock them in the same order.
+         */
+        String upsert(String source) {
+            return """
+                    INSERT INTO %1$s (%2$s, orders, units, revenue)
+                    SELECT %2$s, SUM(orders), SUM(units), SUM(revenue)
+                    FROM %4$s
+                    GROUP BY %2$s
+                    ORDER BY %3$s
+                    ON CONFLICT (%3$s) DO UPDATE SET orders = %1$s.orders + EXCLUDED.orders,
+                                                    units = %1$s.units + EXCLUDED.units,
+                                                    revenue = %1$s.revenue + EXCLUDED.revenue
+                    """.formatted(table, columns, keys, source);
+        }
+
+        /**
+         * Move up to ? of the oldest pending rows into the rollup. SKIP LOCKED: concurrent folds (or a
+         * rebuild holding a day's pending rows) take disjoint rows instead of waiting.
+         */
+        String fold() {
+            return """
+                    WITH batch AS (
+                        DELETE FROM %1$s
+                        WHERE id IN (SELECT id FROM %1$s ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED)
+                        RETURNING %2$s, orders, units, revenue
+                    )
+                    """.formatted(pending(), columns) + upsert("batch");
+        }
+    }
+
+    private static final Rollup DAILY = new Rollup("sales_daily", "day", "day", """
+            SELECT CAST(o.created_at AS DATE), ? * COUNT(DISTINCT o.id), ? * SUM(i.quantity), ? * SUM(i.quantity * i.unit_price)
+            FROM orders o
+                     JOIN order_items i ON i.order_id = o.id
+            WHERE %s
+            GROUP BY CAST(o.created_at AS DATE)
+            """);
+
+    private static final Rollup BY_CATEGORY = new Rollup("sales_daily_category", "category_id, day", "category_id, day", """
+            SELECT p.category_id, CAST(o.created_at AS DATE), ? * COUNT(DISTINCT o.id), ? * SUM(i.quantity), ? * SUM(i.quantity * i.unit_price)
+            FROM orders o
+                     JOIN order_items i ON i.order_id = o.id
+                     JOIN product_variants v ON v.id = i.product_variant_id
+                     JOIN products p ON p.id = v.product_id
+            WHERE %s AND p.category_id IS NOT NULL
+            GROUP BY p.category_id, CAST(o.created_at AS DATE)
+            """);
+
+    private static final Rollup BY_VARIANT = new Rollup("sales_daily_variant", "variant_id, day, product_id", "variant_id, day", """
+            SELECT v.id, CAST(o.created_at AS DATE), v.product_id, ? * COUNT(DISTINCT o.id), ? * SUM(i.quantity), ? * SUM(i.quantity * i.unit_price)
+            FROM orders o
+                     JOIN order_items i ON i.order_id = o.id
+                     JOIN product_variants v ON v.id = i.product_variant_id
+            WHERE %s
+            GROUP BY v.id, CAST(o.created_at AS DATE), v.product_id
+            """);
+
+    private static final List<Rollup> ROLLUPS = List.of(DAILY, BY_CATEGORY, BY_VARIANT);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate rebuildTransaction;
+
+    public SalesRollups(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Recount, pending-row cleanup and swap must all see the same orders
+        this.rebuildTransaction = new TransactionTemplate(transactionManager);
+        this.rebuildTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Record a status change of an order. Call after setting the new status, in the same transaction.
+     * Only changes into or out of SOLD_STATUSES touch the rollups.
+     */
+    @Transactional
+    public void orderStatusChanged(OrderEntity order, OrderStatus from) {
+        boolean wasSold = SOLD_STATUSES.contains(from);
+        boolean isSold = SOLD_STATUSES.contains(order.getStatus());
+        if (wasSold != isSold) {
+            appendOrder(order.getId(), isSold ? 1 : -1);
+        }
+    }
+
+    /**
+     * Record that an order is being deleted. Call before its rows are removed.
+     */
+    @Transactional
+    public void orderDeleted(OrderEntity order) {
+        if (SOLD_STATUSES.contains(order.getStatus())) {
+            appendOrder(order.getId(), -1);
+        }
+    }
+
+    /**
+     * Fold up to batchSize pending rows of each rollup into the rollup, one transaction per rollup.
+     * @return number of rollup rows written; 0 once nothing is pending
+     */
+    public int fold(int batchSize) {
+        int written = 0;
+        for (Rollup rollup : ROLLUPS) {
+            written += jdbcTemplate.update(rollup.fold(), batchSize);
+        }
+        return written;
+    }
+
+    /**
+     * Recompute the rollups of every day from 'from' to 'to' (inclusive) from the orders,
+     * one transaction per day.
+     * @return number of days rebuilt
+     */
+    public int rebuild(LocalDate from, LocalDate to) {
+        int days = 0;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            rebuildDay(day);
+            days++;
+        }
+        log.info("Rebuilt sales rollups for {} days ({} to {})", days, from, to);
+        return days;
+    }
+
+    /**
+     * Sales per bucket, for the buckets that have rollup or pending rows, in period order.
+     * Reads sales_daily_variant for a variant or product, sales_daily_category for a category,
+     * sales_daily otherwise. One statement, so a concurrent fold is seen either entirely or not at all.
+     */
+    public List<SalesPointDto> read(SalesReportFilterDto filter) {
+        Rollup rollup;
+        String dimension;
+        Long dimensionId;
+        if (filter.getVariantId() != null) {
+            rollup = BY_VARIANT;
+            dimension = "variant_id = ? AND ";
+            dimensionId = filter.getVariantId();
+        } else if (filter.getProductId() != null) {
+            rollup = BY_VARIANT;
+            dimension = "product_id = ? AND ";
+            dimensionId = filter.getProductId();
+        } else if (filter.getCategoryId() != null) {
+            rollup = BY_CATEGORY;
+            dimension = "category_id = ? AND ";
+            dimensionId = filter.getCategoryId();
+        } else {
+            rollup = DAILY;
+            dimension = "";
+            dimensionId = null;
+        }
+
+        List<Object> params = new ArrayList<>();
+        params.add(filter.getGranularity().name().toLowerCase());
+        for (int table = 0; table < 2; table++) {
+            if (dimensionId != null) {
+                params.add(dimensionId);
+            }
+            params.add(Date.valueOf(filter.getFrom()));
+            params.add(Date.valueOf(filter.getTo()));
+        }
+        String rows = "SELECT day, orders, units, revenue FROM %s WHERE " + dimension + "day BETWEEN ? AND ?";
+
+        return jdbcTemplate.query(
+                "SELECT CAST(date_trunc(?, CAST(day AS TIMESTAMP)) AS DATE) AS period,"
+                        + " SUM(orders) AS orders, SUM(units) AS units, SUM(revenue) AS revenue"
+                        + " FROM (" + rows.formatted(rollup.table())
+                        + " UNION ALL " + rows.formatted(rollup.pending()) + ") sales"
+                        + " GROUP BY 1 ORDER BY 1",
+                (rs, row) -> SalesPointDto.builder()
+                        .period(rs.getDate("period").toLocalDate())
+                        .orders(rs.getLong("orders"))
+                        .units(rs.getLong("units"))
+                        .revenue(rs.getBigDecimal("revenue"))
+                        .build(),
+                params.toArray());
+    }
+
+    private void appendOrder(Long orderId, int sign) {
+        for (Rollup rollup : ROLLUPS) {
+            jdbcTemplate.update(rollup.insert(rollup.pending()).formatted("o.id = ?"), sign, sign, sign, orderId);
+        }
+    }
+
+    private void rebuildDay(LocalDate day) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                rebuildTransaction.executeWithoutResult(tx -> swapDay(day));
+                return;
+            } catch (ConcurrencyFailureException e) {
+                if (attempt == REBUILD_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Rebuild of sales rollups for {} raced the fold job, retrying: {}", day, e.getMessage());
+            }
+        }
+    }
+
+    private void swapDay(LocalDate day) {
+        Timestamp start = Timestamp.valueOf(day.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(day.plusDays(1).atStartOfDay());
+        // The recount is the slow part: it writes temporary tables only, no rollup row is locked yet
+        for (Rollup rollup : ROLLUPS) {
+            jdbcTemplate.execute("CREATE TEMPORARY TABLE " + rollup.staging()
+                    + " (LIKE " + rollup.table() + ") ON COMMIT DROP");
+            jdbcTemplate.update(rollup.insert(rollup.staging())
+                    .formatted(SOLD + " AND o.created_at >= ? AND o.created_at < ?"), 1, 1, 1, start, end);
+        }
+        for (Rollup rollup : ROLLUPS) {
+            // Pending rows visible to this snapshot are in the recount. Rows committed since are not:
+            // they stay and are folded on top. A row the fold job took meanwhile fails the
+            // transaction with a serialization error, and rebuildDay starts over
+            jdbcTemplate.update("DELETE FROM " + rollup.pending() + " WHERE day = ?", Date.valueOf(day));
+            jdbcTemplate.update("DELETE FROM " + rollup.table() + " WHERE day = ?", Date.valueOf(day));
+            // Upsert: conflicting with a row this snapshot can't see is a serialization error too
+            jdbcTemplate.update(rollup.upsert(rollup.staging()));
+        }
+    }
+}
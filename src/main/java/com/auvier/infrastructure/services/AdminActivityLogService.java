@@ -1,11 +1,19 @@
 package com.auvier.infrastructure.services;
 
+import com.auvier.dtos.CursorPageDto;
+import com.auvier.dtos.activity.ActivityLogFilterDto;
+import com.auvier.dtos.activity.ActivityLogSummaryDto;
 import com.auvier.entities.AdminActivityLogEntity;
+import com.auvier.infrastructure.activitylog.ActivityLogWriterStats;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface AdminActivityLogService {
 
+    int DEFAULT_PAGE_SIZE = 50;
+    int MAX_PAGE_SIZE = 100;
+
     /**
      * Log an admin action (simple)
      */
@@ -25,17 +33,23 @@ public interface AdminActivityLogService {
                       String previousValues, String newValues);
 
     /**
-     * Get recent activity logs
+     * Search activity logs, newest first (keyset pagination).
+     * Covers the table only; use {@link #getLogsBetween} for archived months.
+     * @param filter admin, entity, action, date range and free-text filters
+     * @param cursor nextCursor of the previous page, null for the first page
+     * @param limit page size, capped at {@link #MAX_PAGE_SIZE}
+     * @return page of log summaries
      */
-    List<AdminActivityLogEntity> getRecentLogs();
+    CursorPageDto<ActivityLogSummaryDto> searchLogs(ActivityLogFilterDto filter, String cursor, int limit);
 
     /**
-     * Get logs by admin username
+     * Get logs between two times, newest first, optionally for one admin (null for all).
+     * Months already moved to the archive are read from there.
      */
-    List<AdminActivityLogEntity> getLogsByAdmin(String username);
+    List<AdminActivityLogEntity> getLogsBetween(LocalDateTime from, LocalDateTime to, String username, int limit);
 
     /**
-     * Get logs by entity type
+     * Counters of the background log writer (queue depth, backpressure, drops)
      */
-    List<AdminActivityLogEntity> getLogsByEntityType(String entityType);
+    ActivityLogWriterStats getWriterStats();
 }
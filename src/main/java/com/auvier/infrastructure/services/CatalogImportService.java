@@ -0,0 +1,20 @@
+package com.auvier.infrastructure.services;
+
+import com.auvier.dtos.imports.CatalogImportResultDto;
+import com.auvier.enums.ImportFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Bulk creation and update of products and variants from a file (see CatalogImporter for the columns).
+ */
+public interface CatalogImportService {
+
+    /**
+     * Import a CSV or JSON Lines file, plain or gzip-compressed. The input is read once, as a stream;
+     * closing it is up to the caller. Rows are saved in batches as they are read, so the rows that were
+     * not rejected stay saved whatever happens later in the file.
+     */
+    CatalogImportResultDto importCatalog(InputStream in, ImportFormat format) throws IOException;
+}
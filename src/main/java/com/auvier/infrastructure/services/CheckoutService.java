@@ -0,0 +1,26 @@
+package com.auvier.infrastructure.services;
+
+import com.auvier.dtos.CheckoutDto;
+import com.auvier.dtos.CheckoutResultDto;
+import com.auvier.entities.UserEntity;
+
+/**
+ * Storefront checkout: turns the cart into an order and starts its payment.
+ *
+ * Runs as a saga of short steps, so no database connection is held while the payment gateway answers:
+ *  1. reserve - create the PENDING order and reserve its stock (one short transaction)
+ *  2. pay     - create the PaymentIntent (gateway call, no transaction)
+ *  3. commit  - attach the PaymentIntent to the order (one short transaction)
+ * If step 2 or 3 fails, the finished steps are compensated: the PaymentIntent is cancelled and the
+ * order cancelled, which releases its stock.
+ */
+public interface CheckoutService {
+
+    /**
+     * Place an order from the cart.
+     * @param user the authenticated customer
+     * @param dto shipping details and cart lines
+     * @return order ID and the client secret for Stripe.js
+     */
+    CheckoutResultDto placeOrder(UserEntity user, CheckoutDto dto);
+}
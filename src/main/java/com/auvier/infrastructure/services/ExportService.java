@@ -0,0 +1,34 @@
+package com.auvier.infrastructure.services;
+
+import com.auvier.dtos.export.UserExportFilterDto;
+import com.auvier.dtos.export.VariantExportFilterDto;
+import com.auvier.dtos.order.OrderFilterDto;
+import com.auvier.enums.ExportFormat;
+
+import java.io.OutputStream;
+
+/**
+ * Streaming exports for admins. Rows are read through a database cursor, StreamingQueries.FETCH_SIZE at a
+ * time, and written to the output as they arrive, so memory use does not depend on the number of rows.
+ * Each method writes the whole document and flushes; closing the stream is up to the caller.
+ */
+public interface ExportService {
+
+    /**
+     * Orders matching the admin order filters, in the filter's sort order
+     * @return number of rows written
+     */
+    long exportOrders(OrderFilterDto filter, ExportFormat format, OutputStream out);
+
+    /**
+     * Users (without credentials), by id
+     * @return number of rows written
+     */
+    long exportUsers(UserExportFilterDto filter, ExportFormat format, OutputStream out);
+
+    /**
+     * Variants with their product, price and stock, by id
+     * @return number of rows written
+     */
+    long exportVariants(VariantExportFilterDto filter, ExportFormat format, OutputStream out);
+}
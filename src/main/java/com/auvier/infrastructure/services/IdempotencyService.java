@@ -0,0 +1,30 @@
+package com.auvier.infrastructure.services;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Supplier;
+
+/**
+ * Makes non-idempotent endpoints (order creation, checkout) safe to retry.
+ * The first request with a given Idempotency-Key runs the action and stores its response;
+ * retries with the same key wait for and replay that response instead of running it again.
+ */
+public interface IdempotencyService {
+
+    /**
+     * Run an action at most once per (scope, owner, key).
+     * Without a key the action simply runs. Failed (non-2xx or throwing) executions release
+     * the key so the client can retry.
+     * @param scope endpoint identifier, e.g. "checkout:create-order"
+     * @param owner username of the caller
+     * @param key the client supplied Idempotency-Key header, may be null
+     * @param request request body, used to detect a key reused for a different request
+     * @param responseType body type used when replaying a stored response
+     * @param action the work to run
+     * @return the fresh or replayed response
+     * @throws com.auvier.exception.IdempotencyConflictException if the key belongs to a different
+     *         request or the original request is still running after the wait timeout
+     */
+    <T> ResponseEntity<T> execute(String scope, String owner, String key, Object request,
+                                  Class<T> responseType, Supplier<ResponseEntity<T>> action);
+}
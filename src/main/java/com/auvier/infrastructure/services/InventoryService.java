@@ -1,7 +1,11 @@
 package com.auvier.infrastructure.services;
 
+import com.auvier.dtos.inventory.StockSyncDto;
+import com.auvier.dtos.inventory.StockSyncResultDto;
 import com.auvier.entities.catalog.ProductVariantEntity;
 
+import java.util.Map;
+
 /**
  * Service for managing product variant inventory/stock.
  * Handles stock validation, reservation, and deduction.
@@ -38,6 +42,16 @@ public interface InventoryService {
      */
     void reserveStock(Long variantId, int quantity);
 
+    /**
+     * Reserve stock for several variants in one go (order creation).
+     * Rows are locked in ascending variant ID order, so two orders containing
+     * the same variants in a different line order can never deadlock.
+     * @param quantities quantity to reserve per variant ID
+     * @return the locked variants, keyed and ordered by variant ID
+     * @throws IllegalStateException if a variant is inactive or stock is insufficient
+     */
+    Map<Long, ProductVariantEntity> reserveStock(Map<Long, Integer> quantities);
+
     /**
      * Release reserved stock (increment) when removing from order or cancelling.
      * @param variantId the product variant ID
@@ -59,4 +73,12 @@ public interface InventoryService {
      * @return the variant entity
      */
     ProductVariantEntity getVariant(Long variantId);
+
+    /**
+     * Apply a warehouse stock feed by SKU, in chunks of StockSync.CHUNK_SIZE, each in its own transaction.
+     * Absolute levels leave the units held by open orders reserved.
+     * @param dto stock levels or changes per SKU
+     * @return counts, and the SKUs that were rejected or whose stock had to be set to 0
+     */
+    StockSyncResultDto syncStock(StockSyncDto dto);
 }
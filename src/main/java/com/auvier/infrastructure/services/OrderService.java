@@ -1,10 +1,14 @@
 package com.auvier.infrastructure.services;
 
+import com.auvier.dtos.CursorPageDto;
 import com.auvier.dtos.order.*;
 import com.auvier.entities.UserEntity;
 import com.auvier.enums.OrderStatus;
 
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Service for managing orders throughout their lifecycle.
@@ -12,6 +16,26 @@ import java.util.List;
  */
 public interface OrderService {
 
+    int DEFAULT_PAGE_SIZE = 20;
+    int MAX_PAGE_SIZE = 100;
+
+    int BULK_CHUNK_SIZE = 500;
+    int MAX_BULK_ORDERS = 5000;
+
+    // orders.payment_status values, lower case like Stripe's own statuses
+    String PAYMENT_PENDING = "pending";
+    String PAYMENT_PAID = "paid";
+    String PAYMENT_FAILED = "failed";
+    /**
+     * Payment status of a cancelled order that was paid anyway (e.g. cancelled while the customer was
+     * confirming); its stock was released, so it is not revived and the payment needs a refund
+     */
+    String PAYMENT_REFUND_REQUIRED = "refund_required";
+
+    // Fulfillment statuses with no per-order side effects (stock, payment), so they can be set in bulk
+    Set<OrderStatus> BULK_TARGET_STATUSES =
+            Collections.unmodifiableSet(EnumSet.of(OrderStatus.SHIPPED, OrderStatus.DELIVERED));
+
     // ==================== ORDER CRUD ====================
 
     /**
@@ -38,17 +62,22 @@ public interface OrderService {
     OrderResponseDto getOrderForUser(Long orderId, UserEntity user);
 
     /**
-     * Get all orders (admin).
-     * @return list of order summaries
+     * Search orders for the admin order browser (keyset pagination).
+     * @param filter status, date range, customer, amount filters and sort order
+     * @param cursor nextCursor of the previous page, null for the first page
+     * @param limit page size, capped at {@link #MAX_PAGE_SIZE}
+     * @return page of order summaries
      */
-    List<OrderSummaryDto> getAllOrders();
+    CursorPageDto<OrderSummaryDto> searchOrders(OrderFilterDto filter, String cursor, int limit);
 
     /**
-     * Get orders for a specific user.
+     * Get one page of a user's orders, newest first (keyset pagination).
      * @param user the user
-     * @return list of order summaries
+     * @param cursor nextCursor of the previous page, null for the first page
+     * @param limit page size, capped at {@link #MAX_PAGE_SIZE}
+     * @return page of order summaries
      */
-    List<OrderSummaryDto> getOrdersForUser(UserEntity user);
+    CursorPageDto<OrderSummaryDto> getOrdersForUser(UserEntity user, String cursor, int limit);
 
     /**
      * Delete/cancel an order.
@@ -63,9 +92,9 @@ public interface OrderService {
      * Validates stock availability before adding.
      * @param orderId the order ID
      * @param dto item to add
-     * @return updated order
+     * @return the changed line and the new order totals
      */
-    OrderResponseDto addItem(Long orderId, OrderItemCreateDto dto);
+    OrderItemChangeDto addItem(Long orderId, OrderItemCreateDto dto);
 
     /**
      * Update quantity of an existing order item.
@@ -73,18 +102,18 @@ public interface OrderService {
      * @param orderId the order ID
      * @param itemId the order item ID
      * @param newQuantity the new quantity
-     * @return updated order
+     * @return the changed line and the new order totals
      */
-    OrderResponseDto updateItemQuantity(Long orderId, Long itemId, int newQuantity);
+    OrderItemChangeDto updateItemQuantity(Long orderId, Long itemId, int newQuantity);
 
     /**
      * Remove an item from an order.
      * Releases reserved stock back to inventory.
      * @param orderId the order ID
      * @param itemId the order item ID
-     * @return updated order
+     * @return the removed line's ID and the new order totals
      */
-    OrderResponseDto removeItem(Long orderId, Long itemId);
+    OrderItemChangeDto removeItem(Long orderId, Long itemId);
 
     /**
      * Clear all items from an order.
@@ -121,6 +150,16 @@ public interface OrderService {
      */
     OrderResponseDto updateStatus(Long orderId, OrderStatusUpdateDto dto);
 
+    /**
+     * Move many orders to the same status (admin, e.g. ship a batch of PAID orders).
+     * Each order is checked against the normal transition rules; valid ones are
+     * updated with set-based UPDATEs in chunks of BULK_CHUNK_SIZE, each committed on its own.
+     * @param orderIds the order IDs (duplicates ignored)
+     * @param target one of BULK_TARGET_STATUSES
+     * @return per-order success/failure report
+     */
+    BulkStatusUpdateResultDto bulkUpdateStatus(List<Long> orderIds, OrderStatus target);
+
     /**
      * Confirm an order (move from PENDING to CREATED).
      * Final stock validation before confirmation.
@@ -160,10 +199,37 @@ public interface OrderService {
      */
     OrderResponseDto markAsDelivered(Long orderId);
 
+    /**
+     * Attach the PaymentIntent created during checkout to a PENDING order.
+     * A no-op if a fast webhook already marked the order PAID.
+     * @param orderId the order ID
+     * @param paymentIntentId the gateway's PaymentIntent ID
+     * @throws IllegalStateException if the order was cancelled in the meantime
+     */
+    void attachPaymentIntent(Long orderId, String paymentIntentId);
+
+    /**
+     * Apply a payment_intent.succeeded webhook: a PENDING or CREATED order becomes PAID, an order
+     * that is paid already only records the payment, and a CANCELLED one is flagged
+     * {@link #PAYMENT_REFUND_REQUIRED}. Nothing happens if the order does not exist.
+     * @param orderId the order ID from the PaymentIntent's metadata
+     * @param paymentIntentId the gateway's PaymentIntent ID
+     */
+    void recordPaymentSucceeded(Long orderId, String paymentIntentId);
+
+    /**
+     * Apply a payment_intent.payment_failed webhook to an order that is not paid yet.
+     * @param orderId the order ID from the PaymentIntent's metadata
+     * @param paymentIntentId the gateway's PaymentIntent ID
+     * @return false if the failure was ignored because the order is paid already (deliveries are unordered)
+     */
+    boolean recordPaymentFailed(Long orderId, String paymentIntentId);
+
     // ==================== ORDER CALCULATIONS ====================
 
     /**
-     * Recalculate and update order total based on items.
+     * Recalculate order total and item count from the items.
+     * Item operations maintain both incrementally; this is the full repair path.
      * @param orderId the order ID
      * @return recalculated total
      */
@@ -0,0 +1,28 @@
+package com.auvier.infrastructure.services;
+
+import com.auvier.enums.OrderEventType;
+
+import java.util.Map;
+
+/**
+ * Transactional outbox: records domain events in the caller's transaction,
+ * so an event exists if and only if the change it describes was committed.
+ * Delivery to subscribers happens later, on the relay thread.
+ */
+public interface OutboxService {
+
+    String ORDER = "Order";
+
+    /**
+     * Record an event. Must be called inside the transaction that makes the change.
+     * @param aggregateType e.g. ORDER
+     * @param aggregateId the aggregate's ID; events are delivered in order per aggregate
+     * @param eventType event name
+     * @param payload serialized to JSON
+     */
+    void publish(String aggregateType, Long aggregateId, String eventType, Map<String, Object> payload);
+
+    default void publishOrderEvent(Long orderId, OrderEventType type, Map<String, Object> payload) {
+        publish(ORDER, orderId, type.name(), payload);
+    }
+}
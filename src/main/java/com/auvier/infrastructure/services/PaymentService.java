@@ -1,14 +1,26 @@
 package com.auvier.infrastructure.services;
 
 import com.auvier.dtos.PaymentIntentDto;
-import com.auvier.entities.OrderEntity;
+import com.auvier.infrastructure.payments.CachedPaymentStatus;
 
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Payment gateway calls. None of these touch the database, so callers must not
+ * hold a transaction open around them (see CheckoutService).
+ */
 public interface PaymentService {
 
     /**
-     * Create a Stripe Payment Intent for an order
+     * Create a Payment Intent for an order
+     */
+    PaymentIntentDto createPaymentIntent(Long orderId, BigDecimal totalAmount);
+
+    /**
+     * Cancel a Payment Intent that will not be used (checkout compensation)
      */
-    PaymentIntentDto createPaymentIntent(OrderEntity order);
+    void cancelPaymentIntent(String paymentIntentId);
 
     /**
      * Confirm payment was successful
@@ -16,7 +28,12 @@ public interface PaymentService {
     boolean confirmPayment(String paymentIntentId);
 
     /**
-     * Handle webhook events from Stripe
+     * Current status of a Payment Intent: from the cache when fresh, otherwise read from the gateway
+     */
+    CachedPaymentStatus getPaymentStatus(String paymentIntentId);
+
+    /**
+     * Completes when this instance sees a status newer than afterVersion (see PaymentStatusCache)
      */
-    void handleWebhookEvent(String payload, String sigHeader);
+    CompletableFuture<CachedPaymentStatus> awaitPaymentStatus(String paymentIntentId, long afterVersion);
 }
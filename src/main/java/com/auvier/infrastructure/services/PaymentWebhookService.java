@@ -0,0 +1,31 @@
+package com.auvier.infrastructure.services;
+
+/**
+ * Stripe webhook pipeline.
+ * Events are verified and stored on the request thread, then applied on the webhook workers,
+ * one at a time per order.
+ */
+public interface PaymentWebhookService {
+
+    /**
+     * Verify, store and queue a webhook delivery. Does not touch the order, so it returns in milliseconds.
+     * @param payload raw request body
+     * @param sigHeader Stripe-Signature header
+     * @return true if the event is new, false if Stripe already delivered it
+     * @throws com.auvier.exception.InvalidRequestException if the signature does not verify
+     */
+    boolean receive(String payload, String sigHeader);
+
+    /**
+     * Apply a stored event again (admin), whatever its current status.
+     * @param eventId Stripe event id
+     * @throws com.auvier.exception.ResourceNotFoundException if the event was never stored
+     */
+    void replay(String eventId);
+
+    /**
+     * Queue every event that gave up after payment.webhook.max-attempts (admin).
+     * @return number of events queued
+     */
+    int replayFailed();
+}
@@ -0,0 +1,34 @@
+package com.auvier.infrastructure.services;
+
+import com.auvier.dtos.report.SalesReportFilterDto;
+import com.auvier.dtos.report.SalesSeriesDto;
+
+import java.time.LocalDate;
+
+/**
+ * Sales reports, read from the daily rollups (SalesRollups) only.
+ */
+public interface SalesReportService {
+
+    int MAX_POINTS = 1000;
+
+    int MAX_REBUILD_DAYS = 366;
+
+    /**
+     * Orders, units and revenue per day, week or month, optionally for one variant, product or category.
+     * Every bucket from 'from' to 'to' is present, with zeros where nothing was sold.
+     * @throws com.auvier.exception.InvalidRequestException if the range is missing or inverted, more than
+     *         one dimension is given, or the series would have more than {@link #MAX_POINTS} points
+     */
+    SalesSeriesDto getSalesSeries(SalesReportFilterDto filter);
+
+    /**
+     * Recompute the rollups of the given days (inclusive) from the orders, e.g. to backfill history
+     * or repair rollups after orders were changed outside the order services.
+     * Longer histories are rebuilt in several requests of at most {@link #MAX_REBUILD_DAYS} days.
+     * @return number of days rebuilt
+     * @throws com.auvier.exception.InvalidRequestException if the range is missing, inverted or longer
+     *         than {@link #MAX_REBUILD_DAYS} days
+     */
+    int rebuildRollups(LocalDate from, LocalDate to);
+}
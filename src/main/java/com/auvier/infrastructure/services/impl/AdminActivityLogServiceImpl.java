@@ -1,19 +1,34 @@
 package com.auvier.infrastructure.services.impl;
 
+import com.auvier.dtos.CursorPageDto;
+import com.auvier.dtos.activity.ActivityLogFilterDto;
+import com.auvier.dtos.activity.ActivityLogSummaryDto;
 import com.auvier.entities.AdminActivityLogEntity;
+import com.auvier.infrastructure.activitylog.ActivityLogArchive;
+import com.auvier.infrastructure.activitylog.ActivityLogWriter;
+import com.auvier.infrastructure.activitylog.ActivityLogWriterStats;
+import com.auvier.infrastructure.pagination.KeysetCursor;
 import com.auvier.infrastructure.services.AdminActivityLogService;
 import com.auvier.repositories.AdminActivityLogRepository;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -21,6 +36,8 @@ import java.util.List;
 public class AdminActivityLogServiceImpl implements AdminActivityLogService {
 
     private final AdminActivityLogRepository repository;
+    private final ActivityLogWriter activityLogWriter;
+    private final ActivityLogArchive activityLogArchive;
 
     @Override
     public void log(String action, String entityType, Long entityId, String entityName, String details) {
@@ -49,13 +66,14 @@ public class AdminActivityLogServiceImpl implements AdminActivityLogService {
             logEntry.setChangesDetail(changesDetail);
             logEntry.setPreviousValues(previousValues);
             logEntry.setNewValues(newValues);
-            logEntry.setAdminUsername(getCurrentUsername());
-            logEntry.setAdminDisplayName(getCurrentUsername()); // Could be enhanced to get full name
-            logEntry.setIpAddress(getClientIp());
-            logEntry.setUserAgent(getUserAgent());
-            logEntry.setSessionId(getSessionId());
+            logEntry.setTimestamp(LocalDateTime.now());
+            // The writer thread has no request or security context: capture both now
+            captureRequestContext(logEntry);
 
-            repository.save(logEntry);
+            if (!activityLogWriter.offer(logEntry)) {
+                // Buffer full or shutting down: pay the insert here rather than lose the entry
+                repository.save(logEntry);
+            }
             log.info("Admin activity: {} - {}", action, description);
         } catch (Exception e) {
             log.error("Failed to log admin activity", e);
@@ -79,68 +97,74 @@ public class AdminActivityLogServiceImpl implements AdminActivityLogService {
     }
 
     @Override
-    public List<AdminActivityLogEntity> getRecentLogs() {
-        return repository.findTop50ByOrderByTimestampDesc();
+    public CursorPageDto<ActivityLogSummaryDto> searchLogs(ActivityLogFilterDto filter, String cursor, int limit) {
+        int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        // Fetch one extra row to know whether another page exists
+        List<ActivityLogSummaryDto> rows = repository.search(filter, KeysetCursor.decode(cursor), pageSize + 1);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<ActivityLogSummaryDto> items = hasMore ? rows.subList(0, pageSize) : rows;
+        ActivityLogSummaryDto last = items.isEmpty() ? null : items.get(items.size() - 1);
+
+        return CursorPageDto.<ActivityLogSummaryDto>builder()
+                .items(items)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? KeysetCursor.of(last.getTimestamp(), last.getId()).encode() : null)
+                .build();
     }
 
     @Override
-    public List<AdminActivityLogEntity> getLogsByAdmin(String username) {
-        return repository.findByAdminUsernameOrderByTimestampDesc(username);
+    public List<AdminActivityLogEntity> getLogsBetween(LocalDateTime from, LocalDateTime to, String username, int limit) {
+        List<AdminActivityLogEntity> logs = new ArrayList<>(username != null
+                ? repository.findByAdminUsernameAndTimestampBetweenOrderByTimestampDesc(username, from, to, Limit.of(limit))
+                : repository.findByTimestampBetweenOrderByTimestampDesc(from, to, Limit.of(limit)));
+
+        // A month can be in both places if maintenance stopped between archiving and dropping it
+        Set<Long> fromTable = logs.stream().map(AdminActivityLogEntity::getId).collect(Collectors.toSet());
+
+        // Archived months are no longer in the table; each is one file, read only when the range reaches it
+        for (YearMonth month = YearMonth.from(from); !month.isAfter(YearMonth.from(to)); month = month.plusMonths(1)) {
+            if (!activityLogArchive.contains(month)) {
+                continue;
+            }
+            try (Stream<AdminActivityLogEntity> archived = activityLogArchive.read(month)) {
+                archived.filter(entry -> !entry.getTimestamp().isBefore(from) && !entry.getTimestamp().isAfter(to))
+                        .filter(entry -> !fromTable.contains(entry.getId()))
+                        .filter(entry -> username == null || username.equals(entry.getAdminUsername()))
+                        .forEach(logs::add);
+            }
+        }
+
+        return logs.stream()
+                .sorted(Comparator.comparing(AdminActivityLogEntity::getTimestamp).reversed())
+                .limit(limit)
+                .toList();
     }
 
     @Override
-    public List<AdminActivityLogEntity> getLogsByEntityType(String entityType) {
-        return repository.findByEntityTypeOrderByTimestampDesc(entityType);
+    public ActivityLogWriterStats getWriterStats() {
+        return activityLogWriter.stats();
     }
 
-    private String getCurrentUsername() {
+    private void captureRequestContext(AdminActivityLogEntity logEntry) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        return auth != null ? auth.getName() : "unknown";
-    }
-
-    private String getClientIp() {
-        try {
-            ServletRequestAttributes attrs = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-            if (attrs != null) {
-                HttpServletRequest request = attrs.getRequest();
-                String xForwardedFor = request.getHeader("X-Forwarded-For");
-                if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-                    return xForwardedFor.split(",")[0].trim();
-                }
-                return request.getRemoteAddr();
-            }
-        } catch (Exception e) {
-            log.debug("Could not get client IP", e);
-        }
-        return "unknown";
-    }
+        String username = auth != null ? auth.getName() : "unknown";
+        logEntry.setAdminUsername(username);
+        logEntry.setAdminDisplayName(username); // Could be enhanced to get full name
+        logEntry.setIpAddress("unknown");
 
-    private String getUserAgent() {
-        try {
-            ServletRequestAttributes attrs = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-            if (attrs != null) {
-                HttpServletRequest request = attrs.getRequest();
-                return request.getHeader("User-Agent");
-            }
-        } catch (Exception e) {
-            log.debug("Could not get user agent", e);
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attrs)) {
+            return;
         }
-        return null;
-    }
-
-    private String getSessionId() {
-        try {
-            ServletRequestAttributes attrs = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-            if (attrs != null) {
-                HttpServletRequest request = attrs.getRequest();
-                HttpSession session = request.getSession(false);
-                if (session != null) {
-                    return session.getId();
-                }
-            }
-        } catch (Exception e) {
-            log.debug("Could not get session ID", e);
+        HttpServletRequest request = attrs.getRequest();
+        String xForwardedFor = request.getHeader("X-Forwarded-For");
+        logEntry.setIpAddress(xForwardedFor != null && !xForwardedFor.isEmpty()
+                ? xForwardedFor.split(",")[0].trim()
+                : request.getRemoteAddr());
+        logEntry.setUserAgent(request.getHeader("User-Agent"));
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            logEntry.setSessionId(session.getId());
         }
-        return null;
     }
 }
@@ -0,0 +1,45 @@
+package com.auvier.infrastructure.services.impl;
+
+import com.auvier.dtos.imports.CatalogImportResultDto;
+import com.auvier.enums.ImportFormat;
+import com.auvier.infrastructure.dashboard.DashboardMetrics;
+import com.auvier.infrastructure.imports.CatalogImporter;
+import com.auvier.infrastructure.services.CatalogImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Not transactional: CatalogImporter commits one batch at a time.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogImportServiceImpl implements CatalogImportService {
+
+    private final CatalogImporter catalogImporter;
+    private final DashboardMetrics dashboardMetrics;
+
+    @Override
+    public CatalogImportResultDto importCatalog(InputStream in, ImportFormat format) throws IOException {
+        CatalogImportResultDto result = catalogImporter.importCatalog(decompressed(in), format);
+        if (result.getVariantsCreated() + result.getVariantsUpdated() > 0) {
+            // Stock was written around the services, so recount the low stock counter now
+            dashboardMetrics.reconcile();
+        }
+        return result;
+    }
+
+    private static InputStream decompressed(InputStream in) throws IOException {
+        InputStream buffered = new BufferedInputStream(in, 64 * 1024);
+        buffered.mark(2);
+        int first = buffered.read();
+        int second = buffered.read();
+        buffered.reset();
+        boolean gzip = first == (GZIPInputStream.GZIP_MAGIC & 0xff) && second == (GZIPInputStream.GZIP_MAGIC >> 8);
+        return gzip ? new GZIPInputStream(buffered, 64 * 1024) : buffered;
+    }
+}
@@ -0,0 +1,108 @@
+package com.auvier.infrastructure.services.impl;
+
+import com.auvier.dtos.CheckoutDto;
+import com.auvier.dtos.CheckoutResultDto;
+import com.auvier.dtos.PaymentIntentDto;
+import com.auvier.dtos.order.OrderCreateDto;
+import com.auvier.dtos.order.OrderItemCreateDto;
+import com.auvier.dtos.order.OrderResponseDto;
+import com.auvier.entities.UserEntity;
+import com.auvier.exception.InvalidRequestException;
+import com.auvier.infrastructure.services.CheckoutService;
+import com.auvier.infrastructure.services.OrderService;
+import com.auvier.infrastructure.services.PaymentService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Deliberately not @Transactional: each step commits on its own (see CheckoutService).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CheckoutServiceImpl implements CheckoutService {
+
+    private final OrderService orderService;
+    private final PaymentService paymentService;
+
+    @Override
+    public CheckoutResultDto placeOrder(UserEntity user, CheckoutDto dto) {
+        // 1. Reserve: order + stock, committed before the gateway is called
+        OrderResponseDto order = orderService.createOrder(user, toOrderCreateDto(dto));
+
+        // 2. Pay: network call with no transaction and no pooled connection held
+        PaymentIntentDto paymentIntent;
+        try {
+            paymentIntent = paymentService.createPaymentIntent(order.getId(), order.getTotalAmount());
+        } catch (RuntimeException e) {
+            compensate(order.getId(), null, e);
+            throw e;
+        }
+
+        // 3. Commit: attach the intent; fails if the order was cancelled meanwhile
+        try {
+            orderService.attachPaymentIntent(order.getId(), paymentIntent.getPaymentIntentId());
+        } catch (RuntimeException e) {
+            compensate(order.getId(), paymentIntent.getPaymentIntentId(), e);
+            throw e;
+        }
+
+        return new CheckoutResultDto(order.getId(), paymentIntent.getPaymentIntentId(),
+                paymentIntent.getClientSecret(), paymentIntent.getAmount());
+    }
+
+    /**
+     * Undo the finished steps, newest first. Failures here are logged and attached to the original
+     * exception instead of replacing it.
+     */
+    private void compensate(Long orderId, String paymentIntentId, RuntimeException cause) {
+        log.warn("Checkout of order {} failed, compensating: {}", orderId, cause.getMessage());
+
+        if (paymentIntentId != null) {
+            try {
+                paymentService.cancelPaymentIntent(paymentIntentId);
+            } catch (RuntimeException e) {
+                log.error("Could not cancel PaymentIntent {} of order {}: {}", paymentIntentId, orderId, e.getMessage());
+                cause.addSuppressed(e);
+            }
+        }
+
+        try {
+            orderService.cancelOrder(orderId, "Checkout failed: " + cause.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Could not cancel order {} after failed checkout: {}", orderId, e.getMessage());
+            cause.addSuppressed(e);
+        }
+    }
+
+    private OrderCreateDto toOrderCreateDto(CheckoutDto dto) {
+        if (dto.getCartItems() == null || dto.getCartItems().isEmpty()) {
+            throw new InvalidRequestException("Cart is empty");
+        }
+
+        List<OrderItemCreateDto> items = dto.getCartItems().stream()
+                .map(line -> {
+                    if (line.getVariantId() == null || line.getQuantity() == null || line.getQuantity() < 1) {
+                        throw new InvalidRequestException("Invalid cart line");
+                    }
+                    return new OrderItemCreateDto(line.getVariantId(), line.getQuantity());
+                })
+                .toList();
+        return OrderCreateDto.builder()
+                .items(items)
+                .shippingAddress(formatShippingAddress(dto))
+                .paymentMethod("stripe")
+                .build();
+    }
+
+    private String formatShippingAddress(CheckoutDto dto) {
+        return String.format("%s %s\n%s\n%s, %s %s\n%s",
+                dto.getFirstName(), dto.getLastName(),
+                dto.getAddress(),
+                dto.getCity(), dto.getState(), dto.getZipCode(),
+                dto.getCountry());
+    }
+}
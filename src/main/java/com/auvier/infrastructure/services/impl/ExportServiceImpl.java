@@ -0,0 +1,121 @@
+package com.auvier.infrastructure.services.impl;
+
+import com.auvier.dtos.export.UserExportFilterDto;
+import com.auvier.dtos.export.VariantExportFilterDto;
+import com.auvier.dtos.order.OrderFilterDto;
+import com.auvier.dtos.order.OrderSummaryDto;
+import com.auvier.entities.UserEntity;
+import com.auvier.entities.catalog.ProductVariantEntity;
+import com.auvier.enums.ExportFormat;
+import com.auvier.infrastructure.export.ExportWriter;
+import com.auvier.infrastructure.services.ExportService;
+import com.auvier.repositories.OrderRepository;
+import com.auvier.repositories.ProductVariantRepository;
+import com.auvier.repositories.StreamingQueries;
+import com.auvier.repositories.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Read-only transactions (PostgreSQL only uses a cursor inside one). The persistence context is cleared
+ * every StreamingQueries.FETCH_SIZE rows, so entities that were written are detached instead of piling up.
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class ExportServiceImpl implements ExportService {
+
+    private static final List<String> ORDER_COLUMNS =
+            List.of("id", "created_at", "status", "total_amount", "item_count", "customer");
+    private static final List<String> USER_COLUMNS =
+            List.of("id", "username", "email", "first_name", "last_name", "phone", "address", "role", "created_at");
+    private static final List<String> VARIANT_COLUMNS =
+            List.of("id", "sku", "product_id", "product", "color", "size", "price", "stock", "active");
+
+    private final OrderRepository orderRepository;
+    private final UserRepository userRepository;
+    private final ProductVariantRepository variantRepository;
+    private final JsonMapper jsonMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public long exportOrders(OrderFilterDto filter, ExportFormat format, OutputStream out) {
+        try (Stream<OrderSummaryDto> orders = orderRepository.stream(filter)) {
+            return write(orders, ORDER_COLUMNS, format, out, order -> Arrays.asList(
+                    order.getId(),
+                    order.getCreatedAt(),
+                    order.getStatus(),
+                    order.getTotalAmount(),
+                    order.getItemCount(),
+                    order.getCustomerUsername()));
+        }
+    }
+
+    @Override
+    public long exportUsers(UserExportFilterDto filter, ExportFormat format, OutputStream out) {
+        // Inclusive days as a [from, to + 1 day) range
+        LocalDateTime since = filter.getFrom() != null ? filter.getFrom().atStartOfDay() : null;
+        LocalDateTime until = filter.getTo() != null ? filter.getTo().plusDays(1).atStartOfDay() : null;
+        try (Stream<UserEntity> users = userRepository.streamForExport(filter.getRole(), since, until)) {
+            return write(users, USER_COLUMNS, format, out, user -> Arrays.asList(
+                    user.getId(),
+                    user.getUsername(),
+                    user.getEmail(),
+                    user.getFirstName(),
+                    user.getLastName(),
+                    user.getPhone(),
+                    user.getAddress(),
+                    user.getRole(),
+                    user.getCreatedAt()));
+        }
+    }
+
+    @Override
+    public long exportVariants(VariantExportFilterDto filter, ExportFormat format, OutputStream out) {
+        try (Stream<ProductVariantEntity> variants = variantRepository.streamForExport(
+                filter.getProductId(), filter.getCategoryId(), filter.getActive(), filter.getMaxStock())) {
+            return write(variants, VARIANT_COLUMNS, format, out, variant -> Arrays.asList(
+                    variant.getId(),
+                    variant.getSku(),
+                    variant.getProduct().getId(),
+                    variant.getProduct().getName(),
+                    variant.getColor(),
+                    variant.getSize(),
+                    variant.getPrice(),
+                    variant.getStock(),
+                    variant.isActive()));
+        }
+    }
+
+    private <T> long write(Stream<T> rows, List<String> columns, ExportFormat format, OutputStream out,
+                           Function<T, List<?>> values) {
+        ExportWriter writer = ExportWriter.create(format, out, jsonMapper);
+        writer.header(columns);
+
+        long count = 0;
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            writer.row(values.apply(iterator.next()));
+            if (++count % StreamingQueries.FETCH_SIZE == 0) {
+                entityManager.clear();
+            }
+        }
+
+        writer.finish();
+        return count;
+    }
+}
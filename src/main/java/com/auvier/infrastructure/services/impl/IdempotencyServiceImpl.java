@@ -0,0 +1,170 @@
+package com.auvier.infrastructure.services.impl;
+
+import com.auvier.entities.IdempotencyKeyEntity;
+import com.auvier.enums.IdempotencyStatus;
+import com.auvier.exception.IdempotencyConflictException;
+import com.auvier.exception.InvalidRequestException;
+import com.auvier.infrastructure.services.IdempotencyService;
+import com.auvier.repositories.IdempotencyKeyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Not transactional on purpose: the claim must be committed before the action runs,
+ * otherwise concurrent duplicates could not see it.
+ *
+ * A claim is leased for idempotency.lease, separately from the idempotency.ttl a stored response is
+ * replayed for. If the request holding it dies (or cannot store its response), a retry takes the claim
+ * over once the lease has run out instead of getting 409 until the key expires. The lease end also
+ * identifies the holder: a request whose claim was taken over cannot complete or release it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private final IdempotencyKeyRepository repository;
+    private final JsonMapper jsonMapper;
+
+    @Value("${idempotency.ttl:PT1H}")
+    private Duration ttl;
+
+    @Value("${idempotency.wait-timeout:PT10S}")
+    private Duration waitTimeout;
+
+    @Value("${idempotency.lease:PT30S}")
+    private Duration lease;
+
+    @Override
+    public <T> ResponseEntity<T> execute(String scope, String owner, String key, Object request,
+                                         Class<T> responseType, Supplier<ResponseEntity<T>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidRequestException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String requestHash = hash(request);
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+
+        while (true) {
+            LocalDateTime now = now();
+            LocalDateTime lockedUntil = now.plus(lease);
+            if (repository.claim(scope, owner, key, requestHash, now, now.plus(ttl), lockedUntil) == 1) {
+                return executeAndStore(scope, owner, key, lockedUntil, action);
+            }
+
+            Optional<IdempotencyKeyEntity> existing = repository.findByScopeAndOwnerAndIdempotencyKey(scope, owner, key);
+            if (existing.isEmpty()) {
+                continue; // Released between claim and read, try to claim it again
+            }
+
+            IdempotencyKeyEntity entry = existing.get();
+            if (entry.getExpiresAt().isBefore(now)) {
+                repository.releaseIfExpired(scope, owner, key, now);
+                continue;
+            }
+            if (!entry.getRequestHash().equals(requestHash)) {
+                throw new IdempotencyConflictException("Idempotency-Key was already used for a different request");
+            }
+            if (entry.getStatus() == IdempotencyStatus.COMPLETED) {
+                log.info("Replaying stored response for {} key {} (user {})", scope, key, owner);
+                return replay(entry, responseType);
+            }
+            if (entry.getLockedUntil() != null && entry.getLockedUntil().isBefore(now)) {
+                if (repository.takeOver(scope, owner, key, requestHash, now, now.plus(ttl), lockedUntil) == 1) {
+                    log.warn("Took over the abandoned claim of {} key {} (user {})", scope, key, owner);
+                    return executeAndStore(scope, owner, key, lockedUntil, action);
+                }
+                continue; // Another retry took it over first
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IdempotencyConflictException("A request with this Idempotency-Key is still in progress");
+            }
+            sleep();
+        }
+    }
+
+    // Expired keys are also purged lazily on reuse, this just keeps the table small
+    @Scheduled(fixedDelayString = "${idempotency.cleanup-interval:PT10M}")
+    public void purgeExpiredKeys() {
+        int removed = repository.deleteExpired(LocalDateTime.now());
+        if (removed > 0) {
+            log.debug("Purged {} expired idempotency keys", removed);
+        }
+    }
+
+    // ==================== PRIVATE HELPER METHODS ====================
+
+    private <T> ResponseEntity<T> executeAndStore(String scope, String owner, String key, LocalDateTime lockedUntil,
+                                                  Supplier<ResponseEntity<T>> action) {
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            repository.release(scope, owner, key, lockedUntil);
+            throw e;
+        }
+
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            // Only successful results are worth replaying, let the client retry the rest
+            repository.release(scope, owner, key, lockedUntil);
+            return response;
+        }
+
+        String body = response.getBody() != null ? jsonMapper.writeValueAsString(response.getBody()) : null;
+        if (repository.complete(scope, owner, key, lockedUntil, IdempotencyStatus.COMPLETED,
+                response.getStatusCode().value(), body) == 0) {
+            log.warn("Claim of {} key {} (user {}) was taken over before the response was stored", scope, key, owner);
+        }
+        return response;
+    }
+
+    private <T> ResponseEntity<T> replay(IdempotencyKeyEntity entry, Class<T> responseType) {
+        T body = entry.getResponseBody() != null ? jsonMapper.readValue(entry.getResponseBody(), responseType) : null;
+        return ResponseEntity.status(entry.getResponseStatus())
+                .header("Idempotent-Replayed", "true")
+                .body(body);
+    }
+
+    // TIMESTAMP(6) keeps microseconds; the lease end must read back equal to compare it in complete/release
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(jsonMapper.writeValueAsBytes(request)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Interrupted while waiting for the original request");
+        }
+    }
+}
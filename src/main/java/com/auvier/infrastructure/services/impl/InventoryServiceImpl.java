@@ -1,19 +1,32 @@
 package com.auvier.infrastructure.services.impl;
 
+import com.auvier.dtos.inventory.StockSyncDto;
+import com.auvier.dtos.inventory.StockSyncResultDto;
 import com.auvier.entities.catalog.ProductVariantEntity;
 import com.auvier.exception.ResourceNotFoundException;
+import com.auvier.infrastructure.dashboard.DashboardMetrics;
+import com.auvier.infrastructure.inventory.StockSync;
+import com.auvier.infrastructure.metrics.ShopMetrics;
 import com.auvier.infrastructure.services.InventoryService;
 import com.auvier.repositories.ProductVariantRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class InventoryServiceImpl implements InventoryService {
 
     private final ProductVariantRepository variantRepository;
+    private final DashboardMetrics dashboardMetrics;
+    private final StockSync stockSync;
+    private final ShopMetrics shopMetrics;
 
     @Override
     public boolean hasStock(Long variantId, int quantity) {
@@ -23,15 +36,19 @@ public class InventoryServiceImpl implements InventoryService {
 
     @Override
     public void validateStock(Long variantId, int quantity) {
-        ProductVariantEntity variant = getVariant(variantId);
+        validateStock(getVariant(variantId), quantity);
+    }
 
+    private void validateStock(ProductVariantEntity variant, int quantity) {
         if (!variant.isActive()) {
+            shopMetrics.stockRejected("inactive");
             throw new IllegalStateException(
                     "Product variant '" + variant.getSku() + "' is not available for purchase"
             );
         }
 
         if (variant.getStock() < quantity) {
+            shopMetrics.stockRejected("insufficient");
             throw new IllegalStateException(
                     "Insufficient stock for '" + variant.getSku() + "'. " +
                             "Available: " + variant.getStock() + ", Requested: " + quantity
@@ -46,16 +63,47 @@ public class InventoryServiceImpl implements InventoryService {
 
     @Override
     public void reserveStock(Long variantId, int quantity) {
-        validateStock(variantId, quantity);
-        ProductVariantEntity variant = getVariant(variantId);
-        variant.setStock(variant.getStock() - quantity);
-        variantRepository.save(variant);
+        shopMetrics.time(ShopMetrics.STOCK_RESERVE, () -> {
+            ProductVariantEntity variant = getVariantForUpdate(variantId);
+            validateStock(variant, quantity);
+            setStock(variant, variant.getStock() - quantity);
+            variantRepository.save(variant);
+        });
+    }
+
+    @Override
+    public Map<Long, ProductVariantEntity> reserveStock(Map<Long, Integer> quantities) {
+        // Includes the wait for the row locks, which is where contention on hot variants shows up
+        return shopMetrics.time(ShopMetrics.STOCK_RESERVE, () -> lockAndReserve(quantities));
+    }
+
+    private Map<Long, ProductVariantEntity> lockAndReserve(Map<Long, Integer> quantities) {
+        // Sorted copy: the lock order must not depend on the caller's map
+        Map<Long, Integer> sorted = new TreeMap<>(quantities);
+
+        List<ProductVariantEntity> locked = variantRepository.findAllByIdInForUpdate(sorted.keySet());
+        Map<Long, ProductVariantEntity> variants = new LinkedHashMap<>();
+        for (ProductVariantEntity variant : locked) {
+            variants.put(variant.getId(), variant);
+        }
+
+        for (Map.Entry<Long, Integer> entry : sorted.entrySet()) {
+            ProductVariantEntity variant = variants.get(entry.getKey());
+            if (variant == null) {
+                throw new ResourceNotFoundException("ProductVariant", entry.getKey());
+            }
+            validateStock(variant, entry.getValue());
+            setStock(variant, variant.getStock() - entry.getValue());
+        }
+
+        variantRepository.saveAll(locked);
+        return variants;
     }
 
     @Override
     public void releaseStock(Long variantId, int quantity) {
-        ProductVariantEntity variant = getVariant(variantId);
-        variant.setStock(variant.getStock() + quantity);
+        ProductVariantEntity variant = getVariantForUpdate(variantId);
+        setStock(variant, variant.getStock() + quantity);
         variantRepository.save(variant);
     }
 
@@ -79,4 +127,21 @@ public class InventoryServiceImpl implements InventoryService {
         return variantRepository.findById(variantId)
                 .orElseThrow(() -> new ResourceNotFoundException("ProductVariant", variantId));
     }
+
+    @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED) // StockSync commits chunk by chunk
+    public StockSyncResultDto syncStock(StockSyncDto dto) {
+        return stockSync.sync(dto);
+    }
+
+    private void setStock(ProductVariantEntity variant, int stock) {
+        int before = variant.getStock();
+        variant.setStock(stock);
+        dashboardMetrics.stockChanged(variant, before);
+    }
+
+    private ProductVariantEntity getVariantForUpdate(Long variantId) {
+        return variantRepository.findByIdForUpdate(variantId)
+                .orElseThrow(() -> new ResourceNotFoundException("ProductVariant", variantId));
+    }
 }
@@ -1,24 +1,49 @@
 package com.auvier.infrastructure.services.impl;
 
+import com.auvier.dtos.CursorPageDto;
 import com.auvier.dtos.order.*;
 import com.auvier.entities.OrderEntity;
 import com.auvier.entities.OrderItemEntity;
 import com.auvier.entities.UserEntity;
 import com.auvier.entities.catalog.ProductVariantEntity;
+import com.auvier.enums.OrderEventType;
+import com.auvier.enums.OrderSortField;
 import com.auvier.enums.OrderStatus;
+import com.auvier.exception.InvalidRequestException;
 import com.auvier.exception.ResourceNotFoundException;
 import com.auvier.infrastructure.services.InventoryService;
+import com.auvier.infrastructure.dashboard.DashboardMetrics;
+import com.auvier.infrastructure.metrics.ShopMetrics;
+import com.auvier.infrastructure.pagination.KeysetCursor;
+import com.auvier.infrastructure.reporting.SalesRollups;
 import com.auvier.infrastructure.services.OrderService;
+import com.auvier.infrastructure.services.OutboxService;
 import com.auvier.mappers.OrderMapper;
 import com.auvier.repositories.OrderItemRepository;
 import com.auvier.repositories.OrderRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.resilience.annotation.Retryable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -26,42 +51,57 @@ import java.util.List;
 @Slf4j
 public class OrderServiceImpl implements OrderService {
 
+    private static final Set<OrderStatus> PAID_OR_LATER =
+            EnumSet.of(OrderStatus.PAID, OrderStatus.SHIPPED, OrderStatus.DELIVERED);
+
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final InventoryService inventoryService;
     private final OrderMapper orderMapper;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final DashboardMetrics dashboardMetrics;
+    private final SalesRollups salesRollups;
+    private final ShopMetrics shopMetrics;
 
     // ==================== ORDER CRUD ====================
 
     @Override
+    @Retryable(includes = PessimisticLockingFailureException.class,
+            maxRetries = 3, delay = 50, jitter = 25, multiplier = 2)
     public OrderResponseDto createOrder(UserEntity user, OrderCreateDto dto) {
+        // Each retry attempt is timed on its own
+        return shopMetrics.time(ShopMetrics.ORDER_CREATE, () -> placeOrder(user, dto));
+    }
+
+    private OrderResponseDto placeOrder(UserEntity user, OrderCreateDto dto) {
         log.info("Creating order for user: {}", user.getUsername());
 
         // Create order entity
         OrderEntity order = orderMapper.toEntity(dto);
         order.setUser(user);
         order.setStatus(OrderStatus.PENDING);
-        order.setPaymentStatus("PENDING");
+        order.setPaymentStatus(PAYMENT_PENDING);
         order.setTotalAmount(BigDecimal.ZERO);
 
         // Save order first to get ID
         order = orderRepository.save(order);
 
+        // Merge duplicate lines and lock the variant rows in ascending ID order,
+        // so concurrent orders listing the same variants never deadlock
+        SortedMap<Long, Integer> lines = mergeLines(dto.getItems());
+        Map<Long, ProductVariantEntity> variants = inventoryService.reserveStock(lines);
+
         // Add items and calculate total
         BigDecimal total = BigDecimal.ZERO;
-        for (OrderItemCreateDto itemDto : dto.getItems()) {
-            // Validate and reserve stock
-            inventoryService.validateStock(itemDto.getProductVariantId(), itemDto.getQuantity());
-            inventoryService.reserveStock(itemDto.getProductVariantId(), itemDto.getQuantity());
-
-            // Get variant for price
-            ProductVariantEntity variant = inventoryService.getVariant(itemDto.getProductVariantId());
+        for (Map.Entry<Long, Integer> line : lines.entrySet()) {
+            ProductVariantEntity variant = variants.get(line.getKey());
 
             // Create order item
             OrderItemEntity item = new OrderItemEntity();
             item.setOrder(order);
             item.setProductVariant(variant);
-            item.setQuantity(itemDto.getQuantity());
+            item.setQuantity(line.getValue());
             item.setUnitPrice(variant.getPrice()); // Snapshot current price
 
             order.addOrderItem(item);
@@ -69,8 +109,16 @@ public class OrderServiceImpl implements OrderService {
         }
 
         order.setTotalAmount(total);
+        order.setItemCount(lines.size());
         order = orderRepository.save(order);
 
+        outboxService.publishOrderEvent(order.getId(), OrderEventType.ORDER_CREATED, Map.of(
+                "userId", user.getId(),
+                "totalAmount", total,
+                "itemCount", order.getItemCount()
+        ));
+        dashboardMetrics.orderCreated(order);
+
         log.info("Order created successfully. ID: {}, Total: {}", order.getId(), total);
         return orderMapper.toResponseDto(order);
     }
@@ -91,22 +139,33 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    public List<OrderSummaryDto> getAllOrders() {
-        return orderMapper.toSummaryDtoList(orderRepository.findAll());
+    public CursorPageDto<OrderSummaryDto> searchOrders(OrderFilterDto filter, String cursor, int limit) {
+        int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        List<OrderSummaryDto> rows = orderRepository.search(filter, KeysetCursor.decode(cursor), pageSize + 1);
+
+        Function<OrderSummaryDto, Object> sortValue = filter.getSort() == OrderSortField.TOTAL_AMOUNT
+                ? OrderSummaryDto::getTotalAmount
+                : OrderSummaryDto::getCreatedAt;
+        return toPage(rows, pageSize, sortValue);
     }
 
     @Override
-    public List<OrderSummaryDto> getOrdersForUser(UserEntity user) {
-        // We need to add a query method to repository
-        return orderRepository.findAll().stream()
-                .filter(o -> o.getUser().getId().equals(user.getId()))
-                .map(orderMapper::toSummaryDto)
-                .toList();
+    public CursorPageDto<OrderSummaryDto> getOrdersForUser(UserEntity user, String cursor, int limit) {
+        int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+
+        // Fetch one extra row to know whether another page exists
+        Limit fetch = Limit.of(pageSize + 1);
+        List<OrderSummaryDto> rows = after == null
+                ? orderRepository.findSummariesByUserId(user.getId(), fetch)
+                : orderRepository.findSummariesByUserIdBefore(user.getId(), after.timestampValue(), after.id(), fetch);
+
+        return toPage(rows, pageSize, OrderSummaryDto::getCreatedAt);
     }
 
     @Override
     public void deleteOrder(Long orderId) {
-        OrderEntity order = findOrderById(orderId);
+        OrderEntity order = findOrderByIdForUpdate(orderId);
         validateOrderModifiable(order);
 
         // Release all reserved stock
@@ -114,15 +173,19 @@ public class OrderServiceImpl implements OrderService {
             inventoryService.releaseStock(item.getProductVariant().getId(), item.getQuantity());
         }
 
+        salesRollups.orderDeleted(order);
         orderRepository.delete(order);
+        dashboardMetrics.orderDeleted(order);
         log.info("Order {} deleted", orderId);
     }
 
     // ==================== ORDER ITEM MANAGEMENT ====================
 
     @Override
-    public OrderResponseDto addItem(Long orderId, OrderItemCreateDto dto) {
-        OrderEntity order = findOrderById(orderId);
+    public OrderItemChangeDto addItem(Long orderId, OrderItemCreateDto dto) {
+        // Every item edit locks the order row first: edits of one order run one at a time, and each
+        // computes its delta from the lines as the previous edit committed them
+        OrderEntity order = findOrderByIdForUpdate(orderId);
         validateOrderModifiable(order);
 
         // Check if item already exists in order
@@ -130,46 +193,42 @@ public class OrderServiceImpl implements OrderService {
                 orderId, dto.getProductVariantId()
         );
 
+        // Stock is validated against the locked row inside reserveStock
+        inventoryService.reserveStock(dto.getProductVariantId(), dto.getQuantity());
+
+        OrderItemEntity item;
+        int itemCountDelta;
         if (existingItem.isPresent()) {
             // Update quantity instead of adding duplicate
-            OrderItemEntity item = existingItem.get();
-            int newQuantity = item.getQuantity() + dto.getQuantity();
-
-            // Validate additional stock needed
-            inventoryService.validateStock(dto.getProductVariantId(), dto.getQuantity());
-            inventoryService.reserveStock(dto.getProductVariantId(), dto.getQuantity());
-
-            item.setQuantity(newQuantity);
-            orderItemRepository.save(item);
+            item = existingItem.get();
+            item.setQuantity(item.getQuantity() + dto.getQuantity());
+            itemCountDelta = 0;
 
             log.info("Updated item quantity in order {}. Variant: {}, New Qty: {}",
-                    orderId, dto.getProductVariantId(), newQuantity);
+                    orderId, dto.getProductVariantId(), item.getQuantity());
         } else {
-            // Add new item
-            inventoryService.validateStock(dto.getProductVariantId(), dto.getQuantity());
-            inventoryService.reserveStock(dto.getProductVariantId(), dto.getQuantity());
-
+            // Add new item (without initializing order.orderItems)
             ProductVariantEntity variant = inventoryService.getVariant(dto.getProductVariantId());
 
-            OrderItemEntity item = new OrderItemEntity();
+            item = new OrderItemEntity();
             item.setOrder(order);
             item.setProductVariant(variant);
             item.setQuantity(dto.getQuantity());
             item.setUnitPrice(variant.getPrice());
-
-            order.addOrderItem(item);
-            orderItemRepository.save(item);
+            itemCountDelta = 1;
 
             log.info("Added new item to order {}. Variant: {}, Qty: {}",
                     orderId, dto.getProductVariantId(), dto.getQuantity());
         }
+        item = orderItemRepository.save(item);
 
-        return recalculateTotal(orderId);
+        BigDecimal subtotalDelta = item.getUnitPrice().multiply(BigDecimal.valueOf(dto.getQuantity()));
+        return applyItemChange(orderId, item, null, subtotalDelta, itemCountDelta);
     }
 
     @Override
-    public OrderResponseDto updateItemQuantity(Long orderId, Long itemId, int newQuantity) {
-        OrderEntity order = findOrderById(orderId);
+    public OrderItemChangeDto updateItemQuantity(Long orderId, Long itemId, int newQuantity) {
+        OrderEntity order = findOrderByIdForUpdate(orderId);
         validateOrderModifiable(order);
 
         OrderItemEntity item = orderItemRepository.findByIdAndOrderId(itemId, orderId)
@@ -191,12 +250,13 @@ public class OrderServiceImpl implements OrderService {
         log.info("Updated item {} quantity in order {}. Old: {}, New: {}",
                 itemId, orderId, oldQuantity, newQuantity);
 
-        return recalculateTotal(orderId);
+        BigDecimal subtotalDelta = item.getUnitPrice().multiply(BigDecimal.valueOf(newQuantity - oldQuantity));
+        return applyItemChange(orderId, item, null, subtotalDelta, 0);
     }
 
     @Override
-    public OrderResponseDto removeItem(Long orderId, Long itemId) {
-        OrderEntity order = findOrderById(orderId);
+    public OrderItemChangeDto removeItem(Long orderId, Long itemId) {
+        OrderEntity order = findOrderByIdForUpdate(orderId);
         validateOrderModifiable(order);
 
         OrderItemEntity item = orderItemRepository.findByIdAndOrderId(itemId, orderId)
@@ -205,18 +265,17 @@ public class OrderServiceImpl implements OrderService {
         // Release reserved stock
         inventoryService.releaseStock(item.getProductVariant().getId(), item.getQuantity());
 
-        order.getOrderItems().remove(item);
         orderItemRepository.delete(item);
 
         log.info("Removed item {} from order {}. Released {} units of variant {}",
                 itemId, orderId, item.getQuantity(), item.getProductVariant().getId());
 
-        return recalculateTotal(orderId);
+        return applyItemChange(orderId, null, itemId, item.getSubtotal().negate(), -1);
     }
 
     @Override
     public OrderResponseDto clearItems(Long orderId) {
-        OrderEntity order = findOrderById(orderId);
+        OrderEntity order = findOrderByIdForUpdate(orderId);
         validateOrderModifiable(order);
 
         // Release all reserved stock
@@ -226,6 +285,7 @@ public class OrderServiceImpl implements OrderService {
 
         order.getOrderItems().clear();
         order.setTotalAmount(BigDecimal.ZERO);
+        order.setItemCount(0);
         orderRepository.save(order);
 
         log.info("Cleared all items from order {}", orderId);
@@ -253,21 +313,55 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     public OrderResponseDto updateStatus(Long orderId, OrderStatusUpdateDto dto) {
-        OrderEntity order = findOrderById(orderId);
+        OrderEntity order = findOrderByIdForUpdate(orderId);
         OrderStatus newStatus = dto.getStatus();
 
-        validateStatusTransition(order.getStatus(), newStatus);
+        OrderStatus previous = order.getStatus();
+        validateStatusTransition(previous, newStatus);
 
         order.setStatus(newStatus);
         orderRepository.save(order);
+        publishStatusChange(order, previous);
 
         log.info("Order {} status updated to {}", orderId, newStatus);
         return orderMapper.toResponseDto(order);
     }
 
+    @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public BulkStatusUpdateResultDto bulkUpdateStatus(List<Long> orderIds, OrderStatus target) {
+        if (!BULK_TARGET_STATUSES.contains(target)) {
+            throw new InvalidRequestException("Bulk updates only support " + BULK_TARGET_STATUSES);
+        }
+        List<Long> ids = orderIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.isEmpty()) {
+            throw new InvalidRequestException("No orders selected");
+        }
+        if (ids.size() > MAX_BULK_ORDERS) {
+            throw new InvalidRequestException("At most " + MAX_BULK_ORDERS + " orders per bulk update");
+        }
+
+        Map<Long, BulkStatusUpdateResultDto.Entry> results = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BULK_CHUNK_SIZE, ids.size()));
+            applyStatusChunk(chunk, target, results);
+        }
+
+        int succeeded = (int) results.values().stream().filter(BulkStatusUpdateResultDto.Entry::isSuccess).count();
+        log.info("Bulk status update to {}: {} succeeded, {} failed", target, succeeded, ids.size() - succeeded);
+
+        return BulkStatusUpdateResultDto.builder()
+                .targetStatus(target)
+                .succeeded(succeeded)
+                .failed(ids.size() - succeeded)
+                // In request order, whichever way each order was decided
+                .results(ids.stream().map(results::get).toList())
+                .build();
+    }
+
     @Override
     public OrderResponseDto confirmOrder(Long orderId) {
-        OrderEntity order = findOrderById(orderId);
+        OrderEntity order = findOrderByIdForUpdate(orderId);
 
         if (order.getStatus() != OrderStatus.PENDING) {
             throw new IllegalStateException("Only PENDING orders can be confirmed");
@@ -287,8 +381,10 @@ public class OrderServiceImpl implements OrderService {
             }
         }
 
+        OrderStatus previous = order.getStatus();
         order.setStatus(OrderStatus.CREATED);
         orderRepository.save(order);
+        publishStatusChange(order, previous);
 
         log.info("Order {} confirmed", orderId);
         return orderMapper.toResponseDto(order);
@@ -296,7 +392,8 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     public OrderResponseDto cancelOrder(Long orderId, String reason) {
-        OrderEntity order = findOrderById(orderId);
+        // Locked like the payment webhook, so one of the two sees the other's status instead of overwriting it
+        OrderEntity order = findOrderByIdForUpdate(orderId);
 
         if (order.getStatus() == OrderStatus.DELIVERED) {
             throw new IllegalStateException("Cannot cancel delivered order");
@@ -311,8 +408,10 @@ public class OrderServiceImpl implements OrderService {
             inventoryService.releaseStock(item.getProductVariant().getId(), item.getQuantity());
         }
 
+        OrderStatus previous = order.getStatus();
         order.setStatus(OrderStatus.CANCELLED);
         orderRepository.save(order);
+        publishStatusChange(order, previous);
 
         log.info("Order {} cancelled. Reason: {}", orderId, reason);
         return orderMapper.toResponseDto(order);
@@ -320,31 +419,110 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     public OrderResponseDto markAsPaid(Long orderId, String transactionId) {
-        OrderEntity order = findOrderById(orderId);
+        // Locked, so a concurrent cancel or payment webhook is neither overwritten nor overwrites this
+        OrderEntity order = findOrderByIdForUpdate(orderId);
 
+        if (PAID_OR_LATER.contains(order.getStatus()) && transactionId.equals(order.getTransactionId())) {
+            // Already recorded, e.g. the payment webhook got here first
+            return orderMapper.toResponseDto(order);
+        }
         if (order.getStatus() != OrderStatus.CREATED && order.getStatus() != OrderStatus.PENDING) {
             throw new IllegalStateException("Order must be CREATED or PENDING to mark as PAID");
         }
 
+        OrderStatus previous = order.getStatus();
         order.setStatus(OrderStatus.PAID);
-        order.setPaymentStatus("PAID");
+        order.setPaymentStatus(PAYMENT_PAID);
         order.setTransactionId(transactionId);
         orderRepository.save(order);
+        publishStatusChange(order, previous);
 
         log.info("Order {} marked as paid. Transaction: {}", orderId, transactionId);
         return orderMapper.toResponseDto(order);
     }
 
+    @Override
+    public void attachPaymentIntent(Long orderId, String paymentIntentId) {
+        if (orderRepository.attachPaymentIntent(orderId, paymentIntentId, LocalDateTime.now()) == 0) {
+            OrderEntity order = findOrderById(orderId);
+            if (order.getStatus() != OrderStatus.PAID) {
+                throw new IllegalStateException(
+                        "Order " + orderId + " is " + order.getStatus() + ", cannot attach payment");
+            }
+        }
+        log.info("Order {} awaiting payment {}", orderId, paymentIntentId);
+    }
+
+    @Override
+    public void recordPaymentSucceeded(Long orderId, String paymentIntentId) {
+        // The status is read under the row lock: a cancel that commits first is seen here, not overwritten
+        OrderEntity order = orderRepository.findByIdForUpdate(orderId).orElse(null);
+        if (order == null) {
+            return;
+        }
+
+        OrderStatus previous = order.getStatus();
+        order.setPaymentMethod("stripe");
+        // Usually attached at checkout already; a webhook can beat that commit
+        order.setTransactionId(paymentIntentId);
+
+        if (previous == OrderStatus.CANCELLED) {
+            order.setPaymentStatus(PAYMENT_REFUND_REQUIRED);
+            orderRepository.save(order);
+            outboxService.publishOrderEvent(orderId, OrderEventType.PAYMENT_REFUND_REQUIRED,
+                    Map.of("paymentIntentId", paymentIntentId));
+            log.warn("Order {} is CANCELLED but payment {} succeeded; flagged for refund", orderId, paymentIntentId);
+            return;
+        }
+
+        order.setPaymentStatus(PAYMENT_PAID);
+        if (previous == OrderStatus.PENDING || previous == OrderStatus.CREATED) {
+            order.setStatus(OrderStatus.PAID);
+        }
+        orderRepository.save(order);
+
+        outboxService.publishOrderEvent(orderId, OrderEventType.PAYMENT_SUCCEEDED,
+                Map.of("paymentIntentId", paymentIntentId));
+        if (order.getStatus() != previous) {
+            publishStatusChange(order, previous);
+            log.info("Order {} marked as PAID", orderId);
+        } else {
+            log.info("Order {} already {}, payment recorded", orderId, previous);
+        }
+    }
+
+    @Override
+    public boolean recordPaymentFailed(Long orderId, String paymentIntentId) {
+        OrderEntity order = orderRepository.findByIdForUpdate(orderId).orElse(null);
+        if (order == null) {
+            return true;
+        }
+        if (PAID_OR_LATER.contains(order.getStatus())) {
+            // Stripe does not guarantee delivery order; an earlier failed attempt must not undo the payment
+            log.info("Order {} already {}, ignoring stale payment failure", orderId, order.getStatus());
+            return false;
+        }
+
+        order.setPaymentStatus(PAYMENT_FAILED);
+        orderRepository.save(order);
+        outboxService.publishOrderEvent(orderId, OrderEventType.PAYMENT_FAILED,
+                Map.of("paymentIntentId", paymentIntentId));
+        log.info("Order {} payment failed", orderId);
+        return true;
+    }
+
     @Override
     public OrderResponseDto markAsShipped(Long orderId) {
-        OrderEntity order = findOrderById(orderId);
+        OrderEntity order = findOrderByIdForUpdate(orderId);
 
         if (order.getStatus() != OrderStatus.PAID) {
             throw new IllegalStateException("Order must be PAID before shipping");
         }
 
+        OrderStatus previous = order.getStatus();
         order.setStatus(OrderStatus.SHIPPED);
         orderRepository.save(order);
+        publishStatusChange(order, previous);
 
         log.info("Order {} marked as shipped", orderId);
         return orderMapper.toResponseDto(order);
@@ -352,14 +530,16 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     public OrderResponseDto markAsDelivered(Long orderId) {
-        OrderEntity order = findOrderById(orderId);
+        OrderEntity order = findOrderByIdForUpdate(orderId);
 
         if (order.getStatus() != OrderStatus.SHIPPED) {
             throw new IllegalStateException("Order must be SHIPPED before delivery");
         }
 
+        OrderStatus previous = order.getStatus();
         order.setStatus(OrderStatus.DELIVERED);
         orderRepository.save(order);
+        publishStatusChange(order, previous);
 
         log.info("Order {} marked as delivered", orderId);
         return orderMapper.toResponseDto(order);
@@ -369,13 +549,14 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     public OrderResponseDto recalculateTotal(Long orderId) {
-        OrderEntity order = findOrderById(orderId);
+        OrderEntity order = findOrderByIdForUpdate(orderId);
 
         BigDecimal total = order.getOrderItems().stream()
                 .map(OrderItemEntity::getSubtotal)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
         order.setTotalAmount(total);
+        order.setItemCount(order.getOrderItems().size());
         order = orderRepository.save(order);
 
         return orderMapper.toResponseDto(order);
@@ -388,10 +569,135 @@ public class OrderServiceImpl implements OrderService {
                 .orElseThrow(() -> new ResourceNotFoundException("Order", orderId));
     }
 
+    private OrderEntity findOrderByIdForUpdate(Long orderId) {
+        return orderRepository.findByIdForUpdate(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order", orderId));
+    }
+
+    /**
+     * Validate one chunk against the transition rules, then update the valid orders
+     * with one UPDATE per current status.
+     */
+    private void applyStatusChunk(List<Long> chunk, OrderStatus target,
+                                  Map<Long, BulkStatusUpdateResultDto.Entry> results) {
+        Map<Long, OrderStatus> current = orderRepository.findStatusesByIdIn(chunk).stream()
+                .collect(Collectors.toMap(OrderRepository.OrderStatusRow::getId, OrderRepository.OrderStatusRow::getStatus));
+
+        Map<OrderStatus, List<Long>> bySource = new EnumMap<>(OrderStatus.class);
+        for (Long id : chunk) {
+            OrderStatus status = current.get(id);
+            if (status == null) {
+                results.put(id, bulkEntry(id, null, false, "Order not found"));
+                continue;
+            }
+            try {
+                validateStatusTransition(status, target);
+                bySource.computeIfAbsent(status, s -> new ArrayList<>()).add(id);
+            } catch (IllegalStateException e) {
+                results.put(id, bulkEntry(id, status, false, e.getMessage()));
+            }
+        }
+
+        // The status changes and their outbox events commit together, one transaction per chunk
+        transactionTemplate.executeWithoutResult(tx -> {
+            LocalDateTime now = LocalDateTime.now();
+            for (Map.Entry<OrderStatus, List<Long>> group : bySource.entrySet()) {
+                // Only the rows this UPDATE moved: one another writer moved meanwhile is not ours to report
+                Set<Long> updated = Set.copyOf(orderRepository.updateStatusIfCurrent(
+                        group.getValue(), group.getKey().name(), target.name(), now));
+
+                for (Long id : group.getValue()) {
+                    boolean ok = updated.contains(id);
+                    if (ok) {
+                        publishStatusChange(id, group.getKey(), target);
+                        // Bulk targets move between paid statuses only, so revenue and sales rollups are unchanged
+                        dashboardMetrics.orderStatusChanged(group.getKey(), target);
+                    }
+                    results.put(id, bulkEntry(id, group.getKey(), ok,
+                            ok ? "Updated to " + target : "Order status changed concurrently"));
+                }
+            }
+        });
+    }
+
+    /**
+     * Every side effect of one order's status change, in the caller's transaction. All status changes
+     * go through OrderService, so this is the only place they are published.
+     */
+    private void publishStatusChange(OrderEntity order, OrderStatus from) {
+        publishStatusChange(order.getId(), from, order.getStatus());
+        dashboardMetrics.orderStatusChanged(order, from);
+        salesRollups.orderStatusChanged(order, from);
+    }
+
+    private void publishStatusChange(Long orderId, OrderStatus from, OrderStatus to) {
+        outboxService.publishOrderEvent(orderId, OrderEventType.ORDER_STATUS_CHANGED, Map.of(
+                "from", from.name(),
+                "to", to.name()
+        ));
+    }
+
+    private static BulkStatusUpdateResultDto.Entry bulkEntry(Long orderId, OrderStatus previous,
+                                                             boolean success, String message) {
+        return BulkStatusUpdateResultDto.Entry.builder()
+                .orderId(orderId)
+                .previousStatus(previous)
+                .success(success)
+                .message(message)
+                .build();
+    }
+
+    /**
+     * Apply one line's change to the stored totals and report the new values.
+     * The caller holds the order row lock, so the delta was computed from the current line.
+     */
+    private OrderItemChangeDto applyItemChange(Long orderId, OrderItemEntity item, Long removedItemId,
+                                               BigDecimal subtotalDelta, int itemCountDelta) {
+        orderRepository.applyTotalsDelta(orderId, subtotalDelta, itemCountDelta, LocalDateTime.now());
+        OrderRepository.OrderTotals totals = orderRepository.findTotalsById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order", orderId));
+
+        return OrderItemChangeDto.builder()
+                .orderId(orderId)
+                .item(item != null ? orderMapper.toItemResponseDto(item) : null)
+                .removedItemId(removedItemId)
+                .subtotalDelta(subtotalDelta)
+                .totalAmount(totals.getTotalAmount())
+                .itemCount(totals.getItemCount())
+                .build();
+    }
+
+    /**
+     * Trim the one-row look-ahead and build the cursor for the next page.
+     */
+    private CursorPageDto<OrderSummaryDto> toPage(List<OrderSummaryDto> rows, int pageSize,
+                                                  Function<OrderSummaryDto, Object> sortValue) {
+        boolean hasMore = rows.size() > pageSize;
+        List<OrderSummaryDto> items = hasMore ? rows.subList(0, pageSize) : rows;
+        OrderSummaryDto last = items.isEmpty() ? null : items.get(items.size() - 1);
+
+        return CursorPageDto.<OrderSummaryDto>builder()
+                .items(items)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? KeysetCursor.of(sortValue.apply(last), last.getId()).encode() : null)
+                .build();
+    }
+
+    /**
+     * Collapse the requested lines into one quantity per variant, ordered by variant ID.
+     */
+    static SortedMap<Long, Integer> mergeLines(List<OrderItemCreateDto> items) {
+        return items.stream().collect(Collectors.toMap(
+                OrderItemCreateDto::getProductVariantId,
+                OrderItemCreateDto::getQuantity,
+                Integer::sum,
+                TreeMap::new
+        ));
+    }
+
     private void validateOrderModifiable(OrderEntity order) {
-        if (order.getStatus() == OrderStatus.SHIPPED ||
-                order.getStatus() == OrderStatus.DELIVERED ||
-                order.getStatus() == OrderStatus.CANCELLED) {
+        // Once paid, the lines are what the customer paid for
+        if (order.getStatus() != OrderStatus.PENDING && order.getStatus() != OrderStatus.CREATED) {
             throw new IllegalStateException(
                     "Cannot modify order in status: " + order.getStatus()
             );
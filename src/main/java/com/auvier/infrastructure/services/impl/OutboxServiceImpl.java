@@ -0,0 +1,37 @@
+package com.auvier.infrastructure.services.impl;
+
+import com.auvier.entities.OutboxEventEntity;
+import com.auvier.enums.OutboxStatus;
+import com.auvier.infrastructure.services.OutboxService;
+import com.auvier.repositories.OutboxEventRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class OutboxServiceImpl implements OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final JsonMapper jsonMapper;
+
+    @Override
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void publish(String aggregateType, Long aggregateId, String eventType, Map<String, Object> payload) {
+        OutboxEventEntity event = new OutboxEventEntity();
+        event.setAggregateType(aggregateType);
+        event.setAggregateId(aggregateId);
+        event.setAggregateVersion(outboxEventRepository.nextAggregateVersion(aggregateType, aggregateId));
+        event.setEventType(eventType);
+        event.setPayload(jsonMapper.writeValueAsString(payload));
+        event.setStatus(OutboxStatus.PENDING);
+        event.setCreatedAt(LocalDateTime.now());
+
+        // Inserted at commit together with the order changes (batched, sequence ids)
+        outboxEventRepository.save(event);
+    }
+}
@@ -1,141 +1,90 @@
 package com.auvier.infrastructure.services.impl;
 
 import com.auvier.dtos.PaymentIntentDto;
-import com.auvier.entities.OrderEntity;
-import com.auvier.enums.OrderStatus;
+import com.auvier.exception.PaymentGatewayException;
+import com.auvier.infrastructure.metrics.ShopMetrics;
+import com.auvier.infrastructure.payments.CachedPaymentStatus;
+import com.auvier.infrastructure.payments.GatewayPaymentIntent;
+import com.auvier.infrastructure.payments.PaymentGateway;
+import com.auvier.infrastructure.payments.PaymentStatusCache;
 import com.auvier.infrastructure.services.PaymentService;
-import com.auvier.repositories.OrderRepository;
-import com.stripe.exception.SignatureVerificationException;
-import com.stripe.exception.StripeException;
-import com.stripe.model.Event;
-import com.stripe.model.PaymentIntent;
-import com.stripe.net.Webhook;
-import com.stripe.param.PaymentIntentCreateParams;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PaymentServiceImpl implements PaymentService {
 
-    private final OrderRepository orderRepository;
-
-    @Value("${stripe.webhook.secret}")
-    private String webhookSecret;
+    private final PaymentGateway paymentGateway;
+    private final PaymentStatusCache paymentStatusCache;
+    private final ShopMetrics shopMetrics;
 
     @Override
-    public PaymentIntentDto createPaymentIntent(OrderEntity order) {
+    public PaymentIntentDto createPaymentIntent(Long orderId, BigDecimal totalAmount) {
+        // Almost all of it is the gateway round trip
+        return shopMetrics.time(ShopMetrics.PAYMENT_INTENT_CREATE, () -> requestPaymentIntent(orderId, totalAmount));
+    }
+
+    private PaymentIntentDto requestPaymentIntent(Long orderId, BigDecimal totalAmount) {
         try {
             // Convert amount to cents (Stripe uses smallest currency unit)
-            long amountInCents = order.getTotalAmount().multiply(new java.math.BigDecimal(100)).longValue();
+            long amountInCents = totalAmount.multiply(new BigDecimal(100)).longValue();
 
-            PaymentIntentCreateParams params = PaymentIntentCreateParams.builder()
-                    .setAmount(amountInCents)
-                    .setCurrency("usd")
-                    .setDescription("Auvier Order #" + order.getId())
-                    .putMetadata("order_id", order.getId().toString())
-                    .setAutomaticPaymentMethods(
-                            PaymentIntentCreateParams.AutomaticPaymentMethods.builder()
-                                    .setEnabled(true)
-                                    .build()
-                    )
-                    .build();
+            GatewayPaymentIntent paymentIntent = paymentGateway.createPaymentIntent(
+                    amountInCents, "usd", "Auvier Order #" + orderId,
+                    Map.of("order_id", orderId.toString()));
 
-            PaymentIntent paymentIntent = PaymentIntent.create(params);
-
-            // Update order with payment intent ID
-            order.setTransactionId(paymentIntent.getId());
-            order.setPaymentStatus("pending");
-            orderRepository.save(order);
-
-            log.info("Created PaymentIntent {} for Order {}", paymentIntent.getId(), order.getId());
+            log.info("Created PaymentIntent {} for Order {}", paymentIntent.id(), orderId);
+            paymentStatusCache.put(paymentIntent.id(), paymentIntent.status(), false);
 
             return new PaymentIntentDto(
-                    paymentIntent.getClientSecret(),
-                    paymentIntent.getId(),
+                    paymentIntent.clientSecret(),
+                    paymentIntent.id(),
                     amountInCents,
                     "usd",
-                    paymentIntent.getStatus()
+                    paymentIntent.status()
             );
 
-        } catch (StripeException e) {
-            log.error("Stripe error creating payment intent for order {}: {}", order.getId(), e.getMessage());
-            throw new RuntimeException("Failed to create payment: " + e.getMessage(), e);
+        } catch (PaymentGatewayException e) {
+            log.error("Gateway error creating payment intent for order {}: {}", orderId, e.getMessage());
+            throw e;
         }
     }
 
+    @Override
+    public void cancelPaymentIntent(String paymentIntentId) {
+        GatewayPaymentIntent cancelled = paymentGateway.cancelPaymentIntent(paymentIntentId);
+        paymentStatusCache.put(paymentIntentId, cancelled.status(), false);
+        log.info("Cancelled PaymentIntent {}", paymentIntentId);
+    }
+
     @Override
     public boolean confirmPayment(String paymentIntentId) {
         try {
-            PaymentIntent paymentIntent = PaymentIntent.retrieve(paymentIntentId);
-            return "succeeded".equals(paymentIntent.getStatus());
-        } catch (StripeException e) {
+            return "succeeded".equals(getPaymentStatus(paymentIntentId).status());
+        } catch (PaymentGatewayException e) {
             log.error("Error confirming payment {}: {}", paymentIntentId, e.getMessage());
             return false;
         }
     }
 
     @Override
-    @Transactional
-    public void handleWebhookEvent(String payload, String sigHeader) {
-        Event event;
-        try {
-            event = Webhook.constructEvent(payload, sigHeader, webhookSecret);
-        } catch (SignatureVerificationException e) {
-            log.error("Webhook signature verification failed: {}", e.getMessage());
-            throw new RuntimeException("Invalid webhook signature");
-        }
-
-        log.info("Received Stripe webhook event: {}", event.getType());
-
-        switch (event.getType()) {
-            case "payment_intent.succeeded" -> handlePaymentSucceeded(event);
-            case "payment_intent.payment_failed" -> handlePaymentFailed(event);
-            default -> log.info("Unhandled event type: {}", event.getType());
-        }
-    }
-
-    private void handlePaymentSucceeded(Event event) {
-        PaymentIntent paymentIntent = (PaymentIntent) event.getDataObjectDeserializer()
-                .getObject().orElse(null);
-
-        if (paymentIntent == null) {
-            log.error("PaymentIntent is null in succeeded event");
-            return;
-        }
-
-        String orderId = paymentIntent.getMetadata().get("order_id");
-        if (orderId != null) {
-            orderRepository.findById(Long.parseLong(orderId)).ifPresent(order -> {
-                order.setPaymentStatus("paid");
-                order.setStatus(OrderStatus.PAID);
-                order.setPaymentMethod("stripe");
-                orderRepository.save(order);
-                log.info("Order {} marked as PAID", orderId);
-            });
-        }
+    public CachedPaymentStatus getPaymentStatus(String paymentIntentId) {
+        return paymentStatusCache.getFresh(paymentIntentId).orElseGet(() -> {
+            GatewayPaymentIntent paymentIntent = paymentGateway.retrievePaymentIntent(paymentIntentId);
+            // A gateway read carries no decline; one already cached from a webhook is kept
+            return paymentStatusCache.put(paymentIntentId, paymentIntent.status(), false);
+        });
     }
 
-    private void handlePaymentFailed(Event event) {
-        PaymentIntent paymentIntent = (PaymentIntent) event.getDataObjectDeserializer()
-                .getObject().orElse(null);
-
-        if (paymentIntent == null) {
-            log.error("PaymentIntent is null in failed event");
-            return;
-        }
-
-        String orderId = paymentIntent.getMetadata().get("order_id");
-        if (orderId != null) {
-            orderRepository.findById(Long.parseLong(orderId)).ifPresent(order -> {
-                order.setPaymentStatus("failed");
-                orderRepository.save(order);
-                log.info("Order {} payment failed", orderId);
-            });
-        }
+    @Override
+    public CompletableFuture<CachedPaymentStatus> awaitPaymentStatus(String paymentIntentId, long afterVersion) {
+        return paymentStatusCache.awaitUpdate(paymentIntentId, afterVersion);
     }
 }
@@ -0,0 +1,236 @@
+package com.auvier.infrastructure.services.impl;
+
+import com.auvier.entities.PaymentWebhookEventEntity;
+import com.auvier.enums.WebhookEventStatus;
+import com.auvier.exception.InvalidRequestException;
+import com.auvier.exception.ResourceNotFoundException;
+import com.auvier.infrastructure.metrics.ShopMetrics;
+import com.auvier.infrastructure.payments.PaymentStatusCache;
+import com.auvier.infrastructure.services.OrderService;
+import com.auvier.infrastructure.services.PaymentWebhookService;
+import com.auvier.infrastructure.webhooks.WebhookWorkerPool;
+import com.auvier.repositories.PaymentWebhookEventRepository;
+import com.stripe.exception.SignatureVerificationException;
+import com.stripe.model.Event;
+import com.stripe.model.PaymentIntent;
+import com.stripe.net.Webhook;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentWebhookServiceImpl implements PaymentWebhookService {
+
+    private static final int SWEEP_BATCH_SIZE = 500;
+
+    private final PaymentWebhookEventRepository webhookEventRepository;
+    private final OrderService orderService;
+    private final WebhookWorkerPool workerPool;
+    private final TransactionTemplate transactionTemplate;
+    private final PaymentStatusCache paymentStatusCache;
+    private final ShopMetrics shopMetrics;
+
+    @Value("${stripe.webhook.secret}")
+    private String webhookSecret;
+
+    @Value("${payment.webhook.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${payment.webhook.retry-after:PT30S}")
+    private Duration retryAfter;
+
+    // ==================== INGESTION ====================
+
+    @Override
+    public boolean receive(String payload, String sigHeader) {
+        return shopMetrics.time(ShopMetrics.WEBHOOK_RECEIVE, () -> store(payload, sigHeader));
+    }
+
+    private boolean store(String payload, String sigHeader) {
+        Event event;
+        try {
+            event = Webhook.constructEvent(payload, sigHeader, webhookSecret);
+        } catch (SignatureVerificationException e) {
+            log.error("Webhook signature verification failed: {}", e.getMessage());
+            throw new InvalidRequestException("Invalid webhook signature");
+        }
+
+        // Everything the worker needs is pulled out here, while the Stripe model is at hand
+        PaymentIntent paymentIntent = paymentIntentOf(event);
+        Long orderId = orderIdOf(paymentIntent);
+        // Committed before the worker sees it; a redelivery of the same event id inserts nothing
+        int inserted = webhookEventRepository.insertIfAbsent(event.getId(), event.getType(), orderId,
+                paymentIntent != null ? paymentIntent.getId() : null, payload, LocalDateTime.now());
+        if (inserted == 0) {
+            log.info("Duplicate Stripe webhook event {} ({}), ignoring", event.getId(), event.getType());
+            return false;
+        }
+
+        log.info("Received Stripe webhook event {} ({}) for order {}", event.getId(), event.getType(), orderId);
+        dispatch(event.getId(), orderId);
+        return true;
+    }
+
+    // ==================== REPLAY / RECOVERY ====================
+
+    @Override
+    public void replay(String eventId) {
+        PaymentWebhookEventEntity stored = webhookEventRepository.findById(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Webhook event not found: " + eventId));
+        webhookEventRepository.resetForReplay(List.of(eventId));
+        log.info("Replaying Stripe webhook event {} ({})", eventId, stored.getEventType());
+        dispatch(eventId, stored.getOrderId());
+    }
+
+    @Override
+    public int replayFailed() {
+        List<PaymentWebhookEventEntity> failed = webhookEventRepository
+                .findByStatusOrderByReceivedAtAsc(WebhookEventStatus.FAILED, Limit.of(SWEEP_BATCH_SIZE));
+        if (failed.isEmpty()) {
+            return 0;
+        }
+        webhookEventRepository.resetForReplay(failed.stream().map(PaymentWebhookEventEntity::getEventId).toList());
+        failed.forEach(e -> dispatch(e.getEventId(), e.getOrderId()));
+        log.info("Replaying {} failed Stripe webhook events", failed.size());
+        return failed.size();
+    }
+
+    /**
+     * Resubmit events that are still RECEIVED well after arrival: queued when the app stopped,
+     * dropped by a full lane, or waiting to retry after a failure. Also runs at startup.
+     * Safe on every instance: processing locks the row and skips events that are no longer RECEIVED.
+     */
+    @Scheduled(fixedDelayString = "${payment.webhook.recovery-interval:PT30S}")
+    public void recoverPending() {
+        List<PaymentWebhookEventEntity> pending = webhookEventRepository
+                .findByStatusAndReceivedAtBeforeOrderByReceivedAtAsc(WebhookEventStatus.RECEIVED,
+                        LocalDateTime.now().minus(retryAfter), Limit.of(SWEEP_BATCH_SIZE));
+        if (!pending.isEmpty()) {
+            log.info("Resubmitting {} pending Stripe webhook events", pending.size());
+            pending.forEach(e -> dispatch(e.getEventId(), e.getOrderId()));
+        }
+    }
+
+    // ==================== PROCESSING (webhook workers) ====================
+
+    private void dispatch(String eventId, Long orderId) {
+        // Same order -> same lane, so e.g. payment_failed and a retried payment_succeeded never interleave
+        workerPool.submit(orderId != null ? orderId : eventId, () -> process(eventId));
+    }
+
+    private void process(String eventId) {
+        Timer.Sample sample = shopMetrics.start();
+        StatusUpdate update;
+        try {
+            update = transactionTemplate.execute(tx -> apply(eventId));
+        } catch (RuntimeException e) {
+            shopMetrics.stop(sample, ShopMetrics.WEBHOOK_PROCESS, e);
+            recordFailure(eventId, e);
+            return;
+        }
+        shopMetrics.stop(sample, ShopMetrics.WEBHOOK_PROCESS, null);
+        // Only after commit, so nobody is told "paid" before the order says so
+        if (update != null) {
+            paymentStatusCache.put(update.paymentIntentId(), update.status(), update.declined());
+        }
+    }
+
+    /**
+     * @return the PaymentIntent status the event established, or null if there is nothing to cache
+     */
+    private StatusUpdate apply(String eventId) {
+        PaymentWebhookEventEntity stored = webhookEventRepository.findByIdForUpdate(eventId).orElse(null);
+        if (stored == null || stored.getStatus() != WebhookEventStatus.RECEIVED) {
+            return null; // submitted twice (sweep / replay) and already applied, or parked
+        }
+
+        StatusUpdate update = switch (stored.getEventType()) {
+            case "payment_intent.succeeded" -> handlePaymentSucceeded(stored);
+            case "payment_intent.payment_failed" -> handlePaymentFailed(stored);
+            default -> {
+                log.info("Unhandled event type: {}", stored.getEventType());
+                yield null;
+            }
+        };
+
+        stored.setStatus(WebhookEventStatus.PROCESSED);
+        stored.setAttempts(stored.getAttempts() + 1);
+        stored.setLastError(null);
+        stored.setProcessedAt(LocalDateTime.now());
+        return stored.getPaymentIntentId() != null ? update : null;
+    }
+
+    private void recordFailure(String eventId, RuntimeException e) {
+        int attempts = webhookEventRepository.findById(eventId)
+                .map(PaymentWebhookEventEntity::getAttempts).orElse(0) + 1;
+        String error = String.valueOf(e.getMessage());
+        if (error.length() > 1000) {
+            error = error.substring(0, 1000);
+        }
+
+        if (attempts >= maxAttempts) {
+            log.error("Stripe webhook event {} failed {} times, giving up: {}", eventId, attempts, error, e);
+            webhookEventRepository.recordFailure(eventId, error, WebhookEventStatus.FAILED);
+        } else {
+            // Stays RECEIVED; the recovery sweep retries it
+            log.warn("Stripe webhook event {} failed, attempt {}/{}: {}", eventId, attempts, maxAttempts, error);
+            webhookEventRepository.recordFailure(eventId, error, WebhookEventStatus.RECEIVED);
+        }
+    }
+
+    private StatusUpdate handlePaymentSucceeded(PaymentWebhookEventEntity stored) {
+        StatusUpdate succeeded = new StatusUpdate(stored.getPaymentIntentId(), "succeeded", false);
+        if (stored.getOrderId() == null) {
+            log.warn("Succeeded event {} has no order_id metadata", stored.getEventId());
+            return succeeded;
+        }
+
+        orderService.recordPaymentSucceeded(stored.getOrderId(), stored.getPaymentIntentId());
+        return succeeded;
+    }
+
+    private StatusUpdate handlePaymentFailed(PaymentWebhookEventEntity stored) {
+        // A declined intent goes back to requires_payment_method and can be paid again
+        StatusUpdate declined = new StatusUpdate(stored.getPaymentIntentId(), "requires_payment_method", true);
+        if (stored.getOrderId() == null) {
+            log.warn("Failed event {} has no order_id metadata", stored.getEventId());
+            return declined;
+        }
+
+        // Ignored for an order that is paid already, and then not cached either
+        return orderService.recordPaymentFailed(stored.getOrderId(), stored.getPaymentIntentId()) ? declined : null;
+    }
+
+    private static PaymentIntent paymentIntentOf(Event event) {
+        return event.getDataObjectDeserializer().getObject()
+                .filter(PaymentIntent.class::isInstance)
+                .map(PaymentIntent.class::cast)
+                .orElse(null);
+    }
+
+    private static Long orderIdOf(PaymentIntent paymentIntent) {
+        if (paymentIntent == null || paymentIntent.getMetadata() == null) {
+            return null;
+        }
+        try {
+            String orderId = paymentIntent.getMetadata().get("order_id");
+            return orderId != null ? Long.valueOf(orderId) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private record StatusUpdate(String paymentIntentId, String status, boolean declined) {
+    }
+}
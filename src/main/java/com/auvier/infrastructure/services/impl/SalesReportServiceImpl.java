@@ -0,0 +1,93 @@
+package com.auvier.infrastructure.services.impl;
+
+import com.auvier.dtos.report.SalesPointDto;
+import com.auvier.dtos.report.SalesReportFilterDto;
+import com.auvier.dtos.report.SalesSeriesDto;
+import com.auvier.enums.SalesGranularity;
+import com.auvier.exception.InvalidRequestException;
+import com.auvier.infrastructure.reporting.SalesRollups;
+import com.auvier.infrastructure.services.SalesReportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class SalesReportServiceImpl implements SalesReportService {
+
+    private final SalesRollups salesRollups;
+
+    @Override
+    public SalesSeriesDto getSalesSeries(SalesReportFilterDto filter) {
+        validateRange(filter.getFrom(), filter.getTo());
+        long dimensions = Stream.of(filter.getVariantId(), filter.getProductId(), filter.getCategoryId())
+                .filter(Objects::nonNull)
+                .count();
+        if (dimensions > 1) {
+            throw new InvalidRequestException("Filter by at most one of variantId, productId, categoryId");
+        }
+        if (filter.getGranularity() == null) {
+            filter.setGranularity(SalesGranularity.DAY);
+        }
+
+        List<LocalDate> periods = periods(filter.getGranularity(), filter.getFrom(), filter.getTo());
+        Map<LocalDate, SalesPointDto> sold = salesRollups.read(filter).stream()
+                .collect(Collectors.toMap(SalesPointDto::getPeriod, Function.identity()));
+
+        List<SalesPointDto> points = periods.stream()
+                .map(period -> sold.getOrDefault(period, SalesPointDto.builder()
+                        .period(period)
+                        .revenue(BigDecimal.ZERO)
+                        .build()))
+                .toList();
+
+        return SalesSeriesDto.builder()
+                .granularity(filter.getGranularity())
+                .from(filter.getFrom())
+                .to(filter.getTo())
+                .points(points)
+                .build();
+    }
+
+    @Override
+    public int rebuildRollups(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_REBUILD_DAYS) {
+            throw new InvalidRequestException("Rebuild at most " + MAX_REBUILD_DAYS + " days per request");
+        }
+        return salesRollups.rebuild(from, to);
+    }
+
+    /**
+     * Start of every bucket overlapping [from, to]
+     */
+    private static List<LocalDate> periods(SalesGranularity granularity, LocalDate from, LocalDate to) {
+        List<LocalDate> periods = new ArrayList<>();
+        for (LocalDate period = granularity.truncate(from); !period.isAfter(to); period = granularity.next(period)) {
+            if (periods.size() == MAX_POINTS) {
+                throw new InvalidRequestException("At most " + MAX_POINTS + " points per series; use a coarser granularity");
+            }
+            periods.add(period);
+        }
+        return periods;
+    }
+
+    private static void validateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new InvalidRequestException("Both from and to are required");
+        }
+        if (from.isAfter(to)) {
+            throw new InvalidRequestException("from must not be after to");
+        }
+    }
+}
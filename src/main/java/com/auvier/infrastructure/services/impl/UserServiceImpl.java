@@ -7,6 +7,7 @@ import com.auvier.entities.UserEntity;
 import com.auvier.enums.Role;
 import com.auvier.exception.DuplicateResourceException;
 import com.auvier.exception.ResourceNotFoundException;
+import com.auvier.infrastructure.dashboard.DashboardMetrics;
 import com.auvier.infrastructure.services.UserService;
 import com.auvier.mappers.UserMapper;
 import com.auvier.mappers.UserRegistrationMapper;
@@ -31,6 +32,7 @@ public class UserServiceImpl implements UserService {
     private final UserRegistrationMapper registrationMapper;
     private final UserMapper userMapper;
     private final UserRegistrationMapper userRegistrationMapper;
+    private final DashboardMetrics dashboardMetrics;
 
 
 
@@ -66,6 +68,7 @@ public class UserServiceImpl implements UserService {
         user.setRole(Role.CUSTOMER);
 
         UserEntity saved = userRepository.save(user);
+        dashboardMetrics.userRegistered();
 
         return userMapper.toResponseDto(saved);
     }
@@ -84,7 +87,10 @@ public class UserServiceImpl implements UserService {
         user.setPassword(passwordEncoder.encode(dto.getPassword()));
         user.setRole(Role.ADMIN);
 
-        return userMapper.toResponseDto(userRepository.save(user));
+        UserEntity saved = userRepository.save(user);
+        dashboardMetrics.userRegistered();
+
+        return userMapper.toResponseDto(saved);
     }
 
 
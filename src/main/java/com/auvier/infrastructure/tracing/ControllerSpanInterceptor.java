@@ -0,0 +1,42 @@
+package com.auvier.infrastructure.tracing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Controller span: from the handler call until the response is rendered (views included).
+ * Registered in WebMvcConfig.
+ */
+public class ControllerSpanInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String SCOPE_ATTRIBUTE = ControllerSpanInterceptor.class.getName() + ".scope";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            request.setAttribute(SCOPE_ATTRIBUTE, TraceContext.open(Span.Stage.CONTROLLER,
+                    method.getBeanType().getSimpleName() + "." + method.getMethod().getName()));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        close(request, ex);
+    }
+
+    // An async handler has returned; the rest of the request is not on this thread
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        close(request, null);
+    }
+
+    private static void close(HttpServletRequest request, Exception ex) {
+        if (request.getAttribute(SCOPE_ATTRIBUTE) instanceof Trace.Scope scope) {
+            request.removeAttribute(SCOPE_ATTRIBUTE);
+            scope.close(ex);
+        }
+    }
+}
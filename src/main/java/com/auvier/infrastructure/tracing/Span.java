@@ -0,0 +1,27 @@
+package com.auvier.infrastructure.tracing;
+
+import java.util.Map;
+
+/**
+ * A finished span. Times are nanoseconds since the epoch; ids are lowercase hex (W3C / OTLP).
+ *
+ * @param parentSpanId null for the request span when the caller sent no traceparent
+ * @param error exception class name if the span ended with one, otherwise null
+ */
+public record Span(String spanId,
+                   String parentSpanId,
+                   Stage stage,
+                   String name,
+                   long startEpochNanos,
+                   long endEpochNanos,
+                   String error,
+                   Map<String, Object> attributes) {
+
+    public enum Stage {
+        HTTP, CONTROLLER, SERVICE, REPOSITORY, STRIPE
+    }
+
+    public long durationNanos() {
+        return endEpochNanos - startEpochNanos;
+    }
+}
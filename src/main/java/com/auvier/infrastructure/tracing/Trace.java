@@ -0,0 +1,159 @@
+package com.auvier.infrastructure.tracing;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The spans of one request. Used by the request's thread only (see TraceContext).
+ *
+ * Spans nest by call order: a span opened while another is open is its child. At most maxSpans are
+ * kept; a request that goes over (e.g. a repository call per row) records how many were dropped.
+ */
+public final class Trace {
+
+    private final String traceId;
+    private final long epochStartNanos;
+    private final long nanoStart;
+    private final int maxSpans;
+
+    private final OpenSpan root;
+    private final Deque<OpenSpan> open = new ArrayDeque<>();
+    private final List<Span> spans = new ArrayList<>();
+    private final Map<Span.Stage, StageTotal> totals = new EnumMap<>(Span.Stage.class);
+    private int droppedSpans;
+
+    /**
+     * Starts the trace and its request span
+     *
+     * @param traceId the caller's trace id (traceparent), or null for a new one
+     * @param parentSpanId the caller's span id, or null
+     */
+    Trace(String traceId, String parentSpanId, String name, int maxSpans) {
+        this.traceId = traceId != null ? traceId : newTraceId();
+        Instant now = Instant.now();
+        this.epochStartNanos = now.getEpochSecond() * 1_000_000_000L + now.getNano();
+        this.nanoStart = System.nanoTime();
+        this.maxSpans = maxSpans;
+        this.root = new OpenSpan(newSpanId(), parentSpanId, Span.Stage.HTTP, name, false);
+        open.push(root);
+    }
+
+    public String traceId() {
+        return traceId;
+    }
+
+    /**
+     * Open a child of the innermost open span. Close it with Scope.close, in reverse order of opening.
+     */
+    public Scope open(Span.Stage stage, String name) {
+        if (spans.size() + open.size() >= maxSpans) {
+            droppedSpans++;
+            return Scope.NOOP;
+        }
+        boolean nested = open.stream().anyMatch(s -> s.stage == stage);
+        OpenSpan span = new OpenSpan(newSpanId(), open.isEmpty() ? null : open.peek().spanId, stage, name, nested);
+        open.push(span);
+        return span;
+    }
+
+    /**
+     * Close the request span (and anything left open); name replaces the one given at the start
+     */
+    void end(String name, Map<String, Object> attributes, String error) {
+        while (open.peek() != null && open.peek() != root) {
+            open.peek().finish(null);
+        }
+        root.name = name;
+        root.attributes.putAll(attributes);
+        root.finish(error);
+    }
+
+    public List<Span> spans() {
+        return Collections.unmodifiableList(spans);
+    }
+
+    public int droppedSpans() {
+        return droppedSpans;
+    }
+
+    public Span root() {
+        return spans.getLast();
+    }
+
+    /**
+     * Time per stage, counting only the outermost span of a stage (a service calling a service is
+     * counted once). Inclusive: service time contains the repository calls made inside it.
+     */
+    public Map<Span.Stage, StageTotal> totals() {
+        return Collections.unmodifiableMap(totals);
+    }
+
+    public record StageTotal(long nanos, int calls) {
+    }
+
+    private long epochNanos() {
+        return epochStartNanos + (System.nanoTime() - nanoStart);
+    }
+
+    static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return String.format("%016x%016x", random.nextLong(), random.nextLong() | 1);
+    }
+
+    static String newSpanId() {
+        return String.format("%016x", ThreadLocalRandom.current().nextLong() | 1);
+    }
+
+    public interface Scope {
+
+        Scope NOOP = error -> {
+        };
+
+        void close(Throwable error);
+    }
+
+    private final class OpenSpan implements Scope {
+
+        private final String spanId;
+        private final String parentSpanId;
+        private final Span.Stage stage;
+        private String name;
+        private final boolean nested;
+        private final long start = epochNanos();
+        private final Map<String, Object> attributes = new HashMap<>();
+
+        private OpenSpan(String spanId, String parentSpanId, Span.Stage stage, String name, boolean nested) {
+            this.spanId = spanId;
+            this.parentSpanId = parentSpanId;
+            this.stage = stage;
+            this.name = name;
+            this.nested = nested;
+        }
+
+        @Override
+        public void close(Throwable error) {
+            finish(error != null ? error.getClass().getName() : null);
+        }
+
+        private void finish(String error) {
+            if (!open.remove(this)) {
+                return; // already closed
+            }
+            long end = epochNanos();
+            spans.add(new Span(spanId, parentSpanId, stage, name, start, end, error,
+                    attributes.isEmpty() ? Map.of() : Map.copyOf(attributes)));
+            if (!nested) {
+                totals.merge(stage, new StageTotal(end - start, 1),
+                        (a, b) -> new StageTotal(a.nanos() + b.nanos(), a.calls() + b.calls()));
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.auvier.infrastructure.tracing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.MDC;
+
+/**
+ * The trace of the request the current thread is handling, if any (set by TraceFilter).
+ * Static like MDC, so the tracing advice and the exception handlers need no wiring.
+ */
+public final class TraceContext {
+
+    /**
+     * MDC key, printed as [%X{traceId}] by the log patterns
+     */
+    public static final String MDC_KEY = "traceId";
+
+    /**
+     * Request attribute holding the trace id; still there for the error dispatch after the filter has returned
+     */
+    public static final String TRACE_ID_ATTRIBUTE = TraceContext.class.getName() + ".traceId";
+
+    private static final ThreadLocal<Trace> CURRENT = new ThreadLocal<>();
+
+    private TraceContext() {
+    }
+
+    public static Trace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * The request's trace id; a new one for requests that were not traced (e.g. static resources)
+     */
+    public static String traceId(HttpServletRequest request) {
+        Object traceId = request.getAttribute(TRACE_ID_ATTRIBUTE);
+        if (traceId != null) {
+            return traceId.toString();
+        }
+        Trace trace = CURRENT.get();
+        return trace != null ? trace.traceId() : Trace.newTraceId();
+    }
+
+    /**
+     * Open a span in the current trace; a no-op outside a traced request
+     */
+    public static Trace.Scope open(Span.Stage stage, String name) {
+        Trace trace = CURRENT.get();
+        return trace != null ? trace.open(stage, name) : Trace.Scope.NOOP;
+    }
+
+    static void attach(Trace trace) {
+        CURRENT.set(trace);
+        MDC.put(MDC_KEY, trace.traceId());
+    }
+
+    static void detach() {
+        CURRENT.remove();
+        MDC.remove(MDC_KEY);
+    }
+}
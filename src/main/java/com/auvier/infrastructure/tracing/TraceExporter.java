@@ -0,0 +1,208 @@
+package com.auvier.infrastructure.tracing;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes finished traces to tracing.export.file in the background, one OTLP/JSON
+ * ExportTraceServiceRequest per line: the format of the OpenTelemetry collector's otlpjsonfile
+ * receiver, so the file can be shipped to Jaeger / Tempo as is.
+ *
+ * - offer() never blocks; when tracing.export.buffer-capacity traces are waiting, the trace is dropped
+ *   and counted (a slow disk must not slow requests down)
+ * - The file is rolled over to file.1 when it reaches tracing.export.max-file-size
+ */
+@Component
+@Slf4j
+public class TraceExporter {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(200);
+
+    private final JsonMapper jsonMapper;
+    private final boolean enabled;
+    private final Path file;
+    private final long maxFileSize;
+    private final String serviceName;
+    private final boolean virtualThreads;
+    private final BlockingQueue<Trace> buffer;
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile boolean stopping;
+    private Thread writer;
+    private Writer out;
+    private long fileSize;
+
+    public TraceExporter(JsonMapper jsonMapper,
+                         @Value("${tracing.export.enabled:true}") boolean enabled,
+                         @Value("${tracing.export.file:logs/traces.jsonl}") String file,
+                         @Value("${tracing.export.max-file-size:100MB}") DataSize maxFileSize,
+                         @Value("${tracing.export.buffer-capacity:10000}") int bufferCapacity,
+                         @Value("${spring.application.name:auvier}") String serviceName,
+                         @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.jsonMapper = jsonMapper;
+        this.enabled = enabled;
+        this.file = Path.of(file);
+        this.maxFileSize = maxFileSize.toBytes();
+        this.serviceName = serviceName;
+        this.virtualThreads = virtualThreads;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            Thread.Builder builder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+            writer = builder.name("trace-exporter").start(this::run);
+        }
+    }
+
+    public void offer(Trace trace) {
+        if (enabled && !stopping && !buffer.offer(trace)) {
+            dropped.increment();
+        }
+    }
+
+    public long droppedTraces() {
+        return dropped.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (writer != null) {
+            stopping = true;
+            writer.join(POLL_INTERVAL.multipliedBy(10));
+        }
+    }
+
+    // ==================== OTLP/JSON ====================
+
+    String toOtlpJson(Trace trace) {
+        ObjectNode request = jsonMapper.createObjectNode();
+        ObjectNode resourceSpans = request.putArray("resourceSpans").addObject();
+        addAttribute(resourceSpans.putObject("resource").putArray("attributes"), "service.name", serviceName);
+        ObjectNode scopeSpans = resourceSpans.putArray("scopeSpans").addObject();
+        scopeSpans.putObject("scope").put("name", getClass().getPackageName());
+
+        ArrayNode spans = scopeSpans.putArray("spans");
+        for (Span span : trace.spans()) {
+            ObjectNode node = spans.addObject()
+                    .put("traceId", trace.traceId())
+                    .put("spanId", span.spanId());
+            if (span.parentSpanId() != null) {
+                node.put("parentSpanId", span.parentSpanId());
+            }
+            node.put("name", span.name())
+                    .put("kind", kind(span.stage()))
+                    .put("startTimeUnixNano", Long.toString(span.startEpochNanos()))
+                    .put("endTimeUnixNano", Long.toString(span.endEpochNanos()));
+
+            ArrayNode attributes = node.putArray("attributes");
+            addAttribute(attributes, "auvier.stage", span.stage().name().toLowerCase(Locale.ROOT));
+            span.attributes().forEach((key, value) -> addAttribute(attributes, key, value));
+            if (span.error() != null) {
+                node.putObject("status").put("code", 2).put("message", span.error());
+            }
+        }
+        return jsonMapper.writeValueAsString(request);
+    }
+
+    // OTLP SpanKind: INTERNAL = 1, SERVER = 2, CLIENT = 3
+    private static int kind(Span.Stage stage) {
+        return switch (stage) {
+            case HTTP -> 2;
+            case REPOSITORY, STRIPE -> 3;
+            default -> 1;
+        };
+    }
+
+    private static void addAttribute(ArrayNode attributes, String key, Object value) {
+        ObjectNode attribute = attributes.addObject().put("key", key);
+        if (value instanceof Integer || value instanceof Long) {
+            attribute.putObject("value").put("intValue", ((Number) value).longValue());
+        } else {
+            attribute.putObject("value").put("stringValue", String.valueOf(value));
+        }
+    }
+
+    // ==================== WRITER THREAD ====================
+
+    private void run() {
+        List<Trace> batch = new ArrayList<>();
+        while (!stopping || !buffer.isEmpty()) {
+            try {
+                Trace first = buffer.poll(POLL_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (IOException | RuntimeException e) {
+                dropped.add(batch.size());
+                log.warn("Could not write {} traces to {}: {}", batch.size(), file, e.getMessage());
+                closeQuietly();
+            }
+            batch.clear();
+        }
+        closeQuietly();
+    }
+
+    private void write(List<Trace> batch) throws IOException {
+        for (Trace trace : batch) {
+            if (out == null || fileSize >= maxFileSize) {
+                open();
+            }
+            String line = toOtlpJson(trace) + "\n";
+            out.write(line);
+            fileSize += line.length();
+        }
+        out.flush();
+    }
+
+    private void open() throws IOException {
+        closeQuietly();
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        if (Files.exists(file) && Files.size(file) >= maxFileSize) {
+            Files.move(file, file.resolveSibling(file.getFileName() + ".1"), StandardCopyOption.REPLACE_EXISTING);
+        }
+        out = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        fileSize = Files.size(file);
+    }
+
+    private void closeQuietly() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                log.debug("Closing {} failed: {}", file, e.getMessage());
+            }
+            out = null;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.auvier.infrastructure.tracing;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Starts a trace for every request, before Spring Security so all of the request is in it.
+ *
+ * - The trace id is the caller's (W3C traceparent header) or a new one. It is put in the MDC for the log
+ *   lines, in the X-Trace-Id response header, and in a request attribute for the error pages
+ * - The tracing advice (TracingConfig) and ControllerSpanInterceptor add the controller, service,
+ *   repository and payment gateway spans; the finished trace goes to TraceExporter
+ * - Requests slower than tracing.slow-threshold log their time per stage
+ *
+ * Async requests (payment status long-polling) end when the response completes; only the
+ * initial dispatch has spans.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class TraceFilter extends OncePerRequestFilter {
+
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+
+    private static final Pattern TRACEPARENT = Pattern.compile("00-([0-9a-f]{32})-([0-9a-f]{16})-[0-9a-f]{2}");
+    private static final String[] UNTRACED_PATHS = {"/assets/", "/uploads/", "/favicon.ico", "/actuator/"};
+
+    private final TraceExporter exporter;
+    private final int maxSpans;
+    private final Duration slowThreshold;
+
+    public TraceFilter(TraceExporter exporter,
+                       @Value("${tracing.max-spans:500}") int maxSpans,
+                       @Value("${tracing.slow-threshold:PT1S}") Duration slowThreshold) {
+        this.exporter = exporter;
+        this.maxSpans = maxSpans;
+        this.slowThreshold = slowThreshold;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String untraced : UNTRACED_PATHS) {
+            if (path.startsWith(untraced)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Matcher traceparent = TRACEPARENT.matcher(String.valueOf(request.getHeader("traceparent")));
+        boolean propagated = traceparent.matches() && !traceparent.group(1).matches("0+");
+        Trace trace = new Trace(propagated ? traceparent.group(1) : null, propagated ? traceparent.group(2) : null,
+                request.getMethod(), maxSpans);
+
+        request.setAttribute(TraceContext.TRACE_ID_ATTRIBUTE, trace.traceId());
+        response.setHeader(TRACE_ID_HEADER, trace.traceId());
+        TraceContext.attach(trace);
+        Throwable error = null;
+        try {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            TraceContext.detach();
+            if (error == null && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        finish(trace, request, response, null);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                finish(trace, request, response, error);
+            }
+        }
+    }
+
+    private void finish(Trace trace, HttpServletRequest request, HttpServletResponse response, Throwable error) {
+        // An exception escaping the filter chain becomes a 500
+        int status = error != null ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("http.request.method", request.getMethod());
+        attributes.put("url.path", request.getRequestURI());
+        attributes.put("http.response.status_code", status);
+        if (route != null) {
+            attributes.put("http.route", route.toString());
+        }
+        if (trace.droppedSpans() > 0) {
+            attributes.put("auvier.dropped_spans", trace.droppedSpans());
+        }
+        String failure = error != null ? error.getClass().getName() : status >= 500 ? "HTTP " + status : null;
+        trace.end(route != null ? request.getMethod() + " " + route : request.getMethod(), attributes, failure);
+
+        exporter.offer(trace);
+        long nanos = trace.root().durationNanos();
+        if (nanos >= slowThreshold.toNanos()) {
+            log.info("TraceId: {} | Slow request {} {} -> {} took {} ms ({})", trace.traceId(), request.getMethod(),
+                    request.getRequestURI(), status, TimeUnit.NANOSECONDS.toMillis(nanos), stages(trace));
+        }
+    }
+
+    private static String stages(Trace trace) {
+        StringJoiner stages = new StringJoiner(", ");
+        trace.totals().forEach((stage, total) -> {
+            if (stage != Span.Stage.HTTP) {
+                stages.add(stage.name().toLowerCase(Locale.ROOT) + " " + TimeUnit.NANOSECONDS.toMillis(total.nanos())
+                        + " ms / " + total.calls());
+            }
+        });
+        return stages.length() > 0 ? stages.toString() : "no spans";
+    }
+}
@@ -0,0 +1,80 @@
+package com.auvier.infrastructure.tracing;
+
+import com.auvier.infrastructure.payments.PaymentGateway;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records a span around every public method of the app's services (@Service), Spring Data repositories
+ * and the payment gateway; applied by TracingConfig. Outside a traced request it only passes the call on.
+ */
+public class TracingInterceptor implements MethodInterceptor {
+
+    public static final StagePointcut POINTCUT = new StagePointcut();
+
+    // Bean class -> name the spans use, e.g. OrderRepository for a repository proxy
+    private static final Map<Class<?>, String> OWNER_NAMES = new ConcurrentHashMap<>();
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (TraceContext.current() == null) {
+            return invocation.proceed();
+        }
+        // Not AopUtils.getTargetClass: for a repository that is SimpleJpaRepository, not OrderRepository
+        Class<?> targetClass = invocation.getThis() != null ? invocation.getThis().getClass()
+                : invocation.getMethod().getDeclaringClass();
+        Trace.Scope scope = TraceContext.open(stageOf(targetClass),
+                OWNER_NAMES.computeIfAbsent(targetClass, TracingInterceptor::ownerName) + "." + invocation.getMethod().getName());
+        try {
+            Object result = invocation.proceed();
+            scope.close(null);
+            return result;
+        } catch (Throwable e) {
+            scope.close(e);
+            throw e;
+        }
+    }
+
+    static Span.Stage stageOf(Class<?> type) {
+        if (PaymentGateway.class.isAssignableFrom(type)) {
+            return Span.Stage.STRIPE;
+        }
+        if (Repository.class.isAssignableFrom(type)) {
+            return Span.Stage.REPOSITORY;
+        }
+        if (type.getName().startsWith("com.auvier.") && AnnotatedElementUtils.hasAnnotation(type, Service.class)) {
+            return Span.Stage.SERVICE;
+        }
+        return null;
+    }
+
+    private static String ownerName(Class<?> type) {
+        // Repositories are JDK proxies; name them after the app's repository interface
+        for (Class<?> ifc : ClassUtils.getAllInterfacesForClass(type)) {
+            if (Repository.class.isAssignableFrom(ifc) && ifc.getName().startsWith("com.auvier.")) {
+                return ifc.getSimpleName();
+            }
+        }
+        return ClassUtils.getUserClass(type).getSimpleName();
+    }
+
+    public static class StagePointcut extends StaticMethodMatcherPointcut {
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return targetClass != null && stageOf(targetClass) != null
+                    && method.getDeclaringClass() != Object.class
+                    && Modifier.isPublic(method.getModifiers());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.auvier.infrastructure.webhooks;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed set of single-threaded lanes for webhook processing.
+ *
+ * - Tasks with the same key (order id) always land on the same lane, so they run one at a time
+ *   and in submission order; different orders run in parallel across lanes
+ * - Each lane has a bounded queue. The work is already stored, so a full lane just drops the task
+ *   and the recovery sweep resubmits it later
+ */
+@Component
+@Slf4j
+public class WebhookWorkerPool {
+
+    private final ExecutorService[] lanes;
+
+    @Value("${payment.webhook.shutdown-timeout:PT10S}")
+    private Duration shutdownTimeout;
+
+    public WebhookWorkerPool(@Value("${payment.webhook.workers:4}") int workers,
+                             @Value("${payment.webhook.queue-capacity:1000}") int queueCapacity,
+                             @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (workers < 1) {
+            throw new IllegalStateException("payment.webhook.workers must be at least 1");
+        }
+        this.lanes = new ExecutorService[workers];
+        for (int i = 0; i < workers; i++) {
+            // Still one thread per lane; a virtual one just does not tie up an OS thread while it waits on JDBC
+            ThreadFactory threadFactory = virtualThreads
+                    ? Thread.ofVirtual().name("webhook-worker-" + i).factory()
+                    : Thread.ofPlatform().name("webhook-worker-" + i).factory();
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    threadFactory,
+                    new ThreadPoolExecutor.AbortPolicy());
+        }
+    }
+
+    /**
+     * Queue a task on the lane owning the key.
+     * @return false if the lane is full or shutting down (the caller leaves the work for a later retry)
+     */
+    public boolean submit(Object key, Runnable task) {
+        ExecutorService lane = lanes[Math.floorMod(Objects.hashCode(key), lanes.length)];
+        try {
+            lane.execute(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    log.error("Webhook task for {} failed: {}", key, e.getMessage(), e);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.warn("Webhook lane for {} is full or stopped, leaving it to the recovery sweep", key);
+            return false;
+        }
+    }
+
+    /**
+     * Let queued tasks finish; whatever is still queued afterwards stays RECEIVED in the
+     * database and is picked up by the recovery sweep after the restart.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        for (ExecutorService lane : lanes) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || !lane.awaitTermination(remaining, TimeUnit.NANOSECONDS)) {
+                lane.shutdownNow();
+            }
+        }
+    }
+}
@@ -20,6 +20,7 @@ public interface OrderMapper {
     @Mapping(target = "user", ignore = true)
     @Mapping(target = "orderItems", ignore = true)
     @Mapping(target = "totalAmount", ignore = true)
+    @Mapping(target = "itemCount", ignore = true)
     @Mapping(target = "status", ignore = true)
     @Mapping(target = "paymentStatus", ignore = true)
     @Mapping(target = "transactionId", ignore = true)
@@ -32,7 +33,6 @@ public interface OrderMapper {
     @Mapping(target = "itemCount", expression = "java(entity.getOrderItems() != null ? entity.getOrderItems().size() : 0)")
     OrderResponseDto toResponseDto(OrderEntity entity);
 
-    @Mapping(target = "itemCount", expression = "java(entity.getOrderItems() != null ? entity.getOrderItems().size() : 0)")
     @Mapping(target = "customerUsername", source = "user.username")
     OrderSummaryDto toSummaryDto(OrderEntity entity);
 
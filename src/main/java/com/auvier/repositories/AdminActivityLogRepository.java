@@ -1,6 +1,7 @@
 package com.auvier.repositories;
 
 import com.auvier.entities.AdminActivityLogEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -8,13 +9,12 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface AdminActivityLogRepository extends JpaRepository<AdminActivityLogEntity, Long> {
+public interface AdminActivityLogRepository extends JpaRepository<AdminActivityLogEntity, Long>, AdminActivityLogSearchRepository {
 
-    List<AdminActivityLogEntity> findTop50ByOrderByTimestampDesc();
-
-    List<AdminActivityLogEntity> findByAdminUsernameOrderByTimestampDesc(String username);
+    List<AdminActivityLogEntity> findByTimestampBetweenOrderByTimestampDesc(LocalDateTime start, LocalDateTime end);
 
-    List<AdminActivityLogEntity> findByEntityTypeOrderByTimestampDesc(String entityType);
+    List<AdminActivityLogEntity> findByTimestampBetweenOrderByTimestampDesc(LocalDateTime start, LocalDateTime end, Limit limit);
 
-    List<AdminActivityLogEntity> findByTimestampBetweenOrderByTimestampDesc(LocalDateTime start, LocalDateTime end);
+    List<AdminActivityLogEntity> findByAdminUsernameAndTimestampBetweenOrderByTimestampDesc(String username, LocalDateTime start,
+                                                                                          LocalDateTime end, Limit limit);
 }
@@ -0,0 +1,21 @@
+package com.auvier.repositories;
+
+import com.auvier.dtos.activity.ActivityLogFilterDto;
+import com.auvier.dtos.activity.ActivityLogSummaryDto;
+import com.auvier.infrastructure.pagination.KeysetCursor;
+
+import java.util.List;
+
+/**
+ * Dynamic admin activity log search, newest first. Only the filters that are set end up in the SQL,
+ * so each combination can use its matching index.
+ */
+public interface AdminActivityLogSearchRepository {
+
+    /**
+     * @param filter filters
+     * @param after last row of the previous page, null for the first page
+     * @param limit maximum number of rows to return
+     */
+    List<ActivityLogSummaryDto> search(ActivityLogFilterDto filter, KeysetCursor after, int limit);
+}
@@ -0,0 +1,94 @@
+package com.auvier.repositories;
+
+import com.auvier.dtos.activity.ActivityLogFilterDto;
+import com.auvier.dtos.activity.ActivityLogSummaryDto;
+import com.auvier.entities.AdminActivityLogEntity;
+import com.auvier.infrastructure.pagination.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class AdminActivityLogSearchRepositoryImpl implements AdminActivityLogSearchRepository {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ActivityLogSummaryDto> search(ActivityLogFilterDto filter, KeysetCursor after, int limit) {
+        // Hibernate's builder for ILIKE, which the trigram indexes support directly
+        HibernateCriteriaBuilder cb = entityManager.unwrap(Session.class).getCriteriaBuilder();
+        CriteriaQuery<ActivityLogSummaryDto> query = cb.createQuery(ActivityLogSummaryDto.class);
+        Root<AdminActivityLogEntity> log = query.from(AdminActivityLogEntity.class);
+        Path<LocalDateTime> timestamp = log.get("timestamp");
+        Path<Long> id = log.get("id");
+
+        List<Predicate> where = new ArrayList<>();
+        if (hasText(filter.getAdmin())) {
+            where.add(cb.equal(log.get("adminUsername"), filter.getAdmin().trim()));
+        }
+        if (hasText(filter.getEntityType())) {
+            where.add(cb.equal(log.get("entityType"), filter.getEntityType().trim()));
+        }
+        if (hasText(filter.getAction())) {
+            where.add(cb.equal(log.get("action"), filter.getAction().trim()));
+        }
+        if (filter.getEntityId() != null) {
+            where.add(cb.equal(log.get("entityId"), filter.getEntityId()));
+        }
+        if (filter.getFrom() != null) {
+            where.add(cb.greaterThanOrEqualTo(timestamp, filter.getFrom().atStartOfDay()));
+        }
+        if (filter.getTo() != null) {
+            where.add(cb.lessThan(timestamp, filter.getTo().plusDays(1).atStartOfDay()));
+        }
+        if (hasText(filter.getQ())) {
+            String pattern = "%" + escapeLike(filter.getQ().trim()) + "%";
+            where.add(cb.or(cb.ilike(log.get("description"), pattern, LIKE_ESCAPE),
+                    cb.ilike(log.get("entityName"), pattern, LIKE_ESCAPE)));
+        }
+        if (after != null) {
+            // (timestamp, id) strictly before the cursor row
+            LocalDateTime lastTimestamp = after.timestampValue();
+            where.add(cb.or(cb.lessThan(timestamp, lastTimestamp),
+                    cb.and(cb.equal(timestamp, lastTimestamp), cb.lessThan(id, after.id()))));
+        }
+
+        query.select(cb.construct(ActivityLogSummaryDto.class,
+                        id,
+                        timestamp,
+                        log.get("adminUsername"),
+                        log.get("action"),
+                        log.get("entityType"),
+                        log.get("entityId"),
+                        log.get("entityName"),
+                        log.get("description"),
+                        log.get("changesDetail"),
+                        log.get("ipAddress")))
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(cb.desc(timestamp), cb.desc(id));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    // The search text is matched literally, not as a LIKE pattern
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
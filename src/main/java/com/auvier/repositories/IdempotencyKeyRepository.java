@@ -0,0 +1,93 @@
+package com.auvier.repositories;
+
+import com.auvier.entities.IdempotencyKeyEntity;
+import com.auvier.enums.IdempotencyStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeyEntity, Long> {
+
+    Optional<IdempotencyKeyEntity> findByScopeAndOwnerAndIdempotencyKey(String scope, String owner, String idempotencyKey);
+
+    /**
+     * Atomically claim a key. Returns 1 if this caller inserted the row, 0 if it already existed.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO idempotency_keys (scope, owner, idempotency_key, request_hash, status, created_at, expires_at, locked_until)
+            VALUES (:scope, :owner, :key, :requestHash, 'IN_PROGRESS', :createdAt, :expiresAt, :lockedUntil)
+            ON CONFLICT (scope, owner, idempotency_key) DO NOTHING
+            """, nativeQuery = true)
+    int claim(@Param("scope") String scope,
+              @Param("owner") String owner,
+              @Param("key") String key,
+              @Param("requestHash") String requestHash,
+              @Param("createdAt") LocalDateTime createdAt,
+              @Param("expiresAt") LocalDateTime expiresAt,
+              @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    /**
+     * Take over an IN_PROGRESS claim whose lease ran out (its request died or failed to store the response).
+     * Returns 1 if this caller now holds the claim; of several retries only one gets it.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyKeyEntity k SET k.lockedUntil = :lockedUntil, k.expiresAt = :expiresAt " +
+            "WHERE k.scope = :scope AND k.owner = :owner AND k.idempotencyKey = :key " +
+            "AND k.requestHash = :requestHash AND k.status = com.auvier.enums.IdempotencyStatus.IN_PROGRESS " +
+            "AND k.lockedUntil < :now")
+    int takeOver(@Param("scope") String scope,
+                 @Param("owner") String owner,
+                 @Param("key") String key,
+                 @Param("requestHash") String requestHash,
+                 @Param("now") LocalDateTime now,
+                 @Param("expiresAt") LocalDateTime expiresAt,
+                 @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    /**
+     * Store the response; a no-op (0) if the claim was taken over since, identified by its lease end
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyKeyEntity k SET k.status = :status, k.responseStatus = :responseStatus, " +
+            "k.responseBody = :responseBody, k.lockedUntil = null WHERE k.scope = :scope AND k.owner = :owner " +
+            "AND k.idempotencyKey = :key AND k.lockedUntil = :lockedUntil")
+    int complete(@Param("scope") String scope,
+                 @Param("owner") String owner,
+                 @Param("key") String key,
+                 @Param("lockedUntil") LocalDateTime lockedUntil,
+                 @Param("status") IdempotencyStatus status,
+                 @Param("responseStatus") int responseStatus,
+                 @Param("responseBody") String responseBody);
+
+    /**
+     * Drop the claim so the client can retry; a no-op (0) if it was taken over since
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyKeyEntity k WHERE k.scope = :scope AND k.owner = :owner " +
+            "AND k.idempotencyKey = :key AND k.lockedUntil = :lockedUntil")
+    int release(@Param("scope") String scope, @Param("owner") String owner, @Param("key") String key,
+                @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyKeyEntity k WHERE k.scope = :scope AND k.owner = :owner " +
+            "AND k.idempotencyKey = :key AND k.expiresAt < :now")
+    int releaseIfExpired(@Param("scope") String scope, @Param("owner") String owner,
+                         @Param("key") String key, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyKeyEntity k WHERE k.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
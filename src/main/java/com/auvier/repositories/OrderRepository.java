@@ -1,16 +1,26 @@
 package com.auvier.repositories;
 
+import com.auvier.dtos.order.OrderSummaryDto;
 import com.auvier.entities.OrderEntity;
 import com.auvier.enums.OrderStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface OrderRepository extends JpaRepository<OrderEntity, Long> {
+public interface OrderRepository extends JpaRepository<OrderEntity, Long>, OrderSearchRepository {
 
     List<OrderEntity> findByUserId(Long userId);
 
@@ -21,9 +31,115 @@ public interface OrderRepository extends JpaRepository<OrderEntity, Long> {
     @Query("SELECT o FROM OrderEntity o WHERE o.user.username = :username ORDER BY o.createdAt DESC")
     List<OrderEntity> findByUsername(@Param("username") String username);
 
+    // Status and payment changes lock the row, so a concurrent cancel, payment or webhook is not overwritten
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM OrderEntity o WHERE o.id = :id")
+    Optional<OrderEntity> findByIdForUpdate(@Param("id") Long id);
+
+    // ==================== CUSTOMER ORDER HISTORY (keyset, index orders(user_id, created_at, id)) ====================
+
+    @Query("""
+            SELECT new com.auvier.dtos.order.OrderSummaryDto(
+                o.id, o.totalAmount, o.status, o.itemCount, o.createdAt, o.user.username)
+            FROM OrderEntity o
+            WHERE o.user.id = :userId
+            ORDER BY o.createdAt DESC, o.id DESC
+            """)
+    List<OrderSummaryDto> findSummariesByUserId(@Param("userId") Long userId, Limit limit);
+
+    @Query("""
+            SELECT new com.auvier.dtos.order.OrderSummaryDto(
+                o.id, o.totalAmount, o.status, o.itemCount, o.createdAt, o.user.username)
+            FROM OrderEntity o
+            WHERE o.user.id = :userId
+              AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id))
+            ORDER BY o.createdAt DESC, o.id DESC
+            """)
+    List<OrderSummaryDto> findSummariesByUserIdBefore(@Param("userId") Long userId,
+                                                      @Param("createdAt") LocalDateTime createdAt,
+                                                      @Param("id") Long id,
+                                                      Limit limit);
+
+    // ==================== INCREMENTAL TOTALS ====================
+
+    interface OrderTotals {
+        BigDecimal getTotalAmount();
+        Integer getItemCount();
+    }
+
+    /**
+     * Apply the change of one line to the derived totals in a single statement.
+     * Bypasses the persistence context, so callers must not rely on a loaded OrderEntity's totals afterwards.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE OrderEntity o SET o.totalAmount = o.totalAmount + :amountDelta, " +
+            "o.itemCount = o.itemCount + :itemCountDelta, o.updatedAt = :now WHERE o.id = :orderId")
+    int applyTotalsDelta(@Param("orderId") Long orderId,
+                         @Param("amountDelta") BigDecimal amountDelta,
+                         @Param("itemCountDelta") int itemCountDelta,
+                         @Param("now") LocalDateTime now);
+
+    Optional<OrderTotals> findTotalsById(Long id);
+
+    // ==================== BULK STATUS ====================
+
+    interface OrderStatusRow {
+        Long getId();
+        OrderStatus getStatus();
+    }
+
+    List<OrderStatusRow> findStatusesByIdIn(Collection<Long> ids);
+
+    /**
+     * Move a set of orders from one status to another in a single statement.
+     * The expected-status guard skips orders that changed since they were validated; only the ids
+     * this statement actually moved are returned (in no particular order).
+     */
+    @Query(value = "UPDATE orders SET status = :target, updated_at = :now " +
+            "WHERE id IN (:ids) AND status = :expected RETURNING id", nativeQuery = true)
+    List<Long> updateStatusIfCurrent(@Param("ids") Collection<Long> ids,
+                                     @Param("expected") String expected,
+                                     @Param("target") String target,
+                                     @Param("now") LocalDateTime now);
+
+    // ==================== CHECKOUT ====================
+
+    /**
+     * Record the PaymentIntent of a checkout order that is still PENDING.
+     * Leaves the payment status alone: createOrder set it to pending, and a payment_failed webhook
+     * that commits before this must keep its "failed".
+     */
+    @Modifying
+    @Query("UPDATE OrderEntity o SET o.transactionId = :paymentIntentId, o.updatedAt = :now " +
+            "WHERE o.id = :orderId AND o.status = com.auvier.enums.OrderStatus.PENDING")
+    int attachPaymentIntent(@Param("orderId") Long orderId,
+                            @Param("paymentIntentId") String paymentIntentId,
+                            @Param("now") LocalDateTime now);
+
+    /**
+     * The order a PaymentIntent was attached to (see attachPaymentIntent). Index orders(transaction_id).
+     */
+    @Query("SELECT o.id FROM OrderEntity o WHERE o.transactionId = :paymentIntentId")
+    Optional<Long> findIdByTransactionId(@Param("paymentIntentId") String paymentIntentId);
+
     @Query("SELECT COUNT(o) FROM OrderEntity o WHERE o.user.id = :userId")
     long countByUserId(@Param("userId") Long userId);
 
     @Query("SELECT COUNT(o) FROM OrderEntity o WHERE o.status = :status")
     long countByStatus(@Param("status") OrderStatus status);
+
+    // ==================== DASHBOARD (reconciliation of DashboardMetrics) ====================
+
+    interface StatusCount {
+        OrderStatus getStatus();
+        long getCount();
+    }
+
+    @Query("SELECT o.status AS status, COUNT(o) AS count FROM OrderEntity o GROUP BY o.status")
+    List<StatusCount> countGroupedByStatus();
+
+    @Query("SELECT COALESCE(SUM(o.totalAmount), 0) FROM OrderEntity o " +
+            "WHERE o.createdAt >= :since AND o.status IN :statuses")
+    BigDecimal sumTotalAmountCreatedSince(@Param("since") LocalDateTime since,
+                                          @Param("statuses") Collection<OrderStatus> statuses);
 }
@@ -0,0 +1,28 @@
+package com.auvier.repositories;
+
+import com.auvier.dtos.order.OrderFilterDto;
+import com.auvier.dtos.order.OrderSummaryDto;
+import com.auvier.infrastructure.pagination.KeysetCursor;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Dynamic admin order search. Only the filters that are set end up in the SQL,
+ * so each combination can use its matching index.
+ */
+public interface OrderSearchRepository {
+
+    /**
+     * @param filter filters and sort order
+     * @param after last row of the previous page, null for the first page
+     * @param limit maximum number of rows to return
+     */
+    List<OrderSummaryDto> search(OrderFilterDto filter, KeysetCursor after, int limit);
+
+    /**
+     * Every matching order in the filter's sort order, read through a database cursor
+     * (StreamingQueries.FETCH_SIZE rows at a time). Must be consumed inside a transaction, and closed.
+     */
+    Stream<OrderSummaryDto> stream(OrderFilterDto filter);
+}
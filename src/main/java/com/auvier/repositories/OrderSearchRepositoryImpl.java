@@ -0,0 +1,110 @@
+package com.auvier.repositories;
+
+import com.auvier.dtos.order.OrderFilterDto;
+import com.auvier.dtos.order.OrderSummaryDto;
+import com.auvier.entities.OrderEntity;
+import com.auvier.entities.UserEntity;
+import com.auvier.enums.OrderSortField;
+import com.auvier.infrastructure.pagination.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class OrderSearchRepositoryImpl implements OrderSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<OrderSummaryDto> search(OrderFilterDto filter, KeysetCursor after, int limit) {
+        return entityManager.createQuery(query(filter, after))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<OrderSummaryDto> stream(OrderFilterDto filter) {
+        return entityManager.createQuery(query(filter, null))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, StreamingQueries.FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private CriteriaQuery<OrderSummaryDto> query(OrderFilterDto filter, KeysetCursor after) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrderSummaryDto> query = cb.createQuery(OrderSummaryDto.class);
+        Root<OrderEntity> order = query.from(OrderEntity.class);
+        Join<OrderEntity, UserEntity> user = order.join("user");
+
+        List<Predicate> where = new ArrayList<>();
+        if (filter.getStatus() != null) {
+            where.add(cb.equal(order.get("status"), filter.getStatus()));
+        }
+        if (filter.getFrom() != null) {
+            where.add(cb.greaterThanOrEqualTo(order.get("createdAt"), filter.getFrom().atStartOfDay()));
+        }
+        if (filter.getTo() != null) {
+            where.add(cb.lessThan(order.get("createdAt"), filter.getTo().plusDays(1).atStartOfDay()));
+        }
+        if (filter.getCustomer() != null && !filter.getCustomer().isBlank()) {
+            String customer = filter.getCustomer().trim();
+            where.add(cb.or(cb.equal(user.get("username"), customer), cb.equal(user.get("email"), customer)));
+        }
+        if (filter.getMinAmount() != null) {
+            where.add(cb.greaterThanOrEqualTo(order.get("totalAmount"), filter.getMinAmount()));
+        }
+        if (filter.getMaxAmount() != null) {
+            where.add(cb.lessThanOrEqualTo(order.get("totalAmount"), filter.getMaxAmount()));
+        }
+
+        boolean ascending = filter.getDirection() == Sort.Direction.ASC;
+        Path<Long> id = order.get("id");
+        Expression<?> sortKey;
+        if (filter.getSort() == OrderSortField.TOTAL_AMOUNT) {
+            Path<BigDecimal> amount = order.get("totalAmount");
+            sortKey = amount;
+            if (after != null) {
+                where.add(afterRow(cb, amount, after.decimalValue(), id, after.id(), ascending));
+            }
+        } else {
+            Path<LocalDateTime> createdAt = order.get("createdAt");
+            sortKey = createdAt;
+            if (after != null) {
+                where.add(afterRow(cb, createdAt, after.timestampValue(), id, after.id(), ascending));
+            }
+        }
+
+        query.select(cb.construct(OrderSummaryDto.class,
+                        id,
+                        order.get("totalAmount"),
+                        order.get("status"),
+                        order.get("itemCount"),
+                        order.get("createdAt"),
+                        user.get("username")))
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(ascending
+                        ? List.of(cb.asc(sortKey), cb.asc(id))
+                        : List.of(cb.desc(sortKey), cb.desc(id)));
+
+        return query;
+    }
+
+    // (sortKey, id) strictly after the cursor row in the current sort direction
+    private <Y extends Comparable<? super Y>> Predicate afterRow(CriteriaBuilder cb, Expression<Y> sortKey, Y value,
+                                                                Path<Long> id, Long lastId, boolean ascending) {
+        if (ascending) {
+            return cb.or(cb.greaterThan(sortKey, value),
+                    cb.and(cb.equal(sortKey, value), cb.greaterThan(id, lastId)));
+        }
+        return cb.or(cb.lessThan(sortKey, value),
+                cb.and(cb.equal(sortKey, value), cb.lessThan(id, lastId)));
+    }
+}
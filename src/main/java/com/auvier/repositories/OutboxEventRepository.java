@@ -0,0 +1,65 @@
+package com.auvier.repositories;
+
+import com.auvier.entities.OutboxEventEntity;
+import com.auvier.enums.OutboxStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEventEntity, Long> {
+
+    // Partial index idx_outbox_pending
+    List<OutboxEventEntity> findByStatusOrderByIdAsc(OutboxStatus status, Limit limit);
+
+    // Partial index idx_outbox_pending_aggregate
+    List<OutboxEventEntity> findByStatusAndAggregateIdInOrderByAggregateVersionAsc(OutboxStatus status,
+                                                                                   Collection<Long> aggregateIds);
+
+    /**
+     * Next event version of an aggregate. The counter row stays locked until the caller's transaction
+     * ends, so the versions of one aggregate commit in order and without gaps.
+     * No flush first: the session's pending inserts still go out in one batch at commit.
+     */
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query(value = """
+            INSERT INTO outbox_aggregate_versions (aggregate_type, aggregate_id, version)
+            VALUES (:aggregateType, :aggregateId, 1)
+            ON CONFLICT (aggregate_type, aggregate_id) DO UPDATE SET version = outbox_aggregate_versions.version + 1
+            RETURNING version
+            """, nativeQuery = true)
+    long nextAggregateVersion(@Param("aggregateType") String aggregateType, @Param("aggregateId") Long aggregateId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEventEntity e SET e.status = com.auvier.enums.OutboxStatus.PROCESSED, " +
+            "e.processedAt = :now, e.attempts = e.attempts + 1 WHERE e.id IN :ids")
+    int markProcessed(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEventEntity e SET e.attempts = e.attempts + 1, e.lastError = :error, " +
+            "e.status = :status, e.processedAt = :processedAt WHERE e.id = :id")
+    int recordFailure(@Param("id") Long id,
+                      @Param("error") String error,
+                      @Param("status") OutboxStatus status,
+                      @Param("processedAt") LocalDateTime processedAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboxEventEntity e WHERE e.status = com.auvier.enums.OutboxStatus.PROCESSED " +
+            "AND e.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,68 @@
+package com.auvier.repositories;
+
+import com.auvier.entities.PaymentWebhookEventEntity;
+import com.auvier.enums.WebhookEventStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PaymentWebhookEventRepository extends JpaRepository<PaymentWebhookEventEntity, String> {
+
+    /**
+     * Store a verified event. Returns 1 if this delivery inserted it, 0 if Stripe already sent it.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO payment_webhook_events (event_id, event_type, order_id, payment_intent_id, payload, status, attempts, received_at)
+            VALUES (:eventId, :eventType, :orderId, :paymentIntentId, :payload, 'RECEIVED', 0, :receivedAt)
+            ON CONFLICT (event_id) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("eventId") String eventId,
+                       @Param("eventType") String eventType,
+                       @Param("orderId") Long orderId,
+                       @Param("paymentIntentId") String paymentIntentId,
+                       @Param("payload") String payload,
+                       @Param("receivedAt") LocalDateTime receivedAt);
+
+    /**
+     * Lock the event row while it is processed, so a replay or a second instance cannot apply it twice.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM PaymentWebhookEventEntity e WHERE e.eventId = :eventId")
+    Optional<PaymentWebhookEventEntity> findByIdForUpdate(@Param("eventId") String eventId);
+
+    List<PaymentWebhookEventEntity> findByStatusAndReceivedAtBeforeOrderByReceivedAtAsc(
+            WebhookEventStatus status, LocalDateTime cutoff, Limit limit);
+
+    List<PaymentWebhookEventEntity> findByStatusOrderByReceivedAtAsc(WebhookEventStatus status, Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE PaymentWebhookEventEntity e SET e.attempts = e.attempts + 1, e.lastError = :error, " +
+            "e.status = :status WHERE e.eventId = :eventId")
+    int recordFailure(@Param("eventId") String eventId,
+                      @Param("error") String error,
+                      @Param("status") WebhookEventStatus status);
+
+    /**
+     * Put stored events back in the queue with a fresh attempt budget.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE PaymentWebhookEventEntity e SET e.status = com.auvier.enums.WebhookEventStatus.RECEIVED, " +
+            "e.attempts = 0, e.lastError = null, e.processedAt = null WHERE e.eventId IN :eventIds")
+    int resetForReplay(@Param("eventIds") Collection<String> eventIds);
+}
@@ -3,14 +3,19 @@ package com.auvier.repositories;
 
 import com.auvier.entities.catalog.ProductVariantEntity;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 
 @Repository
@@ -18,9 +23,33 @@ public interface  ProductVariantRepository extends JpaRepository<ProductVariantE
     List<ProductVariantEntity> findByProductIdOrderByIdAsc(Long productId);
     boolean existsBySku(String sku);
 
-//    @Lock(LockModeType.PESSIMISTIC_WRITE)
-//    @Query("select v from ProductVariantEntity v where v.id = :id")
-//    Optional<ProductVariantEntity> findByIdForUpdate(@Param("id") Long id);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select v from product_variants v where v.id = :id")
+    Optional<ProductVariantEntity> findByIdForUpdate(@Param("id") Long id);
+
+    // ORDER BY id makes every transaction lock rows in the same order (no deadlocks)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select v from product_variants v where v.id in :ids order by v.id")
+    List<ProductVariantEntity> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    long countByActiveTrueAndStockLessThanEqual(int stock);
+
+    /**
+     * Variants with their product for export, by id, read through a database cursor.
+     * Null parameters are not filtered on. Must be consumed inside a transaction, and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + StreamingQueries.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select v from product_variants v join fetch v.product p left join p.category c " +
+            "where (:productId is null or p.id = :productId) " +
+            "and (:categoryId is null or c.id = :categoryId) " +
+            "and (:active is null or v.active = :active) " +
+            "and (:maxStock is null or v.stock <= :maxStock) order by v.id")
+    Stream<ProductVariantEntity> streamForExport(@Param("productId") Long productId,
+                                                 @Param("categoryId") Long categoryId,
+                                                 @Param("active") Boolean active,
+                                                 @Param("maxStock") Integer maxStock);
 
 }
-
@@ -0,0 +1,16 @@
+package com.auvier.repositories;
+
+/**
+ * Shared settings of the repository queries that return a Stream read through a database cursor
+ * (UserRepository, ProductVariantRepository and OrderSearchRepository streamForExport / stream).
+ */
+public final class StreamingQueries {
+
+    /**
+     * Rows per database round trip
+     */
+    public static final int FETCH_SIZE = 1000;
+
+    private StreamingQueries() {
+    }
+}
@@ -1,9 +1,17 @@
 package com.auvier.repositories;
 
 import com.auvier.entities.UserEntity;
+import com.auvier.enums.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<UserEntity, Long> {
     Optional<UserEntity> findByUsername(String username);
@@ -11,5 +19,21 @@ public interface UserRepository extends JpaRepository<UserEntity, Long> {
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
     Optional<UserEntity> findById(Long id);
+    long countByCreatedAtGreaterThanEqual(LocalDateTime since);
+
+    /**
+     * Users for export, by id, read through a database cursor. Null parameters are not filtered on.
+     * Must be consumed inside a transaction, and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + StreamingQueries.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u FROM UserEntity u WHERE (:role IS NULL OR u.role = :role) " +
+            "AND (CAST(:since AS LocalDateTime) IS NULL OR u.createdAt >= :since) " +
+            "AND (CAST(:until AS LocalDateTime) IS NULL OR u.createdAt < :until) ORDER BY u.id")
+    Stream<UserEntity> streamForExport(@Param("role") Role role,
+                                       @Param("since") LocalDateTime since,
+                                       @Param("until") LocalDateTime until);
 
 }
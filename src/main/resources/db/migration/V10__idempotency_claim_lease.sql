@@ -0,0 +1,9 @@
+-- Lease for IN_PROGRESS idempotency claims (IdempotencyServiceImpl): a retry may take over a claim
+-- whose request died once locked_until has passed, instead of waiting for expires_at.
+
+ALTER TABLE idempotency_keys ADD COLUMN IF NOT EXISTS locked_until TIMESTAMP(6);
+
+-- Claims from before the upgrade get the default 30 second lease
+UPDATE idempotency_keys
+SET locked_until = created_at + INTERVAL '30 seconds'
+WHERE status = 'IN_PROGRESS' AND locked_until IS NULL;
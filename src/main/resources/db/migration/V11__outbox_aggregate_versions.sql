@@ -0,0 +1,32 @@
+-- Per-aggregate event numbering for the outbox (OutboxServiceImpl, OutboxRelay).
+-- Event ids come from pooled sequence blocks and do not follow commit order. The version does:
+-- publishing an event locks the aggregate's counter row until commit, so the versions of one
+-- aggregate commit in order and without gaps, and the relay delivers them in version order.
+
+CREATE TABLE outbox_aggregate_versions (
+    aggregate_type VARCHAR(40) NOT NULL,
+    aggregate_id   BIGINT      NOT NULL,
+    version        BIGINT      NOT NULL,
+    PRIMARY KEY (aggregate_type, aggregate_id)
+);
+
+ALTER TABLE outbox_events ADD COLUMN aggregate_version BIGINT;
+
+-- Events already written are numbered in id order
+UPDATE outbox_events e
+SET aggregate_version = v.version
+FROM (SELECT id, row_number() OVER (PARTITION BY aggregate_type, aggregate_id ORDER BY id) AS version
+      FROM outbox_events) v
+WHERE e.id = v.id;
+
+INSERT INTO outbox_aggregate_versions (aggregate_type, aggregate_id, version)
+SELECT aggregate_type, aggregate_id, MAX(aggregate_version)
+FROM outbox_events
+GROUP BY aggregate_type, aggregate_id;
+
+ALTER TABLE outbox_events ALTER COLUMN aggregate_version SET NOT NULL;
+ALTER TABLE outbox_events
+    ADD CONSTRAINT uk_outbox_aggregate_version UNIQUE (aggregate_type, aggregate_id, aggregate_version);
+
+-- Relay: the pending events of the aggregates in a batch, in version order
+CREATE INDEX idx_outbox_pending_aggregate ON outbox_events (aggregate_id, aggregate_version) WHERE status = 'PENDING';
@@ -0,0 +1,4 @@
+-- /checkout/confirm resolves the order from its PaymentIntent id (OrderRepository.findIdByTransactionId)
+-- instead of trusting the order id the client sends.
+
+CREATE INDEX IF NOT EXISTS idx_orders_transaction_id ON orders (transaction_id);
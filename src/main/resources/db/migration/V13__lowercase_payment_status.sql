@@ -0,0 +1,6 @@
+-- orders.payment_status is lower case everywhere now (OrderService.PAYMENT_*). Order creation and
+-- admin "mark as paid" used to write PENDING / PAID, the webhooks paid / failed / refund_required.
+
+UPDATE orders
+SET payment_status = lower(payment_status)
+WHERE payment_status <> lower(payment_status);
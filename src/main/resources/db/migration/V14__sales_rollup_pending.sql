@@ -0,0 +1,34 @@
+-- Pending changes to the sales rollups (SalesRollups).
+-- An order moving into or out of PAID/SHIPPED/DELIVERED appends its signed rows here, in the order's
+-- transaction, instead of updating sales_daily*: every payment of a day used to update the same
+-- sales_daily row, so payment commits queued behind each other on it.
+-- A scheduled job folds these rows into the rollups and deletes them; reports add the rows not yet
+-- folded, so they stay exact.
+-- Same columns as the rollup table, no key: one table usually holds a few seconds' worth of rows.
+
+CREATE TABLE sales_daily_pending (
+    id      BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    day     DATE           NOT NULL,
+    orders  BIGINT         NOT NULL,
+    units   BIGINT         NOT NULL,
+    revenue NUMERIC(14, 2) NOT NULL
+);
+
+CREATE TABLE sales_daily_category_pending (
+    id          BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    category_id BIGINT         NOT NULL,
+    day         DATE           NOT NULL,
+    orders      BIGINT         NOT NULL,
+    units       BIGINT         NOT NULL,
+    revenue     NUMERIC(14, 2) NOT NULL
+);
+
+CREATE TABLE sales_daily_variant_pending (
+    id         BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    variant_id BIGINT         NOT NULL,
+    day        DATE           NOT NULL,
+    product_id BIGINT         NOT NULL,
+    orders     BIGINT         NOT NULL,
+    units      BIGINT         NOT NULL,
+    revenue    NUMERIC(14, 2) NOT NULL
+);
@@ -0,0 +1,106 @@
+-- Baseline schema, matching the JPA mappings.
+-- Databases created earlier by ddl-auto=update are baselined at this version (V1 is skipped)
+-- and brought up to date by V2/V3, which only use IF NOT EXISTS / idempotent statements.
+
+-- ==================== SEQUENCES ====================
+-- Pooled generators (allocationSize = 50) for the high-volume tables, so inserts can be batched
+
+CREATE SEQUENCE orders_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE order_items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE product_variants_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE admin_activity_logs_seq START WITH 1 INCREMENT BY 50;
+
+-- ==================== USERS ====================
+
+CREATE TABLE users (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username    VARCHAR(50)  NOT NULL UNIQUE,
+    email       VARCHAR(255) NOT NULL UNIQUE,
+    password    VARCHAR(255) NOT NULL,
+    first_name  VARCHAR(100),
+    last_name   VARCHAR(100),
+    phone       VARCHAR(20),
+    address     VARCHAR(500),
+    role        VARCHAR(255) NOT NULL CHECK (role IN ('CUSTOMER', 'ADMIN')),
+    created_at  TIMESTAMP(6)
+);
+
+-- ==================== CATALOG ====================
+
+CREATE TABLE categories (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(60)  NOT NULL,
+    slug        VARCHAR(80)  NOT NULL UNIQUE,
+    parent_id   BIGINT REFERENCES categories (id),
+    active      BOOLEAN      NOT NULL,
+    description VARCHAR(1000)
+);
+
+CREATE TABLE products (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name            VARCHAR(255) NOT NULL,
+    slug            VARCHAR(255) NOT NULL UNIQUE,
+    description     TEXT,
+    active          BOOLEAN      NOT NULL,
+    category_id     BIGINT REFERENCES categories (id),
+    sub_category_id BIGINT REFERENCES categories (id),
+    created_at      TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE product_variants (
+    id          BIGINT PRIMARY KEY,
+    product_id  BIGINT         NOT NULL REFERENCES products (id),
+    sku         VARCHAR(60)    NOT NULL UNIQUE,
+    price       NUMERIC(10, 2) NOT NULL,
+    stock       INTEGER        NOT NULL,
+    color       VARCHAR(30)    NOT NULL,
+    size        SMALLINT CHECK (size BETWEEN 0 AND 5),
+    image_url   VARCHAR(500),
+    active      BOOLEAN        NOT NULL
+);
+
+-- ==================== ORDERS ====================
+
+CREATE TABLE orders (
+    id               BIGINT PRIMARY KEY,
+    user_id          BIGINT         NOT NULL REFERENCES users (id),
+    total_amount     NUMERIC(10, 2) NOT NULL,
+    item_count       INTEGER        NOT NULL DEFAULT 0,
+    status           VARCHAR(255)   NOT NULL
+        CHECK (status IN ('PENDING', 'CREATED', 'PAID', 'SHIPPED', 'DELIVERED', 'CANCELLED')),
+    shipping_address VARCHAR(255),
+    payment_method   VARCHAR(255),
+    payment_status   VARCHAR(255),
+    transaction_id   VARCHAR(255),
+    created_at       TIMESTAMP(6),
+    updated_at       TIMESTAMP(6)
+);
+
+CREATE TABLE order_items (
+    id                 BIGINT PRIMARY KEY,
+    order_id           BIGINT         NOT NULL REFERENCES orders (id),
+    product_variant_id BIGINT         NOT NULL REFERENCES product_variants (id),
+    quantity           INTEGER        NOT NULL CHECK (quantity >= 1),
+    unit_price         NUMERIC(10, 2) NOT NULL
+);
+
+-- ==================== ADMIN ACTIVITY LOG ====================
+
+CREATE TABLE admin_activity_logs (
+    id                 BIGINT PRIMARY KEY,
+    admin_username     VARCHAR(255) NOT NULL,
+    admin_display_name VARCHAR(255),
+    action             VARCHAR(255) NOT NULL,
+    entity_type        VARCHAR(255) NOT NULL,
+    entity_id          BIGINT,
+    entity_name        VARCHAR(255),
+    description        VARCHAR(500),
+    details            VARCHAR(1000),
+    changes_detail     VARCHAR(2000),
+    previous_values    TEXT,
+    new_values         TEXT,
+    ip_address         VARCHAR(255),
+    user_agent         VARCHAR(500),
+    session_id         VARCHAR(255),
+    timestamp          TIMESTAMP(6) NOT NULL
+);
@@ -0,0 +1,43 @@
+-- Indexes for the queries the application actually runs.
+-- Postgres doesn't index foreign keys on its own; every join/lookup column below was a sequential scan.
+
+-- ==================== ORDERS ====================
+
+-- Customer order history: WHERE user_id = ? ORDER BY created_at DESC, id DESC (keyset)
+CREATE INDEX IF NOT EXISTS idx_orders_user_created ON orders (user_id, created_at, id);
+
+-- Admin browser filtered by status, and bulk status updates
+CREATE INDEX IF NOT EXISTS idx_orders_status_created ON orders (status, created_at, id);
+
+-- Admin browser unfiltered / date range, and dashboard revenue ranges
+CREATE INDEX IF NOT EXISTS idx_orders_created ON orders (created_at, id);
+
+-- Admin browser sorted by total
+CREATE INDEX IF NOT EXISTS idx_orders_total_amount ON orders (total_amount, id);
+
+-- ==================== ORDER ITEMS ====================
+
+-- Loading an order's lines; also serves findByOrderIdAndProductVariantId
+CREATE INDEX IF NOT EXISTS idx_order_items_order_variant ON order_items (order_id, product_variant_id);
+
+-- Which orders reference a variant (variant delete checks, sales by variant)
+CREATE INDEX IF NOT EXISTS idx_order_items_variant ON order_items (product_variant_id);
+
+-- ==================== CATALOG ====================
+
+CREATE INDEX IF NOT EXISTS idx_product_variants_product ON product_variants (product_id);
+
+-- Shop listing by category, active products only
+CREATE INDEX IF NOT EXISTS idx_products_category_active ON products (category_id, active);
+CREATE INDEX IF NOT EXISTS idx_products_sub_category_active ON products (sub_category_id, active);
+
+CREATE INDEX IF NOT EXISTS idx_categories_parent ON categories (parent_id);
+
+-- ==================== ADMIN ACTIVITY LOG ====================
+
+-- findByAdminUsernameOrderByTimestampDesc / findByEntityTypeOrderByTimestampDesc
+CREATE INDEX IF NOT EXISTS idx_activity_admin_timestamp ON admin_activity_logs (admin_username, timestamp);
+CREATE INDEX IF NOT EXISTS idx_activity_entity_timestamp ON admin_activity_logs (entity_type, timestamp);
+
+-- Recent activity and date-range queries
+CREATE INDEX IF NOT EXISTS idx_activity_timestamp ON admin_activity_logs (timestamp);
@@ -0,0 +1,19 @@
+-- Idempotency-Key store for order creation / checkout (see IdempotencyKeyEntity).
+-- IF NOT EXISTS: databases baselined from ddl-auto=update may already have it.
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    scope           VARCHAR(60)  NOT NULL,
+    owner           VARCHAR(100) NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    request_hash    VARCHAR(64)  NOT NULL,
+    status          VARCHAR(20)  NOT NULL CHECK (status IN ('IN_PROGRESS', 'COMPLETED')),
+    response_status INTEGER,
+    response_body   TEXT,
+    created_at      TIMESTAMP(6) NOT NULL,
+    expires_at      TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_idempotency_scope_owner_key UNIQUE (scope, owner, idempotency_key)
+);
+
+-- Purge job: DELETE ... WHERE expires_at < now()
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires ON idempotency_keys (expires_at);
@@ -0,0 +1,25 @@
+-- Bring databases that were created by ddl-auto=update in line with V1.
+-- Every statement is a no-op on a database created from V1.
+
+-- Denormalized line count, maintained by the item operations
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS item_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE orders o
+SET item_count = c.lines
+FROM (SELECT order_id, COUNT(*) AS lines FROM order_items GROUP BY order_id) c
+WHERE c.order_id = o.id
+  AND o.item_count <> c.lines;
+
+-- Sequence ids: start past the ids already handed out by IDENTITY columns.
+-- The +50 margin keeps the first pooled block clear of max(id).
+-- ddl-auto=update may already have created a sequence at 1 (entities switched to sequence ids before
+-- Flyway took over); never move one back, blocks it handed out may still be in use.
+CREATE SEQUENCE IF NOT EXISTS orders_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS order_items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS product_variants_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS admin_activity_logs_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('orders_seq', GREATEST(MAX(id) + 50, (SELECT last_value FROM orders_seq))) FROM orders HAVING MAX(id) IS NOT NULL;
+SELECT setval('order_items_seq', GREATEST(MAX(id) + 50, (SELECT last_value FROM order_items_seq))) FROM order_items HAVING MAX(id) IS NOT NULL;
+SELECT setval('product_variants_seq', GREATEST(MAX(id) + 50, (SELECT last_value FROM product_variants_seq))) FROM product_variants HAVING MAX(id) IS NOT NULL;
+SELECT setval('admin_activity_logs_seq', GREATEST(MAX(id) + 50, (SELECT last_value FROM admin_activity_logs_seq))) FROM admin_activity_logs HAVING MAX(id) IS NOT NULL;
@@ -0,0 +1,22 @@
+-- Transactional outbox for order / payment domain events (see OutboxRelay)
+
+CREATE SEQUENCE outbox_events_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE outbox_events (
+    id             BIGINT PRIMARY KEY,
+    aggregate_type VARCHAR(40)  NOT NULL,
+    aggregate_id   BIGINT       NOT NULL,
+    event_type     VARCHAR(40)  NOT NULL,
+    payload        TEXT         NOT NULL,
+    status         VARCHAR(20)  NOT NULL CHECK (status IN ('PENDING', 'PROCESSED', 'FAILED')),
+    attempts       INTEGER      NOT NULL DEFAULT 0,
+    last_error     VARCHAR(1000),
+    created_at     TIMESTAMP(6) NOT NULL,
+    processed_at   TIMESTAMP(6)
+);
+
+-- Relay poll: WHERE status = 'PENDING' ORDER BY id; stays small because processed rows drop out
+CREATE INDEX idx_outbox_pending ON outbox_events (id) WHERE status = 'PENDING';
+
+-- Retention purge of processed events
+CREATE INDEX idx_outbox_processed_at ON outbox_events (processed_at) WHERE status = 'PROCESSED';
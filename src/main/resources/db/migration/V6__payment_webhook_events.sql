@@ -0,0 +1,21 @@
+-- Stripe webhook inbox: events are stored (deduplicated by event id) and acknowledged,
+-- then applied by the webhook workers (see PaymentWebhookServiceImpl)
+
+CREATE TABLE payment_webhook_events (
+    event_id          VARCHAR(255) PRIMARY KEY,
+    event_type        VARCHAR(100) NOT NULL,
+    order_id          BIGINT,
+    payment_intent_id VARCHAR(255),
+    payload           TEXT         NOT NULL,
+    status            VARCHAR(20)  NOT NULL CHECK (status IN ('RECEIVED', 'PROCESSED', 'FAILED')),
+    attempts          INTEGER      NOT NULL DEFAULT 0,
+    last_error        VARCHAR(1000),
+    received_at       TIMESTAMP(6) NOT NULL,
+    processed_at      TIMESTAMP(6)
+);
+
+-- Recovery sweep / replay: WHERE status = ... ORDER BY received_at; processed rows drop out
+CREATE INDEX idx_webhook_events_open ON payment_webhook_events (status, received_at) WHERE status <> 'PROCESSED';
+
+-- Payment history of an order
+CREATE INDEX idx_webhook_events_order ON payment_webhook_events (order_id, received_at);
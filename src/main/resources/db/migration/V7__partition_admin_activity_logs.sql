@@ -0,0 +1,59 @@
+-- Monthly range partitions for admin_activity_logs (see ActivityLogPartitionMaintenance).
+-- Old months are exported to compressed files and dropped as whole partitions, and
+-- time-bounded queries only touch the months they ask for.
+-- The primary key has to include the partition key; ids still come from admin_activity_logs_seq.
+
+ALTER TABLE admin_activity_logs RENAME TO admin_activity_logs_unpartitioned;
+-- Frees the name for the new primary key
+ALTER INDEX IF EXISTS admin_activity_logs_pkey RENAME TO admin_activity_logs_unpartitioned_pkey;
+
+CREATE TABLE admin_activity_logs (
+    id                 BIGINT       NOT NULL,
+    admin_username     VARCHAR(255) NOT NULL,
+    admin_display_name VARCHAR(255),
+    action             VARCHAR(255) NOT NULL,
+    entity_type        VARCHAR(255) NOT NULL,
+    entity_id          BIGINT,
+    entity_name        VARCHAR(255),
+    description        VARCHAR(500),
+    details            VARCHAR(1000),
+    changes_detail     VARCHAR(2000),
+    previous_values    TEXT,
+    new_values         TEXT,
+    ip_address         VARCHAR(255),
+    user_agent         VARCHAR(500),
+    session_id         VARCHAR(255),
+    timestamp          TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+-- Catches rows outside every monthly partition; maintenance keeps months ahead, so it should stay empty
+CREATE TABLE admin_activity_logs_default PARTITION OF admin_activity_logs DEFAULT;
+
+-- One partition per month from the oldest existing row up to two months ahead
+DO $$
+DECLARE
+    month DATE := date_trunc('month', COALESCE((SELECT MIN(timestamp) FROM admin_activity_logs_unpartitioned), now()));
+    last  DATE := date_trunc('month', now()) + INTERVAL '2 months';
+BEGIN
+    WHILE month <= last LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF admin_activity_logs FOR VALUES FROM (%L) TO (%L)',
+                       'admin_activity_logs_' || to_char(month, 'YYYY_MM'), month, month + INTERVAL '1 month');
+        month := month + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+INSERT INTO admin_activity_logs (id, admin_username, admin_display_name, action, entity_type, entity_id,
+                                 entity_name, description, details, changes_detail, previous_values,
+                                 new_values, ip_address, user_agent, session_id, timestamp)
+SELECT id, admin_username, admin_display_name, action, entity_type, entity_id,
+       entity_name, description, details, changes_detail, previous_values,
+       new_values, ip_address, user_agent, session_id, timestamp
+FROM admin_activity_logs_unpartitioned;
+
+DROP TABLE admin_activity_logs_unpartitioned;
+
+-- Same access paths as V2, now created on every partition
+CREATE INDEX idx_activity_admin_timestamp ON admin_activity_logs (admin_username, timestamp);
+CREATE INDEX idx_activity_entity_timestamp ON admin_activity_logs (entity_type, timestamp);
+CREATE INDEX idx_activity_timestamp ON admin_activity_logs (timestamp);
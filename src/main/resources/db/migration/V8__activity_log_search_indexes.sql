@@ -0,0 +1,25 @@
+-- Indexes for the admin activity log search (AdminActivityLogSearchRepositoryImpl).
+-- Results are ordered by (timestamp DESC, id DESC) for keyset paging, so each filter's index
+-- ends in (timestamp, id). Indexes on the partitioned parent are created on every partition.
+
+-- Admin filter and the "My Activity" widget
+DROP INDEX IF EXISTS idx_activity_admin_timestamp;
+CREATE INDEX idx_activity_admin_timestamp ON admin_activity_logs (admin_username, timestamp, id);
+
+-- Entity type filter
+DROP INDEX IF EXISTS idx_activity_entity_timestamp;
+CREATE INDEX idx_activity_entity_timestamp ON admin_activity_logs (entity_type, timestamp, id);
+
+-- Unfiltered listing and date ranges
+DROP INDEX IF EXISTS idx_activity_timestamp;
+CREATE INDEX idx_activity_timestamp ON admin_activity_logs (timestamp, id);
+
+-- History of one entity
+CREATE INDEX idx_activity_entity_id_timestamp ON admin_activity_logs (entity_id, timestamp, id);
+
+CREATE INDEX idx_activity_action_timestamp ON admin_activity_logs (action, timestamp, id);
+
+-- Free-text search: ILIKE '%text%' on description / entity name
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_activity_description_trgm ON admin_activity_logs USING gin (description gin_trgm_ops);
+CREATE INDEX idx_activity_entity_name_trgm ON admin_activity_logs USING gin (entity_name gin_trgm_ops);
@@ -0,0 +1,66 @@
+-- Daily sales rollups for the admin reports (SalesRollups).
+-- A sale is an order in PAID, SHIPPED or DELIVERED, counted on the day the order was created.
+-- Rows are kept up to date in the transaction that moves an order into or out of those statuses,
+-- and rebuilt per day from orders/order_items by the rebuild job.
+-- orders = number of distinct orders, units = sum of quantities, revenue = sum of quantity * unit_price
+
+CREATE TABLE sales_daily (
+    day     DATE           PRIMARY KEY,
+    orders  BIGINT         NOT NULL,
+    units   BIGINT         NOT NULL,
+    revenue NUMERIC(14, 2) NOT NULL
+);
+
+-- Keyed by category first: reports read one category over a date range
+CREATE TABLE sales_daily_category (
+    category_id BIGINT         NOT NULL,
+    day         DATE           NOT NULL,
+    orders      BIGINT         NOT NULL,
+    units       BIGINT         NOT NULL,
+    revenue     NUMERIC(14, 2) NOT NULL,
+    PRIMARY KEY (category_id, day)
+);
+
+CREATE TABLE sales_daily_variant (
+    variant_id BIGINT         NOT NULL,
+    day        DATE           NOT NULL,
+    product_id BIGINT         NOT NULL,
+    orders     BIGINT         NOT NULL,
+    units      BIGINT         NOT NULL,
+    revenue    NUMERIC(14, 2) NOT NULL,
+    PRIMARY KEY (variant_id, day)
+);
+
+-- Product reports sum the product's variants
+CREATE INDEX idx_sales_daily_variant_product ON sales_daily_variant (product_id, day);
+
+-- Rebuilds replace one day at a time
+CREATE INDEX idx_sales_daily_category_day ON sales_daily_category (day);
+CREATE INDEX idx_sales_daily_variant_day ON sales_daily_variant (day);
+
+-- Backfill from existing orders
+
+INSERT INTO sales_daily (day, orders, units, revenue)
+SELECT CAST(o.created_at AS DATE), COUNT(DISTINCT o.id), SUM(i.quantity), SUM(i.quantity * i.unit_price)
+FROM orders o
+         JOIN order_items i ON i.order_id = o.id
+WHERE o.status IN ('PAID', 'SHIPPED', 'DELIVERED')
+GROUP BY CAST(o.created_at AS DATE);
+
+INSERT INTO sales_daily_category (category_id, day, orders, units, revenue)
+SELECT p.category_id, CAST(o.created_at AS DATE), COUNT(DISTINCT o.id), SUM(i.quantity), SUM(i.quantity * i.unit_price)
+FROM orders o
+         JOIN order_items i ON i.order_id = o.id
+         JOIN product_variants v ON v.id = i.product_variant_id
+         JOIN products p ON p.id = v.product_id
+WHERE o.status IN ('PAID', 'SHIPPED', 'DELIVERED')
+  AND p.category_id IS NOT NULL
+GROUP BY p.category_id, CAST(o.created_at AS DATE);
+
+INSERT INTO sales_daily_variant (variant_id, day, product_id, orders, units, revenue)
+SELECT v.id, CAST(o.created_at AS DATE), v.product_id, COUNT(DISTINCT o.id), SUM(i.quantity), SUM(i.quantity * i.unit_price)
+FROM orders o
+         JOIN order_items i ON i.order_id = o.id
+         JOIN product_variants v ON v.id = i.product_variant_id
+WHERE o.status IN ('PAID', 'SHIPPED', 'DELIVERED')
+GROUP BY v.id, CAST(o.created_at AS DATE), v.product_id;
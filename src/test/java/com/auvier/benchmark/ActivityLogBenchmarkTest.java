@@ -0,0 +1,120 @@
+package com.auvier.benchmark;
+
+import com.auvier.entities.AdminActivityLogEntity;
+import com.auvier.infrastructure.activitylog.ActivityLogWriter;
+import com.auvier.infrastructure.activitylog.ActivityLogWriterStats;
+import com.auvier.infrastructure.services.AdminActivityLogService;
+import com.auvier.repositories.AdminActivityLogRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cost of admin activity logging to the calling thread: AdminActivityLogService.log (buffered, written
+ * in batches by ActivityLogWriter) against a save() per entry, the way it used to work.
+ * Needs a database (see BenchmarkDatabase), so it only runs on request:
+ *   mvn test -Dtest=ActivityLogBenchmarkTest -Dbenchmark=true
+ *
+ * Each round logs ENTRIES entries from THREADS threads both ways; the first round is warm-up. At the
+ * end a few more entries are logged and the writer is shut down, and every entry must be in the table.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ActivityLogBenchmarkTest {
+
+    private static final int THREADS = 16;
+    private static final int ENTRIES = 5000;
+    private static final int ROUNDS = 3;
+    private static final long DRAIN_TIMEOUT_MILLIS = 30_000;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        BenchmarkDatabase.register(registry);
+    }
+
+    @Autowired private AdminActivityLogService activityLogService;
+    @Autowired private AdminActivityLogRepository activityLogRepository;
+    @Autowired private ActivityLogWriter writer;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void bufferedLoggingAgainstASavePerEntry() throws Exception {
+        System.out.printf("%n[benchmark] %d entries from %d threads per round%n", ENTRIES, THREADS);
+        for (int round = 0; round < ROUNDS; round++) {
+            long buffered = run(id -> activityLogService.log("UPDATE", "BenchmarkBuffered", id, "entry " + id, null));
+            long drained = awaitDrained();
+
+            long direct = run(id -> {
+                AdminActivityLogEntity entry = new AdminActivityLogEntity();
+                entry.setAction("UPDATE");
+                entry.setEntityType("BenchmarkDirect");
+                entry.setEntityId(id);
+                entry.setEntityName("entry " + id);
+                entry.setAdminUsername("benchmark");
+                activityLogRepository.save(entry);
+            });
+
+            System.out.printf("[benchmark] %s log(): %6d ms (buffer empty %d ms later) | save() per entry: %6d ms%n",
+                    round == 0 ? "warm-up" : "round " + round, buffered, drained, direct);
+        }
+
+        // Entries still buffered at shutdown are written, not lost
+        for (long id = 0; id < 30; id++) {
+            activityLogService.log("DELETE", "BenchmarkShutdown", id, "entry " + id, null);
+        }
+        writer.shutdown();
+        ActivityLogWriterStats stats = activityLogService.getWriterStats();
+        System.out.printf("[benchmark] writer: %s%n%n", stats);
+
+        assertThat(count("BenchmarkBuffered")).isEqualTo((long) ENTRIES * ROUNDS);
+        assertThat(count("BenchmarkShutdown")).isEqualTo(30);
+        assertThat(stats.dropped()).isZero();
+    }
+
+    private interface Entry {
+        void log(long id);
+    }
+
+    /**
+     * @return milliseconds until every call has returned
+     */
+    private long run(Entry entry) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        for (int i = 0; i < ENTRIES; i++) {
+            long id = i;
+            pool.submit(() -> entry.log(id));
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    /**
+     * @return milliseconds until the writer has emptied its buffer
+     */
+    private long awaitDrained() throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = System.currentTimeMillis() + DRAIN_TIMEOUT_MILLIS;
+        while (writer.stats().queued() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(writer.stats().queued()).isZero();
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private long count(String entityType) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM admin_activity_logs WHERE entity_type = ?",
+                Long.class, entityType);
+    }
+}
@@ -0,0 +1,53 @@
+package com.auvier.benchmark;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * The database the benchmarks and the PostgreSQL-backed tests run against (both only with
+ * -Dbenchmark=true). By default a throwaway PostgreSQL (binaries from
+ * io.zonky.test:embedded-postgres, currently 14.15) is started once per JVM and deleted when it exits,
+ * so nothing needs to be installed. Either way Flyway migrates it and Hibernate only validates, so
+ * every run measures the production schema, indexes and sequences.
+ *
+ * To measure against a real server instead, pass -Dbenchmark.database=external together with
+ * -Dspring.datasource.url=..., -Dspring.datasource.username=... and -Dspring.datasource.password=....
+ */
+public final class BenchmarkDatabase {
+
+    private static EmbeddedPostgres postgres;
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * For each benchmark's (or database test's) @DynamicPropertySource method
+     */
+    public static void register(DynamicPropertyRegistry registry) {
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        if ("external".equals(System.getProperty("benchmark.database"))) {
+            return;
+        }
+        EmbeddedPostgres database = start();
+        // Same driver settings as application.properties
+        registry.add("spring.datasource.url",
+                () -> database.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    private static synchronized EmbeddedPostgres start() {
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.builder().start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not start the embedded PostgreSQL", e);
+            }
+        }
+        return postgres;
+    }
+}
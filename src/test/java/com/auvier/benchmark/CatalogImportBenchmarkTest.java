@@ -0,0 +1,91 @@
+package com.auvier.benchmark;
+
+import com.auvier.dtos.imports.CatalogImportResultDto;
+import com.auvier.entities.catalog.CategoryEntity;
+import com.auvier.enums.ImportFormat;
+import com.auvier.infrastructure.imports.CatalogImporter;
+import com.auvier.repositories.CategoryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Catalog import of SKUS variants (PRODUCTS products with their variants): once into an empty catalog,
+ * then the same file again, which updates every variant.
+ * Needs a database (see BenchmarkDatabase), so it only runs on request:
+ *   mvn test -Dtest=CatalogImportBenchmarkTest -Dbenchmark=true
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CatalogImportBenchmarkTest {
+
+    private static final int SKUS = 100_000;
+    private static final int VARIANTS_PER_PRODUCT = 5;
+    private static final int PRODUCTS = SKUS / VARIANTS_PER_PRODUCT;
+    private static final String[] SIZES = {"XS", "S", "M", "L", "XL"};
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        BenchmarkDatabase.register(registry);
+    }
+
+    @Autowired private CatalogImporter catalogImporter;
+    @Autowired private CategoryRepository categoryRepository;
+
+    @Test
+    void importOneHundredThousandSkus() throws Exception {
+        String run = "bench" + System.nanoTime();
+        CategoryEntity category = new CategoryEntity();
+        category.setName("Import benchmark");
+        category.setSlug(run);
+        categoryRepository.save(category);
+
+        byte[] file = file(run);
+        System.out.printf("%n[benchmark] %d SKUs, %d products, %.1f MB CSV%n",
+                SKUS, PRODUCTS, file.length / (1024.0 * 1024.0));
+
+        long started = System.nanoTime();
+        CatalogImportResultDto created = catalogImporter.importCatalog(new ByteArrayInputStream(file), ImportFormat.CSV);
+        long createMillis = (System.nanoTime() - started) / 1_000_000;
+
+        started = System.nanoTime();
+        CatalogImportResultDto updated = catalogImporter.importCatalog(new ByteArrayInputStream(file), ImportFormat.CSV);
+        long updateMillis = (System.nanoTime() - started) / 1_000_000;
+
+        System.out.printf("[benchmark] create: %6d ms (%,d SKUs/s) | re-import (update): %6d ms (%,d SKUs/s)%n%n",
+                createMillis, SKUS * 1000L / Math.max(createMillis, 1),
+                updateMillis, SKUS * 1000L / Math.max(updateMillis, 1));
+
+        assertThat(created.getFailed()).isZero();
+        assertThat(created.getProductsCreated()).isEqualTo(PRODUCTS);
+        assertThat(created.getVariantsCreated()).isEqualTo(SKUS);
+        assertThat(updated.getFailed()).isZero();
+        assertThat(updated.getVariantsUpdated()).isEqualTo(SKUS);
+    }
+
+    private static byte[] file(String run) {
+        StringBuilder csv = new StringBuilder(SKUS * 80)
+                .append("product_slug,product_name,description,category,sku,color,size,price,stock,image_url,active\n");
+        for (int product = 0; product < PRODUCTS; product++) {
+            for (int variant = 0; variant < VARIANTS_PER_PRODUCT; variant++) {
+                boolean first = variant == 0;
+                csv.append(run).append("-p").append(product).append(',')
+                        .append(first ? "Product " + product : "").append(',')
+                        .append(first ? "Benchmark product" : "").append(',')
+                        .append(first ? run : "").append(',')
+                        .append(run).append("-p").append(product).append('-').append(variant).append(',')
+                        .append("black,").append(SIZES[variant]).append(',')
+                        .append("29.90,").append(10 + variant).append(",,true\n");
+            }
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,181 @@
+package com.auvier.benchmark;
+
+import com.auvier.dtos.CheckoutDto;
+import com.auvier.entities.UserEntity;
+import com.auvier.entities.catalog.ProductEntity;
+import com.auvier.entities.catalog.ProductVariantEntity;
+import com.auvier.infrastructure.services.CheckoutService;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.auvier.repositories.OrderRepository;
+import com.auvier.repositories.ProductRepository;
+import com.auvier.repositories.ProductVariantRepository;
+import com.auvier.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checkout throughput and tail latency against the in-process fake gateway (no network, no Stripe account).
+ * Needs a database (see BenchmarkDatabase), so it only runs on request:
+ *   mvn test -Dtest=CheckoutBenchmarkTest -Dbenchmark=true
+ *
+ * Each checkout runs the CheckoutService saga (reserve, PaymentIntent, commit); the fake gateway then
+ * confirms the intents and sends signed webhooks, so the second half measures how long the webhook
+ * pipeline takes to settle them. Peak pool usage shows whether connections track gateway latency:
+ * with more threads than connections, a connection held across the gateway call makes checkouts queue.
+ * Tune the gateway with -Dpayment.fake.latency-median=..., -Dpayment.fake.latency-p99=..., etc.
+ */
+@SpringBootTest(properties = {
+        "payment.gateway=fake",
+        "payment.fake.confirm-delay=PT0.2S",
+        "payment.fake.decline-rate=0.05",
+        "stripe.webhook.secret=whsec_benchmark"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CheckoutBenchmarkTest {
+
+    private static final int THREADS = 32;
+    private static final int CHECKOUTS = 400;
+    // Spread carts over several SKUs so the variant row locks do not serialize every checkout
+    private static final int VARIANTS = 50;
+    private static final long SETTLE_TIMEOUT_MILLIS = 120_000;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        BenchmarkDatabase.register(registry);
+    }
+
+    @Autowired private CheckoutService checkoutService;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private ProductVariantRepository variantRepository;
+    @Autowired private DataSource dataSource;
+
+    @Test
+    void checkoutUnderLoad() throws Exception {
+        UserEntity user = new UserEntity();
+        user.setUsername("bench-" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@bench.local");
+        user.setPassword("benchmark");
+        UserEntity savedUser = userRepository.save(user);
+
+        ProductEntity product = new ProductEntity();
+        product.setName("Benchmark product");
+        product.setSlug(savedUser.getUsername());
+        product = productRepository.save(product);
+
+        List<CheckoutDto> carts = new ArrayList<>();
+        for (int i = 0; i < VARIANTS; i++) {
+            ProductVariantEntity variant = new ProductVariantEntity();
+            variant.setProduct(product);
+            variant.setSku(savedUser.getUsername() + "-" + i);
+            variant.setColor("black");
+            variant.setPrice(new BigDecimal("19.99"));
+            variant.setStock(1_000_000);
+            Long variantId = variantRepository.save(variant).getId();
+            CheckoutDto cart = new CheckoutDto();
+            cart.setFirstName("Bench");
+            cart.setAddress("1 Benchmark Way");
+            cart.setCartItems(List.of(new CheckoutDto.CartItemDto(variantId, null, null, null, 1, null, null)));
+            carts.add(cart);
+        }
+
+        HikariPoolMXBean connectionPool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+        AtomicInteger peakActive = new AtomicInteger();
+        AtomicInteger peakWaiting = new AtomicInteger();
+        Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peakActive.accumulateAndGet(connectionPool.getActiveConnections(), Math::max);
+                peakWaiting.accumulateAndGet(connectionPool.getThreadsAwaitingConnection(), Math::max);
+                try {
+                    Thread.sleep(2);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<Long>> futures = new ArrayList<>();
+        List<Long> orderIds = Collections.synchronizedList(new ArrayList<>());
+        long start = System.nanoTime();
+        for (int i = 0; i < CHECKOUTS; i++) {
+            CheckoutDto cart = carts.get(i % VARIANTS);
+            futures.add(pool.submit(() -> {
+                long t0 = System.nanoTime();
+                orderIds.add(checkoutService.placeOrder(savedUser, cart).getOrderId());
+                return System.nanoTime() - t0;
+            }));
+        }
+        List<Long> latencies = new ArrayList<>();
+        for (Future<Long> future : futures) {
+            latencies.add(future.get());
+        }
+        long checkoutNanos = System.nanoTime() - start;
+        sampler.interrupt();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+        // Wait for the webhooks to settle every order (paid, or failed after a decline)
+        long settled = 0;
+        long deadline = System.currentTimeMillis() + SETTLE_TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            settled = countSettled(orderIds);
+            if (settled == CHECKOUTS) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+        long settleNanos = System.nanoTime() - start;
+
+        Collections.sort(latencies);
+        System.out.printf("%n[benchmark] %d checkouts on %d threads%n", CHECKOUTS, THREADS);
+        System.out.printf("[benchmark] throughput:       %.1f checkouts/s%n", CHECKOUTS / (checkoutNanos / 1e9));
+        System.out.printf("[benchmark] latency p50:      %.1f ms%n", percentile(latencies, 50));
+        System.out.printf("[benchmark] latency p95:      %.1f ms%n", percentile(latencies, 95));
+        System.out.printf("[benchmark] latency p99:      %.1f ms%n", percentile(latencies, 99));
+        System.out.printf("[benchmark] latency max:      %.1f ms%n", latencies.getLast() / 1e6);
+        System.out.printf("[benchmark] peak connections:  %d active, %d threads waiting%n",
+                peakActive.get(), peakWaiting.get());
+        System.out.printf("[benchmark] all settled after %.1f s (%d paid)%n%n",
+                settleNanos / 1e9, countPaid(orderIds));
+
+        assertThat(settled).isEqualTo(CHECKOUTS);
+    }
+
+    private long countSettled(List<Long> orderIds) {
+        return orderRepository.findAllById(orderIds).stream()
+                .filter(o -> "paid".equals(o.getPaymentStatus()) || "failed".equals(o.getPaymentStatus()))
+                .count();
+    }
+
+    private long countPaid(List<Long> orderIds) {
+        return orderRepository.findAllById(orderIds).stream()
+                .filter(o -> "paid".equals(o.getPaymentStatus()))
+                .count();
+    }
+
+    private static double percentile(List<Long> sortedNanos, int p) {
+        int index = (int) Math.ceil(p / 100.0 * sortedNanos.size()) - 1;
+        return sortedNanos.get(Math.max(0, index)) / 1e6;
+    }
+}
@@ -0,0 +1,156 @@
+package com.auvier.benchmark;
+
+import com.auvier.entities.OrderEntity;
+import com.auvier.entities.OrderItemEntity;
+import com.auvier.entities.UserEntity;
+import com.auvier.entities.catalog.CategoryEntity;
+import com.auvier.entities.catalog.ProductEntity;
+import com.auvier.entities.catalog.ProductVariantEntity;
+import com.auvier.enums.OrderStatus;
+import com.auvier.enums.Size;
+import com.auvier.mappers.CategoryMapperImpl;
+import com.auvier.mappers.ProductMapper;
+import com.auvier.mappers.ProductMapperImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Fixed data for the JMH benchmarks: the same seed always gives the same catalog and orders,
+ * so results from different runs compare like for like.
+ */
+final class Fixtures {
+
+    private static final String[] CATEGORIES = {"Shirts", "Trousers", "Dresses", "Jackets", "Knitwear", "Shoes", "Bags", "Accessories"};
+
+    private static final String[] ADJECTIVES = {"Classic", "Slim", "Relaxed", "Linen", "Wool", "Cotton", "Tailored",
+            "Cropped", "Oversized", "Vintage", "Merino", "Pleated"};
+    private static final String[] COLORS = {"Black", "Navy", "Ivory", "Olive", "Camel", "Grey"};
+    private static final String DESCRIPTION = "Cut from a soft, breathable fabric with a clean finish. "
+            + "Made to be worn every day and to last for years; machine washable at 30 degrees.";
+
+    private static final long SEED = 20260101L;
+
+    private Fixtures() {
+    }
+
+    /**
+     * size products over CATEGORIES, about 1 in 10 inactive, 4 variants each
+     */
+    static List<ProductEntity> catalog(int size) {
+        Random random = new Random(SEED);
+        List<CategoryEntity> categories = new ArrayList<>();
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            categories.add(category(i + 1L, CATEGORIES[i]));
+        }
+
+        List<ProductEntity> products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            CategoryEntity category = categories.get(random.nextInt(categories.size()));
+            String name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + category.getName() + " " + (i + 1);
+
+            ProductEntity product = new ProductEntity();
+            product.setId(i + 1L);
+            product.setName(name);
+            product.setSlug(name.toLowerCase().replace(' ', '-'));
+            product.setDescription(DESCRIPTION);
+            product.setActive(random.nextInt(10) != 0);
+            product.setCategory(category);
+            product.setCreatedAt(LocalDateTime.of(2026, 1, 1, 0, 0).plusMinutes(i));
+            for (int v = 0; v < 4; v++) {
+                product.getVariants().add(variant(product, i * 4L + v + 1, random));
+            }
+            products.add(product);
+        }
+        return products;
+    }
+
+    /**
+     * An order of itemCount lines with prices like 49.99 and quantities 1-3, total and count filled in
+     */
+    static OrderEntity order(int itemCount) {
+        Random random = new Random(SEED);
+        UserEntity user = new UserEntity();
+        user.setId(1L);
+        user.setUsername("customer");
+        user.setEmail("customer@example.com");
+        user.setFirstName("Ada");
+        user.setLastName("Lovelace");
+
+        OrderEntity order = new OrderEntity();
+        order.setId(1L);
+        order.setUser(user);
+        order.setStatus(OrderStatus.PAID);
+        order.setShippingAddress("1 Market Street, Springfield");
+        order.setPaymentMethod("card");
+        order.setPaymentStatus("succeeded");
+        order.setCreatedAt(LocalDateTime.of(2026, 1, 1, 12, 0));
+        order.setUpdatedAt(order.getCreatedAt());
+
+        List<ProductEntity> products = catalog(itemCount);
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < itemCount; i++) {
+            ProductVariantEntity variant = products.get(i).getVariants().getFirst();
+            OrderItemEntity item = new OrderItemEntity();
+            item.setId(i + 1L);
+            item.setOrder(order);
+            item.setProductVariant(variant);
+            item.setQuantity(1 + random.nextInt(3));
+            item.setUnitPrice(variant.getPrice());
+            order.getOrderItems().add(item);
+            total = total.add(item.getSubtotal());
+        }
+        order.setTotalAmount(total);
+        order.setItemCount(itemCount);
+        return order;
+    }
+
+    /**
+     * The generated mapper, wired the way Spring would
+     */
+    static ProductMapper productMapper() {
+        ProductMapperImpl mapper = new ProductMapperImpl();
+        ReflectionTestUtils.setField(mapper, "categoryMapper", new CategoryMapperImpl());
+        return mapper;
+    }
+
+    /**
+     * A service returning fixed values by method name. A plain proxy rather than a Mockito mock,
+     * whose per-call bookkeeping would be a good part of what the benchmark measures.
+     */
+    static <T> T stub(Class<T> type, Map<String, Object> returns) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (!returns.containsKey(method.getName())) {
+                throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            }
+            return returns.get(method.getName());
+        }));
+    }
+
+    private static CategoryEntity category(long id, String name) {
+        CategoryEntity category = new CategoryEntity();
+        category.setId(id);
+        category.setName(name);
+        category.setSlug(name.toLowerCase());
+        category.setDescription(name + " for every season");
+        return category;
+    }
+
+    private static ProductVariantEntity variant(ProductEntity product, long id, Random random) {
+        ProductVariantEntity variant = new ProductVariantEntity();
+        variant.setId(id);
+        variant.setProduct(product);
+        variant.setSku("SKU-" + id);
+        variant.setPrice(BigDecimal.valueOf(1999 + random.nextInt(20) * 1000L, 2)); // 19.99 - 209.99
+        variant.setStock(random.nextInt(50));
+        variant.setColor(COLORS[random.nextInt(COLORS.length)]);
+        variant.setSize(Size.values()[random.nextInt(Size.values().length)]);
+        return variant;
+    }
+}
@@ -0,0 +1,290 @@
+package com.auvier.benchmark;
+
+import com.auvier.entities.UserEntity;
+import com.auvier.entities.catalog.ProductEntity;
+import com.auvier.entities.catalog.ProductVariantEntity;
+import com.auvier.repositories.ProductRepository;
+import com.auvier.repositories.ProductVariantRepository;
+import com.auvier.repositories.UserRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end HTTP load against the embedded Tomcat: many concurrent clients browsing /shop and
+ * checking out through /checkout/create-order, with the fake gateway adding blocking latency to every
+ * checkout. Needs a database (see BenchmarkDatabase), so it only runs on request; run it once per
+ * threading mode and compare:
+ *   mvn test -Dtest=LoadBenchmarkTest -Dbenchmark=true -Dspring.threads.virtual.enabled=false
+ *   mvn test -Dtest=LoadBenchmarkTest -Dbenchmark=true -Dspring.threads.virtual.enabled=true
+ *
+ * With platform threads the clients queue for Tomcat's 200 workers, most of them parked in the gateway
+ * call; with virtual threads they queue for database connections instead, which is what
+ * spring.datasource.hikari.maximum-pool-size is for. Add -Djdk.tracePinnedThreads=short to print any
+ * virtual thread that blocks while pinned to its carrier.
+ * Tune with -Dload.clients=..., -Dload.duration=PT30S and the -Dpayment.fake.* latencies.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "payment.gateway=fake",
+        "payment.fake.latency-median=PT0.3S",
+        "payment.fake.latency-p99=PT1.5S",
+        "payment.fake.confirm-delay=PT0S",
+        "stripe.webhook.secret=whsec_benchmark"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LoadBenchmarkTest {
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 400);
+    private static final Duration DURATION = Duration.parse(System.getProperty("load.duration", "PT30S"));
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    // Logins cost a BCrypt check each, so clients share a handful of sessions
+    private static final int SESSIONS = 16;
+    private static final int PRODUCTS = 24;
+    private static final String PASSWORD = "benchmark";
+
+    private static final Pattern SESSION_COOKIE = Pattern.compile("JSESSIONID=([^;]+)");
+    private static final Pattern FORM_CSRF = Pattern.compile("name=\"_csrf\" value=\"([^\"]+)\"");
+    private static final Pattern SCRIPT_CSRF = Pattern.compile("const csrfToken = \"([^\"]+)\"");
+    private static final Pattern SCRIPT_CSRF_HEADER = Pattern.compile("const csrfHeader = \"([^\"]+)\"");
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        BenchmarkDatabase.register(registry);
+    }
+
+    @LocalServerPort private int port;
+    @Value("${spring.threads.virtual.enabled:false}") private boolean virtualThreads;
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private ProductVariantRepository variantRepository;
+    @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private DataSource dataSource;
+
+    // One client and one connection pool for everybody; sessions are tracked by hand per client
+    private final HttpClient http = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @Test
+    void shopAndCheckoutUnderLoad() throws Exception {
+        String prefix = "load-" + System.nanoTime();
+        List<Long> variantIds = seedCatalog(prefix);
+        List<Session> sessions = new ArrayList<>();
+        String encodedPassword = passwordEncoder.encode(PASSWORD);
+        for (int i = 0; i < SESSIONS; i++) {
+            UserEntity user = new UserEntity();
+            user.setUsername(prefix + "-" + i);
+            user.setEmail(user.getUsername() + "@bench.local");
+            user.setPassword(encodedPassword);
+            userRepository.save(user);
+            sessions.add(login(user.getUsername()));
+        }
+
+        Scenario shop = new Scenario("GET /shop");
+        Scenario checkout = new Scenario("POST /checkout/create-order");
+
+        HikariPoolMXBean connectionPool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+        AtomicInteger peakActive = new AtomicInteger();
+        AtomicInteger peakWaiting = new AtomicInteger();
+
+        long warmupEnd = System.nanoTime() + WARMUP.toNanos();
+        long end = warmupEnd + DURATION.toNanos();
+        // Virtual client threads in both modes, so only the server side changes between runs
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            clients.submit(() -> {
+                while (System.nanoTime() < end) {
+                    peakActive.accumulateAndGet(connectionPool.getActiveConnections(), Math::max);
+                    peakWaiting.accumulateAndGet(connectionPool.getThreadsAwaitingConnection(), Math::max);
+                    Thread.sleep(5);
+                }
+                return null;
+            });
+            for (int c = 0; c < CLIENTS; c++) {
+                Session session = sessions.get(c % SESSIONS);
+                long variantId = variantIds.get(c % variantIds.size());
+                // Half the clients browse, half buy
+                boolean buyer = c % 2 == 1;
+                clients.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        long t0 = System.nanoTime();
+                        int status;
+                        try {
+                            status = buyer ? checkout(session, variantId) : browse(session);
+                        } catch (IOException e) {
+                            status = -1; // timed out or refused: counts as an error
+                        }
+                        long t1 = System.nanoTime();
+                        if (t0 >= warmupEnd && t1 <= end) {
+                            (buyer ? checkout : shop).record(t1 - t0, status == 200);
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+
+        System.out.printf("%n[benchmark] %d clients for %d s, %s threads, pool of %d connections%n",
+                CLIENTS, DURATION.toSeconds(), virtualThreads ? "virtual" : "platform",
+                dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize());
+        shop.print(DURATION);
+        checkout.print(DURATION);
+        System.out.printf("[benchmark] peak connections:  %d active, %d threads waiting%n%n",
+                peakActive.get(), peakWaiting.get());
+
+        assertThat(shop.count()).isPositive();
+        assertThat(checkout.count()).isPositive();
+    }
+
+    // ==================== CLIENT ====================
+
+    private int browse(Session session) throws Exception {
+        return send(session, HttpRequest.newBuilder(uri("/shop")).GET()).statusCode();
+    }
+
+    private int checkout(Session session, long variantId) throws Exception {
+        String body = """
+                {"firstName":"Load","address":"1 Benchmark Way","city":"Test",
+                 "cartItems":[{"variantId":%d,"quantity":1}]}""".formatted(variantId);
+        return send(session, HttpRequest.newBuilder(uri("/checkout/create-order"))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .header(session.csrfHeader(), session.csrfToken())
+                .POST(HttpRequest.BodyPublishers.ofString(body))).statusCode();
+    }
+
+    private Session login(String username) throws Exception {
+        HttpResponse<String> loginPage = http.send(HttpRequest.newBuilder(uri("/login")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        String anonymousSession = find(SESSION_COOKIE, String.join(";", loginPage.headers().allValues("Set-Cookie")));
+
+        String form = "username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)
+                + "&password=" + PASSWORD
+                + "&_csrf=" + URLEncoder.encode(find(FORM_CSRF, loginPage.body()), StandardCharsets.UTF_8);
+        HttpResponse<String> loggedIn = http.send(HttpRequest.newBuilder(uri("/login"))
+                        .header("Cookie", "JSESSIONID=" + anonymousSession)
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(form)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(loggedIn.statusCode()).isEqualTo(302);
+        assertThat(loggedIn.headers().firstValue("Location")).hasValueSatisfying(l -> assertThat(l).doesNotContain("error"));
+        // Login rotates the session id
+        String sessionId = find(SESSION_COOKIE, String.join(";", loggedIn.headers().allValues("Set-Cookie")));
+
+        HttpResponse<String> checkoutPage = http.send(HttpRequest.newBuilder(uri("/checkout"))
+                        .header("Cookie", "JSESSIONID=" + sessionId).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        return new Session(sessionId, find(SCRIPT_CSRF_HEADER, checkoutPage.body()), find(SCRIPT_CSRF, checkoutPage.body()));
+    }
+
+    private HttpResponse<Void> send(Session session, HttpRequest.Builder request) throws Exception {
+        return http.send(request.header("Cookie", "JSESSIONID=" + session.id()).timeout(Duration.ofSeconds(60)).build(),
+                HttpResponse.BodyHandlers.discarding());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static String find(Pattern pattern, String text) {
+        Matcher matcher = pattern.matcher(text);
+        if (!matcher.find()) {
+            throw new IllegalStateException("No match for " + pattern);
+        }
+        return matcher.group(1);
+    }
+
+    private List<Long> seedCatalog(String prefix) {
+        List<Long> variantIds = new ArrayList<>();
+        for (int p = 0; p < PRODUCTS; p++) {
+            ProductEntity product = new ProductEntity();
+            product.setName("Load product " + p);
+            product.setSlug(prefix + "-" + p);
+            product = productRepository.save(product);
+            for (String color : List.of("black", "white")) {
+                ProductVariantEntity variant = new ProductVariantEntity();
+                variant.setProduct(product);
+                variant.setSku(product.getSlug() + "-" + color);
+                variant.setColor(color);
+                variant.setPrice(new BigDecimal("19.99"));
+                variant.setStock(1_000_000);
+                variantIds.add(variantRepository.save(variant).getId());
+            }
+        }
+        return variantIds;
+    }
+
+    private record Session(String id, String csrfHeader, String csrfToken) {
+    }
+
+    private static final class Scenario {
+
+        private final String name;
+        private final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicLong errors = new AtomicLong();
+
+        Scenario(String name) {
+            this.name = name;
+        }
+
+        void record(long nanos, boolean ok) {
+            latencies.add(nanos);
+            if (!ok) {
+                errors.incrementAndGet();
+            }
+        }
+
+        int count() {
+            return latencies.size();
+        }
+
+        void print(Duration duration) {
+            List<Long> sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            System.out.printf("[benchmark] %-28s %7.1f req/s  p50 %7.1f ms  p99 %7.1f ms  max %7.1f ms  errors %d%n",
+                    name, sorted.size() / (double) duration.toSeconds(),
+                    percentile(sorted, 50), percentile(sorted, 99),
+                    sorted.isEmpty() ? 0 : sorted.getLast() / 1e6, errors.get());
+        }
+
+        private static double percentile(List<Long> sortedNanos, int p) {
+            if (sortedNanos.isEmpty()) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p / 100.0 * sortedNanos.size()) - 1;
+            return sortedNanos.get(Math.max(0, index)) / 1e6;
+        }
+    }
+}
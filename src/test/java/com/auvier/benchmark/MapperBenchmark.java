@@ -0,0 +1,68 @@
+package com.auvier.benchmark;
+
+import com.auvier.dtos.ProductDto;
+import com.auvier.dtos.order.OrderResponseDto;
+import com.auvier.entities.OrderEntity;
+import com.auvier.entities.catalog.ProductEntity;
+import com.auvier.mappers.OrderMapper;
+import com.auvier.mappers.OrderMapperImpl;
+import com.auvier.mappers.ProductMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The generated MapStruct mappers behind the order pages and every catalog listing
+ * (ProductServiceImpl.findAll maps the whole catalog with toDto).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final OrderMapper orderMapper = new OrderMapperImpl();
+    private final ProductMapper productMapper = Fixtures.productMapper();
+    private ProductEntity product;
+
+    @State(Scope.Benchmark)
+    public static class Order {
+
+        @Param({"3", "20"})
+        int orderItems;
+
+        OrderEntity order;
+
+        @Setup
+        public void setUp() {
+            order = Fixtures.order(orderItems);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        product = Fixtures.catalog(1).getFirst();
+    }
+
+    @Benchmark
+    public OrderResponseDto orderToResponseDto(Order order) {
+        return orderMapper.toResponseDto(order.order);
+    }
+
+    @Benchmark
+    public ProductDto productToDto() {
+        return productMapper.toDto(product);
+    }
+}
@@ -0,0 +1,94 @@
+package com.auvier.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the JMH micro-benchmarks (MapperBenchmark, OrderMoneyBenchmark, ShopFilterBenchmark). No database
+ * needed, but they take a few minutes, so only on request:
+ *   mvn test -Dtest=MicroBenchmarkTest -Dbenchmark=true
+ *
+ * Results are written to target/benchmarks/jmh-<time>.json (JMH's JSON format). Pass an earlier file as
+ * -Dbenchmark.baseline=... to print the change per benchmark; -Dbenchmark.include=ShopFilter runs only
+ * the benchmarks matching that regex.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MicroBenchmarkTest {
+
+    private static final String BENCHMARKS = "com\\.auvier\\.benchmark\\.(MapperBenchmark|OrderMoneyBenchmark|ShopFilterBenchmark)\\.";
+
+    @Test
+    void runMicroBenchmarks() throws Exception {
+        Path results = Path.of("target", "benchmarks",
+                "jmh-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        Files.createDirectories(results.getParent());
+
+        String include = System.getProperty("benchmark.include");
+        Options options = new OptionsBuilder()
+                .include(include != null ? include : BENCHMARKS)
+                .shouldFailOnError(true)
+                .resultFormat(ResultFormatType.JSON)
+                .result(results.toString())
+                .build();
+        Collection<RunResult> runs = new Runner(options).run();
+        assertThat(runs).isNotEmpty();
+
+        String baseline = System.getProperty("benchmark.baseline");
+        Map<String, Double> previous = baseline != null ? readScores(Path.of(baseline)) : Map.of();
+
+        System.out.printf("%n[benchmark] results: %s%n", results);
+        Map<String, RunResult> sorted = new TreeMap<>();
+        runs.forEach(run -> sorted.put(key(run.getParams()), run));
+        sorted.forEach((key, run) -> {
+            Result<?> score = run.getPrimaryResult();
+            Double before = previous.get(key);
+            System.out.printf("[benchmark] %-70s %12.3f %-6s%s%n", key, score.getScore(), score.getScoreUnit(),
+                    before != null ? String.format(" %+6.1f%% vs baseline", (score.getScore() - before) / before * 100) : "");
+        });
+        System.out.println();
+    }
+
+    private static String key(BenchmarkParams params) {
+        Map<String, String> values = new HashMap<>();
+        params.getParamsKeys().forEach(k -> values.put(k, params.getParam(k)));
+        return key(params.getBenchmark(), values);
+    }
+
+    // e.g. ShopFilterBenchmark.search{catalogSize=1000}
+    private static String key(String benchmark, Map<String, String> params) {
+        String name = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+        return params.isEmpty() ? name : name + new TreeMap<>(params);
+    }
+
+    private static Map<String, Double> readScores(Path file) {
+        Map<String, Double> scores = new HashMap<>();
+        for (JsonNode run : JsonMapper.builder().build().readTree(file.toFile())) {
+            Map<String, String> params = new HashMap<>();
+            if (run.has("params")) {
+                run.get("params").properties().forEach(e -> params.put(e.getKey(), e.getValue().asString()));
+            }
+            scores.put(key(run.get("benchmark").asString(), params), run.get("primaryMetric").get("score").asDouble());
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,103 @@
+package com.auvier.benchmark;
+
+import com.auvier.dtos.order.OrderCreateDto;
+import com.auvier.dtos.order.OrderItemCreateDto;
+import com.auvier.entities.UserEntity;
+import com.auvier.entities.catalog.ProductEntity;
+import com.auvier.entities.catalog.ProductVariantEntity;
+import com.auvier.infrastructure.services.OrderService;
+import com.auvier.repositories.ProductRepository;
+import com.auvier.repositories.ProductVariantRepository;
+import com.auvier.repositories.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statement count and latency of creating large orders.
+ * Needs a database (see BenchmarkDatabase), so it only runs on request:
+ *   mvn test -Dtest=OrderCreationBenchmarkTest -Dbenchmark=true
+ *
+ * With IDENTITY ids every order line was its own INSERT round trip; with pooled sequences
+ * and JDBC batching the lines go out in a handful of batched statements. For the unbatched
+ * numbers, run it again with -Dspring.jpa.properties.hibernate.jdbc.batch_size=1.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class OrderCreationBenchmarkTest {
+
+    private static final int LINES_PER_ORDER = 50;
+    private static final int WARMUP_ORDERS = 5;
+    private static final int MEASURED_ORDERS = 20;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        BenchmarkDatabase.register(registry);
+    }
+
+    @Autowired private OrderService orderService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private ProductVariantRepository variantRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void createLargeOrders() {
+        UserEntity user = new UserEntity();
+        user.setUsername("bench-" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@bench.local");
+        user.setPassword("benchmark");
+        user = userRepository.save(user);
+
+        ProductEntity product = new ProductEntity();
+        product.setName("Benchmark product");
+        product.setSlug(user.getUsername());
+        product = productRepository.save(product);
+
+        List<OrderItemCreateDto> lines = new ArrayList<>();
+        for (int i = 0; i < LINES_PER_ORDER; i++) {
+            ProductVariantEntity variant = new ProductVariantEntity();
+            variant.setProduct(product);
+            variant.setSku(user.getUsername() + "-" + i);
+            variant.setColor("black");
+            variant.setPrice(new BigDecimal("19.99"));
+            variant.setStock(1_000_000);
+            lines.add(new OrderItemCreateDto(variantRepository.save(variant).getId(), 1));
+        }
+        OrderCreateDto dto = new OrderCreateDto(lines, "1 Benchmark Way", null);
+
+        for (int i = 0; i < WARMUP_ORDERS; i++) {
+            orderService.createOrder(user, dto);
+        }
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ORDERS; i++) {
+            orderService.createOrder(user, dto);
+        }
+        double avgMillis = (System.nanoTime() - start) / 1_000_000.0 / MEASURED_ORDERS;
+
+        System.out.printf("%n[benchmark] %d orders x %d lines%n", MEASURED_ORDERS, LINES_PER_ORDER);
+        System.out.printf("[benchmark] JDBC statements per order: %.1f%n",
+                (double) stats.getPrepareStatementCount() / MEASURED_ORDERS);
+        System.out.printf("[benchmark] entity inserts per order:  %.1f%n",
+                (double) stats.getEntityInsertCount() / MEASURED_ORDERS);
+        System.out.printf("[benchmark] avg latency per order:     %.2f ms%n%n", avgMillis);
+
+        // The order, its lines and its ORDER_CREATED outbox event
+        assertThat(stats.getEntityInsertCount()).isEqualTo((long) MEASURED_ORDERS * (LINES_PER_ORDER + 2));
+    }
+}
@@ -0,0 +1,73 @@
+package com.auvier.benchmark;
+
+import com.auvier.entities.OrderItemEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The BigDecimal math of an order: OrderItemEntity.getSubtotal, and the total the two ways
+ * OrderServiceImpl sums it (the loop in createOrder, the stream when the total is recalculated).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderMoneyBenchmark {
+
+    private OrderItemEntity item;
+
+    @State(Scope.Benchmark)
+    public static class Items {
+
+        @Param({"5", "50"})
+        int orderItems;
+
+        List<OrderItemEntity> items;
+
+        @Setup
+        public void setUp() {
+            items = Fixtures.order(orderItems).getOrderItems();
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        item = Fixtures.order(1).getOrderItems().getFirst();
+    }
+
+    @Benchmark
+    public BigDecimal subtotal() {
+        return item.getSubtotal();
+    }
+
+    @Benchmark
+    public BigDecimal totalLoop(Items items) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (OrderItemEntity item : items.items) {
+            total = total.add(item.getSubtotal());
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal totalStream(Items items) {
+        return items.items.stream()
+                .map(OrderItemEntity::getSubtotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
@@ -0,0 +1,169 @@
+package com.auvier.benchmark;
+
+import com.auvier.dtos.CheckoutDto;
+import com.auvier.dtos.CheckoutResultDto;
+import com.auvier.entities.UserEntity;
+import com.auvier.entities.catalog.ProductEntity;
+import com.auvier.entities.catalog.ProductVariantEntity;
+import com.auvier.infrastructure.payments.CachedPaymentStatus;
+import com.auvier.infrastructure.payments.PaymentStatusCache;
+import com.auvier.infrastructure.services.CheckoutService;
+import com.auvier.infrastructure.services.PaymentService;
+import com.auvier.repositories.OrderRepository;
+import com.auvier.repositories.ProductRepository;
+import com.auvier.repositories.ProductVariantRepository;
+import com.auvier.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * How quickly a waiting client (the /checkout/payment-status long-poll) learns about a payment.
+ * Needs a database (see BenchmarkDatabase), so it only runs on request:
+ *   mvn test -Dtest=PaymentStatusBenchmarkTest -Dbenchmark=true
+ *
+ * Every checkout registers a waiter on its PaymentIntent before the fake gateway confirms it. The lag
+ * is the time from the webhook's processed_at to the waiter completing, i.e. the commit plus the
+ * cache notification. When a waiter completes, the order must already show the payment. Afterwards
+ * every intent is looked up in the cache: succeeded ones must still be fresh there, declined ones are
+ * only trusted for payment.status-cache.ttl and may have to go to the gateway. A waiter with nothing
+ * newer to report must stay open until the caller times it out.
+ */
+@SpringBootTest(properties = {
+        "payment.gateway=fake",
+        "payment.fake.latency-median=PT0.02S",
+        "payment.fake.latency-p99=PT0.1S",
+        "payment.fake.confirm-delay=PT1S",
+        "payment.fake.decline-rate=0.05",
+        "stripe.webhook.secret=whsec_benchmark"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PaymentStatusBenchmarkTest {
+
+    private static final int CHECKOUTS = 200;
+    private static final long SETTLE_TIMEOUT_SECONDS = 60;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        BenchmarkDatabase.register(registry);
+    }
+
+    @Autowired private CheckoutService checkoutService;
+    @Autowired private PaymentService paymentService;
+    @Autowired private PaymentStatusCache paymentStatusCache;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private ProductVariantRepository variantRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void waitersLearnAboutPaymentsRightAfterTheWebhookCommits() throws Exception {
+        UserEntity user = new UserEntity();
+        user.setUsername("bench-" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@bench.local");
+        user.setPassword("benchmark");
+        UserEntity savedUser = userRepository.save(user);
+
+        ProductEntity product = new ProductEntity();
+        product.setName("Benchmark product");
+        product.setSlug(savedUser.getUsername());
+        product = productRepository.save(product);
+
+        ProductVariantEntity variant = new ProductVariantEntity();
+        variant.setProduct(product);
+        variant.setSku(savedUser.getUsername() + "-0");
+        variant.setColor("black");
+        variant.setPrice(new BigDecimal("19.99"));
+        variant.setStock(1_000_000);
+        Long variantId = variantRepository.save(variant).getId();
+
+        CheckoutDto cart = new CheckoutDto();
+        cart.setFirstName("Bench");
+        cart.setAddress("1 Benchmark Way");
+        cart.setCartItems(List.of(new CheckoutDto.CartItemDto(variantId, null, null, null, 1, null, null)));
+
+        Map<String, Long> orderIds = new HashMap<>();
+        Map<String, Instant> answeredAt = new ConcurrentHashMap<>();
+        AtomicInteger notYetVisible = new AtomicInteger();
+        List<CompletableFuture<CachedPaymentStatus>> waiters = new ArrayList<>();
+        for (int i = 0; i < CHECKOUTS; i++) {
+            CheckoutResultDto result = checkoutService.placeOrder(savedUser, cart);
+            String paymentIntentId = result.getPaymentIntentId();
+            orderIds.put(paymentIntentId, result.getOrderId());
+
+            long version = paymentService.getPaymentStatus(paymentIntentId).version();
+            waiters.add(paymentService.awaitPaymentStatus(paymentIntentId, version).whenComplete((status, error) -> {
+                answeredAt.put(paymentIntentId, Instant.now());
+                String paymentStatus = orderRepository.findById(result.getOrderId()).orElseThrow().getPaymentStatus();
+                if (!"paid".equals(paymentStatus) && !"failed".equals(paymentStatus)) {
+                    notYetVisible.incrementAndGet();
+                }
+            }));
+        }
+        CompletableFuture.allOf(waiters.toArray(CompletableFuture[]::new)).get(SETTLE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        List<Long> lags = new ArrayList<>();
+        jdbcTemplate.query("SELECT payment_intent_id, MAX(processed_at) FROM payment_webhook_events "
+                + "WHERE payment_intent_id IS NOT NULL GROUP BY payment_intent_id", rs -> {
+            Instant answered = answeredAt.get(rs.getString(1));
+            Timestamp processed = rs.getTimestamp(2);
+            if (answered != null && processed != null) {
+                lags.add(answered.toEpochMilli() - processed.getTime());
+            }
+        });
+        Collections.sort(lags);
+
+        long hits = orderIds.keySet().stream()
+                .filter(paymentIntentId -> paymentStatusCache.getFresh(paymentIntentId).isPresent())
+                .count();
+        long misses = orderIds.size() - hits;
+        long declined = orderRepository.findAllById(orderIds.values()).stream()
+                .filter(o -> "failed".equals(o.getPaymentStatus()))
+                .count();
+
+        // Nothing newer is coming for a settled intent, so the waiter stays open until its caller gives up
+        String settled = orderIds.keySet().iterator().next();
+        CompletableFuture<CachedPaymentStatus> idle = paymentService.awaitPaymentStatus(settled,
+                paymentService.getPaymentStatus(settled).version());
+        assertThatThrownBy(() -> idle.get(500, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+        idle.cancel(false);
+
+        System.out.printf("%n[benchmark] %d checkouts, each waiting for its webhook%n", CHECKOUTS);
+        System.out.printf("[benchmark] webhook processed -> waiter answered: p50 %d ms, p99 %d ms, max %d ms%n",
+                percentile(lags, 50), percentile(lags, 99), lags.getLast());
+        System.out.printf("[benchmark] waiters answered before the order showed the payment: %d%n", notYetVisible.get());
+        System.out.printf("[benchmark] status reads after settling: %d from the cache, %d need the gateway (%d declined)%n%n",
+                hits, misses, declined);
+
+        assertThat(lags).hasSize(CHECKOUTS);
+        assertThat(notYetVisible).hasValue(0);
+        assertThat(misses).isLessThanOrEqualTo(declined);
+    }
+
+    private static long percentile(List<Long> sorted, int p) {
+        int index = (int) Math.ceil(p / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index));
+    }
+}
@@ -0,0 +1,77 @@
+package com.auvier.benchmark;
+
+import com.auvier.controllers.StoreController;
+import com.auvier.dtos.ProductDto;
+import com.auvier.infrastructure.services.CategoryService;
+import com.auvier.infrastructure.services.ProductService;
+import com.auvier.mappers.ProductMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ui.ExtendedModelMap;
+import org.springframework.ui.Model;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StoreController.shop filtering the catalog in memory, at catalog sizes from a small shop to a large one.
+ * The services are stubs returning a fixed catalog, so only the controller's stream filtering is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShopFilterBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int catalogSize;
+
+    private StoreController controller;
+
+    @Setup
+    public void setUp() {
+        ProductMapper mapper = Fixtures.productMapper();
+        List<ProductDto> catalog = Fixtures.catalog(catalogSize).stream().map(mapper::toDto).toList();
+
+        controller = new StoreController(Fixtures.stub(ProductService.class, Map.of("findAll", catalog)),
+                Fixtures.stub(CategoryService.class, Map.of("findParentCategories", List.of())));
+    }
+
+    @Benchmark
+    public Model all() {
+        return shop(null, null);
+    }
+
+    @Benchmark
+    public Model byCategory() {
+        return shop("knitwear", null);
+    }
+
+    @Benchmark
+    public Model search() {
+        return shop(null, "Linen");
+    }
+
+    @Benchmark
+    public Model categoryAndSearch() {
+        return shop("Shirts", "wool");
+    }
+
+    private Model shop(String category, String q) {
+        Model model = new ExtendedModelMap();
+        controller.shop(category, q, model);
+        return model;
+    }
+}
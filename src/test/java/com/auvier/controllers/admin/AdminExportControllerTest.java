@@ -0,0 +1,72 @@
+package com.auvier.controllers.admin;
+
+import com.auvier.dtos.order.OrderFilterDto;
+import com.auvier.enums.ExportFormat;
+import com.auvier.infrastructure.services.AdminActivityLogService;
+import com.auvier.infrastructure.services.ExportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class AdminExportControllerTest {
+
+    private final ExportService exportService = mock(ExportService.class);
+    private final AdminActivityLogService activityLogService = mock(AdminActivityLogService.class);
+    private final AdminExportController controller = new AdminExportController(exportService, activityLogService);
+
+    @Test
+    void aGzipExportThatFailsMidwayIsNotFinished() {
+        when(exportService.exportOrders(any(), eq(ExportFormat.CSV), any())).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            byte[] rows = new byte[200_000];
+            new Random(1).nextBytes(rows);
+            out.write(rows);
+            out.flush();
+            throw new IllegalStateException("cursor lost");
+        });
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThatThrownBy(() -> controller.exportOrders(new OrderFilterDto(), ExportFormat.CSV, true, response))
+                .hasMessage("cursor lost");
+
+        // Part of the file went out, but without the gzip trailer: unpacking it fails
+        assertThat(response.isCommitted()).isTrue();
+        assertThatThrownBy(() -> readGzip(response.getContentAsByteArray())).isInstanceOf(EOFException.class);
+        verifyNoInteractions(activityLogService);
+    }
+
+    @Test
+    void aFailureBeforeAnythingWasSentLeavesTheResponseToTheErrorHandler() throws IOException {
+        when(exportService.exportOrders(any(), eq(ExportFormat.CSV), any()))
+                .thenThrow(new IllegalStateException("no connection"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThatThrownBy(() -> controller.exportOrders(new OrderFilterDto(), ExportFormat.CSV, true, response))
+                .hasMessage("no connection");
+
+        assertThat(response.isCommitted()).isFalse();
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThat(response.getHeader("Content-Disposition")).isNull();
+    }
+
+    private static void readGzip(byte[] bytes) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+}
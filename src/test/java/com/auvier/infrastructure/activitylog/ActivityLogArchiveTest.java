@@ -0,0 +1,78 @@
+package com.auvier.infrastructure.activitylog;
+
+import com.auvier.entities.AdminActivityLogEntity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ActivityLogArchiveTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2025, 3);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void committedMonthReadsBackAsEntities() {
+        ActivityLogArchive archive = new ActivityLogArchive(JsonMapper.builder().build(), directory.toString());
+        LocalDateTime at = LocalDateTime.of(2025, 3, 14, 9, 30, 15, 123456000);
+
+        try (ActivityLogArchive.MonthWriter out = archive.create(MONTH)) {
+            out.write(row(1L, "alice", Timestamp.valueOf(at), "{\"price\":10}"));
+            out.write(row(2L, "bob", Timestamp.valueOf(at.plusDays(1)), null));
+            out.commit();
+        }
+
+        assertThat(archive.contains(MONTH)).isTrue();
+        assertThat(archive.count(MONTH)).isEqualTo(2);
+        try (Stream<AdminActivityLogEntity> rows = archive.read(MONTH)) {
+            List<AdminActivityLogEntity> entries = rows.toList();
+            assertThat(entries).extracting(AdminActivityLogEntity::getId).containsExactly(1L, 2L);
+            assertThat(entries.get(0).getAdminUsername()).isEqualTo("alice");
+            assertThat(entries.get(0).getTimestamp()).isEqualTo(at);
+            assertThat(entries.get(0).getNewValues()).isEqualTo("{\"price\":10}");
+            assertThat(entries.get(1).getNewValues()).isNull();
+        }
+        assertThatThrownBy(() -> archive.create(MONTH)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void uncommittedMonthLeavesNothingBehind() throws Exception {
+        ActivityLogArchive archive = new ActivityLogArchive(JsonMapper.builder().build(), directory.toString());
+
+        try (ActivityLogArchive.MonthWriter out = archive.create(MONTH)) {
+            out.write(row(1L, "alice", Timestamp.valueOf(LocalDateTime.of(2025, 3, 1, 0, 0)), null));
+        }
+
+        assertThat(archive.contains(MONTH)).isFalse();
+        assertThat(archive.count(MONTH)).isZero();
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    private static Map<String, Object> row(long id, String username, Timestamp timestamp, String newValues) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", id);
+        row.put("admin_username", username);
+        row.put("action", "UPDATE");
+        row.put("entity_type", "PRODUCT");
+        row.put("entity_id", 7L);
+        row.put("new_values", newValues);
+        row.put("timestamp", timestamp);
+        return row;
+    }
+}
@@ -0,0 +1,53 @@
+package com.auvier.infrastructure.activitylog;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ActivityLogPartitionMaintenanceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private ActivityLogPartitionMaintenance maintenance;
+
+    @AfterEach
+    void tearDown() {
+        maintenance.shutdown();
+    }
+
+    @Test
+    void runsOnItsOwnThreadAndKeepsGoingAfterAFailedRun() throws Exception {
+        List<String> threads = new CopyOnWriteArrayList<>();
+        CountDownLatch runs = new CountDownLatch(3);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any(Object[].class))).thenReturn(true);
+        // Listing the partitions fails every run, after the partitions ahead were created
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(Object[].class))).thenAnswer(inv -> {
+            threads.add(Thread.currentThread().getName());
+            runs.countDown();
+            throw new DataAccessResourceFailureException("connection refused");
+        });
+        maintenance = new ActivityLogPartitionMaintenance(jdbcTemplate, mock(ActivityLogArchive.class),
+                mock(PlatformTransactionManager.class), false);
+        ReflectionTestUtils.setField(maintenance, "interval", Duration.ofMillis(10));
+
+        maintenance.start();
+
+        assertThat(runs.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(threads).allMatch("activity-log-maintenance"::equals);
+    }
+}
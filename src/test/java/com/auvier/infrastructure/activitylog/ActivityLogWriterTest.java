@@ -0,0 +1,79 @@
+package com.auvier.infrastructure.activitylog;
+
+import com.auvier.entities.AdminActivityLogEntity;
+import com.auvier.repositories.AdminActivityLogRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ActivityLogWriterTest {
+
+    private final AdminActivityLogRepository repository = mock(AdminActivityLogRepository.class);
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+    @Test
+    void writesInBatchesAndDrainsOnShutdown() throws Exception {
+        when(repository.saveAll(anyList())).thenAnswer(inv -> {
+            batchSizes.add(inv.<List<?>>getArgument(0).size());
+            return inv.getArgument(0);
+        });
+        // A long interval: only full batches and the shutdown drain may flush
+        ActivityLogWriter writer = writer(1000, 50, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 120; i++) {
+            assertThat(writer.offer(new AdminActivityLogEntity())).isTrue();
+        }
+        writer.shutdown();
+
+        assertThat(batchSizes).allMatch(size -> size <= 50);
+        assertThat(batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(120);
+        assertThat(writer.stats().written()).isEqualTo(120);
+        assertThat(writer.offer(new AdminActivityLogEntity())).isFalse();
+    }
+
+    @Test
+    void fullBufferRejectsInsteadOfBlocking() throws Exception {
+        ActivityLogWriter writer = writer(2, 50, Duration.ofMinutes(1));
+
+        assertThat(writer.offer(new AdminActivityLogEntity())).isTrue();
+        assertThat(writer.offer(new AdminActivityLogEntity())).isTrue();
+        assertThat(writer.offer(new AdminActivityLogEntity())).isFalse();
+        assertThat(writer.stats().rejected()).isEqualTo(1);
+        writer.shutdown();
+    }
+
+    @Test
+    void batchIsDroppedAfterEveryAttemptFails() throws Exception {
+        when(repository.saveAll(anyList())).thenThrow(new DataAccessResourceFailureException("database down"));
+        ActivityLogWriter writer = writer(10, 50, Duration.ofMillis(1));
+
+        writer.offer(new AdminActivityLogEntity());
+        writer.offer(new AdminActivityLogEntity());
+        writer.shutdown();
+
+        assertThat(writer.stats().dropped()).isEqualTo(2);
+        // Three attempts per batch, whether both entries went in one batch or two
+        assertThat(writer.stats().failedBatches()).isIn(3L, 6L);
+    }
+
+    private ActivityLogWriter writer(int capacity, int batchSize, Duration flushInterval) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        ActivityLogWriter writer = new ActivityLogWriter(repository, transactionTemplate,
+                capacity, batchSize, flushInterval, false);
+        ReflectionTestUtils.setField(writer, "maxAttempts", 3);
+        ReflectionTestUtils.setField(writer, "shutdownTimeout", Duration.ofSeconds(10));
+        writer.start();
+        return writer;
+    }
+}
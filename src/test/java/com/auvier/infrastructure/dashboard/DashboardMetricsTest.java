@@ -0,0 +1,193 @@
+package com.auvier.infrastructure.dashboard;
+
+import com.auvier.entities.OrderEntity;
+import com.auvier.entities.catalog.ProductVariantEntity;
+import com.auvier.enums.OrderStatus;
+import com.auvier.infrastructure.metrics.ShopMetrics;
+import com.auvier.repositories.OrderRepository;
+import com.auvier.repositories.ProductVariantRepository;
+import com.auvier.repositories.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DashboardMetricsTest {
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final ProductVariantRepository variantRepository = mock(ProductVariantRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final DashboardMetrics metrics = new DashboardMetrics(orderRepository, variantRepository, userRepository,
+            new ShopMetrics(new SimpleMeterRegistry()), jdbcTemplate, mock(PlatformTransactionManager.class), 5);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void statusChangesMoveCountsAndRevenue() {
+        OrderEntity order = order(OrderStatus.CREATED, LocalDateTime.now(), "40.00");
+        metrics.orderCreated(order);
+
+        order.setStatus(OrderStatus.PAID);
+        metrics.orderStatusChanged(order, OrderStatus.CREATED);
+
+        DashboardSnapshot snapshot = metrics.snapshot();
+        assertThat(snapshot.ordersByStatus()).containsEntry(OrderStatus.CREATED, 0L).containsEntry(OrderStatus.PAID, 1L);
+        assertThat(snapshot.revenueToday()).isEqualByComparingTo("40.00");
+
+        order.setStatus(OrderStatus.CANCELLED);
+        metrics.orderStatusChanged(order, OrderStatus.PAID);
+        assertThat(metrics.snapshot().revenueToday()).isEqualByComparingTo("0");
+
+        // Paid today but created yesterday: not today's revenue
+        OrderEntity old = order(OrderStatus.PAID, LocalDateTime.now().minusDays(1), "15.00");
+        metrics.orderStatusChanged(old, OrderStatus.CREATED);
+        assertThat(metrics.snapshot().revenueToday()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void changesApplyOnlyWhenTheTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        metrics.userRegistered();
+        metrics.orderCreated(order(OrderStatus.PENDING, LocalDateTime.now(), "10.00"));
+        assertThat(metrics.snapshot().newUsersToday()).isZero();
+
+        List<TransactionSynchronization> rolledBack = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        rolledBack.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertThat(metrics.snapshot().newUsersToday()).isZero();
+
+        TransactionSynchronizationManager.initSynchronization();
+        metrics.userRegistered();
+        List<TransactionSynchronization> committed = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        committed.forEach(TransactionSynchronization::afterCommit);
+        assertThat(metrics.snapshot().newUsersToday()).isEqualTo(1);
+        assertThat(metrics.snapshot().ordersByStatus()).containsEntry(OrderStatus.PENDING, 0L);
+    }
+
+    @Test
+    void stockCrossingTheThresholdMovesLowStockCount() {
+        ProductVariantEntity variant = new ProductVariantEntity();
+        variant.setActive(true);
+
+        variant.setStock(4);
+        metrics.stockChanged(variant, 6);
+        variant.setStock(2);
+        metrics.stockChanged(variant, 4);
+        assertThat(metrics.snapshot().lowStockVariants()).isEqualTo(1);
+
+        variant.setStock(20);
+        metrics.stockChanged(variant, 2);
+        assertThat(metrics.snapshot().lowStockVariants()).isZero();
+    }
+
+    @Test
+    void reconcileReplacesCountsAndKeepsChangesCommittedMeanwhile() {
+        metrics.userRegistered(); // drift: the database says otherwise
+        OrderRepository.StatusCount paid = statusCount(OrderStatus.PAID, 7);
+        when(orderRepository.countGroupedByStatus()).thenAnswer(inv -> {
+            // Committed while the recount runs, possibly after its snapshot
+            metrics.orderCreated(order(OrderStatus.PENDING, LocalDateTime.now(), "5.00"));
+            return List.of(paid);
+        });
+        when(orderRepository.sumTotalAmountCreatedSince(any(), any())).thenReturn(new BigDecimal("99.90"));
+        when(userRepository.countByCreatedAtGreaterThanEqual(any())).thenReturn(3L);
+        when(variantRepository.countByActiveTrueAndStockLessThanEqual(anyInt())).thenReturn(2L);
+
+        metrics.reconcile();
+
+        DashboardSnapshot snapshot = metrics.snapshot();
+        assertThat(snapshot.ordersByStatus()).containsEntry(OrderStatus.PAID, 7L).containsEntry(OrderStatus.PENDING, 1L);
+        assertThat(snapshot.revenueToday()).isEqualByComparingTo("99.90");
+        assertThat(snapshot.newUsersToday()).isEqualTo(3);
+        assertThat(snapshot.lowStockVariants()).isEqualTo(2);
+        assertThat(snapshot.reconciledAt()).isNotNull();
+    }
+
+    @Test
+    void changeCommittingAsTheRecountStartsIsCountedOnce() throws Exception {
+        // The recount sees what was committed when its snapshot was taken (the SELECT 1)
+        AtomicBoolean committed = new AtomicBoolean();
+        AtomicBoolean inSnapshot = new AtomicBoolean();
+        when(jdbcTemplate.queryForObject("SELECT 1", Integer.class)).thenAnswer(inv -> {
+            inSnapshot.set(committed.get());
+            return 1;
+        });
+        when(orderRepository.countGroupedByStatus())
+                .thenAnswer(inv -> inSnapshot.get() ? List.of(statusCount(OrderStatus.PENDING, 1)) : List.of());
+        when(orderRepository.sumTotalAmountCreatedSince(any(), any())).thenReturn(BigDecimal.ZERO);
+
+        // A checkout reports its order and starts to commit
+        TransactionSynchronizationManager.initSynchronization();
+        metrics.orderCreated(order(OrderStatus.PENDING, LocalDateTime.now(), "5.00"));
+        List<TransactionSynchronization> checkout = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        checkout.forEach(sync -> sync.beforeCommit(false));
+
+        ExecutorService scheduler = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> recount = scheduler.submit(metrics::reconcile);
+            Thread.sleep(200);
+            verify(jdbcTemplate, never()).queryForObject("SELECT 1", Integer.class);
+
+            // Committed in the database, then reported: the snapshot taken now includes the order
+            committed.set(true);
+            checkout.forEach(TransactionSynchronization::afterCommit);
+            checkout.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            recount.get(5, TimeUnit.SECONDS);
+        } finally {
+            scheduler.shutdownNow();
+        }
+
+        assertThat(inSnapshot).isTrue();
+        assertThat(metrics.snapshot().ordersByStatus()).containsEntry(OrderStatus.PENDING, 1L);
+    }
+
+    private static OrderEntity order(OrderStatus status, LocalDateTime createdAt, String total) {
+        OrderEntity order = new OrderEntity();
+        order.setStatus(status);
+        order.setCreatedAt(createdAt);
+        order.setTotalAmount(new BigDecimal(total));
+        return order;
+    }
+
+    private static OrderRepository.StatusCount statusCount(OrderStatus status, long count) {
+        return new OrderRepository.StatusCount() {
+            @Override
+            public OrderStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public long getCount() {
+                return count;
+            }
+        };
+    }
+}
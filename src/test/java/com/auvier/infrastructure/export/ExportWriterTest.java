@@ -0,0 +1,63 @@
+package com.auvier.infrastructure.export;
+
+import com.auvier.enums.ExportFormat;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExportWriterTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Test
+    void csvQuotesSpecialCharactersAndDefusesFormulas() {
+        String csv = write(ExportFormat.CSV,
+                List.of("id", "name", "note", "amount"),
+                Arrays.asList(1L, "Ann, \"Q\"", "=HYPERLINK(\"x\")", new BigDecimal("1E+2")),
+                Arrays.asList(2L, null, "line\nbreak", new BigDecimal("-5.50")));
+
+        assertThat(csv).isEqualTo("id,name,note,amount\r\n"
+                + "1,\"Ann, \"\"Q\"\"\",\"'=HYPERLINK(\"\"x\"\")\",100\r\n"
+                + "2,,\"line\nbreak\",-5.50\r\n");
+    }
+
+    @Test
+    void jsonWritesOneObjectPerRow() {
+        String json = write(ExportFormat.JSON,
+                List.of("id", "name", "amount"),
+                Arrays.asList(1L, "=Ann", new BigDecimal("9.90")),
+                Arrays.asList(2L, null, null));
+
+        JsonNode rows = jsonMapper.readTree(json);
+        assertThat(rows.size()).isEqualTo(2);
+        assertThat(rows.get(0).get("name").asString()).isEqualTo("=Ann");
+        assertThat(rows.get(0).get("amount").decimalValue()).isEqualByComparingTo("9.90");
+        assertThat(rows.get(1).get("name").isNull()).isTrue();
+    }
+
+    @Test
+    void emptyExportsStillHaveAHeaderOrAnArray() {
+        assertThat(write(ExportFormat.CSV, List.of("id", "sku"))).isEqualTo("id,sku\r\n");
+        assertThat(write(ExportFormat.JSON, List.of("id", "sku"))).isEqualTo("[]");
+    }
+
+    @SafeVarargs
+    private String write(ExportFormat format, List<String> columns, List<?>... rows) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportWriter writer = ExportWriter.create(format, out, jsonMapper);
+        writer.header(columns);
+        for (List<?> row : rows) {
+            writer.row(row);
+        }
+        writer.finish();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,173 @@
+package com.auvier.infrastructure.imports;
+
+import com.auvier.benchmark.BenchmarkDatabase;
+import com.auvier.dtos.imports.CatalogImportResultDto;
+import com.auvier.dtos.order.OrderCreateDto;
+import com.auvier.dtos.order.OrderItemCreateDto;
+import com.auvier.entities.UserEntity;
+import com.auvier.entities.catalog.CategoryEntity;
+import com.auvier.enums.ImportFormat;
+import com.auvier.infrastructure.services.OrderService;
+import com.auvier.repositories.CategoryRepository;
+import com.auvier.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * The write path of CatalogImporter against PostgreSQL. Needs a database (see BenchmarkDatabase), so it
+ * only runs on request:
+ *   mvn test -Dtest=CatalogImporterPostgresTest -Dbenchmark=true
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CatalogImporterPostgresTest {
+
+    private static final String HEADER = "product_slug,product_name,description,category,sku,color,size,price,stock,image_url,active\n";
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        BenchmarkDatabase.register(registry);
+    }
+
+    @Autowired private CatalogImporter catalogImporter;
+    @Autowired private OrderService orderService;
+    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private String run;
+    private UserEntity user;
+
+    @BeforeEach
+    void setUp() {
+        run = "imp" + System.nanoTime();
+        CategoryEntity category = new CategoryEntity();
+        category.setName("Import test");
+        category.setSlug(run);
+        categoryRepository.save(category);
+
+        user = new UserEntity();
+        user.setUsername(run);
+        user.setEmail(run + "@test.local");
+        user.setPassword("password");
+        user = userRepository.save(user);
+    }
+
+    @Test
+    void reimportingKeepsTheUnitsHeldByOpenOrders() throws IOException {
+        CatalogImportResultDto first = importCsv(
+                row("shirt", "Shirt", run + "-A", "19.90", 10)
+                        + row("shirt", "", run + "-B", "19.90", 5));
+        assertThat(first.getProductsCreated()).isEqualTo(1);
+        assertThat(first.getVariantsCreated()).isEqualTo(2);
+        assertThat(first.getFailed()).isZero();
+
+        Long orderId = orderService.createOrder(user, OrderCreateDto.builder()
+                .items(List.of(new OrderItemCreateDto(variantId(run + "-A"), 3)))
+                .shippingAddress("1 Test Street")
+                .paymentMethod("stripe")
+                .build()).getId();
+        assertThat(stock(run + "-A")).isEqualTo(7);
+
+        // 20 on hand, 3 of them held by the open order
+        CatalogImportResultDto second = importCsv(
+                row("shirt", "", run + "-A", "24.90", 20)
+                        + row("shirt", "", run + "-B", "24.90", 5));
+        assertThat(second.getVariantsCreated()).isZero();
+        assertThat(second.getVariantsUpdated()).isEqualTo(2);
+        assertThat(stock(run + "-A")).isEqualTo(17);
+        assertThat(stock(run + "-B")).isEqualTo(5);
+        assertThat(jdbcTemplate.queryForObject("SELECT price FROM product_variants WHERE sku = ?",
+                BigDecimal.class, run + "-A")).isEqualByComparingTo("24.90");
+
+        // Cancelling gives the held units back: on hand again
+        orderService.cancelOrder(orderId, "test");
+        assertThat(stock(run + "-A")).isEqualTo(20);
+    }
+
+    @Test
+    void aSkuCreatedWhileTheFileIsReadIsOnlyCountedWhenItWasWritten() throws IOException {
+        importCsv(row("mine", "Mine", run + "-M", "10.00", 1) + row("theirs", "Theirs", run + "-T", "10.00", 1));
+        Long mine = productId("mine");
+        Long theirs = productId("theirs");
+
+        String file = HEADER
+                + row("mine", "", run + "-X", "12.00", 4)   // line 2: taken by the other product meanwhile
+                + row("mine", "", run + "-Y", "12.00", 6)   // line 3: created for this product meanwhile
+                + row("mine", "", run + "-Z", "12.00", 8);  // line 4: new
+        // The SKUs are loaded before the file is read: create X and Y in between
+        InputStream in = new FilterInputStream(new ByteArrayInputStream(file.getBytes(StandardCharsets.UTF_8))) {
+            private boolean raced;
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (!raced) {
+                    raced = true;
+                    insertVariant(run + "-X", theirs);
+                    insertVariant(run + "-Y", mine);
+                }
+                return super.read(b, off, len);
+            }
+        };
+
+        CatalogImportResultDto result = catalogImporter.importCatalog(in, ImportFormat.CSV);
+
+        assertThat(result.getVariantsCreated()).isEqualTo(1);
+        assertThat(result.getVariantsUpdated()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(CatalogImportResultDto.RowError::getLine, CatalogImportResultDto.RowError::getSku)
+                .containsExactly(tuple(2L, run + "-X"));
+        assertThat(jdbcTemplate.queryForObject("SELECT product_id FROM product_variants WHERE sku = ?",
+                Long.class, run + "-X")).isEqualTo(theirs);
+        assertThat(stock(run + "-X")).isEqualTo(1);
+        assertThat(stock(run + "-Y")).isEqualTo(6);
+        assertThat(stock(run + "-Z")).isEqualTo(8);
+    }
+
+    // ==================== HELPERS ====================
+
+    private CatalogImportResultDto importCsv(String rows) throws IOException {
+        byte[] file = (HEADER + rows).getBytes(StandardCharsets.UTF_8);
+        return catalogImporter.importCatalog(new ByteArrayInputStream(file), ImportFormat.CSV);
+    }
+
+    private String row(String product, String name, String sku, String price, int stock) {
+        return String.join(",", run + "-" + product, name, "", name.isEmpty() ? "" : run,
+                sku, "black", "M", price, String.valueOf(stock), "", "") + "\n";
+    }
+
+    private void insertVariant(String sku, Long productId) {
+        jdbcTemplate.update("INSERT INTO product_variants (id, product_id, sku, price, stock, color, size, active)"
+                + " VALUES (nextval('product_variants_seq'), ?, ?, 10.00, 1, 'red', 2, TRUE)", productId, sku);
+    }
+
+    private Long productId(String product) {
+        return jdbcTemplate.queryForObject("SELECT id FROM products WHERE slug = ?", Long.class, run + "-" + product);
+    }
+
+    private Long variantId(String sku) {
+        return jdbcTemplate.queryForObject("SELECT id FROM product_variants WHERE sku = ?", Long.class, sku);
+    }
+
+    private int stock(String sku) {
+        Integer stock = jdbcTemplate.queryForObject("SELECT stock FROM product_variants WHERE sku = ?", Integer.class, sku);
+        return stock != null ? stock : -1;
+    }
+}
@@ -0,0 +1,65 @@
+package com.auvier.infrastructure.imports;
+
+import com.auvier.enums.ImportFormat;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RowReaderTest {
+
+    @Test
+    void csvHandlesQuotesLineBreaksAndBlankValues() throws IOException {
+        RowReader reader = reader(ImportFormat.CSV, "﻿Product_Slug,SKU,Description\r\n"
+                + "shirt,SH-1,\"Soft, \"\"washed\"\"\nlinen\"\r\n"
+                + "\r\n"
+                + "shirt,SH-2,  \n");
+
+        Map<String, String> first = reader.next();
+        assertThat(first).containsEntry("product_slug", "shirt").containsEntry("sku", "SH-1")
+                .containsEntry("description", "Soft, \"washed\"\nlinen");
+        assertThat(reader.line()).isEqualTo(2);
+
+        Map<String, String> second = reader.next();
+        assertThat(second).containsEntry("sku", "SH-2").containsEntry("description", null);
+        assertThat(reader.line()).isEqualTo(5);
+
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void csvRowWithTooManyColumnsIsRejectedAndReadingGoesOn() throws IOException {
+        RowReader reader = reader(ImportFormat.CSV, "product_slug,sku\nshirt,SH-1,extra\nshirt,SH-2\n");
+
+        assertThatThrownBy(reader::next).isInstanceOf(ImportRowException.class)
+                .hasMessageContaining("found 3");
+        assertThat(reader.next()).containsEntry("sku", "SH-2");
+        assertThat(reader.line()).isEqualTo(3);
+    }
+
+    @Test
+    void jsonLinesTakesValuesAsTextAndRejectsBadLines() throws IOException {
+        RowReader reader = reader(ImportFormat.JSONL, "{\"product_slug\":\"shirt\",\"price\":49.90,\"active\":false,\"image_url\":null}\n"
+                + "\n"
+                + "{oops\n"
+                + "{\"SKU\":\" SH-2 \"}\n");
+
+        assertThat(reader.next()).containsEntry("product_slug", "shirt").containsEntry("price", "49.90")
+                .containsEntry("active", "false").containsEntry("image_url", null);
+        assertThatThrownBy(reader::next).isInstanceOf(ImportRowException.class)
+                .satisfies(e -> assertThat(((ImportRowException) e).getLine()).isEqualTo(3));
+        assertThat(reader.next()).containsEntry("sku", "SH-2");
+        assertThat(reader.next()).isNull();
+    }
+
+    private static RowReader reader(ImportFormat format, String content) {
+        return RowReader.create(format, new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)),
+                JsonMapper.builder().build());
+    }
+}
@@ -0,0 +1,67 @@
+package com.auvier.infrastructure.inventory;
+
+import com.auvier.dtos.inventory.StockSyncDto;
+import com.auvier.dtos.inventory.StockSyncResultDto;
+import com.auvier.enums.StockSyncMode;
+import com.auvier.infrastructure.dashboard.DashboardMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class StockSyncTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final StockSync stockSync = new StockSync(jdbcTemplate, mock(PlatformTransactionManager.class),
+            mock(DashboardMetrics.class));
+
+    @Test
+    void invalidAndUnknownSkusAreRejectedWithoutWriting() {
+        // The lock query finds no variants: every SKU is unknown
+        StockSyncResultDto result = stockSync.sync(StockSyncDto.builder()
+                .mode(StockSyncMode.ABSOLUTE)
+                .items(List.of(item("A-1", 5), item("A-2", -1), item(" A-1 ", 7), item("A-3", 0)))
+                .build());
+
+        assertThat(result.getReceived()).isEqualTo(4);
+        assertThat(result.getRejected()).isEqualTo(4);
+        assertThat(result.getUpdated()).isZero();
+        assertThat(result.getIssues()).extracting(StockSyncResultDto.Issue::getSku, StockSyncResultDto.Issue::getMessage)
+                .containsExactly(
+                        tuple("A-2", "Stock level cannot be negative"),
+                        tuple("A-1", "SKU appears more than once; only the first entry was applied"),
+                        tuple("A-1", "Unknown SKU"),
+                        tuple("A-3", "Unknown SKU"));
+        verify(jdbcTemplate, never()).queryForList(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void negativeDeltasAreAllowedAndSkusAreLockedOneChunkAtATime() {
+        List<StockSyncDto.Item> items = new ArrayList<>();
+        for (int i = 0; i < StockSync.CHUNK_SIZE + 1; i++) {
+            items.add(item("D-" + i, -2));
+        }
+
+        StockSyncResultDto result = stockSync.sync(StockSyncDto.builder().mode(StockSyncMode.DELTA).items(items).build());
+
+        assertThat(result.getIssues()).noneMatch(issue -> issue.getMessage().contains("negative"));
+        verify(jdbcTemplate, times(2)).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    private static StockSyncDto.Item item(String sku, int quantity) {
+        return StockSyncDto.Item.builder().sku(sku).quantity(quantity).build();
+    }
+}
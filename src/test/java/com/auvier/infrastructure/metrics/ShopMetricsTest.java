@@ -0,0 +1,54 @@
+package com.auvier.infrastructure.metrics;
+
+import com.auvier.enums.OrderStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShopMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ShopMetrics metrics = new ShopMetrics(registry);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void timersAreTaggedWithTheOutcome() {
+        assertThat(metrics.time(ShopMetrics.ORDER_CREATE, () -> "ok")).isEqualTo("ok");
+        assertThatThrownBy(() -> metrics.time(ShopMetrics.ORDER_CREATE, () -> {
+            throw new IllegalStateException("Insufficient stock");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(registry.get(ShopMetrics.ORDER_CREATE).tags("outcome", "success", "exception", "none")
+                .timer().count()).isEqualTo(1);
+        assertThat(registry.get(ShopMetrics.ORDER_CREATE).tags("outcome", "error", "exception", "IllegalStateException")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void transitionsAreCountedOnCommitOnly() {
+        TransactionSynchronizationManager.initSynchronization();
+        metrics.orderStatusChanged(OrderStatus.PENDING, OrderStatus.PAID);
+        metrics.orderStatusChanged(OrderStatus.PENDING, OrderStatus.PAID);
+        assertThat(registry.get(ShopMetrics.ORDER_TRANSITIONS).tags("from", "PENDING", "to", "PAID")
+                .counter().count()).isZero();
+
+        // First transaction rolls back, second commits
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        synchronizations.get(1).afterCommit();
+
+        assertThat(registry.get(ShopMetrics.ORDER_TRANSITIONS).tags("from", "PENDING", "to", "PAID")
+                .counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,93 @@
+package com.auvier.infrastructure.outbox;
+
+import com.auvier.entities.OutboxEventEntity;
+import com.auvier.enums.OutboxStatus;
+import com.auvier.repositories.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    private final OutboxEventRepository repository = mock(OutboxEventRepository.class);
+    private final List<String> handled = new ArrayList<>();
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        OutboxSubscriber subscriber = new OutboxSubscriber() {
+            @Override
+            public boolean supports(String eventType) {
+                return true;
+            }
+
+            @Override
+            public void handle(OutboxEvent event) {
+                if ("FAIL".equals(event.payload())) {
+                    throw new IllegalStateException("subscriber down");
+                }
+                handled.add(event.aggregateId() + "v" + event.aggregateVersion());
+            }
+        };
+        relay = new OutboxRelay(repository, List.of(subscriber));
+        ReflectionTestUtils.setField(relay, "batchSize", 2);
+        ReflectionTestUtils.setField(relay, "maxAttempts", 10);
+    }
+
+    @Test
+    void eventsOfAnOrderGoOutInVersionOrderWhateverTheirIds() {
+        // Order 1's first event got id 60 from another instance's block and committed after id 10
+        OutboxEventEntity order1v1 = event(60, 1, 1, "{}");
+        OutboxEventEntity order1v2 = event(10, 1, 2, "{}");
+        OutboxEventEntity order2v1 = event(20, 2, 1, "{}");
+        when(repository.findByStatusOrderByIdAsc(eq(OutboxStatus.PENDING), any())).thenReturn(List.of(order1v2, order2v1));
+        when(repository.findByStatusAndAggregateIdInOrderByAggregateVersionAsc(eq(OutboxStatus.PENDING), anyCollection()))
+                .thenReturn(List.of(order1v1, order2v1, order1v2));
+
+        assertThat(relay.relayBatch()).isTrue();
+
+        assertThat(handled).containsExactly("1v1", "1v2", "2v1");
+        verify(repository).markProcessed(eq(List.of(60L, 10L, 20L)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void failedEventHoldsBackTheRestOfItsOrderOnly() {
+        OutboxEventEntity order1v1 = event(10, 1, 1, "FAIL");
+        OutboxEventEntity order1v2 = event(11, 1, 2, "{}");
+        OutboxEventEntity order2v1 = event(12, 2, 1, "{}");
+        when(repository.findByStatusOrderByIdAsc(eq(OutboxStatus.PENDING), any())).thenReturn(List.of(order1v1, order2v1));
+        when(repository.findByStatusAndAggregateIdInOrderByAggregateVersionAsc(eq(OutboxStatus.PENDING), anyCollection()))
+                .thenReturn(List.of(order1v1, order2v1, order1v2));
+
+        assertThat(relay.relayBatch()).isFalse();
+
+        assertThat(handled).containsExactly("2v1");
+        verify(repository).recordFailure(eq(10L), eq("subscriber down"), eq(OutboxStatus.PENDING), any());
+        verify(repository).markProcessed(eq(List.of(12L)), any(LocalDateTime.class));
+    }
+
+    private static OutboxEventEntity event(long id, long orderId, long version, String payload) {
+        OutboxEventEntity entity = new OutboxEventEntity();
+        entity.setId(id);
+        entity.setAggregateType("Order");
+        entity.setAggregateId(orderId);
+        entity.setAggregateVersion(version);
+        entity.setEventType("ORDER_STATUS_CHANGED");
+        entity.setPayload(payload);
+        entity.setAttempts(0);
+        entity.setCreatedAt(LocalDateTime.of(2026, 1, 1, 12, 0));
+        return entity;
+    }
+}
@@ -0,0 +1,61 @@
+package com.auvier.infrastructure.payments;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PaymentStatusCacheTest {
+
+    private PaymentStatusCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PaymentStatusCache();
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(cache, "finalTtl", Duration.ofHours(1));
+    }
+
+    @Test
+    void lateFailureDoesNotOverwriteSucceeded() {
+        cache.put("pi_1", "succeeded", false);
+        CachedPaymentStatus cached = cache.put("pi_1", "requires_payment_method", true);
+
+        assertThat(cached.status()).isEqualTo("succeeded");
+        assertThat(cached.declined()).isFalse();
+    }
+
+    @Test
+    void nonFinalStatusGoesStaleAfterTtl() {
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ZERO);
+        cache.put("pi_1", "requires_payment_method", false);
+        cache.put("pi_2", "succeeded", false);
+
+        assertThat(cache.getFresh("pi_1")).isEmpty();
+        assertThat(cache.getFresh("pi_2")).isPresent();
+    }
+
+    @Test
+    void waiterIsCompletedByTheNextChangeOnly() {
+        long version = cache.put("pi_1", "requires_payment_method", false).version();
+        CompletableFuture<CachedPaymentStatus> waiter = cache.awaitUpdate("pi_1", version);
+
+        cache.put("pi_1", "requires_payment_method", false); // re-read, nothing new
+        assertThat(waiter).isNotDone();
+
+        cache.put("pi_1", "requires_payment_method", true); // declined
+        assertThat(waiter).isCompleted();
+        assertThat(waiter.join().declined()).isTrue();
+    }
+
+    @Test
+    void waiterBehindTheCurrentVersionCompletesImmediately() {
+        cache.put("pi_1", "succeeded", false);
+
+        assertThat(cache.awaitUpdate("pi_1", 0)).isCompletedWithValueMatching(s -> s.status().equals("succeeded"));
+    }
+}
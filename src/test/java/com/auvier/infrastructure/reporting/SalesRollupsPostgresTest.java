@@ -0,0 +1,177 @@
+package com.auvier.infrastructure.reporting;
+
+import com.auvier.benchmark.BenchmarkDatabase;
+import com.auvier.dtos.order.OrderCreateDto;
+import com.auvier.dtos.order.OrderItemCreateDto;
+import com.auvier.dtos.report.SalesPointDto;
+import com.auvier.dtos.report.SalesReportFilterDto;
+import com.auvier.entities.UserEntity;
+import com.auvier.entities.catalog.ProductEntity;
+import com.auvier.entities.catalog.ProductVariantEntity;
+import com.auvier.enums.SalesGranularity;
+import com.auvier.infrastructure.services.OrderService;
+import com.auvier.repositories.ProductRepository;
+import com.auvier.repositories.ProductVariantRepository;
+import com.auvier.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pending rows, fold and rebuild of SalesRollups against PostgreSQL. Needs a database (see
+ * BenchmarkDatabase), so it only runs on request:
+ *   mvn test -Dtest=SalesRollupsPostgresTest -Dbenchmark=true
+ */
+@SpringBootTest(properties = "reporting.sales.fold-interval=PT1H")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SalesRollupsPostgresTest {
+
+    private static final BigDecimal PRICE = new BigDecimal("12.50");
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        BenchmarkDatabase.register(registry);
+    }
+
+    @Autowired private SalesRollups salesRollups;
+    @Autowired private OrderService orderService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private ProductVariantRepository variantRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private UserEntity user;
+    private Long variantId;
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        String run = "sales-" + System.nanoTime();
+        user = new UserEntity();
+        user.setUsername(run);
+        user.setEmail(run + "@test.local");
+        user.setPassword("password");
+        user = userRepository.save(user);
+
+        ProductEntity product = new ProductEntity();
+        product.setName("Sales rollup test product");
+        product.setSlug(run);
+        product = productRepository.save(product);
+
+        ProductVariantEntity variant = new ProductVariantEntity();
+        variant.setProduct(product);
+        variant.setSku(run);
+        variant.setColor("black");
+        variant.setPrice(PRICE);
+        variant.setStock(1000);
+        variantId = variantRepository.save(variant).getId();
+    }
+
+    @Test
+    void aPaymentIsReportedBeforeAndAfterItIsFolded() {
+        pay(2);
+
+        assertThat(pendingRows()).isEqualTo(1);
+        assertSold(1, 2);
+
+        salesRollups.fold(1000);
+
+        assertThat(pendingRows()).isZero();
+        assertSold(1, 2);
+
+        // A rebuild recounts the same sale, it doesn't add to it
+        pay(3);
+        assertThat(salesRollups.rebuild(today.minusDays(9), today)).isEqualTo(10);
+        salesRollups.fold(1000);
+        assertSold(2, 5);
+    }
+
+    @Test
+    void rebuildDoesNotWaitForAnOpenPaymentTransaction() throws Exception {
+        Long orderId = orderService.createOrder(user, cart(4)).getId();
+        CountDownLatch appended = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> payment = pool.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+                orderService.recordPaymentSucceeded(orderId, "pi_" + orderId);
+                appended.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+            assertThat(appended.await(30, TimeUnit.SECONDS)).isTrue();
+
+            // Used to queue behind the payment's rollup row lock until it committed
+            Future<Integer> rebuild = pool.submit(() -> salesRollups.rebuild(today, today));
+            assertThat(rebuild.get(10, TimeUnit.SECONDS)).isEqualTo(1);
+
+            release.countDown();
+            payment.get(30, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+
+        // Committed after the rebuild's snapshot: kept as pending and folded on top
+        salesRollups.fold(1000);
+        assertSold(1, 4);
+        salesRollups.rebuild(today, today);
+        assertSold(1, 4);
+    }
+
+    // ==================== HELPERS ====================
+
+    private void pay(int quantity) {
+        Long orderId = orderService.createOrder(user, cart(quantity)).getId();
+        orderService.recordPaymentSucceeded(orderId, "pi_" + orderId);
+    }
+
+    private void assertSold(long orders, long units) {
+        List<SalesPointDto> points = salesRollups.read(SalesReportFilterDto.builder()
+                .from(today)
+                .to(today)
+                .granularity(SalesGranularity.DAY)
+                .variantId(variantId)
+                .build());
+        assertThat(points).hasSize(1);
+        assertThat(points.getFirst().getOrders()).isEqualTo(orders);
+        assertThat(points.getFirst().getUnits()).isEqualTo(units);
+        assertThat(points.getFirst().getRevenue()).isEqualByComparingTo(PRICE.multiply(BigDecimal.valueOf(units)));
+    }
+
+    private int pendingRows() {
+        Integer rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM sales_daily_variant_pending WHERE variant_id = ?", Integer.class, variantId);
+        return rows != null ? rows : 0;
+    }
+
+    private OrderCreateDto cart(int quantity) {
+        return OrderCreateDto.builder()
+                .items(List.of(new OrderItemCreateDto(variantId, quantity)))
+                .shippingAddress("1 Test Street")
+                .paymentMethod("stripe")
+                .build();
+    }
+}
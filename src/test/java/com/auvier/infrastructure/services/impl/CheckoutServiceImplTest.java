@@ -0,0 +1,118 @@
+package com.auvier.infrastructure.services.impl;
+
+import com.auvier.dtos.CheckoutDto;
+import com.auvier.dtos.CheckoutResultDto;
+import com.auvier.dtos.PaymentIntentDto;
+import com.auvier.dtos.order.OrderResponseDto;
+import com.auvier.entities.UserEntity;
+import com.auvier.infrastructure.services.OrderService;
+import com.auvier.infrastructure.services.PaymentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The checkout saga's compensation. Cancelling the order is what releases its stock reservation
+ * (OrderService.cancelOrder), so a failed step must always end with that call.
+ */
+class CheckoutServiceImplTest {
+
+    private static final long ORDER_ID = 7L;
+    private static final BigDecimal TOTAL = new BigDecimal("59.97");
+
+    private final OrderService orderService = mock(OrderService.class);
+    private final PaymentService paymentService = mock(PaymentService.class);
+    private final UserEntity user = new UserEntity();
+    private CheckoutServiceImpl checkoutService;
+
+    @BeforeEach
+    void setUp() {
+        checkoutService = new CheckoutServiceImpl(orderService, paymentService);
+        when(orderService.createOrder(eq(user), any()))
+                .thenReturn(OrderResponseDto.builder().id(ORDER_ID).totalAmount(TOTAL).build());
+    }
+
+    @Test
+    void successfulCheckoutAttachesTheIntentAndCompensatesNothing() {
+        when(paymentService.createPaymentIntent(ORDER_ID, TOTAL)).thenReturn(intent());
+
+        CheckoutResultDto result = checkoutService.placeOrder(user, cart());
+
+        assertThat(result.getPaymentIntentId()).isEqualTo("pi_1");
+        verify(orderService).attachPaymentIntent(ORDER_ID, "pi_1");
+        verify(paymentService, never()).cancelPaymentIntent(anyString());
+        verify(orderService, never()).cancelOrder(any(), any());
+    }
+
+    @Test
+    void gatewayFailureReleasesTheReservationAndCancelsTheOrder() {
+        RuntimeException gatewayDown = new IllegalStateException("Stripe unavailable");
+        when(paymentService.createPaymentIntent(ORDER_ID, TOTAL)).thenThrow(gatewayDown);
+
+        assertThatThrownBy(() -> checkoutService.placeOrder(user, cart())).isSameAs(gatewayDown);
+
+        verify(orderService).cancelOrder(eq(ORDER_ID), anyString());
+        verify(paymentService, never()).cancelPaymentIntent(anyString());
+        verify(orderService, never()).attachPaymentIntent(any(), any());
+    }
+
+    @Test
+    void attachFailureCancelsTheIntentAndThenTheOrder() {
+        when(paymentService.createPaymentIntent(ORDER_ID, TOTAL)).thenReturn(intent());
+        RuntimeException cancelledMeanwhile = new IllegalStateException("Order 7 is CANCELLED, cannot attach payment");
+        doThrow(cancelledMeanwhile).when(orderService).attachPaymentIntent(ORDER_ID, "pi_1");
+
+        assertThatThrownBy(() -> checkoutService.placeOrder(user, cart())).isSameAs(cancelledMeanwhile);
+
+        InOrder compensation = inOrder(paymentService, orderService);
+        compensation.verify(paymentService).cancelPaymentIntent("pi_1");
+        compensation.verify(orderService).cancelOrder(eq(ORDER_ID), anyString());
+    }
+
+    @Test
+    void failedCompensationStepIsAttachedToTheOriginalErrorAndTheRestStillRuns() {
+        when(paymentService.createPaymentIntent(ORDER_ID, TOTAL)).thenReturn(intent());
+        RuntimeException attachFailed = new IllegalStateException("Connection refused");
+        doThrow(attachFailed).when(orderService).attachPaymentIntent(ORDER_ID, "pi_1");
+        RuntimeException cancelFailed = new IllegalStateException("Stripe unavailable");
+        doThrow(cancelFailed).when(paymentService).cancelPaymentIntent("pi_1");
+
+        assertThatThrownBy(() -> checkoutService.placeOrder(user, cart()))
+                .isSameAs(attachFailed)
+                .hasSuppressedException(cancelFailed);
+
+        verify(orderService).cancelOrder(eq(ORDER_ID), anyString());
+    }
+
+    private static PaymentIntentDto intent() {
+        return new PaymentIntentDto("pi_1_secret", "pi_1", 5997L, "usd", "requires_payment_method");
+    }
+
+    private static CheckoutDto cart() {
+        CheckoutDto dto = new CheckoutDto();
+        dto.setFirstName("Ada");
+        dto.setLastName("Lovelace");
+        dto.setAddress("1 Market Street");
+        dto.setCity("Springfield");
+        dto.setState("IL");
+        dto.setZipCode("62701");
+        dto.setCountry("US");
+        dto.setCartItems(List.of(new CheckoutDto.CartItemDto(1L, "Linen Shirt", "M", "Navy", 3, new BigDecimal("19.99"), null)));
+        return dto;
+    }
+}
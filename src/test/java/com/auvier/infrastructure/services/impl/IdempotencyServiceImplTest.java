@@ -0,0 +1,240 @@
+package com.auvier.infrastructure.services.impl;
+
+import com.auvier.entities.IdempotencyKeyEntity;
+import com.auvier.enums.IdempotencyStatus;
+import com.auvier.exception.IdempotencyConflictException;
+import com.auvier.repositories.IdempotencyKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The repository is an in-memory table with the same atomicity as the SQL (one row per key,
+ * conditional updates), so concurrent requests race the way they do against PostgreSQL.
+ */
+class IdempotencyServiceImplTest {
+
+    private static final String SCOPE = "checkout:create-order";
+    private static final String OWNER = "alice";
+
+    record Created(long orderId) {
+    }
+
+    private final Map<String, IdempotencyKeyEntity> table = new HashMap<>();
+    private final AtomicInteger runs = new AtomicInteger();
+    private IdempotencyServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        IdempotencyKeyRepository repository = mock(IdempotencyKeyRepository.class);
+        when(repository.claim(anyString(), anyString(), anyString(), anyString(), any(), any(), any()))
+                .thenAnswer(inv -> claim(inv.getArgument(0), inv.getArgument(1), inv.getArgument(2),
+                        inv.getArgument(3), inv.getArgument(4), inv.getArgument(5), inv.getArgument(6)));
+        when(repository.findByScopeAndOwnerAndIdempotencyKey(anyString(), anyString(), anyString()))
+                .thenAnswer(inv -> find(inv.getArgument(0), inv.getArgument(1), inv.getArgument(2)));
+        when(repository.takeOver(anyString(), anyString(), anyString(), anyString(), any(), any(), any()))
+                .thenAnswer(inv -> takeOver(inv.getArgument(0), inv.getArgument(1), inv.getArgument(2),
+                        inv.getArgument(3), inv.getArgument(4), inv.getArgument(5), inv.getArgument(6)));
+        when(repository.complete(anyString(), anyString(), anyString(), any(), any(), anyInt(), any()))
+                .thenAnswer(inv -> complete(inv.getArgument(0), inv.getArgument(1), inv.getArgument(2),
+                        inv.getArgument(3), inv.getArgument(5), inv.getArgument(6)));
+        when(repository.release(anyString(), anyString(), anyString(), any()))
+                .thenAnswer(inv -> release(inv.getArgument(0), inv.getArgument(1), inv.getArgument(2),
+                        inv.getArgument(3)));
+
+        service = new IdempotencyServiceImpl(repository, JsonMapper.builder().build());
+        ReflectionTestUtils.setField(service, "ttl", Duration.ofHours(1));
+        ReflectionTestUtils.setField(service, "waitTimeout", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(service, "lease", Duration.ofSeconds(30));
+    }
+
+    @Test
+    void concurrentDuplicatesRunTheActionOnceAndReplayItsResponse() throws Exception {
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<ResponseEntity<Created>>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(pool.submit(() -> execute("key-1", "cart", () -> {
+                    sleep(300); // Long enough for every duplicate to find the claim IN_PROGRESS
+                    return created(42);
+                })));
+            }
+
+            int replayed = 0;
+            for (Future<ResponseEntity<Created>> future : futures) {
+                ResponseEntity<Created> response = future.get();
+                assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+                assertThat(response.getBody()).isEqualTo(new Created(42));
+                if (response.getHeaders().containsHeader("Idempotent-Replayed")) {
+                    replayed++;
+                }
+            }
+            assertThat(runs).hasValue(1);
+            assertThat(replayed).isEqualTo(threads - 1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void storedResponseIsReplayedWithoutRunningTheAction() {
+        execute("key-1", "cart", () -> created(42));
+
+        ResponseEntity<Created> replay = execute("key-1", "cart", () -> created(43));
+
+        assertThat(runs).hasValue(1);
+        assertThat(replay.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(replay.getBody()).isEqualTo(new Created(42));
+        assertThat(replay.getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("true");
+    }
+
+    @Test
+    void keyReusedForADifferentRequestIsRejected() {
+        execute("key-1", "cart", () -> created(42));
+
+        assertThatThrownBy(() -> execute("key-1", "another cart", () -> created(43)))
+                .isInstanceOf(IdempotencyConflictException.class)
+                .hasMessageContaining("different request");
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void keyIsReleasedWhenTheActionThrowsOrFails() {
+        assertThatThrownBy(() -> execute("key-1", "cart", () -> {
+            throw new IllegalStateException("Insufficient stock");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(table).isEmpty();
+
+        ResponseEntity<Created> declined = execute("key-1", "cart", () -> ResponseEntity.status(HttpStatus.PAYMENT_REQUIRED).build());
+        assertThat(declined.getStatusCode()).isEqualTo(HttpStatus.PAYMENT_REQUIRED);
+        assertThat(table).isEmpty();
+
+        assertThat(execute("key-1", "cart", () -> created(42)).getBody()).isEqualTo(new Created(42));
+        assertThat(runs).hasValue(3);
+    }
+
+    @Test
+    void abandonedClaimIsTakenOverOnceItsLeaseRunsOut() {
+        ReflectionTestUtils.setField(service, "waitTimeout", Duration.ofMillis(200));
+        // A request that claimed the key and died, its lease still running
+        LocalDateTime now = LocalDateTime.now();
+        String hash = (String) ReflectionTestUtils.invokeMethod(service, "hash", "cart");
+        claim(SCOPE, OWNER, "key-1", hash, now.minusSeconds(10), now.plusHours(1), now.plusSeconds(20));
+
+        assertThatThrownBy(() -> execute("key-1", "cart", () -> created(42)))
+                .isInstanceOf(IdempotencyConflictException.class)
+                .hasMessageContaining("still in progress");
+
+        LocalDateTime deadHolderLease = now.minusSeconds(1);
+        table.get("key-1").setLockedUntil(deadHolderLease);
+        assertThat(execute("key-1", "cart", () -> created(42)).getBody()).isEqualTo(new Created(42));
+        assertThat(table.get("key-1").getStatus()).isEqualTo(IdempotencyStatus.COMPLETED);
+
+        // The original request, were it still alive, can no longer drop the stored response
+        assertThat(release(SCOPE, OWNER, "key-1", deadHolderLease)).isZero();
+        assertThat(runs).hasValue(1);
+    }
+
+    // ==================== HELPERS ====================
+
+    private ResponseEntity<Created> execute(String key, Object request, Supplier<ResponseEntity<Created>> action) {
+        return service.execute(SCOPE, OWNER, key, request, Created.class, () -> {
+            runs.incrementAndGet();
+            return action.get();
+        });
+    }
+
+    private static ResponseEntity<Created> created(long orderId) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(new Created(orderId));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // In-memory idempotency_keys, one row per key (scope and owner are always the same here)
+
+    private synchronized int claim(String scope, String owner, String key, String requestHash,
+                                   LocalDateTime createdAt, LocalDateTime expiresAt, LocalDateTime lockedUntil) {
+        if (table.containsKey(key)) {
+            return 0;
+        }
+        table.put(key, new IdempotencyKeyEntity(null, scope, owner, key, requestHash, IdempotencyStatus.IN_PROGRESS,
+                null, null, createdAt, expiresAt, lockedUntil));
+        return 1;
+    }
+
+    private synchronized Optional<IdempotencyKeyEntity> find(String scope, String owner, String key) {
+        IdempotencyKeyEntity row = table.get(key);
+        if (row == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new IdempotencyKeyEntity(row.getId(), row.getScope(), row.getOwner(),
+                row.getIdempotencyKey(), row.getRequestHash(), row.getStatus(), row.getResponseStatus(),
+                row.getResponseBody(), row.getCreatedAt(), row.getExpiresAt(), row.getLockedUntil()));
+    }
+
+    private synchronized int takeOver(String scope, String owner, String key, String requestHash,
+                                      LocalDateTime now, LocalDateTime expiresAt, LocalDateTime lockedUntil) {
+        IdempotencyKeyEntity row = table.get(key);
+        if (row == null || !row.getRequestHash().equals(requestHash) || row.getStatus() != IdempotencyStatus.IN_PROGRESS
+                || row.getLockedUntil() == null || !row.getLockedUntil().isBefore(now)) {
+            return 0;
+        }
+        row.setLockedUntil(lockedUntil);
+        row.setExpiresAt(expiresAt);
+        return 1;
+    }
+
+    private synchronized int complete(String scope, String owner, String key, LocalDateTime lockedUntil,
+                                      int responseStatus, String responseBody) {
+        IdempotencyKeyEntity row = table.get(key);
+        if (row == null || !Objects.equals(row.getLockedUntil(), lockedUntil)) {
+            return 0;
+        }
+        row.setStatus(IdempotencyStatus.COMPLETED);
+        row.setResponseStatus(responseStatus);
+        row.setResponseBody(responseBody);
+        row.setLockedUntil(null);
+        return 1;
+    }
+
+    private synchronized int release(String scope, String owner, String key, LocalDateTime lockedUntil) {
+        IdempotencyKeyEntity row = table.get(key);
+        if (row == null || !Objects.equals(row.getLockedUntil(), lockedUntil)) {
+            return 0;
+        }
+        table.remove(key);
+        return 1;
+    }
+}
@@ -0,0 +1,187 @@
+package com.auvier.infrastructure.services.impl;
+
+import com.auvier.dtos.order.OrderCreateDto;
+import com.auvier.dtos.order.OrderItemCreateDto;
+import com.auvier.entities.OrderEntity;
+import com.auvier.entities.UserEntity;
+import com.auvier.entities.catalog.ProductVariantEntity;
+import com.auvier.infrastructure.dashboard.DashboardMetrics;
+import com.auvier.infrastructure.inventory.StockSync;
+import com.auvier.infrastructure.metrics.ShopMetrics;
+import com.auvier.infrastructure.reporting.SalesRollups;
+import com.auvier.infrastructure.services.OutboxService;
+import com.auvier.mappers.OrderMapper;
+import com.auvier.repositories.OrderItemRepository;
+import com.auvier.repositories.OrderRepository;
+import com.auvier.repositories.ProductVariantRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Stress test for multi-line order creation.
+ * Variant row locks are simulated with one lock per variant that is held until the
+ * "transaction" (the createOrder call) ends, the same way PostgreSQL holds FOR UPDATE locks.
+ * If lines were locked in cart order, opposite-order carts would block each other and time out.
+ */
+class OrderServiceImplConcurrencyTest {
+
+    private static final int VARIANTS = 8;
+    private static final int THREADS = 64;
+    private static final int ORDERS_PER_THREAD = 200;
+    private static final int INITIAL_STOCK = 1_000_000;
+
+    private final Map<Long, ProductVariantEntity> variants = new ConcurrentHashMap<>();
+    private final Map<Long, ReentrantLock> rowLocks = new ConcurrentHashMap<>();
+    private final ThreadLocal<List<ReentrantLock>> heldLocks = ThreadLocal.withInitial(ArrayList::new);
+    private final AtomicLong lockOrderViolations = new AtomicLong();
+
+    private OrderServiceImpl orderService;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= VARIANTS; id++) {
+            ProductVariantEntity variant = new ProductVariantEntity();
+            variant.setId(id);
+            variant.setSku("SKU-" + id);
+            variant.setPrice(new BigDecimal("19.99"));
+            variant.setStock(INITIAL_STOCK);
+            variant.setActive(true);
+            variants.put(id, variant);
+            rowLocks.put(id, new ReentrantLock());
+        }
+
+        ProductVariantRepository variantRepository = mock(ProductVariantRepository.class);
+        when(variantRepository.findAllByIdInForUpdate(anyCollection()))
+                .thenAnswer(inv -> lockRows(inv.getArgument(0)));
+        when(variantRepository.saveAll(anyIterable())).thenAnswer(inv -> inv.getArgument(0));
+
+        OrderRepository orderRepository = mock(OrderRepository.class);
+        when(orderRepository.save(any(OrderEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        OrderMapper orderMapper = mock(OrderMapper.class);
+        when(orderMapper.toEntity(any(OrderCreateDto.class))).thenAnswer(inv -> new OrderEntity());
+
+        ShopMetrics shopMetrics = new ShopMetrics(new SimpleMeterRegistry());
+        orderService = new OrderServiceImpl(orderRepository, mock(OrderItemRepository.class),
+                new InventoryServiceImpl(variantRepository, mock(DashboardMetrics.class), mock(StockSync.class), shopMetrics),
+                orderMapper, mock(OutboxService.class), mock(TransactionTemplate.class), mock(DashboardMetrics.class),
+                mock(SalesRollups.class), shopMetrics);
+    }
+
+    @Test
+    void concurrentOrdersWithOverlappingVariantsNeverDeadlock() throws Exception {
+        UserEntity user = new UserEntity();
+        user.setId(1L);
+        user.setUsername("stress");
+
+        Map<Long, AtomicLong> requested = new ConcurrentHashMap<>();
+        variants.keySet().forEach(id -> requested.put(id, new AtomicLong()));
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                    OrderCreateDto dto = randomCart();
+                    try {
+                        orderService.createOrder(user, dto);
+                    } finally {
+                        commit();
+                    }
+                    dto.getItems().forEach(line ->
+                            requested.get(line.getProductVariantId()).addAndGet(line.getQuantity()));
+                }
+                return null;
+            }));
+        }
+
+        pool.shutdown();
+        assertThat(pool.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        for (Future<?> future : futures) {
+            future.get(); // rethrows CannotAcquireLockException if any cart waited too long
+        }
+
+        assertThat(lockOrderViolations).hasValue(0);
+        variants.forEach((id, variant) ->
+                assertThat(variant.getStock()).isEqualTo(INITIAL_STOCK - requested.get(id).get()));
+    }
+
+    @Test
+    void duplicateLinesAreMergedIntoOneReservation() {
+        List<OrderItemCreateDto> lines = List.of(
+                new OrderItemCreateDto(5L, 1),
+                new OrderItemCreateDto(2L, 3),
+                new OrderItemCreateDto(5L, 2)
+        );
+
+        assertThat(OrderServiceImpl.mergeLines(lines))
+                .containsExactly(Map.entry(2L, 3), Map.entry(5L, 3));
+    }
+
+    // ==================== HELPERS ====================
+
+    private List<ProductVariantEntity> lockRows(Collection<Long> ids) throws InterruptedException {
+        List<ProductVariantEntity> rows = new ArrayList<>();
+        long previous = Long.MIN_VALUE;
+        for (Long id : ids) {
+            if (id <= previous) {
+                lockOrderViolations.incrementAndGet();
+            }
+            previous = id;
+
+            ReentrantLock lock = rowLocks.get(id);
+            if (!lock.tryLock(5, TimeUnit.SECONDS)) {
+                throw new CannotAcquireLockException("Timed out waiting for lock on variant " + id);
+            }
+            heldLocks.get().add(lock);
+            rows.add(variants.get(id));
+        }
+        return rows;
+    }
+
+    private void commit() {
+        List<ReentrantLock> locks = heldLocks.get();
+        locks.forEach(ReentrantLock::unlock);
+        locks.clear();
+    }
+
+    private OrderCreateDto randomCart() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<OrderItemCreateDto> items = new ArrayList<>();
+        int lines = random.nextInt(2, 7);
+        for (int i = 0; i < lines; i++) {
+            items.add(new OrderItemCreateDto(random.nextLong(1, VARIANTS + 1), random.nextInt(1, 4)));
+        }
+        Collections.shuffle(items, random);
+        return OrderCreateDto.builder()
+                .items(items)
+                .shippingAddress("1 Test Street")
+                .paymentMethod("stripe")
+                .build();
+    }
+}
@@ -0,0 +1,270 @@
+package com.auvier.infrastructure.services.impl;
+
+import com.auvier.dtos.order.BulkStatusUpdateResultDto;
+import com.auvier.dtos.order.OrderItemCreateDto;
+import com.auvier.entities.OrderEntity;
+import com.auvier.entities.OrderItemEntity;
+import com.auvier.entities.catalog.ProductVariantEntity;
+import com.auvier.enums.OrderEventType;
+import com.auvier.enums.OrderStatus;
+import com.auvier.infrastructure.dashboard.DashboardMetrics;
+import com.auvier.infrastructure.metrics.ShopMetrics;
+import com.auvier.infrastructure.reporting.SalesRollups;
+import com.auvier.infrastructure.services.InventoryService;
+import com.auvier.infrastructure.services.OrderService;
+import com.auvier.infrastructure.services.OutboxService;
+import com.auvier.mappers.OrderMapper;
+import com.auvier.repositories.OrderItemRepository;
+import com.auvier.repositories.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.mockito.InOrder;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Order status, payment and item changes against mocked repositories.
+ */
+class OrderServiceImplTest {
+
+    private static final long ORDER_ID = 7L;
+    private static final long VARIANT_ID = 3L;
+    private static final BigDecimal PRICE = new BigDecimal("19.99");
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final OrderItemRepository orderItemRepository = mock(OrderItemRepository.class);
+    private final InventoryService inventoryService = mock(InventoryService.class);
+    private final OutboxService outboxService = mock(OutboxService.class);
+    private final DashboardMetrics dashboardMetrics = mock(DashboardMetrics.class);
+    private final SalesRollups salesRollups = mock(SalesRollups.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private OrderServiceImpl orderService;
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        orderService = new OrderServiceImpl(orderRepository, orderItemRepository, inventoryService,
+                mock(OrderMapper.class), outboxService, transactionTemplate, dashboardMetrics,
+                salesRollups, new ShopMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void markAsPaidMovesACheckoutOrderToPaidUnderTheRowLock() {
+        OrderEntity order = order(OrderStatus.PENDING);
+
+        orderService.markAsPaid(ORDER_ID, "pi_1");
+
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.PAID);
+        assertThat(order.getPaymentStatus()).isEqualTo(OrderService.PAYMENT_PAID);
+        assertThat(order.getTransactionId()).isEqualTo("pi_1");
+        verify(orderRepository).findByIdForUpdate(ORDER_ID);
+        verify(orderRepository, never()).findById(any());
+        verify(outboxService).publishOrderEvent(eq(ORDER_ID), eq(OrderEventType.ORDER_STATUS_CHANGED), anyMap());
+        verify(dashboardMetrics).orderStatusChanged(order, OrderStatus.PENDING);
+        verify(salesRollups).orderStatusChanged(order, OrderStatus.PENDING);
+    }
+
+    @Test
+    void markAsPaidDoesNotReviveACancelledOrder() {
+        OrderEntity order = order(OrderStatus.CANCELLED);
+
+        assertThatThrownBy(() -> orderService.markAsPaid(ORDER_ID, "pi_1"))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        verify(orderRepository, never()).save(any());
+        verify(outboxService, never()).publishOrderEvent(any(), any(), anyMap());
+    }
+
+    @Test
+    void markAsPaidAfterTheWebhookChangesNothing() {
+        OrderEntity order = order(OrderStatus.PAID);
+        order.setTransactionId("pi_1");
+
+        orderService.markAsPaid(ORDER_ID, "pi_1");
+
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.PAID);
+        verify(orderRepository, never()).save(any());
+        verify(outboxService, never()).publishOrderEvent(any(), any(), anyMap());
+        verify(dashboardMetrics, never()).orderStatusChanged(any(OrderEntity.class), any());
+    }
+
+    @Test
+    void addItemReadsTheLineOnlyAfterLockingTheOrder() {
+        order(OrderStatus.PENDING);
+        OrderItemEntity line = line(2);
+        when(orderItemRepository.findByOrderIdAndProductVariantId(ORDER_ID, VARIANT_ID)).thenReturn(Optional.of(line));
+        when(orderItemRepository.save(line)).thenReturn(line);
+
+        orderService.addItem(ORDER_ID, new OrderItemCreateDto(VARIANT_ID, 3));
+
+        assertThat(line.getQuantity()).isEqualTo(5);
+        InOrder inOrder = inOrder(orderRepository, orderItemRepository);
+        inOrder.verify(orderRepository).findByIdForUpdate(ORDER_ID);
+        inOrder.verify(orderItemRepository).findByOrderIdAndProductVariantId(ORDER_ID, VARIANT_ID);
+        inOrder.verify(orderRepository).applyTotalsDelta(eq(ORDER_ID), eq(PRICE.multiply(BigDecimal.valueOf(3))),
+                eq(0), any());
+    }
+
+    @Test
+    void updateItemQuantityAppliesTheDeltaFromTheCurrentLine() {
+        order(OrderStatus.CREATED);
+        OrderItemEntity line = line(4);
+        when(orderItemRepository.findByIdAndOrderId(line.getId(), ORDER_ID)).thenReturn(Optional.of(line));
+
+        orderService.updateItemQuantity(ORDER_ID, line.getId(), 1);
+
+        assertThat(line.getQuantity()).isEqualTo(1);
+        verify(inventoryService).adjustStock(VARIANT_ID, 4, 1);
+        verify(orderRepository).applyTotalsDelta(eq(ORDER_ID), eq(PRICE.multiply(BigDecimal.valueOf(-3))),
+                eq(0), any());
+    }
+
+    @Test
+    void clearItemsReleasesStockAndZeroesTheLockedOrder() {
+        OrderEntity order = order(OrderStatus.PENDING);
+        order.addOrderItem(line(2));
+        order.setTotalAmount(PRICE.multiply(BigDecimal.valueOf(2)));
+        order.setItemCount(1);
+
+        orderService.clearItems(ORDER_ID);
+
+        verify(inventoryService).releaseStock(VARIANT_ID, 2);
+        assertThat(order.getOrderItems()).isEmpty();
+        assertThat(order.getTotalAmount()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(order.getItemCount()).isZero();
+        verify(orderRepository).save(order);
+        verify(orderRepository, never()).findById(any());
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = OrderStatus.class, names = {"PAID", "SHIPPED", "DELIVERED", "CANCELLED"})
+    void itemsOfAPaidOrClosedOrderCannotBeChanged(OrderStatus status) {
+        order(status);
+        OrderItemEntity line = line(2);
+        when(orderItemRepository.findByIdAndOrderId(line.getId(), ORDER_ID)).thenReturn(Optional.of(line));
+
+        assertThatThrownBy(() -> orderService.addItem(ORDER_ID, new OrderItemCreateDto(VARIANT_ID, 1)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> orderService.updateItemQuantity(ORDER_ID, line.getId(), 5))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> orderService.removeItem(ORDER_ID, line.getId()))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> orderService.clearItems(ORDER_ID))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(line.getQuantity()).isEqualTo(2);
+        verify(inventoryService, never()).reserveStock(anyLong(), anyInt());
+        verify(inventoryService, never()).releaseStock(anyLong(), anyInt());
+        verify(orderRepository, never()).applyTotalsDelta(any(), any(), anyInt(), any());
+    }
+
+    @Test
+    void bulkUpdateReportsOnlyTheOrdersItsUpdateMovedInRequestOrder() {
+        // 5 and 3 are PAID when validated, 4 cannot be shipped, 9 does not exist
+        when(orderRepository.findStatusesByIdIn(List.of(5L, 3L, 9L, 4L))).thenReturn(List.of(
+                statusRow(3L, OrderStatus.PAID), statusRow(4L, OrderStatus.PENDING), statusRow(5L, OrderStatus.PAID)));
+        // Another writer cancels 5 before the UPDATE runs, so only 3 comes back
+        when(orderRepository.updateStatusIfCurrent(eq(List.of(5L, 3L)), eq("PAID"), eq("SHIPPED"), any()))
+                .thenReturn(List.of(3L));
+
+        BulkStatusUpdateResultDto result = orderService.bulkUpdateStatus(List.of(5L, 3L, 9L, 4L, 3L), OrderStatus.SHIPPED);
+
+        assertThat(result.getResults()).extracting(BulkStatusUpdateResultDto.Entry::getOrderId)
+                .containsExactly(5L, 3L, 9L, 4L);
+        assertThat(result.getResults()).extracting(BulkStatusUpdateResultDto.Entry::isSuccess)
+                .containsExactly(false, true, false, false);
+        assertThat(result.getResults().getFirst().getMessage()).isEqualTo("Order status changed concurrently");
+        assertThat(result.getSucceeded()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(3);
+
+        verify(outboxService).publishOrderEvent(eq(3L), eq(OrderEventType.ORDER_STATUS_CHANGED), anyMap());
+        verify(outboxService, never()).publishOrderEvent(eq(5L), any(), anyMap());
+        verify(dashboardMetrics, times(1)).orderStatusChanged(OrderStatus.PAID, OrderStatus.SHIPPED);
+    }
+
+    @Test
+    void bulkUpdateKeepsRequestOrderAcrossChunks() {
+        List<Long> ids = LongStream.rangeClosed(1, OrderService.BULK_CHUNK_SIZE + 10).boxed()
+                .sorted(Comparator.reverseOrder()).toList();
+        when(orderRepository.findStatusesByIdIn(any())).thenAnswer(inv -> inv.<Collection<Long>>getArgument(0).stream()
+                .map(id -> statusRow(id, OrderStatus.PAID)).toList());
+        // RETURNING gives no order guarantee
+        when(orderRepository.updateStatusIfCurrent(any(), eq("PAID"), eq("SHIPPED"), any()))
+                .thenAnswer(inv -> inv.<Collection<Long>>getArgument(0).stream().sorted().toList());
+
+        BulkStatusUpdateResultDto result = orderService.bulkUpdateStatus(ids, OrderStatus.SHIPPED);
+
+        assertThat(result.getResults()).extracting(BulkStatusUpdateResultDto.Entry::getOrderId)
+                .containsExactlyElementsOf(ids);
+        assertThat(result.getSucceeded()).isEqualTo(ids.size());
+        verify(transactionTemplate, times(2)).executeWithoutResult(any());
+    }
+
+    private static OrderRepository.OrderStatusRow statusRow(Long id, OrderStatus status) {
+        return new OrderRepository.OrderStatusRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public OrderStatus getStatus() {
+                return status;
+            }
+        };
+    }
+
+    private OrderEntity order(OrderStatus status) {
+        OrderEntity order = new OrderEntity();
+        order.setId(ORDER_ID);
+        order.setStatus(status);
+        order.setPaymentStatus("pending");
+        when(orderRepository.findByIdForUpdate(ORDER_ID)).thenReturn(Optional.of(order));
+        when(orderRepository.findTotalsById(ORDER_ID)).thenReturn(Optional.of(mock(OrderRepository.OrderTotals.class)));
+        return order;
+    }
+
+    private static OrderItemEntity line(int quantity) {
+        ProductVariantEntity variant = new ProductVariantEntity();
+        variant.setId(VARIANT_ID);
+        variant.setPrice(PRICE);
+
+        OrderItemEntity item = new OrderItemEntity();
+        item.setId(11L);
+        item.setProductVariant(variant);
+        item.setQuantity(quantity);
+        item.setUnitPrice(PRICE);
+        return item;
+    }
+}
@@ -0,0 +1,247 @@
+package com.auvier.infrastructure.services.impl;
+
+import com.auvier.benchmark.BenchmarkDatabase;
+import com.auvier.dtos.order.OrderCreateDto;
+import com.auvier.dtos.order.OrderItemCreateDto;
+import com.auvier.dtos.order.OrderResponseDto;
+import com.auvier.entities.OrderEntity;
+import com.auvier.entities.OrderItemEntity;
+import com.auvier.entities.UserEntity;
+import com.auvier.entities.catalog.ProductEntity;
+import com.auvier.entities.catalog.ProductVariantEntity;
+import com.auvier.enums.OrderStatus;
+import com.auvier.infrastructure.services.OrderService;
+import com.auvier.repositories.OrderItemRepository;
+import com.auvier.repositories.OrderRepository;
+import com.auvier.repositories.ProductRepository;
+import com.auvier.repositories.ProductVariantRepository;
+import com.auvier.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The same races as OrderServiceImplConcurrencyTest, against real PostgreSQL row locks instead of
+ * in-JVM stand-ins. Needs a database (see BenchmarkDatabase), so it only runs on request:
+ *   mvn test -Dtest=OrderServicePostgresConcurrencyTest -Dbenchmark=true
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class OrderServicePostgresConcurrencyTest {
+
+    private static final int VARIANTS = 8;
+    private static final int THREADS = 16;
+    private static final int ORDERS_PER_THREAD = 25;
+    private static final int INITIAL_STOCK = 1_000_000;
+    private static final BigDecimal PRICE = new BigDecimal("19.99");
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        BenchmarkDatabase.register(registry);
+    }
+
+    @Autowired private OrderService orderService;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private OrderItemRepository orderItemRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private ProductVariantRepository variantRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private UserEntity user;
+    private final List<Long> variantIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        String run = "race-" + System.nanoTime();
+        user = new UserEntity();
+        user.setUsername(run);
+        user.setEmail(run + "@test.local");
+        user.setPassword("password");
+        user = userRepository.save(user);
+
+        ProductEntity product = new ProductEntity();
+        product.setName("Concurrency test product");
+        product.setSlug(run);
+        product = productRepository.save(product);
+
+        for (int i = 0; i < VARIANTS; i++) {
+            ProductVariantEntity variant = new ProductVariantEntity();
+            variant.setProduct(product);
+            variant.setSku(run + "-" + i);
+            variant.setColor("black");
+            variant.setPrice(PRICE);
+            variant.setStock(INITIAL_STOCK);
+            variantIds.add(variantRepository.save(variant).getId());
+        }
+    }
+
+    @Test
+    void concurrentOrdersWithOverlappingVariantsNeverDeadlock() throws Exception {
+        Map<Long, AtomicLong> requested = new ConcurrentHashMap<>();
+        variantIds.forEach(id -> requested.put(id, new AtomicLong()));
+        long deadlocksBefore = deadlocks();
+
+        runConcurrently(THREADS, () -> {
+            for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                OrderCreateDto dto = randomCart();
+                orderService.createOrder(user, dto);
+                dto.getItems().forEach(line ->
+                        requested.get(line.getProductVariantId()).addAndGet(line.getQuantity()));
+            }
+        });
+
+        // createOrder retries a deadlock victim, so a passing run alone would hide one
+        assertThat(deadlocks()).isEqualTo(deadlocksBefore);
+        for (Long id : variantIds) {
+            assertThat(stock(id)).isEqualTo(INITIAL_STOCK - requested.get(id).get());
+        }
+    }
+
+    @Test
+    void concurrentEditsOfOneLineLoseNoQuantity() throws Exception {
+        Long variantId = variantIds.getFirst();
+        OrderResponseDto order = orderService.createOrder(user, cart(variantId, 1));
+        int adds = 20;
+
+        runConcurrently(THREADS, () -> {
+            for (int i = 0; i < adds; i++) {
+                orderService.addItem(order.getId(), new OrderItemCreateDto(variantId, 1));
+            }
+        });
+
+        int quantity = 1 + THREADS * adds;
+        OrderItemEntity line = orderItemRepository.findByOrderIdAndProductVariantId(order.getId(), variantId)
+                .orElseThrow();
+        assertThat(line.getQuantity()).isEqualTo(quantity);
+        OrderRepository.OrderTotals totals = orderRepository.findTotalsById(order.getId()).orElseThrow();
+        assertThat(totals.getTotalAmount()).isEqualByComparingTo(PRICE.multiply(BigDecimal.valueOf(quantity)));
+        assertThat(totals.getItemCount()).isEqualTo(1);
+        assertThat(stock(variantId)).isEqualTo(INITIAL_STOCK - quantity);
+    }
+
+    @Test
+    void aPaymentRacingACancelIsNeverLost() throws Exception {
+        Long variantId = variantIds.getLast();
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            orderIds.add(orderService.createOrder(user, cart(variantId, 2)).getId());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (Long orderId : orderIds) {
+                CountDownLatch start = new CountDownLatch(1);
+                Future<?> payment = pool.submit(() -> {
+                    start.await();
+                    orderService.recordPaymentSucceeded(orderId, "pi_" + orderId);
+                    return null;
+                });
+                Future<?> cancel = pool.submit(() -> {
+                    start.await();
+                    orderService.cancelOrder(orderId, "race");
+                    return null;
+                });
+                start.countDown();
+                payment.get(30, TimeUnit.SECONDS);
+                cancel.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        for (Long orderId : orderIds) {
+            OrderEntity order = orderRepository.findById(orderId).orElseThrow();
+            assertThat(order.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+            // Cancelled after the payment (paid, to be refunded by the admin) or before it (flagged)
+            assertThat(order.getPaymentStatus()).isIn(OrderService.PAYMENT_PAID, OrderService.PAYMENT_REFUND_REQUIRED);
+            assertThat(order.getTransactionId()).isEqualTo("pi_" + orderId);
+        }
+        // Every cancel released its stock exactly once
+        assertThat(stock(variantId)).isEqualTo(INITIAL_STOCK);
+    }
+
+    // ==================== HELPERS ====================
+
+    private void runConcurrently(int threads, ThrowingRunnable task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit((Callable<Void>) () -> {
+                start.await();
+                task.run();
+                return null;
+            }));
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        for (Future<?> future : futures) {
+            future.get(); // rethrows the first failure of that thread
+        }
+    }
+
+    private long deadlocks() throws InterruptedException {
+        // The statistics collector publishes with a delay of up to half a second
+        Thread.sleep(1000);
+        jdbcTemplate.execute("SELECT pg_stat_clear_snapshot()");
+        Long deadlocks = jdbcTemplate.queryForObject(
+                "SELECT deadlocks FROM pg_stat_database WHERE datname = current_database()", Long.class);
+        return deadlocks != null ? deadlocks : 0;
+    }
+
+    private int stock(Long variantId) {
+        return variantRepository.findById(variantId).orElseThrow().getStock();
+    }
+
+    private OrderCreateDto randomCart() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<OrderItemCreateDto> items = new ArrayList<>();
+        int lines = random.nextInt(2, 7);
+        for (int i = 0; i < lines; i++) {
+            items.add(new OrderItemCreateDto(variantIds.get(random.nextInt(VARIANTS)), random.nextInt(1, 4)));
+        }
+        Collections.shuffle(items, random);
+        return OrderCreateDto.builder()
+                .items(items)
+                .shippingAddress("1 Test Street")
+                .paymentMethod("stripe")
+                .build();
+    }
+
+    private static OrderCreateDto cart(Long variantId, int quantity) {
+        return OrderCreateDto.builder()
+                .items(List.of(new OrderItemCreateDto(variantId, quantity)))
+                .shippingAddress("1 Test Street")
+                .paymentMethod("stripe")
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,155 @@
+package com.auvier.infrastructure.services.impl;
+
+import com.auvier.entities.OrderEntity;
+import com.auvier.entities.PaymentWebhookEventEntity;
+import com.auvier.enums.OrderEventType;
+import com.auvier.enums.OrderStatus;
+import com.auvier.enums.WebhookEventStatus;
+import com.auvier.infrastructure.dashboard.DashboardMetrics;
+import com.auvier.infrastructure.metrics.ShopMetrics;
+import com.auvier.infrastructure.payments.PaymentStatusCache;
+import com.auvier.infrastructure.reporting.SalesRollups;
+import com.auvier.infrastructure.services.InventoryService;
+import com.auvier.infrastructure.services.OrderService;
+import com.auvier.infrastructure.services.OutboxService;
+import com.auvier.infrastructure.webhooks.WebhookWorkerPool;
+import com.auvier.mappers.OrderMapper;
+import com.auvier.repositories.OrderItemRepository;
+import com.auvier.repositories.OrderRepository;
+import com.auvier.repositories.PaymentWebhookEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Webhook events applied to orders in each status, through OrderServiceImpl over mocked repositories.
+ * The worker pool and the transaction run inline.
+ */
+class PaymentWebhookServiceImplTest {
+
+    private static final long ORDER_ID = 7L;
+
+    private final PaymentWebhookEventRepository webhookEventRepository = mock(PaymentWebhookEventRepository.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final OutboxService outboxService = mock(OutboxService.class);
+    private final DashboardMetrics dashboardMetrics = mock(DashboardMetrics.class);
+    private final SalesRollups salesRollups = mock(SalesRollups.class);
+    private PaymentWebhookServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        WebhookWorkerPool workerPool = mock(WebhookWorkerPool.class);
+        when(workerPool.submit(any(), any())).thenAnswer(inv -> {
+            inv.<Runnable>getArgument(1).run();
+            return true;
+        });
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        ShopMetrics shopMetrics = new ShopMetrics(new SimpleMeterRegistry());
+        OrderServiceImpl orderService = new OrderServiceImpl(orderRepository, mock(OrderItemRepository.class),
+                mock(InventoryService.class), mock(OrderMapper.class), outboxService, transactionTemplate,
+                dashboardMetrics, salesRollups, shopMetrics);
+        service = new PaymentWebhookServiceImpl(webhookEventRepository, orderService, workerPool,
+                transactionTemplate, mock(PaymentStatusCache.class), shopMetrics);
+    }
+
+    @Test
+    void succeededPaymentMovesAPendingOrderToPaid() {
+        OrderEntity order = order(OrderStatus.PENDING);
+
+        apply("payment_intent.succeeded");
+
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.PAID);
+        assertThat(order.getPaymentStatus()).isEqualTo("paid");
+        verify(outboxService).publishOrderEvent(eq(ORDER_ID), eq(OrderEventType.ORDER_STATUS_CHANGED), anyMap());
+        verify(dashboardMetrics).orderStatusChanged(order, OrderStatus.PENDING);
+        // The status was read under the row lock, so a cancel that committed first would have been seen
+        verify(orderRepository, never()).findById(any());
+    }
+
+    @Test
+    void succeededPaymentDoesNotReviveACancelledOrder() {
+        OrderEntity order = order(OrderStatus.CANCELLED);
+
+        apply("payment_intent.succeeded");
+
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(order.getPaymentStatus()).isEqualTo(OrderService.PAYMENT_REFUND_REQUIRED);
+        assertThat(order.getTransactionId()).isEqualTo("pi_1");
+        verify(outboxService).publishOrderEvent(eq(ORDER_ID), eq(OrderEventType.PAYMENT_REFUND_REQUIRED), anyMap());
+        verify(outboxService, never()).publishOrderEvent(eq(ORDER_ID), eq(OrderEventType.ORDER_STATUS_CHANGED), anyMap());
+        verify(dashboardMetrics, never()).orderStatusChanged(any(OrderEntity.class), any());
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = OrderStatus.class, names = {"SHIPPED", "DELIVERED"})
+    void succeededPaymentKeepsAFulfilledOrderWhereItIs(OrderStatus status) {
+        OrderEntity order = order(status);
+
+        apply("payment_intent.succeeded");
+
+        assertThat(order.getStatus()).isEqualTo(status);
+        assertThat(order.getPaymentStatus()).isEqualTo("paid");
+        verify(outboxService, never()).publishOrderEvent(eq(ORDER_ID), eq(OrderEventType.ORDER_STATUS_CHANGED), anyMap());
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = OrderStatus.class, names = {"PAID", "SHIPPED", "DELIVERED"})
+    void lateFailureDoesNotTouchAPaidOrFulfilledOrder(OrderStatus status) {
+        OrderEntity order = order(status);
+        order.setPaymentStatus("paid");
+
+        apply("payment_intent.payment_failed");
+
+        assertThat(order.getPaymentStatus()).isEqualTo("paid");
+        verify(orderRepository, never()).save(any());
+        verify(outboxService, never()).publishOrderEvent(any(), any(), anyMap());
+    }
+
+    @Test
+    void failureIsRecordedOnAnUnpaidOrder() {
+        OrderEntity order = order(OrderStatus.PENDING);
+
+        apply("payment_intent.payment_failed");
+
+        assertThat(order.getPaymentStatus()).isEqualTo("failed");
+        verify(outboxService).publishOrderEvent(eq(ORDER_ID), eq(OrderEventType.PAYMENT_FAILED), anyMap());
+    }
+
+    private OrderEntity order(OrderStatus status) {
+        OrderEntity order = new OrderEntity();
+        order.setId(ORDER_ID);
+        order.setStatus(status);
+        order.setPaymentStatus("pending");
+        when(orderRepository.findByIdForUpdate(ORDER_ID)).thenReturn(Optional.of(order));
+        return order;
+    }
+
+    private void apply(String eventType) {
+        PaymentWebhookEventEntity event = new PaymentWebhookEventEntity("evt_1", eventType, ORDER_ID, "pi_1", "{}",
+                WebhookEventStatus.RECEIVED, 0, null, LocalDateTime.now(), null);
+        when(webhookEventRepository.findById("evt_1")).thenReturn(Optional.of(event));
+        when(webhookEventRepository.findByIdForUpdate("evt_1")).thenReturn(Optional.of(event));
+
+        service.replay("evt_1");
+
+        assertThat(event.getStatus()).isEqualTo(WebhookEventStatus.PROCESSED);
+    }
+}
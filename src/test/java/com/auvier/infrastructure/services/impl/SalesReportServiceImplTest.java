@@ -0,0 +1,82 @@
+package com.auvier.infrastructure.services.impl;
+
+import com.auvier.dtos.report.SalesPointDto;
+import com.auvier.dtos.report.SalesReportFilterDto;
+import com.auvier.dtos.report.SalesSeriesDto;
+import com.auvier.enums.SalesGranularity;
+import com.auvier.exception.InvalidRequestException;
+import com.auvier.infrastructure.reporting.SalesRollups;
+import com.auvier.infrastructure.services.SalesReportService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class SalesReportServiceImplTest {
+
+    private final SalesRollups salesRollups = mock(SalesRollups.class);
+    private final SalesReportServiceImpl service = new SalesReportServiceImpl(salesRollups);
+
+    @Test
+    void everyBucketOfTheRangeIsReturnedWithZerosForGaps() {
+        // Wednesday 2026-01-07 to Sunday 2026-01-25: weeks starting Jan 5, 12 and 19
+        SalesPointDto secondWeek = SalesPointDto.builder()
+                .period(LocalDate.of(2026, 1, 12)).orders(3).units(7).revenue(new BigDecimal("120.50")).build();
+        when(salesRollups.read(any())).thenReturn(List.of(secondWeek));
+
+        SalesSeriesDto series = service.getSalesSeries(SalesReportFilterDto.builder()
+                .from(LocalDate.of(2026, 1, 7))
+                .to(LocalDate.of(2026, 1, 25))
+                .granularity(SalesGranularity.WEEK)
+                .categoryId(4L)
+                .build());
+
+        assertThat(series.getPoints()).extracting(SalesPointDto::getPeriod).containsExactly(
+                LocalDate.of(2026, 1, 5), LocalDate.of(2026, 1, 12), LocalDate.of(2026, 1, 19));
+        assertThat(series.getPoints().get(1)).isSameAs(secondWeek);
+        assertThat(series.getPoints().get(0).getOrders()).isZero();
+        assertThat(series.getPoints().get(2).getRevenue()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void invalidRequestsAreRejectedBeforeReading() {
+        LocalDate day = LocalDate.of(2026, 1, 1);
+
+        assertThatThrownBy(() -> service.getSalesSeries(SalesReportFilterDto.builder().from(day).build()))
+                .isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> service.getSalesSeries(SalesReportFilterDto.builder()
+                .from(day).to(day.minusDays(1)).build()))
+                .isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> service.getSalesSeries(SalesReportFilterDto.builder()
+                .from(day).to(day).productId(1L).categoryId(2L).build()))
+                .isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> service.getSalesSeries(SalesReportFilterDto.builder()
+                .from(day).to(day.plusYears(5)).granularity(SalesGranularity.DAY).build()))
+                .hasMessageContaining("coarser granularity");
+
+        verifyNoInteractions(salesRollups);
+    }
+
+    @Test
+    void rebuildIsLimitedToMaxRebuildDaysPerRequest() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate lastAllowed = from.plusDays(SalesReportService.MAX_REBUILD_DAYS - 1L);
+        when(salesRollups.rebuild(from, lastAllowed)).thenReturn(SalesReportService.MAX_REBUILD_DAYS);
+
+        assertThat(service.rebuildRollups(from, lastAllowed)).isEqualTo(SalesReportService.MAX_REBUILD_DAYS);
+        assertThatThrownBy(() -> service.rebuildRollups(from, lastAllowed.plusDays(1)))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessageContaining("at most " + SalesReportService.MAX_REBUILD_DAYS + " days");
+        verify(salesRollups, never()).rebuild(from, lastAllowed.plusDays(1));
+    }
+}
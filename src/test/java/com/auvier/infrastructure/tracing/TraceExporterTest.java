@@ -0,0 +1,63 @@
+package com.auvier.infrastructure.tracing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TraceExporterTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final TraceExporter exporter = new TraceExporter(jsonMapper, false, "traces.jsonl",
+            DataSize.ofMegabytes(1), 10, "Auvier", false);
+
+    @Test
+    void spansNestAndStagesAreCountedOnce() {
+        Trace trace = new Trace("4bf92f3577b34da6a3ce929d0e0e4736", "00f067aa0ba902b7", "POST", 100);
+        Trace.Scope controller = trace.open(Span.Stage.CONTROLLER, "CheckoutController.createOrder");
+        Trace.Scope checkout = trace.open(Span.Stage.SERVICE, "CheckoutServiceImpl.createOrderWithPayment");
+        Trace.Scope order = trace.open(Span.Stage.SERVICE, "OrderServiceImpl.createOrder");
+        trace.open(Span.Stage.REPOSITORY, "OrderRepository.save").close(null);
+        order.close(new IllegalStateException("Insufficient stock"));
+        checkout.close(null);
+        controller.close(null);
+        trace.end("POST /checkout/create-order", Map.of("http.response.status_code", 409), null);
+
+        List<Span> spans = trace.spans();
+        assertThat(spans).extracting(Span::name).containsExactly("OrderRepository.save",
+                "OrderServiceImpl.createOrder", "CheckoutServiceImpl.createOrderWithPayment",
+                "CheckoutController.createOrder", "POST /checkout/create-order");
+        assertThat(spans.get(0).parentSpanId()).isEqualTo(spans.get(1).spanId());
+        assertThat(trace.root().parentSpanId()).isEqualTo("00f067aa0ba902b7");
+        assertThat(spans.get(1).error()).isEqualTo(IllegalStateException.class.getName());
+        // The nested service call is inside the outer one, so it is not counted again
+        assertThat(trace.totals().get(Span.Stage.SERVICE).calls()).isEqualTo(1);
+        assertThat(trace.totals().get(Span.Stage.SERVICE).nanos()).isEqualTo(spans.get(2).durationNanos());
+    }
+
+    @Test
+    void tracesAreWrittenAsOtlpJson() {
+        Trace trace = new Trace(null, null, "GET", 1);
+        trace.open(Span.Stage.STRIPE, "StripePaymentGateway.retrievePaymentIntent").close(null); // over maxSpans
+        trace.end("GET /orders/{id}", Map.of("http.response.status_code", 500), "HTTP 500");
+
+        JsonNode json = jsonMapper.readTree(exporter.toOtlpJson(trace));
+        JsonNode resourceSpans = json.get("resourceSpans").get(0);
+        assertThat(resourceSpans.get("resource").get("attributes").get(0).get("value").get("stringValue").asString())
+                .isEqualTo("Auvier");
+        JsonNode spans = resourceSpans.get("scopeSpans").get(0).get("spans");
+        assertThat(spans).hasSize(1);
+        JsonNode root = spans.get(0);
+        assertThat(root.get("traceId").asString()).hasSize(32).isEqualTo(trace.traceId());
+        assertThat(root.get("spanId").asString()).hasSize(16);
+        assertThat(root.has("parentSpanId")).isFalse();
+        assertThat(root.get("kind").asInt()).isEqualTo(2);
+        assertThat(root.get("status").get("code").asInt()).isEqualTo(2);
+        assertThat(trace.droppedSpans()).isEqualTo(1);
+    }
+}